@@ -0,0 +1,71 @@
+package com.example.springbootcrudapp.benchmark;
+
+import com.example.springbootcrudapp.SpringBootCrudApplication;
+import com.example.springbootcrudapp.entity.Department;
+import com.example.springbootcrudapp.repository.DepartmentRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared helpers for the benchmarks: booting the application with overrides and seeding data.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    // Properties every benchmark run uses: quiet SQL logging and a dedicated gRPC port
+    static Map<String, Object> baseProperties() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+        properties.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        properties.put("logging.level.root", "WARN");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("grpc.server.port", "19090");
+        properties.put("app.grpc.client.department.port", "19090");
+        return properties;
+    }
+
+    static ConfigurableApplicationContext start(WebApplicationType webApplicationType, Map<String, Object> overrides) {
+        Map<String, Object> properties = baseProperties();
+        properties.putAll(overrides);
+        // Passed as command-line arguments so they take precedence over application.properties
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(SpringBootCrudApplication.class)
+                .web(webApplicationType)
+                .run(args);
+    }
+
+    // Insert `count` synthetic departments in batches
+    static void seedDepartments(ConfigurableApplicationContext context, int count) {
+        DepartmentRepository repository = context.getBean(DepartmentRepository.class);
+        List<Department> batch = new ArrayList<>(1000);
+        for (int i = 1; i <= count; i++) {
+            batch.add(new Department("Department " + i, "Synthetic department number " + i,
+                    "Manager " + i, "manager" + i + "@example.com", "Location " + (i % 20),
+                    10_000.0 + i, 5 + (i % 200), i % 10 != 0));
+            if (batch.size() == 1000) {
+                repository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        repository.saveAll(batch);
+    }
+
+    static int intProperty(String name, int defaultValue) {
+        return Integer.getInteger("benchmark." + name, defaultValue);
+    }
+
+    static String stringProperty(String name, String defaultValue) {
+        return System.getProperty("benchmark." + name, defaultValue);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.springbootcrudapp.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first request for the fast-start layout (build/fast-start, made by fastStartArchive).
+ * Each boot is a fresh JVM; the clock starts when the process is launched and stops when
+ * GET /api/departments first answers 200. Modes add one technique at a time:
+ *
+ * - default: the application as usual
+ * - lazy: fast-start profile (lazy repositories and non-critical beans, no H2 console)
+ * - aot: fast-start profile with the Spring AOT bean definitions
+ * - aot-cds: the above plus the AppCDS archive from the training run
+ *
+ * Options (-Dbenchmark.*): app-dir, runs (boots per mode), modes, port.
+ */
+public class FastStartBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Path appDir = Path.of(BenchmarkSupport.stringProperty("app-dir", "build/fast-start"));
+        int runs = BenchmarkSupport.intProperty("runs", 5);
+        int port = BenchmarkSupport.intProperty("port", 18080);
+        String[] modes = BenchmarkSupport.stringProperty("modes", "default,lazy,aot,aot-cds").split(",");
+        if (!Files.exists(appDir.resolve("app.jar")) || !Files.exists(appDir.resolve("app.jsa"))) {
+            throw new IllegalStateException("Run ./gradlew fastStartArchive first; nothing in " + appDir.toAbsolutePath());
+        }
+
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        Map<String, String> results = new LinkedHashMap<>();
+        for (String mode : modes) {
+            List<Long> timesToFirstRequest = new ArrayList<>();
+            List<Long> firstRequestTimes = new ArrayList<>();
+            for (int run = 0; run < runs; run++) {
+                long[] result = boot(mode.trim(), appDir, port, httpClient);
+                timesToFirstRequest.add(result[0]);
+                firstRequestTimes.add(result[1]);
+                System.out.printf("  %-8s time to first request %6d ms (first request %4d ms)%n", mode.trim(), result[0], result[1]);
+            }
+            results.put(mode.trim(), String.format("median %6d ms  min %6d ms  first request median %4d ms",
+                    median(timesToFirstRequest), timesToFirstRequest.stream().min(Comparator.naturalOrder()).orElseThrow(),
+                    median(firstRequestTimes)));
+        }
+
+        System.out.println();
+        System.out.println("Time to first request (" + runs + " boots per mode)");
+        results.forEach((mode, result) -> System.out.printf("  %-8s %s%n", mode, result));
+        System.exit(0);
+    }
+
+    // Launch one JVM and poll until the first request succeeds; returns {ms to first 200, ms that request took}
+    private static long[] boot(String mode, Path appDir, int port, HttpClient httpClient)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        switch (mode) {
+            case "default", "lazy" -> {
+            }
+            case "aot" -> command.add("-Dspring.aot.enabled=true");
+            case "aot-cds" -> {
+                command.add("-XX:SharedArchiveFile=app.jsa");
+                command.add("-Xlog:cds=off");
+                command.add("-Dspring.aot.enabled=true");
+            }
+            default -> throw new IllegalArgumentException("Unknown mode " + mode);
+        }
+        command.add("-jar");
+        command.add("app.jar");
+        command.add("--server.port=" + port);
+        command.add("--grpc.server.port=" + (port + 1));
+        command.add("--logging.level.root=WARN");
+        if (!"default".equals(mode)) {
+            command.add("--spring.profiles.active=fast-start");
+        }
+
+        Path log = Files.createTempFile("fast-start-" + mode, ".log");
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/departments"))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(appDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = start + TimeUnit.MINUTES.toNanos(3);
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    break;
+                }
+                long requestStart = System.nanoTime();
+                try {
+                    if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        long end = System.nanoTime();
+                        return new long[]{(end - start) / 1_000_000, (end - requestStart) / 1_000_000};
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(5);
+            }
+            Files.readAllLines(log).forEach(System.err::println);
+            throw new IllegalStateException("Mode " + mode + " never answered on port " + port);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            Files.deleteIfExists(log);
+        }
+    }
+
+    private static long median(List<Long> times) {
+        List<Long> sorted = new ArrayList<>(times);
+        sorted.sort(Comparator.naturalOrder());
+        return sorted.get(sorted.size() / 2);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.springbootcrudapp.benchmark;
+
+import com.example.springbootcrudapp.client.DepartmentGrpcClient;
+import com.example.springbootcrudapp.client.DepartmentGrpcLoadGenerator;
+import com.example.springbootcrudapp.client.LatencyStats;
+import com.example.springbootcrudapp.config.GrpcServerExecutionProperties;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Boots the application once per gRPC server executor mode and drives GetDepartmentById
+ * (a blocking JPA read) through the pooled client, then prints throughput and latency per mode.
+ *
+ * Options (-Dbenchmark.*): modes, departments, requests, concurrency, max-concurrent-calls.
+ */
+public class GrpcExecutionModeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String[] modes = BenchmarkSupport.stringProperty("modes", "DEFAULT,BOUNDED,VIRTUAL").split(",");
+        int departments = BenchmarkSupport.intProperty("departments", 1_000);
+        int requests = BenchmarkSupport.intProperty("requests", 50_000);
+        int concurrency = BenchmarkSupport.intProperty("concurrency", 256);
+        int maxConcurrentCalls = BenchmarkSupport.intProperty("max-concurrent-calls", 0);
+
+        Map<String, LatencyStats> results = new LinkedHashMap<>();
+        for (String mode : modes) {
+            GrpcServerExecutionProperties.ExecutorMode executorMode = GrpcServerExecutionProperties.ExecutorMode.valueOf(mode.trim());
+
+            Map<String, Object> overrides = new LinkedHashMap<>();
+            overrides.put("app.grpc.server.executor", executorMode.name());
+            overrides.put("app.grpc.server.max-concurrent-calls", String.valueOf(maxConcurrentCalls));
+
+            try (ConfigurableApplicationContext context = BenchmarkSupport.start(WebApplicationType.NONE, overrides)) {
+                BenchmarkSupport.seedDepartments(context, departments);
+                DepartmentGrpcClient client = context.getBean(DepartmentGrpcClient.class);
+                Supplier<CompletableFuture<?>> call =
+                        () -> client.getDepartmentByIdAsync(ThreadLocalRandom.current().nextLong(1, departments + 1));
+
+                DepartmentGrpcLoadGenerator.drive(call, Math.max(1, requests / 10), concurrency);
+                results.put(executorMode.name(), DepartmentGrpcLoadGenerator.drive(call, requests, concurrency));
+            }
+        }
+
+        System.out.printf("%ngRPC executor modes: departments=%d requests=%d concurrency=%d max-concurrent-calls=%d%n",
+                departments, requests, concurrency, maxConcurrentCalls);
+        results.forEach((mode, stats) -> System.out.printf("  %-8s %s%n", mode, stats));
+    }
+}
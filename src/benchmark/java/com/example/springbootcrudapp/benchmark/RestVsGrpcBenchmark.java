@@ -0,0 +1,266 @@
+package com.example.springbootcrudapp.benchmark;
+
+import com.example.springbootcrudapp.client.DepartmentGrpcClient;
+import com.example.springbootcrudapp.client.DepartmentGrpcLoadGenerator;
+import com.example.springbootcrudapp.client.LatencyStats;
+import com.example.springbootcrudapp.entity.Department;
+import com.example.springbootcrudapp.grpc.DepartmentServiceGrpc;
+import com.example.springbootcrudapp.grpc.GetAllDepartmentsRequest;
+import com.example.springbootcrudapp.grpc.GetDepartmentByIdRequest;
+import com.example.springbootcrudapp.grpc.SearchDepartmentsByNameRequest;
+import com.example.springbootcrudapp.grpc.UpdateDepartmentBudgetRequest;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Drives the same department workloads through REST/JSON and through gRPC (Netty and in-process
+ * transports) against one application instance with a synthetic dataset, then prints throughput,
+ * latency percentiles and bytes allocated per operation.
+ *
+ * Allocation is measured for the whole JVM, so it includes the client side of each transport.
+ *
+ * Options (-Dbenchmark.*): departments, requests, list-requests, concurrency, workloads
+ * (get,list,search,update), transports (rest,grpc-netty,grpc-inprocess), grpc-encoding.
+ */
+public class RestVsGrpcBenchmark {
+
+    private static final String IN_PROCESS_NAME = "rest-vs-grpc-benchmark";
+
+    // One way of reaching the department service
+    private interface DepartmentTransport extends AutoCloseable {
+        CompletableFuture<?> get(long id);
+
+        CompletableFuture<?> list();
+
+        CompletableFuture<?> search(String name);
+
+        CompletableFuture<?> update(long id, double budget);
+
+        @Override
+        void close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int departments = BenchmarkSupport.intProperty("departments", 10_000);
+        int requests = BenchmarkSupport.intProperty("requests", 20_000);
+        int listRequests = BenchmarkSupport.intProperty("list-requests", Math.max(1, requests / 50));
+        int concurrency = BenchmarkSupport.intProperty("concurrency", 64);
+        String[] workloads = BenchmarkSupport.stringProperty("workloads", "get,list,search,update").split(",");
+        String[] transports = BenchmarkSupport.stringProperty("transports", "rest,grpc-netty,grpc-inprocess").split(",");
+
+        Map<String, Object> overrides = new LinkedHashMap<>();
+        overrides.put("server.port", "0");
+        overrides.put("grpc.server.in-process-name", IN_PROCESS_NAME);
+        // Loopback traffic gains nothing from compression, so it is off unless asked for
+        overrides.put("app.grpc.server.compression.default-encoding", BenchmarkSupport.stringProperty("grpc-encoding", "identity"));
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        List<String> rows = new ArrayList<>();
+
+        try (ConfigurableApplicationContext context = BenchmarkSupport.start(WebApplicationType.SERVLET, overrides)) {
+            BenchmarkSupport.seedDepartments(context, departments);
+            int httpPort = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            int grpcPort = context.getEnvironment().getRequiredProperty("grpc.server.port", Integer.class);
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+
+            for (String transportName : transports) {
+                try (DepartmentTransport transport = transport(transportName.trim(), httpPort, grpcPort, objectMapper)) {
+                    for (String workload : workloads) {
+                        Supplier<CompletableFuture<?>> call = workload(workload.trim(), transport, departments);
+                        int count = "list".equals(workload.trim()) ? listRequests : requests;
+
+                        DepartmentGrpcLoadGenerator.drive(call, Math.max(1, count / 10), concurrency);
+                        long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+                        LatencyStats stats = DepartmentGrpcLoadGenerator.drive(call, count, concurrency);
+                        long allocated = threads.getTotalThreadAllocatedBytes() - allocatedBefore;
+
+                        rows.add(String.format("  %-15s %-7s %s alloc/op=%,d B",
+                                transportName.trim(), workload.trim(), stats, allocated / Math.max(1, count)));
+                    }
+                }
+            }
+        }
+
+        System.out.printf("%nREST vs gRPC: departments=%d requests=%d list-requests=%d concurrency=%d%n",
+                departments, requests, listRequests, concurrency);
+        rows.forEach(System.out::println);
+    }
+
+    private static Supplier<CompletableFuture<?>> workload(String name, DepartmentTransport transport, int departments) {
+        switch (name) {
+            case "get":
+                return () -> transport.get(randomId(departments));
+            case "list":
+                return transport::list;
+            case "search":
+                // Matches roughly 1% of the synthetic names ("Department 12" -> 12, 120-129, 1200-1299, ...)
+                return () -> transport.search("Department " + ThreadLocalRandom.current().nextInt(10, 100));
+            case "update":
+                return () -> transport.update(randomId(departments), 10_000 + ThreadLocalRandom.current().nextInt(90_000));
+            default:
+                throw new IllegalArgumentException("Unknown workload: " + name);
+        }
+    }
+
+    private static DepartmentTransport transport(String name, int httpPort, int grpcPort, ObjectMapper objectMapper) {
+        switch (name) {
+            case "rest":
+                return new RestTransport("http://localhost:" + httpPort + "/api/departments", objectMapper);
+            case "grpc-netty":
+                return new GrpcTransport(ManagedChannelBuilder.forAddress("localhost", grpcPort)
+                        .usePlaintext()
+                        .maxInboundMessageSize(64 * 1024 * 1024)
+                        .build());
+            case "grpc-inprocess":
+                return new GrpcTransport(InProcessChannelBuilder.forName(IN_PROCESS_NAME)
+                        .maxInboundMessageSize(64 * 1024 * 1024)
+                        .build());
+            default:
+                throw new IllegalArgumentException("Unknown transport: " + name);
+        }
+    }
+
+    private static long randomId(int departments) {
+        return ThreadLocalRandom.current().nextLong(1, departments + 1);
+    }
+
+    // JSON over HTTP/1.1 through the JDK client; responses are bound to entities like a real caller would
+    private static final class RestTransport implements DepartmentTransport {
+
+        private static final TypeReference<List<Department>> DEPARTMENT_LIST = new TypeReference<>() {
+        };
+
+        private final String baseUrl;
+        private final ObjectMapper objectMapper;
+        private final HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+
+        RestTransport(String baseUrl, ObjectMapper objectMapper) {
+            this.baseUrl = baseUrl;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public CompletableFuture<?> get(long id) {
+            return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).GET(), Department.class);
+        }
+
+        @Override
+        public CompletableFuture<?> list() {
+            return send(HttpRequest.newBuilder(URI.create(baseUrl)).GET(), DEPARTMENT_LIST);
+        }
+
+        @Override
+        public CompletableFuture<?> search(String name) {
+            URI uri = URI.create(baseUrl + "/search/name?name=" + URLEncoder.encode(name, StandardCharsets.UTF_8));
+            return send(HttpRequest.newBuilder(uri).GET(), DEPARTMENT_LIST);
+        }
+
+        @Override
+        public CompletableFuture<?> update(long id, double budget) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + id + "/budget"))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(Double.toString(budget)));
+            return send(request, Department.class);
+        }
+
+        private CompletableFuture<?> send(HttpRequest.Builder request, Class<?> type) {
+            return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                    .thenApply(response -> read(response, body -> objectMapper.readValue(body, type)));
+        }
+
+        private CompletableFuture<?> send(HttpRequest.Builder request, TypeReference<?> type) {
+            return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                    .thenApply(response -> read(response, body -> objectMapper.readValue(body, type)));
+        }
+
+        private static Object read(HttpResponse<byte[]> response, JsonReader reader) {
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("HTTP " + response.statusCode() + " from " + response.uri());
+            }
+            try {
+                return reader.read(response.body());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            httpClient.close();
+        }
+
+        private interface JsonReader {
+            Object read(byte[] body) throws IOException;
+        }
+    }
+
+    // gRPC through the future stub of the given channel
+    private static final class GrpcTransport implements DepartmentTransport {
+
+        private final ManagedChannel channel;
+        private final DepartmentServiceGrpc.DepartmentServiceFutureStub stub;
+
+        GrpcTransport(ManagedChannel channel) {
+            this.channel = channel;
+            this.stub = DepartmentServiceGrpc.newFutureStub(channel);
+        }
+
+        @Override
+        public CompletableFuture<?> get(long id) {
+            return DepartmentGrpcClient.toCompletableFuture(stub.getDepartmentById(
+                    GetDepartmentByIdRequest.newBuilder().setId(id).build()));
+        }
+
+        @Override
+        public CompletableFuture<?> list() {
+            return DepartmentGrpcClient.toCompletableFuture(stub.getAllDepartments(GetAllDepartmentsRequest.getDefaultInstance()));
+        }
+
+        @Override
+        public CompletableFuture<?> search(String name) {
+            return DepartmentGrpcClient.toCompletableFuture(stub.searchDepartmentsByName(
+                    SearchDepartmentsByNameRequest.newBuilder().setName(name).build()));
+        }
+
+        @Override
+        public CompletableFuture<?> update(long id, double budget) {
+            return DepartmentGrpcClient.toCompletableFuture(stub.updateDepartmentBudget(
+                    UpdateDepartmentBudgetRequest.newBuilder().setId(id).setBudget(budget).build()));
+        }
+
+        @Override
+        public void close() {
+            channel.shutdown();
+            try {
+                channel.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
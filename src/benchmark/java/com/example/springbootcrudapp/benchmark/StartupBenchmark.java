@@ -0,0 +1,269 @@
+package com.example.springbootcrudapp.benchmark;
+
+import com.example.springbootcrudapp.service.SnapshotService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Startup time with a seeded dataset in all seven tables. The SQL script and snapshot are first
+ * loaded into a running application to time the data load alone. Then each mode boots the full application
+ * (Tomcat included) in a fresh JVM, several times, and reports the time from JVM start to a ready
+ * context together with the rows found:
+ *
+ * - empty: in-memory database, no data (the framework's own startup cost)
+ * - sql-replay: in-memory database loaded from a SQL INSERT script, the data.sql approach
+ * - snapshot: in-memory database loaded from the binary snapshot
+ * - prod-first-boot: prod profile, a new file database seeded from the snapshot
+ * - prod-restart: prod profile, reopening the populated file database
+ *
+ * Options (-Dbenchmark.*): rows (products; other tables get a tenth, categories a hundredth),
+ * runs (boots per mode), modes.
+ */
+public class StartupBenchmark {
+
+    private static final String RESULT_PREFIX = "startup-result ";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && "probe".equals(args[0])) {
+            probe(args[1]);
+            return;
+        }
+
+        int rows = BenchmarkSupport.intProperty("rows", 100_000);
+        int runs = BenchmarkSupport.intProperty("runs", 3);
+        String[] modes = BenchmarkSupport.stringProperty("modes",
+                "empty,sql-replay,snapshot,prod-first-boot,prod-restart").split(",");
+
+        Path workDir = Files.createTempDirectory("startup-benchmark");
+        Path dataDir = Files.createDirectories(workDir.resolve("data"));
+        String loadResults = prepare(rows, runs, dataDir);
+        System.out.printf("dataset: %d products; seed.sql %,d bytes, catalog.snapshot %,d bytes%n", rows,
+                Files.size(dataDir.resolve("seed.sql")), Files.size(dataDir.resolve("catalog.snapshot")));
+
+        Map<String, String> results = new LinkedHashMap<>();
+        for (String mode : modes) {
+            List<Long> times = new ArrayList<>();
+            long loadedRows = -1;
+            for (int run = 0; run < runs; run++) {
+                if ("prod-first-boot".equals(mode.trim())) {
+                    deleteDatabaseFiles(dataDir);
+                }
+                long[] result = launch(mode.trim(), workDir);
+                times.add(result[0]);
+                loadedRows = result[1];
+            }
+            times.sort(Comparator.naturalOrder());
+            results.put(mode.trim(), String.format("median %6d ms  min %6d ms  max %6d ms  rows=%d",
+                    median(times), times.get(0), times.get(times.size() - 1), loadedRows));
+        }
+
+        System.out.println();
+        System.out.println("Data load into a running application (" + runs + " loads each)");
+        System.out.print(loadResults);
+        System.out.println("Startup, JVM start to ready context (" + runs + " boots per mode)");
+        results.forEach((mode, result) -> System.out.printf("  %-16s %s%n", mode, result));
+        System.exit(0);
+    }
+
+    // Seed an in-memory instance and write the same rows as a SQL script and as a snapshot, then
+    // time loading each of them back into the running application
+    private static String prepare(int rows, int runs, Path dataDir) throws IOException {
+        Map<String, Object> overrides = new LinkedHashMap<>();
+        overrides.put("grpc.server.port", "-1");
+        overrides.put("spring.sql.init.mode", "never");
+        overrides.put("app.grpc.client.department.warmup", "false");
+        overrides.put("app.snapshot.file", dataDir.resolve("catalog.snapshot").toString());
+
+        try (ConfigurableApplicationContext context = BenchmarkSupport.start(WebApplicationType.NONE, overrides)) {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            seed(jdbc, rows);
+
+            // One INSERT per row, as a hand-written data.sql would have
+            try (BufferedWriter script = Files.newBufferedWriter(dataDir.resolve("seed.sql"), StandardCharsets.UTF_8)) {
+                jdbc.query("SCRIPT SIMPLE NOSETTINGS", resultSet -> {
+                    String sql = resultSet.getString(1);
+                    if (sql.startsWith("INSERT INTO")) {
+                        try {
+                            script.write(sql);
+                            script.newLine();
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+            }
+            SnapshotService snapshotService = context.getBean(SnapshotService.class);
+            snapshotService.createSnapshot();
+
+            DataSource dataSource = context.getBean(DataSource.class);
+            Resource seedScript = new FileSystemResource(dataDir.resolve("seed.sql"));
+            List<Long> replayTimes = new ArrayList<>();
+            List<Long> restoreTimes = new ArrayList<>();
+            for (int run = 0; run < runs; run++) {
+                for (String table : tables(jdbc)) {
+                    jdbc.execute("TRUNCATE TABLE \"" + table + "\"");
+                }
+                long start = System.nanoTime();
+                try (Connection connection = dataSource.getConnection()) {
+                    ScriptUtils.executeSqlScript(connection, seedScript);
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+                replayTimes.add((System.nanoTime() - start) / 1_000_000);
+
+                start = System.nanoTime();
+                snapshotService.restoreSnapshot();
+                restoreTimes.add((System.nanoTime() - start) / 1_000_000);
+            }
+            return String.format("  %-16s median %6d ms%n  %-16s median %6d ms%n",
+                    "sql-replay", median(replayTimes), "snapshot", median(restoreTimes));
+        }
+    }
+
+    private static List<String> tables(JdbcTemplate jdbc) {
+        return jdbc.queryForList("SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES "
+                + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'", String.class);
+    }
+
+    private static long median(List<Long> times) {
+        List<Long> sorted = new ArrayList<>(times);
+        sorted.sort(Comparator.naturalOrder());
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static void seed(JdbcTemplate jdbc, int rows) {
+        int tenth = Math.max(1, rows / 10);
+        int categories = Math.max(20, rows / 100);
+        jdbc.update("INSERT INTO users (name, email, address, phone) "
+                + "SELECT 'User ' || X, 'user' || X || '@example.com', X || ' Main St', '+1-555-' || X "
+                + "FROM SYSTEM_RANGE(1, ?)", tenth);
+        jdbc.update("INSERT INTO customers (company_name, contact_name, email, phone, address, city, country, credit_limit, active) "
+                + "SELECT 'Company ' || X, 'Contact ' || X, 'customer' || X || '@example.com', '+1-555-' || X, "
+                + "X || ' Commerce St', 'City ' || MOD(X, 100), 'Country ' || MOD(X, 20), 1000 + MOD(X, 100000), MOD(X, 10) <> 0 "
+                + "FROM SYSTEM_RANGE(1, ?)", tenth);
+        jdbc.update("INSERT INTO addresses (street, city, state, country, postal_code, address_type, latitude, longitude, "
+                + "is_primary, active) "
+                + "SELECT X || ' Elm Street', 'City ' || MOD(X, 100), 'State ' || MOD(X, 50), 'Country ' || MOD(X, 20), "
+                + "'PC-' || MOD(X, 99999), CASE MOD(X, 2) WHEN 0 THEN 'HOME' ELSE 'WORK' END, "
+                + "MOD(X, 180) - 90.0, MOD(X, 360) - 180.0, MOD(X, 3) = 0, TRUE "
+                + "FROM SYSTEM_RANGE(1, ?)", tenth);
+        jdbc.update("INSERT INTO departments (name, description, manager_name, manager_email, location, budget, employee_count, active) "
+                + "SELECT 'Department ' || X, 'Synthetic department number ' || X, 'Manager ' || X, "
+                + "'manager' || X || '@example.com', 'Location ' || MOD(X, 20), 10000.0 + X, 5 + MOD(X, 200), MOD(X, 10) <> 0 "
+                + "FROM SYSTEM_RANGE(1, ?)", tenth);
+        jdbc.update("INSERT INTO \"GROUPS\" (name, description, group_type, owner_name, owner_email, max_members, "
+                + "current_member_count, is_public, requires_approval, tags, created_date, last_activity_date, active) "
+                + "SELECT 'Group ' || X, 'Synthetic group ' || X, 'TEAM', 'Owner ' || MOD(X, 1000), "
+                + "'owner' || MOD(X, 1000) || '@example.com', 100, 0, MOD(X, 4) <> 0, FALSE, 'tag' || MOD(X, 20), "
+                + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, MOD(X, 10) <> 0 "
+                + "FROM SYSTEM_RANGE(1, ?)", tenth);
+        jdbc.update("INSERT INTO product_categories (name, description, category_code, parent_category_id, display_order, "
+                + "product_count, is_featured, is_visible, tags, created_date, last_modified_date, active) "
+                + "SELECT 'Category ' || X, 'Synthetic category ' || X, 'CAT-' || X, CASE WHEN X > 10 THEN MOD(X, 10) + 1 END, "
+                + "MOD(X, 100), 0, MOD(X, 7) = 0, TRUE, 'tag' || MOD(X, 20), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, TRUE "
+                + "FROM SYSTEM_RANGE(1, ?)", categories);
+        jdbc.update("INSERT INTO products (name, description, sku, brand, model, price, cost, stock_quantity, min_stock_level, "
+                + "category_id, is_featured, is_digital, requires_shipping, is_taxable, track_inventory, allow_backorder, "
+                + "rating, review_count, view_count, sales_count, tags, status, created_date, last_modified_date, active) "
+                + "SELECT 'Product ' || X, 'Synthetic product number ' || X, 'SKU-' || X, 'Brand ' || MOD(X, 50), "
+                + "'Model ' || MOD(X, 500), 10 + MOD(X, 990), 5 + MOD(X, 500), MOD(X, 1000), 10, MOD(X, ?) + 1, "
+                + "MOD(X, 25) = 0, MOD(X, 10) = 0, MOD(X, 10) <> 0, TRUE, TRUE, FALSE, MOD(X, 50) / 10.0, MOD(X, 200), 0, "
+                + "MOD(X, 300), 'tag' || MOD(X, 100), "
+                + "CASE MOD(X, 5) WHEN 0 THEN 'DRAFT' WHEN 4 THEN 'ARCHIVED' ELSE 'PUBLISHED' END, "
+                + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, MOD(X, 10) <> 0 "
+                + "FROM SYSTEM_RANGE(1, ?)", categories, rows);
+    }
+
+    // Boot one mode in a child JVM working in workDir; returns {milliseconds to ready, rows loaded}
+    private static long[] launch(String mode, Path workDir) throws IOException, InterruptedException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                StartupBenchmark.class.getName(), "probe", mode)
+                .directory(workDir.toFile())
+                .redirectErrorStream(true);
+        Process process = builder.start();
+
+        long[] result = null;
+        List<String> output = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(RESULT_PREFIX)) {
+                    String[] parts = line.substring(RESULT_PREFIX.length()).split(" ");
+                    result = new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+                } else {
+                    output.add(line);
+                }
+            }
+        }
+        if (process.waitFor() != 0 || result == null) {
+            output.forEach(System.err::println);
+            throw new IllegalStateException("Startup probe for " + mode + " failed");
+        }
+        System.out.printf("  %-16s %6d ms%n", mode, result[0]);
+        return result;
+    }
+
+    // Child JVM: boot the application for one mode and report how long it took
+    private static void probe(String mode) {
+        Map<String, Object> overrides = new LinkedHashMap<>();
+        overrides.put("server.port", "0");
+        overrides.put("grpc.server.port", "-1");
+        overrides.put("app.grpc.client.department.warmup", "false");
+        switch (mode) {
+            case "empty" -> overrides.put("spring.sql.init.mode", "never");
+            case "sql-replay" -> overrides.put("spring.sql.init.data-locations", "file:data/seed.sql");
+            case "snapshot" -> {
+                overrides.put("spring.sql.init.mode", "never");
+                overrides.put("app.snapshot.restore-on-startup", "true");
+            }
+            case "prod-first-boot", "prod-restart" -> overrides.put("spring.profiles.active", "prod");
+            default -> throw new IllegalArgumentException("Unknown mode " + mode);
+        }
+
+        ConfigurableApplicationContext context = BenchmarkSupport.start(WebApplicationType.SERVLET, overrides);
+        long elapsed = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        long rows = 0;
+        for (String table : tables(jdbc)) {
+            rows += jdbc.queryForObject("SELECT COUNT(*) FROM \"" + table + "\"", Long.class);
+        }
+        context.close();
+        System.out.println(RESULT_PREFIX + elapsed + " " + rows);
+        System.exit(0);
+    }
+
+    private static void deleteDatabaseFiles(Path dataDir) throws IOException {
+        try (Stream<Path> files = Files.list(dataDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().startsWith("crud.")) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.springbootcrudapp.benchmark;
+
+import com.example.springbootcrudapp.client.LatencyStats;
+import com.example.springbootcrudapp.datasource.DataSourceBulkhead;
+import com.example.springbootcrudapp.metrics.PinningMonitor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Boots the application with platform request threads (Tomcat's default pool) and again in the
+ * virtual-threads profile (virtual threads plus the database bulkhead). Thousands of HTTP clients
+ * first open their keep-alive connections, then are released together at GET /api/departments/{id};
+ * throughput, latency and errors are printed for the released phase.
+ * Clients run on virtual threads in both modes, so only the server side changes.
+ *
+ * Options (-Dbenchmark.*): modes (platform,virtual), clients, requests-per-client, departments,
+ * pool-size (Hikari maximum pool size), http-clients (HttpClient instances the clients share).
+ */
+public class VirtualThreadLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String[] modes = BenchmarkSupport.stringProperty("modes", "platform,virtual").split(",");
+        int clients = BenchmarkSupport.intProperty("clients", 10_000);
+        int requestsPerClient = BenchmarkSupport.intProperty("requests-per-client", 5);
+        int departments = BenchmarkSupport.intProperty("departments", 1_000);
+        int poolSize = BenchmarkSupport.intProperty("pool-size", 10);
+        int httpClients = BenchmarkSupport.intProperty("http-clients", 8);
+
+        Map<String, String> results = new LinkedHashMap<>();
+        for (String mode : modes) {
+            boolean virtual = "virtual".equals(mode.trim());
+
+            Map<String, Object> overrides = new LinkedHashMap<>();
+            overrides.put("server.port", "0");
+            overrides.put("grpc.server.port", "-1");
+            overrides.put("spring.datasource.hikari.maximum-pool-size", String.valueOf(poolSize));
+            // Accept every client connection in both modes so only request execution differs
+            overrides.put("server.tomcat.max-connections", String.valueOf(clients * 2));
+            overrides.put("server.tomcat.accept-count", String.valueOf(clients));
+            overrides.put("server.tomcat.keep-alive-timeout", "5m");
+            overrides.put("server.tomcat.max-keep-alive-requests", "-1");
+            if (virtual) {
+                overrides.put("spring.profiles.active", "virtual-threads");
+            }
+
+            try (ConfigurableApplicationContext context = BenchmarkSupport.start(WebApplicationType.SERVLET, overrides)) {
+                BenchmarkSupport.seedDepartments(context, departments);
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                String baseUrl = "http://localhost:" + port + "/api/departments/";
+
+                run(baseUrl, Math.min(clients, 500), 2, departments, httpClients);
+                String result = run(baseUrl, clients, requestsPerClient, departments, httpClients);
+
+                DataSourceBulkhead bulkhead = context.getBeanProvider(DataSourceBulkhead.class).getIfAvailable();
+                if (bulkhead != null) {
+                    result += "\n             bulkhead " + bulkhead.snapshot();
+                }
+                PinningMonitor pinning = context.getBeanProvider(PinningMonitor.class).getIfAvailable();
+                if (pinning != null) {
+                    Map<String, Object> snapshot = pinning.snapshot();
+                    result += "\n             pinned events=" + snapshot.get("pinnedEvents") + " totalMs=" + snapshot.get("pinnedTotalMs");
+                }
+                results.put(mode.trim(), result);
+            }
+        }
+
+        System.out.printf("%nPlatform vs virtual request threads: clients=%d requests-per-client=%d pool-size=%d%n",
+                clients, requestsPerClient, poolSize);
+        results.forEach((mode, result) -> System.out.printf("  %-10s %s%n", mode, result));
+    }
+
+    // Connect every client, then release them at once and wait until all have finished their requests
+    private static String run(String baseUrl, int clients, int requestsPerClient, int departments, int httpClientCount)
+            throws InterruptedException {
+        List<HttpClient> httpClients = new ArrayList<>();
+        for (int i = 0; i < httpClientCount; i++) {
+            httpClients.add(HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(60))
+                    .build());
+        }
+
+        long[] samples = new long[clients * requestsPerClient];
+        AtomicInteger recorded = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch connected = new CountDownLatch(clients);
+        CountDownLatch go = new CountDownLatch(1);
+
+        long start;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                HttpClient httpClient = httpClients.get(c % httpClients.size());
+                executor.submit(() -> {
+                    // One unmeasured request opens the client's keep-alive connection
+                    send(httpClient, baseUrl, departments);
+                    connected.countDown();
+                    go.await();
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        long callStart = System.nanoTime();
+                        if (send(httpClient, baseUrl, departments)) {
+                            samples[recorded.getAndIncrement()] = System.nanoTime() - callStart;
+                        } else {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            connected.await();
+            start = System.nanoTime();
+            go.countDown();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        httpClients.forEach(HttpClient::close);
+        return LatencyStats.of(samples, recorded.get(), elapsed) + " errors=" + failures.get();
+    }
+
+    // GET a random department; true for a 200 response
+    private static boolean send(HttpClient httpClient, String baseUrl, int departments) {
+        long id = ThreadLocalRandom.current().nextLong(1, departments + 1);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + id))
+                .timeout(Duration.ofSeconds(120))
+                .GET()
+                .build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
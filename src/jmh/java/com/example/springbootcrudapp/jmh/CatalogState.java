@@ -0,0 +1,112 @@
+package com.example.springbootcrudapp.jmh;
+
+import com.example.springbootcrudapp.SpringBootCrudApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Application context with an H2 catalog seeded at the benchmark's scale:
+ * {@code scale} products, scale/100 categories (10 roots, the rest their children) and scale/10 groups.
+ *
+ * Rows are generated with INSERT ... SELECT FROM SYSTEM_RANGE so even a million products load in seconds.
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+
+    public static final int ROOT_CATEGORIES = 10;
+
+    @Param({"10000", "100000", "1000000"})
+    public int scale;
+
+    public ConfigurableApplicationContext context;
+    public int categories;
+    public int groups;
+
+    @Setup(Level.Trial)
+    public void start() {
+        List<String> args = new ArrayList<>(List.of("--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--spring.main.banner-mode=off",
+                "--grpc.server.port=-1"));
+        args.addAll(extraArguments());
+        context = new SpringApplicationBuilder(SpringBootCrudApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+
+        categories = Math.max(ROOT_CATEGORIES * 2, scale / 100);
+        groups = Math.max(1, scale / 10);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    // Further --property=value arguments for subclasses that compare configurations
+    protected List<String> extraArguments() {
+        return List.of();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public long randomProductId() {
+        return ThreadLocalRandom.current().nextLong(1, scale + 1);
+    }
+
+    public long randomCategoryId() {
+        return ThreadLocalRandom.current().nextLong(1, categories + 1);
+    }
+
+    public long randomRootCategoryId() {
+        return ThreadLocalRandom.current().nextLong(1, ROOT_CATEGORIES + 1);
+    }
+
+    public long randomGroupId() {
+        return ThreadLocalRandom.current().nextLong(1, groups + 1);
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO product_categories (name, description, category_code, parent_category_id, display_order, "
+                + "product_count, is_featured, is_visible, tags, created_date, last_modified_date, active) "
+                + "SELECT 'Category ' || X, 'Synthetic category ' || X, 'CAT-' || X, "
+                + "CASE WHEN X > ? THEN MOD(X, ?) + 1 END, MOD(X, 100), 0, MOD(X, 7) = 0, TRUE, 'tag' || MOD(X, 20), "
+                + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, MOD(X, 20) <> 0 "
+                + "FROM SYSTEM_RANGE(1, ?)", ROOT_CATEGORIES, ROOT_CATEGORIES, categories);
+
+        jdbc.update("INSERT INTO products (name, description, sku, brand, model, price, cost, stock_quantity, min_stock_level, "
+                + "category_id, is_featured, is_digital, requires_shipping, is_taxable, track_inventory, allow_backorder, "
+                + "rating, review_count, view_count, sales_count, tags, status, created_date, last_modified_date, active) "
+                + "SELECT 'Product ' || X, 'Synthetic product number ' || X, 'SKU-' || X, 'Brand ' || MOD(X, 50), "
+                + "'Model ' || MOD(X, 500), 10 + MOD(X, 990), 5 + MOD(X, 500), MOD(X, 1000), 10, MOD(X, ?) + 1, "
+                + "MOD(X, 25) = 0, MOD(X, 10) = 0, MOD(X, 10) <> 0, TRUE, TRUE, FALSE, MOD(X, 50) / 10.0, MOD(X, 200), 0, "
+                + "MOD(X, 300), 'tag' || MOD(X, 100), "
+                + "CASE MOD(X, 5) WHEN 0 THEN 'DRAFT' WHEN 4 THEN 'ARCHIVED' ELSE 'PUBLISHED' END, "
+                + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, MOD(X, 10) <> 0 "
+                + "FROM SYSTEM_RANGE(1, ?)", categories, scale);
+
+        jdbc.update("INSERT INTO \"GROUPS\" (name, description, group_type, owner_name, owner_email, max_members, "
+                + "current_member_count, is_public, requires_approval, tags, created_date, last_activity_date, active) "
+                + "SELECT 'Group ' || X, 'Synthetic group ' || X, "
+                + "CASE MOD(X, 3) WHEN 0 THEN 'TEAM' WHEN 1 THEN 'PROJECT' ELSE 'DEPARTMENT' END, "
+                + "'Owner ' || MOD(X, 1000), 'owner' || MOD(X, 1000) || '@example.com', 2147483647, 0, MOD(X, 4) <> 0, FALSE, "
+                + "'tag' || MOD(X, 20), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, MOD(X, 10) <> 0 "
+                + "FROM SYSTEM_RANGE(1, ?)", groups);
+    }
+}
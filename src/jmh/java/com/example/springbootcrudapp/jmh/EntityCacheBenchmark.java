@@ -0,0 +1,131 @@
+package com.example.springbootcrudapp.jmh;
+
+import com.example.springbootcrudapp.entity.Group;
+import com.example.springbootcrudapp.entity.ProductCategory;
+import com.example.springbootcrudapp.metrics.EntityCacheStatistics;
+import com.example.springbootcrudapp.service.GroupService;
+import com.example.springbootcrudapp.service.ProductCategoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Reference-data reads with the Hibernate second-level and query cache on and off. Hit ratios per
+ * region are printed after every iteration, so the latency numbers can be read next to them.
+ *
+ * Run with {@code ./gradlew jmh -Pjmh.includes=EntityCacheBenchmark -Pjmh.scales=10000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+// Longer warmup than the other service benchmarks: the regions fill from random ids during it
+@Warmup(iterations = 8, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EntityCacheBenchmark {
+
+    // IDs per multi-get, about what a page of references resolves at once
+    private static final int BATCH_SIZE = 20;
+
+    private ProductCategoryService productCategoryService;
+    private GroupService groupService;
+    private EntityCacheStatistics entityCacheStatistics;
+
+    // The seeded catalog with app.entity-cache.enabled set from the entityCache parameter
+    @State(Scope.Benchmark)
+    public static class CacheState extends CatalogState {
+
+        @Param({"true", "false"})
+        public boolean entityCache;
+
+        @Override
+        protected List<String> extraArguments() {
+            return List.of("--app.entity-cache.enabled=" + entityCache);
+        }
+    }
+
+    @Setup
+    public void setUp(CacheState catalog) {
+        productCategoryService = catalog.bean(ProductCategoryService.class);
+        groupService = catalog.bean(GroupService.class);
+        entityCacheStatistics = catalog.bean(EntityCacheStatistics.class);
+    }
+
+    @TearDown(Level.Iteration)
+    @SuppressWarnings("unchecked")
+    public void printHitRatios() {
+        Map<String, Map<String, Object>> regions = (Map<String, Map<String, Object>>) entityCacheStatistics.snapshot().get("regions");
+        StringBuilder line = new StringBuilder("\nhit ratio:");
+        regions.forEach((region, counts) -> {
+            if ((long) counts.get("hits") + (long) counts.get("misses") > 0) {
+                line.append(String.format(" %s=%.3f", region, (double) counts.get("hitRatio")));
+            }
+        });
+        System.out.println(regions.isEmpty() ? "\nhit ratio: cache disabled" : line);
+    }
+
+    // Entity region: one category by primary key
+    @Benchmark
+    public Optional<ProductCategory> getCategoryById(CacheState catalog) {
+        return productCategoryService.getCategoryById(catalog.randomCategoryId());
+    }
+
+    // Query region: the active roots, the same parameters every time
+    @Benchmark
+    public List<ProductCategory> getActiveRootCategories() {
+        return productCategoryService.getActiveRootCategories();
+    }
+
+    // Query region: one cached result per distinct name
+    @Benchmark
+    public Optional<ProductCategory> getCategoryByName(CacheState catalog) {
+        return productCategoryService.getCategoryByName("Category " + catalog.randomCategoryId());
+    }
+
+    // Entity region through multiLoad: cached ids from the region, the misses in one query
+    @Benchmark
+    public List<ProductCategory> getCategoriesByIds(CacheState catalog) {
+        return productCategoryService.getCategoriesByIds(randomIds(catalog::randomCategoryId));
+    }
+
+    @Benchmark
+    public Optional<Group> getGroupById(CacheState catalog) {
+        return groupService.getGroupById(catalog.randomGroupId());
+    }
+
+    @Benchmark
+    public Optional<Group> getGroupByName(CacheState catalog) {
+        return groupService.getGroupByName("Group " + catalog.randomGroupId());
+    }
+
+    @Benchmark
+    public List<Group> getGroupsByIds(CacheState catalog) {
+        return groupService.getGroupsByIds(randomIds(catalog::randomGroupId));
+    }
+
+    private static Set<Long> randomIds(LongSupplier randomId) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            ids.add(randomId.getAsLong());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.springbootcrudapp.jmh;
+
+import com.example.springbootcrudapp.entity.Group;
+import com.example.springbootcrudapp.service.GroupService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GroupServiceBenchmark {
+
+    private GroupService groupService;
+
+    @Setup
+    public void setUp(CatalogState catalog) {
+        groupService = catalog.bean(GroupService.class);
+    }
+
+    // Capacity check plus member count and activity date update; seeded groups have no practical member limit
+    @Benchmark
+    public Group addMemberToGroup(CatalogState catalog) {
+        return groupService.addMemberToGroup(catalog.randomGroupId());
+    }
+
+    @Benchmark
+    public List<Group> getGroupsByCriteria() {
+        return groupService.getGroupsByCriteria("TEAM", true, true);
+    }
+
+    @Benchmark
+    public List<Group> getGroupsWithAvailableCapacity() {
+        return groupService.getGroupsWithAvailableCapacity();
+    }
+}
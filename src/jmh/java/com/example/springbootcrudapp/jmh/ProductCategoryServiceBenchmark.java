@@ -0,0 +1,49 @@
+package com.example.springbootcrudapp.jmh;
+
+import com.example.springbootcrudapp.entity.ProductCategory;
+import com.example.springbootcrudapp.service.ProductCategoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductCategoryServiceBenchmark {
+
+    private ProductCategoryService productCategoryService;
+
+    @Setup
+    public void setUp(CatalogState catalog) {
+        productCategoryService = catalog.bean(ProductCategoryService.class);
+    }
+
+    // A root category and all of its direct children
+    @Benchmark
+    public List<ProductCategory> getCategoryHierarchy(CatalogState catalog) {
+        return productCategoryService.getCategoryHierarchy(catalog.randomRootCategoryId());
+    }
+
+    @Benchmark
+    public List<ProductCategory> getActiveRootCategories() {
+        return productCategoryService.getActiveRootCategories();
+    }
+
+    @Benchmark
+    public List<ProductCategory> getCategoriesByParent(CatalogState catalog) {
+        return productCategoryService.getCategoriesByParent(catalog.randomRootCategoryId());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.springbootcrudapp.jmh;
+
+import com.example.springbootcrudapp.entity.Product;
+import com.example.springbootcrudapp.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductServiceBenchmark {
+
+    private static final BigDecimal MIN_PRICE = new BigDecimal("100");
+    private static final BigDecimal MAX_PRICE = new BigDecimal("500");
+
+    private ProductService productService;
+
+    @Setup
+    public void setUp(CatalogState catalog) {
+        productService = catalog.bean(ProductService.class);
+    }
+
+    @Benchmark
+    public Optional<Product> getProductById(CatalogState catalog) {
+        return productService.getProductById(catalog.randomProductId());
+    }
+
+    // LIKE '%term%' over five columns: a full scan whose cost grows with the row count
+    @Benchmark
+    public List<Product> searchProducts() {
+        return productService.searchProducts("Product " + ThreadLocalRandom.current().nextInt(1000, 10_000));
+    }
+
+    @Benchmark
+    public List<Product> getProductsByCriteria(CatalogState catalog) {
+        return productService.getProductsByCriteria(catalog.randomCategoryId(), null, Product.ProductStatus.PUBLISHED,
+                true, null, MIN_PRICE, MAX_PRICE);
+    }
+
+    @Benchmark
+    public List<Product> getProductsByCategory(CatalogState catalog) {
+        return productService.getProductsByCategory(catalog.randomCategoryId());
+    }
+
+    // Read-modify-write of a single row
+    @Benchmark
+    public Product incrementViewCount(CatalogState catalog) {
+        return productService.incrementViewCount(catalog.randomProductId());
+    }
+}
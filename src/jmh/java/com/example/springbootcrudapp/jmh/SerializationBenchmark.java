@@ -0,0 +1,208 @@
+package com.example.springbootcrudapp.jmh;
+
+import com.example.springbootcrudapp.entity.Address;
+import com.example.springbootcrudapp.entity.Product;
+import com.example.springbootcrudapp.grpc.AddressList;
+import com.example.springbootcrudapp.grpc.CatalogMessageMapper;
+import com.example.springbootcrudapp.grpc.ProductList;
+import com.example.springbootcrudapp.grpc.ProtobufEntityHttpMessageConverter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing and reading product and address lists in each REST format, through the same
+ * message converters the application registers (Jackson set up like Boot's, protobuf through
+ * {@link CatalogMessageMapper}). Payload sizes are printed once per trial.
+ *
+ * Run with {@code ./gradlew jmh -Pjmh.includes=SerializationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final Type PRODUCT_LIST = ResolvableType.forClassWithGenerics(List.class, Product.class).getType();
+    private static final Type ADDRESS_LIST = ResolvableType.forClassWithGenerics(List.class, Address.class).getType();
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    public String format;
+
+    @Param({"100", "1000"})
+    public int size;
+
+    private final CatalogMessageMapper messageMapper = new CatalogMessageMapper();
+
+    private GenericHttpMessageConverter<Object> converter;
+    private MediaType mediaType;
+    private ObjectMapper objectMapper;
+    private List<Product> products;
+    private List<Address> addresses;
+    private byte[] productBytes;
+    private byte[] addressBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        switch (format) {
+            case "json" -> {
+                objectMapper = bootBuilder().build();
+                converter = new MappingJackson2HttpMessageConverter(objectMapper);
+                mediaType = MediaType.APPLICATION_JSON;
+            }
+            case "cbor" -> {
+                objectMapper = bootBuilder().factory(new CBORFactory()).build();
+                converter = new MappingJackson2CborHttpMessageConverter(objectMapper);
+                mediaType = MediaType.APPLICATION_CBOR;
+            }
+            case "smile" -> {
+                objectMapper = bootBuilder().factory(new SmileFactory()).build();
+                converter = new MappingJackson2SmileHttpMessageConverter(objectMapper);
+                mediaType = new MediaType("application", "x-jackson-smile");
+            }
+            case "protobuf" -> {
+                converter = new ProtobufEntityHttpMessageConverter(messageMapper);
+                mediaType = ProtobufEntityHttpMessageConverter.PROTOBUF;
+            }
+            default -> throw new IllegalArgumentException(format);
+        }
+
+        products = new ArrayList<>(size);
+        addresses = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            products.add(product(i));
+            addresses.add(address(i));
+        }
+        productBytes = write(products, PRODUCT_LIST);
+        addressBytes = write(addresses, ADDRESS_LIST);
+        System.out.printf("%n%s, %d items: products %d bytes, addresses %d bytes%n",
+                format, size, productBytes.length, addressBytes.length);
+    }
+
+    @Benchmark
+    public byte[] writeProducts() throws IOException {
+        return write(products, PRODUCT_LIST);
+    }
+
+    @Benchmark
+    public byte[] writeAddresses() throws IOException {
+        return write(addresses, ADDRESS_LIST);
+    }
+
+    // Client side of the same payload: bytes back to entities
+    @Benchmark
+    public List<Product> readProducts() throws IOException {
+        if (objectMapper == null) {
+            return ProductList.parseFrom(productBytes).getProductsList().stream().map(messageMapper::fromMessage).toList();
+        }
+        return objectMapper.readValue(productBytes, new TypeReference<List<Product>>() { });
+    }
+
+    @Benchmark
+    public List<Address> readAddresses() throws IOException {
+        if (objectMapper == null) {
+            return AddressList.parseFrom(addressBytes).getAddressesList().stream().map(messageMapper::fromMessage).toList();
+        }
+        return objectMapper.readValue(addressBytes, new TypeReference<List<Address>>() { });
+    }
+
+    private byte[] write(List<?> body, Type type) throws IOException {
+        BufferOutputMessage message = new BufferOutputMessage();
+        converter.write(body, type, mediaType, message);
+        return message.body.toByteArray();
+    }
+
+    // Spring Boot's defaults that matter for the payload: ISO dates instead of timestamps
+    private static Jackson2ObjectMapperBuilder bootBuilder() {
+        return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    // Field values shaped like the rows CatalogState seeds
+    private static Product product(int i) {
+        Product product = new Product();
+        product.setId((long) i);
+        product.setName("Product " + i);
+        product.setDescription("Synthetic product number " + i);
+        product.setSku("SKU-" + i);
+        product.setPrice(BigDecimal.valueOf(10 + i % 990));
+        product.setCost(BigDecimal.valueOf(5 + i % 500));
+        product.setStockQuantity(i % 1000);
+        product.setCategoryId((long) (i % 100 + 1));
+        product.setStatus(Product.ProductStatus.PUBLISHED);
+        product.setBrand("Brand " + i % 50);
+        product.setModel("Model " + i % 500);
+        product.setRating(i % 50 / 10.0);
+        product.setReviewCount(i % 200);
+        product.setSalesCount(i % 300);
+        product.setTags("tag" + i % 100);
+        product.setCreatedDate(new Date(1_700_000_000_000L + i * 1000L));
+        product.setLastModifiedDate(new Date(1_700_000_000_000L + i * 2000L));
+        return product;
+    }
+
+    private static Address address(int i) {
+        Address address = new Address();
+        address.setId((long) i);
+        address.setStreet(i + " Main Street");
+        address.setCity("City " + i % 100);
+        address.setState("State " + i % 50);
+        address.setCountry("Country " + i % 20);
+        address.setPostalCode(String.format("%05d", i % 100_000));
+        address.setAddressType(i % 2 == 0 ? "HOME" : "WORK");
+        address.setLatitude(-90 + i % 180 + 0.123456);
+        address.setLongitude(-180 + i % 360 + 0.654321);
+        address.setIsPrimary(i % 3 == 0);
+        return address;
+    }
+
+    private static final class BufferOutputMessage implements HttpOutputMessage {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(16 * 1024);
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
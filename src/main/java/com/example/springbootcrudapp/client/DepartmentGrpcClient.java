@@ -1,40 +1,114 @@
 package com.example.springbootcrudapp.client;
 
+import com.example.springbootcrudapp.config.DepartmentGrpcClientProperties;
 import com.example.springbootcrudapp.grpc.*;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.CompressorRegistry;
+import io.grpc.DecompressorRegistry;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * Sample gRPC client for the Department service
  * This demonstrates how to connect to and use the Department gRPC service
+ *
+ * Calls are spread round-robin over a pool of channels that is only created on first use.
+ * Every RPC is available as a blocking, future ({@link ListenableFuture} / {@link CompletableFuture})
+ * or streaming ({@link io.grpc.stub.StreamObserver}) call through the stub accessors, and each
+ * stub carries the configured deadline unless the caller passes its own.
  */
 @Component
 public class DepartmentGrpcClient {
 
-    private final ManagedChannel channel;
-    private final DepartmentServiceGrpc.DepartmentServiceBlockingStub blockingStub;
+    @Autowired
+    private DepartmentGrpcClientProperties properties;
 
-    public DepartmentGrpcClient() {
-        // Create a channel to connect to the gRPC server
-        this.channel = ManagedChannelBuilder.forAddress("localhost", 9090)
-                .usePlaintext()
-                .build();
-        
-        // Create a blocking stub
-        this.blockingStub = DepartmentServiceGrpc.newBlockingStub(channel);
-    }
+    // Shared with the server so the client advertises the same encodings (gzip, zstd)
+    @Autowired
+    private CompressorRegistry compressorRegistry;
+
+    @Autowired
+    private DecompressorRegistry decompressorRegistry;
 
+    private volatile ManagedChannel[] channels;
+    private final AtomicInteger nextChannel = new AtomicInteger();
+
+    @PreDestroy
     public void shutdown() throws InterruptedException {
-        channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+        ManagedChannel[] pool = channels;
+        if (pool == null) {
+            return;
+        }
+        for (ManagedChannel channel : pool) {
+            channel.shutdown();
+        }
+        for (ManagedChannel channel : pool) {
+            if (!channel.awaitTermination(5, TimeUnit.SECONDS)) {
+                channel.shutdownNow();
+            }
+        }
+    }
+
+    // Stub accessors using the configured deadline
+    public DepartmentServiceGrpc.DepartmentServiceBlockingStub blockingStub() {
+        return blockingStub(properties.getDeadline());
+    }
+
+    public DepartmentServiceGrpc.DepartmentServiceFutureStub futureStub() {
+        return futureStub(properties.getDeadline());
+    }
+
+    public DepartmentServiceGrpc.DepartmentServiceStub asyncStub() {
+        return asyncStub(properties.getDeadline());
+    }
+
+    // Stub accessors with a per-call deadline
+    public DepartmentServiceGrpc.DepartmentServiceBlockingStub blockingStub(Duration deadline) {
+        return DepartmentServiceGrpc.newBlockingStub(nextChannel())
+                .withDeadlineAfter(deadline.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public DepartmentServiceGrpc.DepartmentServiceFutureStub futureStub(Duration deadline) {
+        return DepartmentServiceGrpc.newFutureStub(nextChannel())
+                .withDeadlineAfter(deadline.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public DepartmentServiceGrpc.DepartmentServiceStub asyncStub(Duration deadline) {
+        return DepartmentServiceGrpc.newStub(nextChannel())
+                .withDeadlineAfter(deadline.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    // Run any RPC on the future stub and expose it as a CompletableFuture
+    public <T> CompletableFuture<T> callAsync(Function<DepartmentServiceGrpc.DepartmentServiceFutureStub, ListenableFuture<T>> rpc) {
+        return callAsync(properties.getDeadline(), rpc);
+    }
+
+    public <T> CompletableFuture<T> callAsync(Duration deadline,
+                                              Function<DepartmentServiceGrpc.DepartmentServiceFutureStub, ListenableFuture<T>> rpc) {
+        return toCompletableFuture(rpc.apply(futureStub(deadline)));
     }
 
     // Example: Get all departments
     public GetAllDepartmentsResponse getAllDepartments() {
         GetAllDepartmentsRequest request = GetAllDepartmentsRequest.newBuilder().build();
-        return blockingStub.getAllDepartments(request);
+        return blockingStub().getAllDepartments(request);
+    }
+
+    public CompletableFuture<GetAllDepartmentsResponse> getAllDepartmentsAsync() {
+        GetAllDepartmentsRequest request = GetAllDepartmentsRequest.newBuilder().build();
+        return callAsync(stub -> stub.getAllDepartments(request));
     }
 
     // Example: Get department by ID
@@ -42,23 +116,24 @@ public class DepartmentGrpcClient {
         GetDepartmentByIdRequest request = GetDepartmentByIdRequest.newBuilder()
                 .setId(id)
                 .build();
-        return blockingStub.getDepartmentById(request);
+        return blockingStub().getDepartmentById(request);
+    }
+
+    public CompletableFuture<GetDepartmentByIdResponse> getDepartmentByIdAsync(long id) {
+        GetDepartmentByIdRequest request = GetDepartmentByIdRequest.newBuilder()
+                .setId(id)
+                .build();
+        return callAsync(stub -> stub.getDepartmentById(request));
     }
 
     // Example: Create a new department
     public CreateDepartmentResponse createDepartment(String name, String description, String managerName) {
-        Department department = Department.newBuilder()
-                .setName(name)
-                .setDescription(description)
-                .setManagerName(managerName)
-                .setActive(true)
-                .build();
-        
-        CreateDepartmentRequest request = CreateDepartmentRequest.newBuilder()
-                .setDepartment(department)
-                .build();
-        
-        return blockingStub.createDepartment(request);
+        return blockingStub().createDepartment(buildCreateRequest(name, description, managerName));
+    }
+
+    public CompletableFuture<CreateDepartmentResponse> createDepartmentAsync(String name, String description, String managerName) {
+        CreateDepartmentRequest request = buildCreateRequest(name, description, managerName);
+        return callAsync(stub -> stub.createDepartment(request));
     }
 
     // Example: Search departments by name
@@ -66,13 +141,25 @@ public class DepartmentGrpcClient {
         SearchDepartmentsByNameRequest request = SearchDepartmentsByNameRequest.newBuilder()
                 .setName(name)
                 .build();
-        return blockingStub.searchDepartmentsByName(request);
+        return blockingStub().searchDepartmentsByName(request);
+    }
+
+    public CompletableFuture<SearchDepartmentsByNameResponse> searchDepartmentsByNameAsync(String name) {
+        SearchDepartmentsByNameRequest request = SearchDepartmentsByNameRequest.newBuilder()
+                .setName(name)
+                .build();
+        return callAsync(stub -> stub.searchDepartmentsByName(request));
     }
 
     // Example: Get active departments
     public GetActiveDepartmentsResponse getActiveDepartments() {
         GetActiveDepartmentsRequest request = GetActiveDepartmentsRequest.newBuilder().build();
-        return blockingStub.getActiveDepartments(request);
+        return blockingStub().getActiveDepartments(request);
+    }
+
+    public CompletableFuture<GetActiveDepartmentsResponse> getActiveDepartmentsAsync() {
+        GetActiveDepartmentsRequest request = GetActiveDepartmentsRequest.newBuilder().build();
+        return callAsync(stub -> stub.getActiveDepartments(request));
     }
 
     // Example: Activate department
@@ -80,7 +167,14 @@ public class DepartmentGrpcClient {
         ActivateDepartmentRequest request = ActivateDepartmentRequest.newBuilder()
                 .setId(id)
                 .build();
-        return blockingStub.activateDepartment(request);
+        return blockingStub().activateDepartment(request);
+    }
+
+    public CompletableFuture<ActivateDepartmentResponse> activateDepartmentAsync(long id) {
+        ActivateDepartmentRequest request = ActivateDepartmentRequest.newBuilder()
+                .setId(id)
+                .build();
+        return callAsync(stub -> stub.activateDepartment(request));
     }
 
     // Example: Update department budget
@@ -89,6 +183,82 @@ public class DepartmentGrpcClient {
                 .setId(id)
                 .setBudget(budget)
                 .build();
-        return blockingStub.updateDepartmentBudget(request);
+        return blockingStub().updateDepartmentBudget(request);
+    }
+
+    public CompletableFuture<UpdateDepartmentBudgetResponse> updateDepartmentBudgetAsync(long id, double budget) {
+        UpdateDepartmentBudgetRequest request = UpdateDepartmentBudgetRequest.newBuilder()
+                .setId(id)
+                .setBudget(budget)
+                .build();
+        return callAsync(stub -> stub.updateDepartmentBudget(request));
+    }
+
+    private CreateDepartmentRequest buildCreateRequest(String name, String description, String managerName) {
+        Department department = Department.newBuilder()
+                .setName(name)
+                .setDescription(description)
+                .setManagerName(managerName)
+                .setActive(true)
+                .build();
+
+        return CreateDepartmentRequest.newBuilder()
+                .setDepartment(department)
+                .build();
+    }
+
+    // Pick the next channel, creating the pool on first use
+    private ManagedChannel nextChannel() {
+        ManagedChannel[] pool = channels;
+        if (pool == null) {
+            pool = createChannels();
+        }
+        return pool[Math.floorMod(nextChannel.getAndIncrement(), pool.length)];
+    }
+
+    private synchronized ManagedChannel[] createChannels() {
+        if (channels != null) {
+            return channels;
+        }
+        ManagedChannel[] pool = new ManagedChannel[Math.max(1, properties.getPoolSize())];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = ManagedChannelBuilder.forAddress(properties.getHost(), properties.getPort())
+                    .usePlaintext()
+                    .maxInboundMessageSize(properties.getMaxInboundMessageSize())
+                    .compressorRegistry(compressorRegistry)
+                    .decompressorRegistry(decompressorRegistry)
+                    .build();
+        }
+        if (properties.isWarmup()) {
+            // Start the TCP/HTTP2 handshake on every channel now so later calls find them ready
+            for (ManagedChannel channel : pool) {
+                channel.getState(true);
+            }
+        }
+        channels = pool;
+        return pool;
+    }
+
+    // Adapt a gRPC future; cancelling the CompletableFuture cancels the call
+    public static <T> CompletableFuture<T> toCompletableFuture(ListenableFuture<T> listenableFuture) {
+        CompletableFuture<T> future = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                listenableFuture.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        Futures.addCallback(listenableFuture, new FutureCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                future.complete(result);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
     }
-} 
\ No newline at end of file
+}
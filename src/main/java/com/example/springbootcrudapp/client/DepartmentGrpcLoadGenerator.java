@@ -0,0 +1,101 @@
+package com.example.springbootcrudapp.client;
+
+import com.example.springbootcrudapp.config.DepartmentGrpcClientProperties;
+import com.example.springbootcrudapp.grpc.GetActiveDepartmentsRequest;
+import com.example.springbootcrudapp.grpc.GetAllDepartmentsRequest;
+import com.example.springbootcrudapp.grpc.GetDepartmentByIdRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Load-generation mode for the Department gRPC client.
+ * Enabled with {@code app.grpc.client.department.load-test.enabled=true}; once the application
+ * has started it fires the configured RPC with a bounded number of calls in flight and logs the
+ * client-side throughput and latency percentiles.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.grpc.client.department.load-test", name = "enabled", havingValue = "true")
+public class DepartmentGrpcLoadGenerator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DepartmentGrpcLoadGenerator.class);
+
+    @Autowired
+    private DepartmentGrpcClient client;
+
+    @Autowired
+    private DepartmentGrpcClientProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        DepartmentGrpcClientProperties.LoadTest loadTest = properties.getLoadTest();
+        Supplier<CompletableFuture<?>> call = callFor(loadTest);
+
+        log.info("Department gRPC load test: rpc={} requests={} concurrency={} channels={}",
+                loadTest.getRpc(), loadTest.getRequests(), loadTest.getConcurrency(), properties.getPoolSize());
+
+        drive(call, loadTest.getWarmupRequests(), loadTest.getConcurrency());
+        LatencyStats stats = drive(call, loadTest.getRequests(), loadTest.getConcurrency());
+
+        log.info("Department gRPC load test finished: {}", stats);
+    }
+
+    // Issue the given number of calls with at most `concurrency` outstanding and record each latency
+    public static LatencyStats drive(Supplier<CompletableFuture<?>> call, int requests, int concurrency) throws InterruptedException {
+        long[] samples = new long[requests];
+        AtomicInteger recorded = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(concurrency);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            long callStart = System.nanoTime();
+            call.get().whenComplete((response, error) -> {
+                if (error == null) {
+                    samples[recorded.getAndIncrement()] = System.nanoTime() - callStart;
+                } else {
+                    failures.incrementAndGet();
+                }
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(concurrency);
+        long elapsed = System.nanoTime() - start;
+
+        if (failures.get() > 0) {
+            log.warn("Department gRPC load test: {} of {} calls failed", failures.get(), requests);
+        }
+        return LatencyStats.of(samples, recorded.get(), elapsed);
+    }
+
+    private Supplier<CompletableFuture<?>> callFor(DepartmentGrpcClientProperties.LoadTest loadTest) {
+        switch (loadTest.getRpc()) {
+            case "get-all": {
+                GetAllDepartmentsRequest request = GetAllDepartmentsRequest.getDefaultInstance();
+                return () -> client.callAsync(stub -> stub.getAllDepartments(request));
+            }
+            case "get-active": {
+                GetActiveDepartmentsRequest request = GetActiveDepartmentsRequest.getDefaultInstance();
+                return () -> client.callAsync(stub -> stub.getActiveDepartments(request));
+            }
+            case "get-by-id": {
+                GetDepartmentByIdRequest request = GetDepartmentByIdRequest.newBuilder()
+                        .setId(loadTest.getDepartmentId())
+                        .build();
+                return () -> client.callAsync(stub -> stub.getDepartmentById(request));
+            }
+            default:
+                throw new IllegalArgumentException("Unknown load test rpc: " + loadTest.getRpc());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.springbootcrudapp.client;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side latency summary computed from raw per-call samples in nanoseconds.
+ */
+public class LatencyStats {
+
+    private final long[] sortedNanos;
+    private final long elapsedNanos;
+
+    private LatencyStats(long[] sortedNanos, long elapsedNanos) {
+        this.sortedNanos = sortedNanos;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // Build a summary from samples; the array is copied before sorting
+    public static LatencyStats of(long[] samplesNanos, int count, long elapsedNanos) {
+        long[] sorted = Arrays.copyOf(samplesNanos, count);
+        Arrays.sort(sorted);
+        return new LatencyStats(sorted, elapsedNanos);
+    }
+
+    public int getCount() {
+        return sortedNanos.length;
+    }
+
+    // Value at the given percentile (0-100) using the nearest-rank method
+    public long percentileNanos(double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedNanos.length);
+        return sortedNanos[Math.min(sortedNanos.length - 1, Math.max(0, rank - 1))];
+    }
+
+    public long maxNanos() {
+        return sortedNanos.length == 0 ? 0 : sortedNanos[sortedNanos.length - 1];
+    }
+
+    public double throughputPerSecond() {
+        return elapsedNanos == 0 ? 0 : sortedNanos.length / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d throughput=%.1f/s p50=%.3fms p90=%.3fms p99=%.3fms p999=%.3fms max=%.3fms",
+                getCount(), throughputPerSecond(),
+                toMillis(percentileNanos(50)), toMillis(percentileNanos(90)),
+                toMillis(percentileNanos(99)), toMillis(percentileNanos(99.9)),
+                toMillis(maxNanos()));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.springbootcrudapp.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CoalescingProperties.class)
+public class CoalescingConfig {
+    // Single-flight reads in the services (app.coalescing.*, /api/diagnostics/coalescing)
+}
@@ -0,0 +1,45 @@
+package com.example.springbootcrudapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Single-flight coalescing of identical hot reads, bound from {@code app.coalescing}.
+ */
+@ConfigurationProperties(prefix = "app.coalescing")
+public class CoalescingProperties {
+
+    // Concurrent identical calls share one query; when off every call runs its own
+    private boolean enabled = true;
+
+    // How long a finished result keeps answering identical calls (0 = only calls already in flight share it)
+    private Duration resultTtl = Duration.ZERO;
+
+    // Eagerness of the probabilistic early refresh before the TTL runs out (0 = never refresh early)
+    private double earlyRefreshBeta = 1.0;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getResultTtl() {
+        return resultTtl;
+    }
+
+    public void setResultTtl(Duration resultTtl) {
+        this.resultTtl = resultTtl;
+    }
+
+    public double getEarlyRefreshBeta() {
+        return earlyRefreshBeta;
+    }
+
+    public void setEarlyRefreshBeta(double earlyRefreshBeta) {
+        this.earlyRefreshBeta = earlyRefreshBeta;
+    }
+}
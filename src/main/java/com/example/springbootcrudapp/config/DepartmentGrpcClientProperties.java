@@ -0,0 +1,153 @@
+package com.example.springbootcrudapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@link com.example.springbootcrudapp.client.DepartmentGrpcClient},
+ * bound from the {@code app.grpc.client.department} prefix.
+ */
+@ConfigurationProperties(prefix = "app.grpc.client.department")
+public class DepartmentGrpcClientProperties {
+
+    // Target server
+    private String host = "localhost";
+    private int port = 9090;
+
+    // Number of channels (HTTP/2 connections) calls are spread across
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+
+    // Deadline applied to every call that does not pass its own
+    private Duration deadline = Duration.ofSeconds(5);
+
+    // Start connecting every pooled channel as soon as the first call is made
+    private boolean warmup = true;
+
+    // Inbound message limit for responses
+    private int maxInboundMessageSize = 4 * 1024 * 1024;
+
+    private LoadTest loadTest = new LoadTest();
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public Duration getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(Duration deadline) {
+        this.deadline = deadline;
+    }
+
+    public boolean isWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(boolean warmup) {
+        this.warmup = warmup;
+    }
+
+    public int getMaxInboundMessageSize() {
+        return maxInboundMessageSize;
+    }
+
+    public void setMaxInboundMessageSize(int maxInboundMessageSize) {
+        this.maxInboundMessageSize = maxInboundMessageSize;
+    }
+
+    public LoadTest getLoadTest() {
+        return loadTest;
+    }
+
+    public void setLoadTest(LoadTest loadTest) {
+        this.loadTest = loadTest;
+    }
+
+    // Load-generation mode run by DepartmentGrpcLoadGenerator at startup
+    public static class LoadTest {
+
+        private boolean enabled = false;
+
+        // RPC to drive: get-all, get-by-id or get-active
+        private String rpc = "get-by-id";
+
+        // Department id used by get-by-id
+        private long departmentId = 1;
+
+        private int warmupRequests = 1_000;
+        private int requests = 10_000;
+
+        // Maximum number of calls in flight at once
+        private int concurrency = 64;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getRpc() {
+            return rpc;
+        }
+
+        public void setRpc(String rpc) {
+            this.rpc = rpc;
+        }
+
+        public long getDepartmentId() {
+            return departmentId;
+        }
+
+        public void setDepartmentId(long departmentId) {
+            this.departmentId = departmentId;
+        }
+
+        public int getWarmupRequests() {
+            return warmupRequests;
+        }
+
+        public void setWarmupRequests(int warmupRequests) {
+            this.warmupRequests = warmupRequests;
+        }
+
+        public int getRequests() {
+            return requests;
+        }
+
+        public void setRequests(int requests) {
+            this.requests = requests;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.springbootcrudapp.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+@Configuration
+@EnableConfigurationProperties(EntityCacheProperties.class)
+public class EntityCacheConfig {
+    // Second-level and query cache for reference data (app.entity-cache.*, /api/diagnostics/entity-cache)
+
+    // Hibernate's record of when each table last changed. Query results are checked against it, and a
+    // missing entry counts as "never changed", so this region is neither bounded nor expired.
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    // Results of cacheable queries that name no region of their own; default bounds unless configured
+    static final String DEFAULT_QUERY_RESULTS_REGION = "default-query-results-region";
+
+    // One Caffeine cache per configured region, created before Hibernate starts so that it never
+    // falls back to the provider's unbounded defaults
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "app.entity-cache", name = "enabled", matchIfMissing = true)
+    public CacheManager entityCacheManager(EntityCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        Map<String, EntityCacheProperties.Region> regions = new LinkedHashMap<>();
+        regions.put(DEFAULT_QUERY_RESULTS_REGION, new EntityCacheProperties.Region());
+        regions.putAll(properties.getRegions());
+        regions.forEach((name, region) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(region.getMaxEntries()));
+            if (!region.getExpireAfterWrite().isZero()) {
+                configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite().toNanos()));
+            }
+            createRegion(cacheManager, name, configuration);
+        });
+        return cacheManager;
+    }
+
+    // With hibernate-jcache on the classpath Hibernate would pick the region factory up by itself,
+    // so caching is switched off explicitly when disabled
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheHibernateProperties(EntityCacheProperties properties,
+                                                                        ObjectProvider<CacheManager> entityCacheManager) {
+        return hibernateProperties -> {
+            CacheManager cacheManager = entityCacheManager.getIfAvailable();
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, cacheManager != null);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, cacheManager != null);
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, properties.isStatistics());
+            if (cacheManager != null) {
+                hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+                hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+                hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            }
+        };
+    }
+
+    // The provider's default manager is shared within the JVM; a region left by an earlier context is replaced
+    private static void createRegion(CacheManager cacheManager, String name, CaffeineConfiguration<Object, Object> configuration) {
+        if (cacheManager.getCache(name) != null) {
+            cacheManager.destroyCache(name);
+        }
+        cacheManager.createCache(name, configuration);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.springbootcrudapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hibernate second-level and query cache regions, bound from {@code app.entity-cache}. Every region
+ * named in an entity's {@code @Cache} or a query's cache-region hint must be listed under
+ * {@code regions}; an unknown region fails startup instead of silently getting an unbounded cache.
+ */
+@ConfigurationProperties(prefix = "app.entity-cache")
+public class EntityCacheProperties {
+
+    // Cache reference entities and their hot finders; when off every read goes to the database
+    private boolean enabled = true;
+
+    // Hibernate statistics, needed for the per-region numbers at /api/diagnostics/entity-cache
+    private boolean statistics = true;
+
+    // Region name to its bounds
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isStatistics() {
+        return statistics;
+    }
+
+    public void setStatistics(boolean statistics) {
+        this.statistics = statistics;
+    }
+
+    public Map<String, Region> getRegions() {
+        return regions;
+    }
+
+    public void setRegions(Map<String, Region> regions) {
+        this.regions = regions;
+    }
+
+    // Size and lifetime of one Caffeine cache
+    public static class Region {
+        // Entries kept before the least valuable are evicted (entities, or query results per parameter set)
+        private long maxEntries = 10_000;
+
+        // Entries are dropped this long after they were written (0 = only evicted by size)
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.springbootcrudapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Response compression and outbound size limit of the gRPC server, bound from
+ * {@code app.grpc.server.compression}. The inbound limit is grpc.server.max-inbound-message-size.
+ */
+@ConfigurationProperties(prefix = "app.grpc.server.compression")
+public class GrpcCompressionProperties {
+
+    // Encoding used when the method has no override; "identity" disables compression
+    private String defaultEncoding = "gzip";
+
+    // Per-method overrides keyed by full method name, e.g. department.DepartmentService/GetAllDepartments
+    private Map<String, String> methodEncodings = new LinkedHashMap<>();
+
+    // Responses smaller than this many bytes are sent uncompressed
+    private int minMessageSize = 1024;
+
+    // Responses larger than this many bytes fail with RESOURCE_EXHAUSTED (0 = unlimited)
+    private int maxOutboundMessageSize = 0;
+
+    public String getDefaultEncoding() {
+        return defaultEncoding;
+    }
+
+    public void setDefaultEncoding(String defaultEncoding) {
+        this.defaultEncoding = defaultEncoding;
+    }
+
+    public Map<String, String> getMethodEncodings() {
+        return methodEncodings;
+    }
+
+    public void setMethodEncodings(Map<String, String> methodEncodings) {
+        this.methodEncodings = methodEncodings;
+    }
+
+    public int getMinMessageSize() {
+        return minMessageSize;
+    }
+
+    public void setMinMessageSize(int minMessageSize) {
+        this.minMessageSize = minMessageSize;
+    }
+
+    public int getMaxOutboundMessageSize() {
+        return maxOutboundMessageSize;
+    }
+
+    public void setMaxOutboundMessageSize(int maxOutboundMessageSize) {
+        this.maxOutboundMessageSize = maxOutboundMessageSize;
+    }
+
+    // Encoding for the given method
+    public String encodingFor(String fullMethodName) {
+        return methodEncodings.getOrDefault(fullMethodName, defaultEncoding);
+    }
+}
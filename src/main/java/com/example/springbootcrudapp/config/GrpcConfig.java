@@ -1,9 +1,148 @@
 package com.example.springbootcrudapp.config;
 
+import com.example.springbootcrudapp.grpc.CompressionInterceptor;
+import com.example.springbootcrudapp.grpc.CompressionMetrics;
+import com.example.springbootcrudapp.grpc.ConcurrencyLimitInterceptor;
+import com.example.springbootcrudapp.grpc.LatencyInterceptor;
+import com.example.springbootcrudapp.grpc.ZstdCodec;
+import com.example.springbootcrudapp.metrics.LatencyMetrics;
+import io.grpc.Codec;
+import io.grpc.CompressorRegistry;
+import io.grpc.DecompressorRegistry;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallExecutorSupplier;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioServerSocketChannel;
+import net.devh.boot.grpc.common.util.InterceptorOrder;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 @Configuration
+@EnableConfigurationProperties({DepartmentGrpcClientProperties.class, GrpcServerExecutionProperties.class,
+        GrpcCompressionProperties.class})
 public class GrpcConfig {
-    // gRPC configuration can be added here if needed
-    // The main configuration is handled by application.properties
-} 
\ No newline at end of file
+    // Port and address are handled by application.properties (grpc.server.*);
+    // the execution model below is driven by app.grpc.server.*
+
+    @Bean
+    public GrpcServerExecutors grpcServerExecutors(GrpcServerExecutionProperties properties) {
+        return new GrpcServerExecutors(properties);
+    }
+
+    // Apply the configured executors and Netty settings to the server builder
+    @Bean
+    public GrpcServerConfigurer grpcServerExecutionConfigurer(GrpcServerExecutionProperties properties,
+                                                             GrpcServerExecutors executors) {
+        return serverBuilder -> {
+            Executor defaultExecutor = executors.get(properties.getExecutor());
+            if (defaultExecutor != null) {
+                serverBuilder.executor(defaultExecutor);
+            }
+
+            Map<String, Executor> methodExecutors = new HashMap<>();
+            properties.getMethodExecutors().forEach((method, mode) -> {
+                Executor executor = executors.get(mode);
+                if (executor != null) {
+                    methodExecutors.put(method, executor);
+                }
+            });
+            if (!methodExecutors.isEmpty()) {
+                // Returning null falls back to the server-wide executor
+                serverBuilder.callExecutor(new ServerCallExecutorSupplier() {
+                    @Override
+                    public <ReqT, RespT> Executor getExecutor(ServerCall<ReqT, RespT> call, Metadata metadata) {
+                        return methodExecutors.get(call.getMethodDescriptor().getFullMethodName());
+                    }
+                });
+            }
+
+            if (serverBuilder instanceof NettyServerBuilder nettyBuilder) {
+                GrpcServerExecutionProperties.Netty netty = properties.getNetty();
+                if (netty.getBossThreads() > 0 || netty.getWorkerThreads() > 0) {
+                    int workerThreads = netty.getWorkerThreads() > 0
+                            ? netty.getWorkerThreads()
+                            : Runtime.getRuntime().availableProcessors() * 2;
+                    nettyBuilder.channelType(NioServerSocketChannel.class)
+                            .bossEventLoopGroup(executors.eventLoopGroup("grpc-boss", Math.max(1, netty.getBossThreads())))
+                            .workerEventLoopGroup(executors.eventLoopGroup("grpc-worker-elg", workerThreads));
+                }
+                if (netty.getFlowControlWindow() > 0) {
+                    nettyBuilder.flowControlWindow(netty.getFlowControlWindow());
+                }
+                if (netty.getMaxConcurrentCallsPerConnection() > 0) {
+                    nettyBuilder.maxConcurrentCallsPerConnection(netty.getMaxConcurrentCallsPerConnection());
+                }
+            }
+        };
+    }
+
+    // Load shedding above app.grpc.server.max-concurrent-calls
+    @GrpcGlobalServerInterceptor
+    @ConditionalOnExpression("${app.grpc.server.max-concurrent-calls:0} > 0")
+    public ConcurrencyLimitInterceptor concurrencyLimitInterceptor(GrpcServerExecutionProperties properties) {
+        return new ConcurrencyLimitInterceptor(properties.getMaxConcurrentCalls());
+    }
+
+    // Message encodings beyond gzip; every Codec bean is offered to clients and accepted from them
+    @Bean
+    public Codec zstdCodec() {
+        return new ZstdCodec();
+    }
+
+    @Bean
+    public CompressorRegistry grpcCompressorRegistry(List<Codec> codecs) {
+        CompressorRegistry registry = CompressorRegistry.newEmptyInstance();
+        registry.register(new Codec.Gzip());
+        codecs.forEach(registry::register);
+        return registry;
+    }
+
+    @Bean
+    public DecompressorRegistry grpcDecompressorRegistry(List<Codec> codecs) {
+        DecompressorRegistry registry = DecompressorRegistry.getDefaultInstance();
+        for (Codec codec : codecs) {
+            registry = registry.with(codec, true);
+        }
+        return registry;
+    }
+
+    @Bean
+    public CompressionMetrics grpcCompressionMetrics() {
+        return new CompressionMetrics();
+    }
+
+    // Codec registries and raw/wire byte accounting on the server
+    @Bean
+    public GrpcServerConfigurer grpcCompressionConfigurer(CompressorRegistry compressorRegistry,
+                                                         DecompressorRegistry decompressorRegistry,
+                                                         CompressionMetrics metrics) {
+        return serverBuilder -> serverBuilder
+                .compressorRegistry(compressorRegistry)
+                .decompressorRegistry(decompressorRegistry)
+                .addStreamTracerFactory(metrics);
+    }
+
+    // Per-method response compression with a size threshold (app.grpc.server.compression.*)
+    @GrpcGlobalServerInterceptor
+    public CompressionInterceptor compressionInterceptor(GrpcCompressionProperties properties, CompressionMetrics metrics) {
+        return new CompressionInterceptor(properties, metrics);
+    }
+
+    // Per-method latency timers; ordered first so load shedding and compression are included
+    @GrpcGlobalServerInterceptor
+    @Order(InterceptorOrder.ORDER_TRACING_METRICS)
+    public LatencyInterceptor latencyInterceptor(LatencyMetrics metrics) {
+        return new LatencyInterceptor(metrics);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.springbootcrudapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Execution model of the gRPC server, bound from the {@code app.grpc.server} prefix.
+ * Transport settings such as port and address stay under {@code grpc.server.*}.
+ */
+@ConfigurationProperties(prefix = "app.grpc.server")
+public class GrpcServerExecutionProperties {
+
+    public enum ExecutorMode {
+        // grpc-java's default unbounded cached thread pool
+        DEFAULT,
+        // One virtual thread per call
+        VIRTUAL,
+        // Fixed-size pool of platform threads
+        BOUNDED
+    }
+
+    // Executor used for application callbacks of every call
+    private ExecutorMode executor = ExecutorMode.DEFAULT;
+
+    // Thread count of the BOUNDED pool
+    private int boundedThreads = Runtime.getRuntime().availableProcessors() * 4;
+
+    // Calls allowed in flight at once; further calls are rejected with RESOURCE_EXHAUSTED (0 = unlimited)
+    private int maxConcurrentCalls = 0;
+
+    // Per-method overrides keyed by full method name, e.g. department.DepartmentService/GetAllDepartments;
+    // DEFAULT here means "use the server-wide executor"
+    private Map<String, ExecutorMode> methodExecutors = new LinkedHashMap<>();
+
+    private Netty netty = new Netty();
+
+    public ExecutorMode getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(ExecutorMode executor) {
+        this.executor = executor;
+    }
+
+    public int getBoundedThreads() {
+        return boundedThreads;
+    }
+
+    public void setBoundedThreads(int boundedThreads) {
+        this.boundedThreads = boundedThreads;
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    public Map<String, ExecutorMode> getMethodExecutors() {
+        return methodExecutors;
+    }
+
+    public void setMethodExecutors(Map<String, ExecutorMode> methodExecutors) {
+        this.methodExecutors = methodExecutors;
+    }
+
+    public Netty getNetty() {
+        return netty;
+    }
+
+    public void setNetty(Netty netty) {
+        this.netty = netty;
+    }
+
+    // Netty transport tuning; 0 keeps the grpc-java default
+    public static class Netty {
+
+        private int bossThreads = 0;
+        private int workerThreads = 0;
+
+        // HTTP/2 flow-control window in bytes
+        private int flowControlWindow = 0;
+
+        // Streams a single connection may have open at once
+        private int maxConcurrentCallsPerConnection = 0;
+
+        public int getBossThreads() {
+            return bossThreads;
+        }
+
+        public void setBossThreads(int bossThreads) {
+            this.bossThreads = bossThreads;
+        }
+
+        public int getWorkerThreads() {
+            return workerThreads;
+        }
+
+        public void setWorkerThreads(int workerThreads) {
+            this.workerThreads = workerThreads;
+        }
+
+        public int getFlowControlWindow() {
+            return flowControlWindow;
+        }
+
+        public void setFlowControlWindow(int flowControlWindow) {
+            this.flowControlWindow = flowControlWindow;
+        }
+
+        public int getMaxConcurrentCallsPerConnection() {
+            return maxConcurrentCallsPerConnection;
+        }
+
+        public void setMaxConcurrentCallsPerConnection(int maxConcurrentCallsPerConnection) {
+            this.maxConcurrentCallsPerConnection = maxConcurrentCallsPerConnection;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.springbootcrudapp.config;
+
+import com.example.springbootcrudapp.config.GrpcServerExecutionProperties.ExecutorMode;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.util.concurrent.DefaultThreadFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Owns the executors and Netty event loop groups handed to the gRPC server so they are
+ * created once and shut down with the application context.
+ */
+public class GrpcServerExecutors implements DisposableBean {
+
+    private final GrpcServerExecutionProperties properties;
+    private final Map<ExecutorMode, ExecutorService> executors = new EnumMap<>(ExecutorMode.class);
+    private final List<EventLoopGroup> eventLoopGroups = new ArrayList<>();
+
+    public GrpcServerExecutors(GrpcServerExecutionProperties properties) {
+        this.properties = properties;
+    }
+
+    // Executor for the given mode, or null for DEFAULT so grpc-java keeps its own
+    public synchronized ExecutorService get(ExecutorMode mode) {
+        if (mode == ExecutorMode.DEFAULT) {
+            return null;
+        }
+        return executors.computeIfAbsent(mode, this::create);
+    }
+
+    // Netty event loop group with the given number of threads
+    public synchronized EventLoopGroup eventLoopGroup(String name, int threads) {
+        EventLoopGroup group = new NioEventLoopGroup(threads, new DefaultThreadFactory(name, true));
+        eventLoopGroups.add(group);
+        return group;
+    }
+
+    private ExecutorService create(ExecutorMode mode) {
+        switch (mode) {
+            case VIRTUAL:
+                return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("grpc-vt-", 0).factory());
+            case BOUNDED:
+                return Executors.newFixedThreadPool(properties.getBoundedThreads(), namedThreads("grpc-worker-"));
+            default:
+                throw new IllegalArgumentException("No executor for mode " + mode);
+        }
+    }
+
+    @Override
+    public synchronized void destroy() throws InterruptedException {
+        for (ExecutorService executor : executors.values()) {
+            executor.shutdown();
+        }
+        for (ExecutorService executor : executors.values()) {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        }
+        executors.clear();
+        for (EventLoopGroup group : eventLoopGroups) {
+            group.shutdownGracefully(0, 5, TimeUnit.SECONDS);
+        }
+        eventLoopGroups.clear();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
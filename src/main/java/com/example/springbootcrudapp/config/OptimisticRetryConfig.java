@@ -0,0 +1,10 @@
+package com.example.springbootcrudapp.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(OptimisticRetryProperties.class)
+public class OptimisticRetryConfig {
+    // Lock-free retries of contended counter updates (app.optimistic-retry.*, /api/diagnostics/optimistic-retry)
+}
@@ -0,0 +1,34 @@
+package com.example.springbootcrudapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Retries of server-side updates that lose an optimistic-lock race, bound from {@code app.optimistic-retry}.
+ */
+@ConfigurationProperties(prefix = "app.optimistic-retry")
+public class OptimisticRetryProperties {
+
+    // Tries per update, the first one included (1 = report the conflict without retrying)
+    private int maxAttempts = 10;
+
+    // Upper bound of the random pause before the first retry; doubled for every further one
+    private Duration backoff = Duration.ofMillis(2);
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getBackoff() {
+        return backoff;
+    }
+
+    public void setBackoff(Duration backoff) {
+        this.backoff = backoff;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.springbootcrudapp.config;
+
+import com.example.springbootcrudapp.datasource.ReadWriteRoutingDataSource;
+import com.example.springbootcrudapp.datasource.ReplicationEventListener;
+import com.example.springbootcrudapp.datasource.ReplicationFeed;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(ReplicationProperties.class)
+@ConditionalOnProperty(prefix = "app.datasource.replication", name = "enabled")
+public class ReplicationConfig {
+    // Read-only transactions go to local H2 replicas fed from the primary (app.datasource.replication.*)
+
+    @Bean
+    public ReplicationFeed replicationFeed(ReplicationProperties properties,
+                                           @Value("${spring.datasource.username:sa}") String username,
+                                           @Value("${spring.datasource.password:}") String password) {
+        return new ReplicationFeed(properties, username, password);
+    }
+
+    // Route the DataSource before any other wrapper is applied. The lazy proxy delays the
+    // routing decision until the transaction's read-only flag is known.
+    @Bean
+    public static BeanPostProcessor readWriteRoutingPostProcessor(ObjectProvider<ReplicationFeed> feed,
+                                                                 ObjectProvider<ReplicationProperties> properties) {
+        return new RoutingPostProcessor(feed, properties);
+    }
+
+    // Publish committed entity changes to the feed. Connections are released after every transaction
+    // so that, with open-in-view, a read followed by a write in one request is routed twice.
+    @Bean
+    public HibernatePropertiesCustomizer replicationListenerCustomizer(ReplicationFeed feed) {
+        ReplicationEventListener listener = new ReplicationEventListener(feed);
+        Integrator integrator = new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+                EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+                registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+                registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+                registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        };
+        return hibernateProperties -> {
+            hibernateProperties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(integrator));
+            hibernateProperties.put("hibernate.connection.handling_mode",
+                    "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+        };
+    }
+
+    private static class RoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<ReplicationFeed> feed;
+        private final ObjectProvider<ReplicationProperties> properties;
+
+        RoutingPostProcessor(ObjectProvider<ReplicationFeed> feed, ObjectProvider<ReplicationProperties> properties) {
+            this.feed = feed;
+            this.properties = properties;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource primary) || bean instanceof ReadWriteRoutingDataSource
+                    || bean instanceof LazyConnectionDataSourceProxy) {
+                return bean;
+            }
+            ReplicationFeed replicationFeed = feed.getObject();
+            replicationFeed.setPrimary(primary);
+            ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                    primary, replicationFeed, properties.getObject().isReadYourWrites());
+            routing.afterPropertiesSet();
+            LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(routing);
+            lazy.setDefaultAutoCommit(true);
+            lazy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            return lazy;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.springbootcrudapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Local read replicas, bound from {@code app.datasource.replication}. Each replica is an in-memory
+ * H2 database fed by committed changes of the primary; read-only transactions are routed to them.
+ */
+@ConfigurationProperties(prefix = "app.datasource.replication")
+public class ReplicationProperties {
+
+    private boolean enabled = false;
+
+    // Number of replica databases (jdbc:h2:mem:replica-1, replica-2, ...)
+    private int replicas = 1;
+
+    // Connection pool size of each replica
+    private int replicaPoolSize = 10;
+
+    // Replicas further behind than this are skipped and reads go to the primary
+    private Duration maxLag = Duration.ofSeconds(1);
+
+    // Reads carrying an X-Replication-Token, or made after a write in the same request,
+    // only go to a replica that has applied that write
+    private boolean readYourWrites = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(int replicas) {
+        this.replicas = replicas;
+    }
+
+    public int getReplicaPoolSize() {
+        return replicaPoolSize;
+    }
+
+    public void setReplicaPoolSize(int replicaPoolSize) {
+        this.replicaPoolSize = replicaPoolSize;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public boolean isReadYourWrites() {
+        return readYourWrites;
+    }
+
+    public void setReadYourWrites(boolean readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+}
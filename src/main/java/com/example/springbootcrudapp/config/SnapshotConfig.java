@@ -0,0 +1,29 @@
+package com.example.springbootcrudapp.config;
+
+import com.example.springbootcrudapp.datasource.WriteBarrier;
+import com.example.springbootcrudapp.service.SnapshotService;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SnapshotProperties.class)
+public class SnapshotConfig {
+    // Binary dump and bulk load of all tables (app.snapshot.*, /api/snapshot)
+
+    // Read-write transactions wait while a restore replaces the rows under them
+    @Bean
+    public WriteBarrier writeBarrier() {
+        return new WriteBarrier();
+    }
+
+    // Seed a fresh database from the snapshot once the schema exists, before the
+    // HTTP and gRPC servers start taking requests
+    @Bean
+    @ConditionalOnProperty(prefix = "app.snapshot", name = "restore-on-startup")
+    public SmartInitializingSingleton snapshotStartupRestore(SnapshotService snapshotService) {
+        return snapshotService::restoreIfEmpty;
+    }
+}
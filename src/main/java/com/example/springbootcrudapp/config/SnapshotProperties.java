@@ -0,0 +1,45 @@
+package com.example.springbootcrudapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Binary database snapshots, bound from {@code app.snapshot}.
+ */
+@ConfigurationProperties(prefix = "app.snapshot")
+public class SnapshotProperties {
+
+    // Snapshot file written by POST /api/snapshot and read by restores
+    private Path file = Path.of("data", "catalog.snapshot");
+
+    // Load the snapshot at startup when every table is empty (a fresh database)
+    private boolean restoreOnStartup = false;
+
+    // Rows sent to the database per JDBC batch while restoring
+    private int batchSize = 1000;
+
+    public Path getFile() {
+        return file;
+    }
+
+    public void setFile(Path file) {
+        this.file = file;
+    }
+
+    public boolean isRestoreOnStartup() {
+        return restoreOnStartup;
+    }
+
+    public void setRestoreOnStartup(boolean restoreOnStartup) {
+        this.restoreOnStartup = restoreOnStartup;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.springbootcrudapp.config;
+
+import com.example.springbootcrudapp.grpc.SqlStatsInterceptor;
+import com.example.springbootcrudapp.metrics.SqlStatementTracker;
+import com.example.springbootcrudapp.metrics.SqlStatsFilter;
+import com.example.springbootcrudapp.metrics.SqlTraceRecorder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.devh.boot.grpc.common.util.InterceptorOrder;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties({SqlDiagnosticsProperties.class, SqlTraceProperties.class})
+@ConditionalOnProperty(prefix = "app.sql.diagnostics", name = "enabled", matchIfMissing = true)
+public class SqlDiagnosticsConfig {
+    // Replaces spring.jpa.show-sql and TRACE binder logging with per-request accounting (app.sql.diagnostics.*)
+
+    @Bean
+    public SqlStatementTracker sqlStatementTracker(SqlDiagnosticsProperties properties, SqlTraceRecorder sqlTraceRecorder) {
+        return new SqlStatementTracker(properties, sqlTraceRecorder);
+    }
+
+    // Sampled statement-level traces (app.sql.trace.*), written off the request thread
+    @Bean
+    public SqlTraceRecorder sqlTraceRecorder(SqlTraceProperties properties, ObjectMapper objectMapper) {
+        return new SqlTraceRecorder(properties, objectMapper);
+    }
+
+    // Wrap the DataSource so every statement and ResultSet goes through the tracker
+    @Bean
+    public static BeanPostProcessor sqlTrackingDataSourcePostProcessor(ObjectProvider<SqlStatementTracker> tracker) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    SqlStatementTracker listener = tracker.getObject();
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(listener)
+                            .methodListener(listener)
+                            .proxyResultSet()
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatsFilter> sqlStatsFilter(SqlStatementTracker tracker) {
+        FilterRegistrationBean<SqlStatsFilter> registration = new FilterRegistrationBean<>(new SqlStatsFilter(tracker));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @GrpcGlobalServerInterceptor
+    @Order(InterceptorOrder.ORDER_TRACING_METRICS + 1)
+    public SqlStatsInterceptor sqlStatsInterceptor(SqlStatementTracker tracker) {
+        return new SqlStatsInterceptor(tracker);
+    }
+}
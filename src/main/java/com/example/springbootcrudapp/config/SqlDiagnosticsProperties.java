@@ -0,0 +1,67 @@
+package com.example.springbootcrudapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Per-request SQL accounting, bound from {@code app.sql.diagnostics}.
+ */
+@ConfigurationProperties(prefix = "app.sql.diagnostics")
+public class SqlDiagnosticsProperties {
+
+    // Wrap the DataSource and count statements per REST request and gRPC call
+    private boolean enabled = true;
+
+    // Requests running more statements than this are flagged
+    private int statementBudget = 25;
+
+    // Requests running the same statement this many times are flagged as an N+1 pattern
+    private int repeatedStatementThreshold = 10;
+
+    // Statements slower than this are kept, with their parameters, in the slow-query buffer
+    private Duration slowQueryThreshold = Duration.ofMillis(20);
+
+    // Size of the slow-query and flagged-request ring buffers
+    private int bufferSize = 100;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getStatementBudget() {
+        return statementBudget;
+    }
+
+    public void setStatementBudget(int statementBudget) {
+        this.statementBudget = statementBudget;
+    }
+
+    public int getRepeatedStatementThreshold() {
+        return repeatedStatementThreshold;
+    }
+
+    public void setRepeatedStatementThreshold(int repeatedStatementThreshold) {
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    public Duration getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    public void setSlowQueryThreshold(Duration slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.springbootcrudapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Sampled SQL trace capture, bound from {@code app.sql.trace}. Requires SQL diagnostics.
+ */
+@ConfigurationProperties(prefix = "app.sql.trace")
+public class SqlTraceProperties {
+
+    // Fraction of requests and calls traced; X-Sql-Trace: true|false overrides it per request
+    private double sampleRate = 0.0;
+
+    // Completed traces kept in memory for /api/diagnostics/sql/traces
+    private int bufferSize = 200;
+
+    // Statements recorded per trace; later ones are only counted
+    private int maxStatements = 200;
+
+    // Traces waiting for the writer thread; traces arriving while it is full are dropped
+    private int queueCapacity = 1000;
+
+    // JSON-lines file the traces are appended to; unset keeps them in memory only
+    private Path file;
+
+    // Size at which the file is rolled over to file.1, file.2, ...
+    private DataSize fileMaxSize = DataSize.ofMegabytes(10);
+
+    // Rolled-over files kept besides the active one
+    private int fileMaxHistory = 5;
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getMaxStatements() {
+        return maxStatements;
+    }
+
+    public void setMaxStatements(int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public void setFile(Path file) {
+        this.file = file;
+    }
+
+    public DataSize getFileMaxSize() {
+        return fileMaxSize;
+    }
+
+    public void setFileMaxSize(DataSize fileMaxSize) {
+        this.fileMaxSize = fileMaxSize;
+    }
+
+    public int getFileMaxHistory() {
+        return fileMaxHistory;
+    }
+
+    public void setFileMaxHistory(int fileMaxHistory) {
+        this.fileMaxHistory = fileMaxHistory;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.springbootcrudapp.config;
+
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+@Configuration
+public class StartupConfig {
+    // Startup-time settings (app.startup.*); the fast-start profile uses them
+
+    // Beans named in app.startup.lazy-beans are created on first use instead of at startup.
+    // This runs before any bean exists, so the list is bound straight from the Environment.
+    @Bean
+    public static BeanFactoryPostProcessor lazyBeansPostProcessor(Environment environment) {
+        List<String> lazyBeans = Binder.get(environment)
+                .bind("app.startup.lazy-beans", Bindable.listOf(String.class))
+                .orElse(List.of());
+        return beanFactory -> {
+            for (String beanName : lazyBeans) {
+                if (beanFactory.containsBeanDefinition(beanName)) {
+                    beanFactory.getBeanDefinition(beanName).setLazyInit(true);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.springbootcrudapp.config;
+
+import com.example.springbootcrudapp.datasource.BulkheadDataSource;
+import com.example.springbootcrudapp.datasource.DataSourceBulkhead;
+import com.example.springbootcrudapp.metrics.PinningMonitor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(VirtualThreadProperties.class)
+public class VirtualThreadConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.virtual-threads.bulkhead", name = "enabled")
+    public DataSourceBulkhead dataSourceBulkhead(VirtualThreadProperties properties,
+                                                 @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        VirtualThreadProperties.Bulkhead bulkhead = properties.getBulkhead();
+        int maxConcurrent = bulkhead.getMaxConcurrent() > 0 ? bulkhead.getMaxConcurrent() : poolSize;
+        return new DataSourceBulkhead(maxConcurrent, bulkhead.getAcquireTimeout().toNanos());
+    }
+
+    // Put the bulkhead in front of the DataSource when it is enabled
+    @Bean
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor(ObjectProvider<DataSourceBulkhead> bulkhead) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+                    DataSourceBulkhead available = bulkhead.getIfAvailable();
+                    if (available != null) {
+                        return new BulkheadDataSource(dataSource, available);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "app.virtual-threads.pinning", name = "enabled")
+    public PinningMonitor pinningMonitor(VirtualThreadProperties properties) {
+        VirtualThreadProperties.Pinning pinning = properties.getPinning();
+        return new PinningMonitor(pinning.getThreshold(), pinning.getStackDepth());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.springbootcrudapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Database bulkhead and pinning diagnostics for the virtual-thread mode, bound from
+ * {@code app.virtual-threads}. The threads themselves are switched on by spring.threads.virtual.enabled
+ * and app.grpc.server.executor=VIRTUAL; the virtual-threads profile sets all of them.
+ */
+@ConfigurationProperties(prefix = "app.virtual-threads")
+public class VirtualThreadProperties {
+
+    private Bulkhead bulkhead = new Bulkhead();
+
+    private Pinning pinning = new Pinning();
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    public void setBulkhead(Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
+    public Pinning getPinning() {
+        return pinning;
+    }
+
+    public void setPinning(Pinning pinning) {
+        this.pinning = pinning;
+    }
+
+    // Semaphore in front of the connection pool
+    public static class Bulkhead {
+        private boolean enabled = false;
+
+        // Threads allowed to hold or wait on a pooled connection (0 = the Hikari maximum pool size)
+        private int maxConcurrent = 0;
+
+        // How long a thread may queue for a permit before getConnection fails
+        private Duration acquireTimeout = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public Duration getAcquireTimeout() {
+            return acquireTimeout;
+        }
+
+        public void setAcquireTimeout(Duration acquireTimeout) {
+            this.acquireTimeout = acquireTimeout;
+        }
+    }
+
+    // JFR jdk.VirtualThreadPinned events, grouped by stack
+    public static class Pinning {
+        private boolean enabled = false;
+
+        // Only pins lasting at least this long are reported
+        private Duration threshold = Duration.ofMillis(20);
+
+        // Frames kept per pinning stack
+        private int stackDepth = 8;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(Duration threshold) {
+            this.threshold = threshold;
+        }
+
+        public int getStackDepth() {
+            return stackDepth;
+        }
+
+        public void setStackDepth(int stackDepth) {
+            this.stackDepth = stackDepth;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.springbootcrudapp.config;
+
+import com.example.springbootcrudapp.controller.IfMatchInterceptor;
+import com.example.springbootcrudapp.grpc.CatalogMessageMapper;
+import com.example.springbootcrudapp.grpc.ProtobufEntityHttpMessageConverter;
+import com.example.springbootcrudapp.metrics.HttpLatencyInterceptor;
+import com.example.springbootcrudapp.metrics.LatencyMetrics;
+import com.example.springbootcrudapp.metrics.SqlStatementTracker;
+import com.example.springbootcrudapp.metrics.SqlStatsCallableInterceptor;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private LatencyMetrics latencyMetrics;
+
+    @Autowired
+    private CatalogMessageMapper catalogMessageMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectProvider<SqlStatementTracker> sqlStatementTracker;
+
+    // Latency timers for every controller mapping. The If-Match check is ordered after Boot's
+    // open-in-view interceptor (order 0), so that the entity it loads stays in the request's context.
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HttpLatencyInterceptor(latencyMetrics)).addPathPatterns("/api/**");
+        registry.addInterceptor(new IfMatchInterceptor(entityManagerFactory)).addPathPatterns("/api/**").order(1);
+    }
+
+    // Streamed lists and exports query on the MVC async thread; charge that SQL to the request too
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        sqlStatementTracker.ifAvailable(tracker -> configurer.registerCallableInterceptors(new SqlStatsCallableInterceptor(tracker)));
+    }
+
+    // CBOR and Smile from Boot's builder, so dates and the other settings match the JSON output. As beans
+    // they take the place of Spring's own CBOR and Smile converters, behind JSON, which keeps JSON the
+    // answer to Accept: */*
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    // Protobuf goes last; a converter bean would be put in front of JSON
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ProtobufEntityHttpMessageConverter(catalogMessageMapper));
+    }
+}
@@ -1,14 +1,22 @@
 package com.example.springbootcrudapp.controller;
 
 import com.example.springbootcrudapp.entity.Address;
+import com.example.springbootcrudapp.repository.AddressSpecifications;
+import com.example.springbootcrudapp.repository.ProjectionRepository;
 import com.example.springbootcrudapp.service.AddressService;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -19,17 +27,60 @@ public class AddressController {
     @Autowired
     private AddressService addressService;
 
-    // GET /api/addresses - Get all addresses
+    @Autowired
+    private ListStreamer listStreamer;
+
+    @Autowired
+    private ExportWriter exportWriter;
+
+    @Autowired
+    private BatchReader batchReader;
+
+    @Autowired
+    private ProjectionReader projectionReader;
+
+    @Autowired
+    private MergePatcher mergePatcher;
+
+    @Autowired
+    private BulkTransitions bulkTransitions;
+
+    // GET /api/addresses - Get all addresses, written out while the rows are still being read
     @GetMapping
-    public ResponseEntity<List<Address>> getAllAddresses() {
-        List<Address> addresses = addressService.getAllAddresses();
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+    public ResponseEntity<StreamingResponseBody> getAllAddresses(@RequestParam(required = false) String fields) {
+        List<String> selectedFields = ProjectionRepository.parseFields(fields);
+        if (selectedFields == null) {
+            return listStreamer.stream(Address.class, addressService::streamAllAddresses);
+        }
+        List<?> projected = addressService.getAddressesProjected(selectedFields, AddressSpecifications.all(), Sort.unsorted());
+        return listStreamer.stream(Map.class, projected::forEach);
+    }
+
+    // GET /api/addresses/export - Export addresses as NDJSON or CSV
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAddresses(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return exportWriter.export("addresses", Address.class, format, gzip, addressService::streamAllAddresses);
+    }
+
+    // Get several addresses by ID in one query, in the order requested, with unknown IDs listed as missing
+    @GetMapping("/batch")
+    public ResponseEntity<Map<String, Object>> getAddressesBatch(@RequestParam List<Long> ids) {
+        return batchReader.fetch("addresses", ids, addressService::getAddressesByIds, Address::getId);
+    }
+
+    // Same lookup with the IDs as a JSON array in the body, for lists too long for a query string
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> postAddressesBatch(@RequestBody List<Long> ids) {
+        return batchReader.fetch("addresses", ids, addressService::getAddressesByIds, Address::getId);
     }
 
     // GET /api/addresses/{id} - Get address by ID
     @GetMapping("/{id}")
-    public ResponseEntity<Address> getAddressById(@PathVariable Long id) {
-        Optional<Address> address = addressService.getAddressById(id);
+    public ResponseEntity<?> getAddressById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        Optional<?> address = projectionReader.single(Address.class, fields, AddressSpecifications.hasId(id),
+                () -> addressService.getAddressById(id));
         if (address.isPresent()) {
             return new ResponseEntity<>(address.get(), HttpStatus.OK);
         } else {
@@ -54,11 +105,26 @@ public class AddressController {
         try {
             Address updatedAddress = addressService.updateAddress(id, addressDetails);
             return new ResponseEntity<>(updatedAddress, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
     }
 
+    // PATCH /api/addresses/{id} - Change only the fields in a JSON Merge Patch
+    @PatchMapping(value = "/{id}", consumes = {MergePatcher.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchAddress(@PathVariable Long id, @RequestBody JsonNode patch) {
+        return mergePatcher.patch(id, patch, Address.class, addressService::getAddressById, addressService::updateAddress);
+    }
+
+    // PUT /api/addresses/bulk/{field} - Set active on many addresses without loading them
+    @PutMapping("/bulk/{field}")
+    public ResponseEntity<Map<String, Object>> bulkUpdateAddresses(@PathVariable String field,
+                                                                   @RequestBody BulkTransitions.Request request) {
+        return bulkTransitions.update(Address.class, field, request, AddressService.BULK_FIELDS, addressService::bulkUpdate);
+    }
+
     // DELETE /api/addresses/{id} - Delete address
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteAddress(@PathVariable Long id) {
@@ -72,170 +138,176 @@ public class AddressController {
 
     // GET /api/addresses/search/street?street={street} - Search addresses by street
     @GetMapping("/search/street")
-    public ResponseEntity<List<Address>> searchAddressesByStreet(@RequestParam String street) {
-        List<Address> addresses = addressService.searchAddressesByStreet(street);
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+    public ResponseEntity<List<?>> searchAddressesByStreet(@RequestParam String street, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.streetContainsIgnoreCase(street),
+                () -> addressService.searchAddressesByStreet(street));
     }
 
     // GET /api/addresses/city/{city} - Get addresses by city
     @GetMapping("/city/{city}")
-    public ResponseEntity<List<Address>> getAddressesByCity(@PathVariable String city) {
-        List<Address> addresses = addressService.getAddressesByCity(city);
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+    public ResponseEntity<List<?>> getAddressesByCity(@PathVariable String city, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.hasCity(city),
+                () -> addressService.getAddressesByCity(city));
     }
 
     // GET /api/addresses/search/city?city={city} - Search addresses by city
     @GetMapping("/search/city")
-    public ResponseEntity<List<Address>> searchAddressesByCity(@RequestParam String city) {
-        List<Address> addresses = addressService.searchAddressesByCity(city);
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+    public ResponseEntity<List<?>> searchAddressesByCity(@RequestParam String city, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.cityContainsIgnoreCase(city),
+                () -> addressService.searchAddressesByCity(city));
     }
 
     // GET /api/addresses/state/{state} - Get addresses by state
     @GetMapping("/state/{state}")
-    public ResponseEntity<List<Address>> getAddressesByState(@PathVariable String state) {
-        List<Address> addresses = addressService.getAddressesByState(state);
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+    public ResponseEntity<List<?>> getAddressesByState(@PathVariable String state, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.hasState(state),
+                () -> addressService.getAddressesByState(state));
     }
 
     // GET /api/addresses/country/{country} - Get addresses by country
     @GetMapping("/country/{country}")
-    public ResponseEntity<List<Address>> getAddressesByCountry(@PathVariable String country) {
-        List<Address> addresses = addressService.getAddressesByCountry(country);
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+    public ResponseEntity<List<?>> getAddressesByCountry(@PathVariable String country, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.hasCountry(country),
+                () -> addressService.getAddressesByCountry(country));
     }
 
     // GET /api/addresses/search/country?country={country} - Search addresses by country
     @GetMapping("/search/country")
-    public ResponseEntity<List<Address>> searchAddressesByCountry(@RequestParam String country) {
-        List<Address> addresses = addressService.searchAddressesByCountry(country);
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+    public ResponseEntity<List<?>> searchAddressesByCountry(@RequestParam String country, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.countryContainsIgnoreCase(country),
+                () -> addressService.searchAddressesByCountry(country));
     }
 
     // GET /api/addresses/postal-code/{postalCode} - Get addresses by postal code
     @GetMapping("/postal-code/{postalCode}")
-    public ResponseEntity<List<Address>> getAddressesByPostalCode(@PathVariable String postalCode) {
-        List<Address> addresses = addressService.getAddressesByPostalCode(postalCode);
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+    public ResponseEntity<List<?>> getAddressesByPostalCode(@PathVariable String postalCode, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.hasPostalCode(postalCode),
+                () -> addressService.getAddressesByPostalCode(postalCode));
     }
 
     // GET /api/addresses/postal-code-pattern?pattern={pattern} - Get addresses by postal code pattern
     @GetMapping("/postal-code-pattern")
-    public ResponseEntity<List<Address>> getAddressesByPostalCodePattern(@RequestParam String pattern) {
-        List<Address> addresses = addressService.getAddressesByPostalCodePattern(pattern);
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+    public ResponseEntity<List<?>> getAddressesByPostalCodePattern(@RequestParam String pattern, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.postalCodeLike(pattern),
+                () -> addressService.getAddressesByPostalCodePattern(pattern));
     }
 
     // GET /api/addresses/type/{type} - Get addresses by type
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<Address>> getAddressesByType(@PathVariable String type) {
-        List<Address> addresses = addressService.getAddressesByType(type);
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+    public ResponseEntity<List<?>> getAddressesByType(@PathVariable String type, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.hasAddressType(type),
+                () -> addressService.getAddressesByType(type));
     }
 
     // GET /api/addresses/active - Get active addresses
     @GetMapping("/active")
-    public ResponseEntity<List<Address>> getActiveAddresses() {
-        List<Address> addresses = addressService.getActiveAddresses();
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+    public ResponseEntity<List<?>> getActiveAddresses(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.isActive(true),
+                () -> addressService.getActiveAddresses());
     }
 
     // GET /api/addresses/inactive - Get inactive addresses
     @GetMapping("/inactive")
-    public ResponseEntity<List<Address>> getInactiveAddresses() {
-        List<Address> addresses = addressService.getInactiveAddresses();
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+    public ResponseEntity<List<?>> getInactiveAddresses(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.isActive(false),
+                () -> addressService.getInactiveAddresses());
     }
 
     // GET /api/addresses/primary - Get primary addresses
     @GetMapping("/primary")
-    public ResponseEntity<List<Address>> getPrimaryAddresses() {
-        List<Address> addresses = addressService.getPrimaryAddresses();
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+    public ResponseEntity<List<?>> getPrimaryAddresses(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.isPrimary(true),
+                () -> addressService.getPrimaryAddresses());
     }
 
     // GET /api/addresses/non-primary - Get non-primary addresses
     @GetMapping("/non-primary")
-    public ResponseEntity<List<Address>> getNonPrimaryAddresses() {
-        List<Address> addresses = addressService.getNonPrimaryAddresses();
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+    public ResponseEntity<List<?>> getNonPrimaryAddresses(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.isPrimary(false),
+                () -> addressService.getNonPrimaryAddresses());
     }
 
     // GET /api/addresses/filter/city-country?city={city}&country={country} - Get addresses by city and country
     @GetMapping("/filter/city-country")
-    public ResponseEntity<List<Address>> getAddressesByCityAndCountry(
+    public ResponseEntity<List<?>> getAddressesByCityAndCountry(
             @RequestParam String city, 
-            @RequestParam String country) {
-        List<Address> addresses = addressService.getAddressesByCityAndCountry(city, country);
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+            @RequestParam String country,
+            @RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.hasCityAndCountry(city, country),
+                () -> addressService.getAddressesByCityAndCountry(city, country));
     }
 
     // GET /api/addresses/filter/state-country?state={state}&country={country} - Get addresses by state and country
     @GetMapping("/filter/state-country")
-    public ResponseEntity<List<Address>> getAddressesByStateAndCountry(
+    public ResponseEntity<List<?>> getAddressesByStateAndCountry(
             @RequestParam String state, 
-            @RequestParam String country) {
-        List<Address> addresses = addressService.getAddressesByStateAndCountry(state, country);
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+            @RequestParam String country,
+            @RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.hasStateAndCountry(state, country),
+                () -> addressService.getAddressesByStateAndCountry(state, country));
     }
 
     // GET /api/addresses/filter/active-country?active={active}&country={country} - Get addresses by active status and country
     @GetMapping("/filter/active-country")
-    public ResponseEntity<List<Address>> getAddressesByActiveAndCountry(
+    public ResponseEntity<List<?>> getAddressesByActiveAndCountry(
             @RequestParam Boolean active, 
-            @RequestParam String country) {
-        List<Address> addresses = addressService.getAddressesByActiveAndCountry(active, country);
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+            @RequestParam String country,
+            @RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.isActiveAndHasCountry(active, country),
+                () -> addressService.getAddressesByActiveAndCountry(active, country));
     }
 
     // GET /api/addresses/filter/active-city?active={active}&city={city} - Get addresses by active status and city
     @GetMapping("/filter/active-city")
-    public ResponseEntity<List<Address>> getAddressesByActiveAndCity(
+    public ResponseEntity<List<?>> getAddressesByActiveAndCity(
             @RequestParam Boolean active, 
-            @RequestParam String city) {
-        List<Address> addresses = addressService.getAddressesByActiveAndCity(active, city);
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+            @RequestParam String city,
+            @RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.isActiveAndHasCity(active, city),
+                () -> addressService.getAddressesByActiveAndCity(active, city));
     }
 
     // GET /api/addresses/filter/type-active?type={type}&active={active} - Get addresses by type and active status
     @GetMapping("/filter/type-active")
-    public ResponseEntity<List<Address>> getAddressesByTypeAndActive(
+    public ResponseEntity<List<?>> getAddressesByTypeAndActive(
             @RequestParam String type, 
-            @RequestParam Boolean active) {
-        List<Address> addresses = addressService.getAddressesByTypeAndActive(type, active);
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+            @RequestParam Boolean active,
+            @RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.hasAddressTypeAndIsActive(type, active),
+                () -> addressService.getAddressesByTypeAndActive(type, active));
     }
 
     // GET /api/addresses/coordinates?minLat={minLat}&maxLat={maxLat}&minLng={minLng}&maxLng={maxLng} - Get addresses within coordinate range
     @GetMapping("/coordinates")
-    public ResponseEntity<List<Address>> getAddressesWithinCoordinates(
+    public ResponseEntity<List<?>> getAddressesWithinCoordinates(
             @RequestParam Double minLat,
             @RequestParam Double maxLat,
             @RequestParam Double minLng,
-            @RequestParam Double maxLng) {
-        List<Address> addresses = addressService.getAddressesWithinCoordinates(minLat, maxLat, minLng, maxLng);
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+            @RequestParam Double maxLng,
+            @RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.withinCoordinates(minLat, maxLat, minLng, maxLng),
+                () -> addressService.getAddressesWithinCoordinates(minLat, maxLat, minLng, maxLng));
     }
 
     // GET /api/addresses/search/additional-info?info={info} - Get addresses by additional info
     @GetMapping("/search/additional-info")
-    public ResponseEntity<List<Address>> getAddressesByAdditionalInfo(@RequestParam String info) {
-        List<Address> addresses = addressService.getAddressesByAdditionalInfo(info);
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+    public ResponseEntity<List<?>> getAddressesByAdditionalInfo(@RequestParam String info, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.additionalInfoContains(info),
+                () -> addressService.getAddressesByAdditionalInfo(info));
     }
 
     // GET /api/addresses/ordered/city - Get all addresses ordered by city
     @GetMapping("/ordered/city")
-    public ResponseEntity<List<Address>> getAllAddressesOrderedByCity() {
-        List<Address> addresses = addressService.getAllAddressesOrderedByCity();
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+    public ResponseEntity<List<?>> getAllAddressesOrderedByCity(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.all(), Sort.by("city"),
+                () -> addressService.getAllAddressesOrderedByCity());
     }
 
     // GET /api/addresses/ordered/country-city - Get all addresses ordered by country and city
     @GetMapping("/ordered/country-city")
-    public ResponseEntity<List<Address>> getAllAddressesOrderedByCountryAndCity() {
-        List<Address> addresses = addressService.getAllAddressesOrderedByCountryAndCity();
-        return new ResponseEntity<>(addresses, HttpStatus.OK);
+    public ResponseEntity<List<?>> getAllAddressesOrderedByCountryAndCity(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Address.class, fields, AddressSpecifications.all(), Sort.by("country", "city"),
+                () -> addressService.getAllAddressesOrderedByCountryAndCity());
     }
 
     // PUT /api/addresses/{id}/activate - Activate address
@@ -244,6 +316,8 @@ public class AddressController {
         try {
             Address address = addressService.activateAddress(id);
             return new ResponseEntity<>(address, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
@@ -255,6 +329,8 @@ public class AddressController {
         try {
             Address address = addressService.deactivateAddress(id);
             return new ResponseEntity<>(address, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
@@ -266,6 +342,8 @@ public class AddressController {
         try {
             Address address = addressService.setPrimaryAddress(id);
             return new ResponseEntity<>(address, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
@@ -277,6 +355,8 @@ public class AddressController {
         try {
             Address address = addressService.setNonPrimaryAddress(id);
             return new ResponseEntity<>(address, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
@@ -288,6 +368,8 @@ public class AddressController {
         try {
             Address address = addressService.updateAddressCoordinates(id, request.getLatitude(), request.getLongitude());
             return new ResponseEntity<>(address, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
@@ -314,4 +396,4 @@ public class AddressController {
             this.longitude = longitude;
         }
     }
-} 
\ No newline at end of file
+}
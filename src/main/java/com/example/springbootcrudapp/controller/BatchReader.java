@@ -0,0 +1,56 @@
+package com.example.springbootcrudapp.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Answers a multi-get with one lookup for all requested IDs, like the gRPC BatchGet calls: the found
+ * entities come back in the order they were asked for (a repeated ID repeats its entity), and IDs
+ * that matched nothing are listed under {@code missingIds} instead of failing the whole request.
+ */
+@Component
+public class BatchReader {
+
+    // Largest number of IDs accepted by a single batch request, the same limit as over gRPC
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    // Load the distinct IDs at once and answer {"<name>": [...], "missingIds": [...]}
+    public <T> ResponseEntity<Map<String, Object>> fetch(String name, List<Long> ids,
+                                                         Function<Collection<Long>, List<T>> loader,
+                                                         Function<T, Long> idOf) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("At most " + MAX_BATCH_SIZE + " ids per batch, got " + ids.size());
+        }
+        if (ids.contains(null)) {
+            throw new RuntimeException("Batch ids must not be null");
+        }
+
+        Map<Long, T> found = ids.isEmpty() ? Map.of() : loader.apply(new LinkedHashSet<>(ids)).stream()
+                .collect(Collectors.toMap(idOf, Function.identity()));
+
+        List<T> entities = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : ids) {
+            T entity = found.get(id);
+            if (entity != null) {
+                entities.add(entity);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put(name, entities);
+        body.put("missingIds", missingIds);
+        return ResponseEntity.ok(body);
+    }
+}
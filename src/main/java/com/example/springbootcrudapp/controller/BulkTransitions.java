@@ -0,0 +1,182 @@
+package com.example.springbootcrudapp.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers {@code PUT /api/<entities>/bulk/{field}}: one field set to one value on every entity
+ * selected by an id list or a filter, in a single UPDATE run by the service.
+ *
+ * <pre>
+ * {"ids": [1, 2, 3], "value": false}
+ * {"filter": {"status": "DRAFT", "lastModifiedDateBefore": "2026-01-01T00:00:00Z"}, "value": "ARCHIVED"}
+ * </pre>
+ *
+ * Filter members are attribute names compared for equality ({@code null} matches a missing value).
+ * A name ending in {@code Before} or {@code After} compares the attribute without the suffix, as in
+ * the lastModifiedDate example. All members must match.
+ */
+@Component
+public class BulkTransitions {
+
+    private static final String BEFORE = "Before";
+    private static final String AFTER = "After";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // The service's part: set the attribute on the selection and invalidate whatever holds copies
+    @FunctionalInterface
+    public interface Updater<T> {
+        int update(Specification<T> selection, String attribute, Object value);
+    }
+
+    // Check the field against the entity's bulk fields and run the update; answers {"field", "value", "updated"}
+    public <T> ResponseEntity<Map<String, Object>> update(Class<T> entityClass, String field, Request request,
+                                                          Map<String, String> bulkFields, Updater<T> updater) {
+        String attribute = bulkFields.get(field);
+        if (attribute == null) {
+            throw new RuntimeException("Unknown bulk field '" + field + "'; expected one of " + bulkFields.keySet());
+        }
+        if (request.getValue() == null) {
+            throw new RuntimeException("A bulk update needs a value for '" + field + "'");
+        }
+        EntityType<T> entity = entityManagerFactory.getMetamodel().entity(entityClass);
+        Object value = convert(entity, attribute, request.getValue());
+
+        if (request.getIds() == null && request.getFilter() == null) {
+            throw new RuntimeException("A bulk update needs ids or a filter");
+        }
+        Specification<T> selection = selection(entity, request);
+        boolean nothingSelected = request.getIds() != null && request.getIds().isEmpty();
+        int updated = nothingSelected ? 0 : updater.update(selection, attribute, value);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("field", field);
+        body.put("value", value);
+        body.put("updated", updated);
+        return ResponseEntity.ok(body);
+    }
+
+    private <T> Specification<T> selection(EntityType<T> entity, Request request) {
+        if (request.getIds() != null) {
+            if (request.getFilter() != null) {
+                throw new RuntimeException("A bulk update takes either ids or a filter, not both");
+            }
+            if (request.getIds().size() > BatchReader.MAX_BATCH_SIZE) {
+                throw new RuntimeException("At most " + BatchReader.MAX_BATCH_SIZE + " ids per bulk update, got "
+                        + request.getIds().size() + "; use a filter for larger sets");
+            }
+            if (request.getIds().contains(null)) {
+                throw new RuntimeException("Bulk ids must not be null");
+            }
+            List<Long> ids = List.copyOf(request.getIds());
+            return (root, query, cb) -> root.get("id").in(ids);
+        }
+        if (request.getFilter().isEmpty()) {
+            throw new RuntimeException("A bulk filter needs at least one member");
+        }
+
+        Specification<T> specification = Specification.where(null);
+        for (Map.Entry<String, Object> member : request.getFilter().entrySet()) {
+            specification = specification.and(condition(entity, member.getKey(), member.getValue()));
+        }
+        return specification;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> Specification<T> condition(EntityType<T> entity, String name, Object raw) {
+        if (hasAttribute(entity, name)) {
+            Object value = raw == null ? null : convert(entity, name, raw);
+            return (root, query, cb) -> value == null ? cb.isNull(root.get(name)) : cb.equal(root.get(name), value);
+        }
+        boolean before = name.endsWith(BEFORE) && name.length() > BEFORE.length();
+        boolean after = name.endsWith(AFTER) && name.length() > AFTER.length();
+        String attribute = before ? name.substring(0, name.length() - BEFORE.length())
+                : after ? name.substring(0, name.length() - AFTER.length()) : name;
+        if (!(before || after) || !hasAttribute(entity, attribute)
+                || !Comparable.class.isAssignableFrom(wrapper(entity.getAttribute(attribute).getJavaType()))) {
+            throw new RuntimeException("Unknown bulk filter '" + name + "' for " + entity.getName());
+        }
+        if (raw == null) {
+            throw new RuntimeException("Bulk filter '" + name + "' needs a value");
+        }
+        Comparable bound = (Comparable) convert(entity, attribute, raw);
+        return (root, query, cb) -> before
+                ? cb.lessThan(root.get(attribute), bound)
+                : cb.greaterThan(root.get(attribute), bound);
+    }
+
+    private Object convert(EntityType<?> entity, String attribute, Object raw) {
+        Class<?> type = wrapper(entity.getAttribute(attribute).getJavaType());
+        try {
+            return objectMapper.convertValue(raw, type);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid value for '" + attribute + "': " + raw);
+        }
+    }
+
+    private static boolean hasAttribute(EntityType<?> entity, String name) {
+        return entity.getAttributes().stream()
+                .anyMatch(attribute -> attribute.getName().equals(name)
+                        && attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC);
+    }
+
+    private static Class<?> wrapper(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        return type == boolean.class ? Boolean.class : type == int.class ? Integer.class
+                : type == long.class ? Long.class : type == double.class ? Double.class : type;
+    }
+
+    // Request body of the bulk endpoints
+    public static class Request {
+
+        // Entities to change, at most BatchReader.MAX_BATCH_SIZE
+        private List<Long> ids;
+
+        // Or: the conditions the entities to change must meet
+        private Map<String, Object> filter;
+
+        // New value of the field named in the path
+        private Object value;
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public void setIds(List<Long> ids) {
+            this.ids = ids;
+        }
+
+        public Map<String, Object> getFilter() {
+            return filter;
+        }
+
+        public void setFilter(Map<String, Object> filter) {
+            this.filter = filter;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public void setValue(Object value) {
+            this.value = value;
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.example.springbootcrudapp.controller;
 
 import com.example.springbootcrudapp.entity.Customer;
+import com.example.springbootcrudapp.repository.CustomerSpecifications;
+import com.example.springbootcrudapp.repository.ProjectionRepository;
 import com.example.springbootcrudapp.service.CustomerService;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -19,17 +26,60 @@ public class CustomerController {
     @Autowired
     private CustomerService customerService;
 
-    // GET /api/customers - Get all customers
+    @Autowired
+    private ListStreamer listStreamer;
+
+    @Autowired
+    private ExportWriter exportWriter;
+
+    @Autowired
+    private BatchReader batchReader;
+
+    @Autowired
+    private ProjectionReader projectionReader;
+
+    @Autowired
+    private MergePatcher mergePatcher;
+
+    @Autowired
+    private BulkTransitions bulkTransitions;
+
+    // GET /api/customers - Get all customers, written out while the rows are still being read
     @GetMapping
-    public ResponseEntity<List<Customer>> getAllCustomers() {
-        List<Customer> customers = customerService.getAllCustomers();
-        return new ResponseEntity<>(customers, HttpStatus.OK);
+    public ResponseEntity<StreamingResponseBody> getAllCustomers(@RequestParam(required = false) String fields) {
+        List<String> selectedFields = ProjectionRepository.parseFields(fields);
+        if (selectedFields == null) {
+            return listStreamer.stream(Customer.class, customerService::streamAllCustomers);
+        }
+        List<?> projected = customerService.getCustomersProjected(selectedFields, CustomerSpecifications.all());
+        return listStreamer.stream(Map.class, projected::forEach);
+    }
+
+    // GET /api/customers/export - Export customers as NDJSON or CSV
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCustomers(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return exportWriter.export("customers", Customer.class, format, gzip, customerService::streamAllCustomers);
+    }
+
+    // Get several customers by ID in one query, in the order requested, with unknown IDs listed as missing
+    @GetMapping("/batch")
+    public ResponseEntity<Map<String, Object>> getCustomersBatch(@RequestParam List<Long> ids) {
+        return batchReader.fetch("customers", ids, customerService::getCustomersByIds, Customer::getId);
+    }
+
+    // Same lookup with the IDs as a JSON array in the body, for lists too long for a query string
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> postCustomersBatch(@RequestBody List<Long> ids) {
+        return batchReader.fetch("customers", ids, customerService::getCustomersByIds, Customer::getId);
     }
 
     // GET /api/customers/{id} - Get customer by ID
     @GetMapping("/{id}")
-    public ResponseEntity<Customer> getCustomerById(@PathVariable Long id) {
-        Optional<Customer> customer = customerService.getCustomerById(id);
+    public ResponseEntity<?> getCustomerById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        Optional<?> customer = projectionReader.single(Customer.class, fields, CustomerSpecifications.hasId(id),
+                () -> customerService.getCustomerById(id));
         if (customer.isPresent()) {
             return new ResponseEntity<>(customer.get(), HttpStatus.OK);
         } else {
@@ -54,11 +104,26 @@ public class CustomerController {
         try {
             Customer updatedCustomer = customerService.updateCustomer(id, customerDetails);
             return new ResponseEntity<>(updatedCustomer, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
     }
 
+    // PATCH /api/customers/{id} - Change only the fields in a JSON Merge Patch
+    @PatchMapping(value = "/{id}", consumes = {MergePatcher.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchCustomer(@PathVariable Long id, @RequestBody JsonNode patch) {
+        return mergePatcher.patch(id, patch, Customer.class, customerService::getCustomerById, customerService::updateCustomer);
+    }
+
+    // PUT /api/customers/bulk/{field} - Set active on many customers without loading them
+    @PutMapping("/bulk/{field}")
+    public ResponseEntity<Map<String, Object>> bulkUpdateCustomers(@PathVariable String field,
+                                                                   @RequestBody BulkTransitions.Request request) {
+        return bulkTransitions.update(Customer.class, field, request, CustomerService.BULK_FIELDS, customerService::bulkUpdate);
+    }
+
     // DELETE /api/customers/{id} - Delete customer
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteCustomer(@PathVariable Long id) {
@@ -72,8 +137,9 @@ public class CustomerController {
 
     // GET /api/customers/email/{email} - Get customer by email
     @GetMapping("/email/{email}")
-    public ResponseEntity<Customer> getCustomerByEmail(@PathVariable String email) {
-        Optional<Customer> customer = customerService.getCustomerByEmail(email);
+    public ResponseEntity<?> getCustomerByEmail(@PathVariable String email, @RequestParam(required = false) String fields) {
+        Optional<?> customer = projectionReader.single(Customer.class, fields, CustomerSpecifications.hasEmail(email),
+                () -> customerService.getCustomerByEmail(email));
         if (customer.isPresent()) {
             return new ResponseEntity<>(customer.get(), HttpStatus.OK);
         } else {
@@ -83,67 +149,68 @@ public class CustomerController {
 
     // GET /api/customers/search/company?name={name} - Search customers by company name
     @GetMapping("/search/company")
-    public ResponseEntity<List<Customer>> searchCustomersByCompanyName(@RequestParam String name) {
-        List<Customer> customers = customerService.searchCustomersByCompanyName(name);
-        return new ResponseEntity<>(customers, HttpStatus.OK);
+    public ResponseEntity<List<?>> searchCustomersByCompanyName(@RequestParam String name, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Customer.class, fields, CustomerSpecifications.companyNameContainsIgnoreCase(name),
+                () -> customerService.searchCustomersByCompanyName(name));
     }
 
     // GET /api/customers/search/contact?name={name} - Search customers by contact name
     @GetMapping("/search/contact")
-    public ResponseEntity<List<Customer>> searchCustomersByContactName(@RequestParam String name) {
-        List<Customer> customers = customerService.searchCustomersByContactName(name);
-        return new ResponseEntity<>(customers, HttpStatus.OK);
+    public ResponseEntity<List<?>> searchCustomersByContactName(@RequestParam String name, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Customer.class, fields, CustomerSpecifications.contactNameContainsIgnoreCase(name),
+                () -> customerService.searchCustomersByContactName(name));
     }
 
     // GET /api/customers/city/{city} - Get customers by city
     @GetMapping("/city/{city}")
-    public ResponseEntity<List<Customer>> getCustomersByCity(@PathVariable String city) {
-        List<Customer> customers = customerService.getCustomersByCity(city);
-        return new ResponseEntity<>(customers, HttpStatus.OK);
+    public ResponseEntity<List<?>> getCustomersByCity(@PathVariable String city, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Customer.class, fields, CustomerSpecifications.hasCity(city),
+                () -> customerService.getCustomersByCity(city));
     }
 
     // GET /api/customers/country/{country} - Get customers by country
     @GetMapping("/country/{country}")
-    public ResponseEntity<List<Customer>> getCustomersByCountry(@PathVariable String country) {
-        List<Customer> customers = customerService.getCustomersByCountry(country);
-        return new ResponseEntity<>(customers, HttpStatus.OK);
+    public ResponseEntity<List<?>> getCustomersByCountry(@PathVariable String country, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Customer.class, fields, CustomerSpecifications.hasCountry(country),
+                () -> customerService.getCustomersByCountry(country));
     }
 
     // GET /api/customers/active - Get active customers
     @GetMapping("/active")
-    public ResponseEntity<List<Customer>> getActiveCustomers() {
-        List<Customer> customers = customerService.getActiveCustomers();
-        return new ResponseEntity<>(customers, HttpStatus.OK);
+    public ResponseEntity<List<?>> getActiveCustomers(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Customer.class, fields, CustomerSpecifications.isActive(true),
+                () -> customerService.getActiveCustomers());
     }
 
     // GET /api/customers/inactive - Get inactive customers
     @GetMapping("/inactive")
-    public ResponseEntity<List<Customer>> getInactiveCustomers() {
-        List<Customer> customers = customerService.getInactiveCustomers();
-        return new ResponseEntity<>(customers, HttpStatus.OK);
+    public ResponseEntity<List<?>> getInactiveCustomers(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Customer.class, fields, CustomerSpecifications.isActive(false),
+                () -> customerService.getInactiveCustomers());
     }
 
     // GET /api/customers/credit-limit?min={amount} - Get customers with credit limit greater than amount
     @GetMapping("/credit-limit")
-    public ResponseEntity<List<Customer>> getCustomersByCreditLimit(@RequestParam Double min) {
-        List<Customer> customers = customerService.getCustomersByCreditLimitGreaterThan(min);
-        return new ResponseEntity<>(customers, HttpStatus.OK);
+    public ResponseEntity<List<?>> getCustomersByCreditLimit(@RequestParam Double min, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Customer.class, fields, CustomerSpecifications.creditLimitGreaterThan(min),
+                () -> customerService.getCustomersByCreditLimitGreaterThan(min));
     }
 
     // GET /api/customers/phone/{phone} - Get customers by phone
     @GetMapping("/phone/{phone}")
-    public ResponseEntity<List<Customer>> getCustomersByPhone(@PathVariable String phone) {
-        List<Customer> customers = customerService.getCustomersByPhone(phone);
-        return new ResponseEntity<>(customers, HttpStatus.OK);
+    public ResponseEntity<List<?>> getCustomersByPhone(@PathVariable String phone, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Customer.class, fields, CustomerSpecifications.hasPhone(phone),
+                () -> customerService.getCustomersByPhone(phone));
     }
 
     // GET /api/customers/filter?active={active}&country={country} - Get customers by active status and country
     @GetMapping("/filter")
-    public ResponseEntity<List<Customer>> getCustomersByActiveAndCountry(
+    public ResponseEntity<List<?>> getCustomersByActiveAndCountry(
             @RequestParam Boolean active, 
-            @RequestParam String country) {
-        List<Customer> customers = customerService.getCustomersByActiveAndCountry(active, country);
-        return new ResponseEntity<>(customers, HttpStatus.OK);
+            @RequestParam String country,
+            @RequestParam(required = false) String fields) {
+        return projectionReader.list(Customer.class, fields, CustomerSpecifications.isActiveAndHasCountry(active, country),
+                () -> customerService.getCustomersByActiveAndCountry(active, country));
     }
 
     // PUT /api/customers/{id}/activate - Activate customer
@@ -152,6 +219,8 @@ public class CustomerController {
         try {
             Customer customer = customerService.activateCustomer(id);
             return new ResponseEntity<>(customer, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
@@ -163,8 +232,10 @@ public class CustomerController {
         try {
             Customer customer = customerService.deactivateCustomer(id);
             return new ResponseEntity<>(customer, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
     }
-} 
\ No newline at end of file
+}
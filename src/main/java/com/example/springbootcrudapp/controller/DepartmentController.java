@@ -1,14 +1,21 @@
 package com.example.springbootcrudapp.controller;
 
 import com.example.springbootcrudapp.entity.Department;
+import com.example.springbootcrudapp.repository.DepartmentSpecifications;
+import com.example.springbootcrudapp.repository.ProjectionRepository;
 import com.example.springbootcrudapp.service.DepartmentService;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -19,17 +26,60 @@ public class DepartmentController {
     @Autowired
     private DepartmentService departmentService;
 
-    // GET /api/departments - Get all departments
+    @Autowired
+    private ListStreamer listStreamer;
+
+    @Autowired
+    private ExportWriter exportWriter;
+
+    @Autowired
+    private BatchReader batchReader;
+
+    @Autowired
+    private ProjectionReader projectionReader;
+
+    @Autowired
+    private MergePatcher mergePatcher;
+
+    @Autowired
+    private BulkTransitions bulkTransitions;
+
+    // GET /api/departments - Get all departments, written out while the rows are still being read
     @GetMapping
-    public ResponseEntity<List<Department>> getAllDepartments() {
-        List<Department> departments = departmentService.getAllDepartments();
-        return new ResponseEntity<>(departments, HttpStatus.OK);
+    public ResponseEntity<StreamingResponseBody> getAllDepartments(@RequestParam(required = false) String fields) {
+        List<String> selectedFields = ProjectionRepository.parseFields(fields);
+        if (selectedFields == null) {
+            return listStreamer.stream(Department.class, departmentService::streamAllDepartments);
+        }
+        List<?> projected = departmentService.getDepartmentsProjected(selectedFields, DepartmentSpecifications.all());
+        return listStreamer.stream(Map.class, projected::forEach);
+    }
+
+    // GET /api/departments/export - Export departments as NDJSON or CSV
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDepartments(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return exportWriter.export("departments", Department.class, format, gzip, departmentService::streamAllDepartments);
+    }
+
+    // Get several departments by ID, cache misses in one query, in the order requested, with unknown IDs listed as missing
+    @GetMapping("/batch")
+    public ResponseEntity<Map<String, Object>> getDepartmentsBatch(@RequestParam List<Long> ids) {
+        return batchReader.fetch("departments", ids, departmentService::getDepartmentsByIds, Department::getId);
+    }
+
+    // Same lookup with the IDs as a JSON array in the body, for lists too long for a query string
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> postDepartmentsBatch(@RequestBody List<Long> ids) {
+        return batchReader.fetch("departments", ids, departmentService::getDepartmentsByIds, Department::getId);
     }
 
     // GET /api/departments/{id} - Get department by ID
     @GetMapping("/{id}")
-    public ResponseEntity<Department> getDepartmentById(@PathVariable Long id) {
-        Optional<Department> department = departmentService.getDepartmentById(id);
+    public ResponseEntity<?> getDepartmentById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        Optional<?> department = projectionReader.single(Department.class, fields, DepartmentSpecifications.hasId(id),
+                () -> departmentService.getDepartmentById(id));
         if (department.isPresent()) {
             return new ResponseEntity<>(department.get(), HttpStatus.OK);
         } else {
@@ -54,11 +104,26 @@ public class DepartmentController {
         try {
             Department updatedDepartment = departmentService.updateDepartment(id, departmentDetails);
             return new ResponseEntity<>(updatedDepartment, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
     }
 
+    // PATCH /api/departments/{id} - Change only the fields in a JSON Merge Patch
+    @PatchMapping(value = "/{id}", consumes = {MergePatcher.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchDepartment(@PathVariable Long id, @RequestBody JsonNode patch) {
+        return mergePatcher.patch(id, patch, Department.class, departmentService::getDepartmentById, departmentService::updateDepartment);
+    }
+
+    // PUT /api/departments/bulk/{field} - Set active on many departments without loading them
+    @PutMapping("/bulk/{field}")
+    public ResponseEntity<Map<String, Object>> bulkUpdateDepartments(@PathVariable String field,
+                                                                     @RequestBody BulkTransitions.Request request) {
+        return bulkTransitions.update(Department.class, field, request, DepartmentService.BULK_FIELDS, departmentService::bulkUpdate);
+    }
+
     // DELETE /api/departments/{id} - Delete department
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteDepartment(@PathVariable Long id) {
@@ -72,8 +137,9 @@ public class DepartmentController {
 
     // GET /api/departments/name/{name} - Get department by name
     @GetMapping("/name/{name}")
-    public ResponseEntity<Department> getDepartmentByName(@PathVariable String name) {
-        Optional<Department> department = departmentService.getDepartmentByName(name);
+    public ResponseEntity<?> getDepartmentByName(@PathVariable String name, @RequestParam(required = false) String fields) {
+        Optional<?> department = projectionReader.single(Department.class, fields, DepartmentSpecifications.hasName(name),
+                () -> departmentService.getDepartmentByName(name));
         if (department.isPresent()) {
             return new ResponseEntity<>(department.get(), HttpStatus.OK);
         } else {
@@ -83,74 +149,75 @@ public class DepartmentController {
 
     // GET /api/departments/search/name?name={name} - Search departments by name
     @GetMapping("/search/name")
-    public ResponseEntity<List<Department>> searchDepartmentsByName(@RequestParam String name) {
-        List<Department> departments = departmentService.searchDepartmentsByName(name);
-        return new ResponseEntity<>(departments, HttpStatus.OK);
+    public ResponseEntity<List<?>> searchDepartmentsByName(@RequestParam String name, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Department.class, fields, DepartmentSpecifications.nameContainsIgnoreCase(name),
+                () -> departmentService.searchDepartmentsByName(name));
     }
 
     // GET /api/departments/search/manager?name={name} - Search departments by manager name
     @GetMapping("/search/manager")
-    public ResponseEntity<List<Department>> searchDepartmentsByManagerName(@RequestParam String name) {
-        List<Department> departments = departmentService.searchDepartmentsByManagerName(name);
-        return new ResponseEntity<>(departments, HttpStatus.OK);
+    public ResponseEntity<List<?>> searchDepartmentsByManagerName(@RequestParam String name, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Department.class, fields, DepartmentSpecifications.managerNameContainsIgnoreCase(name),
+                () -> departmentService.searchDepartmentsByManagerName(name));
     }
 
     // GET /api/departments/search/description?description={description} - Search departments by description
     @GetMapping("/search/description")
-    public ResponseEntity<List<Department>> searchDepartmentsByDescription(@RequestParam String description) {
-        List<Department> departments = departmentService.searchDepartmentsByDescription(description);
-        return new ResponseEntity<>(departments, HttpStatus.OK);
+    public ResponseEntity<List<?>> searchDepartmentsByDescription(@RequestParam String description, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Department.class, fields, DepartmentSpecifications.descriptionContainsIgnoreCase(description),
+                () -> departmentService.searchDepartmentsByDescription(description));
     }
 
     // GET /api/departments/location/{location} - Get departments by location
     @GetMapping("/location/{location}")
-    public ResponseEntity<List<Department>> getDepartmentsByLocation(@PathVariable String location) {
-        List<Department> departments = departmentService.getDepartmentsByLocation(location);
-        return new ResponseEntity<>(departments, HttpStatus.OK);
+    public ResponseEntity<List<?>> getDepartmentsByLocation(@PathVariable String location, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Department.class, fields, DepartmentSpecifications.hasLocation(location),
+                () -> departmentService.getDepartmentsByLocation(location));
     }
 
     // GET /api/departments/active - Get active departments
     @GetMapping("/active")
-    public ResponseEntity<List<Department>> getActiveDepartments() {
-        List<Department> departments = departmentService.getActiveDepartments();
-        return new ResponseEntity<>(departments, HttpStatus.OK);
+    public ResponseEntity<List<?>> getActiveDepartments(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Department.class, fields, DepartmentSpecifications.isActive(true),
+                () -> departmentService.getActiveDepartments());
     }
 
     // GET /api/departments/inactive - Get inactive departments
     @GetMapping("/inactive")
-    public ResponseEntity<List<Department>> getInactiveDepartments() {
-        List<Department> departments = departmentService.getInactiveDepartments();
-        return new ResponseEntity<>(departments, HttpStatus.OK);
+    public ResponseEntity<List<?>> getInactiveDepartments(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Department.class, fields, DepartmentSpecifications.isActive(false),
+                () -> departmentService.getInactiveDepartments());
     }
 
     // GET /api/departments/budget?min={amount} - Get departments with budget greater than amount
     @GetMapping("/budget")
-    public ResponseEntity<List<Department>> getDepartmentsByBudget(@RequestParam Double min) {
-        List<Department> departments = departmentService.getDepartmentsByBudgetGreaterThan(min);
-        return new ResponseEntity<>(departments, HttpStatus.OK);
+    public ResponseEntity<List<?>> getDepartmentsByBudget(@RequestParam Double min, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Department.class, fields, DepartmentSpecifications.budgetGreaterThan(min),
+                () -> departmentService.getDepartmentsByBudgetGreaterThan(min));
     }
 
     // GET /api/departments/employees?min={count} - Get departments with employee count greater than count
     @GetMapping("/employees")
-    public ResponseEntity<List<Department>> getDepartmentsByEmployeeCount(@RequestParam Integer min) {
-        List<Department> departments = departmentService.getDepartmentsByEmployeeCountGreaterThan(min);
-        return new ResponseEntity<>(departments, HttpStatus.OK);
+    public ResponseEntity<List<?>> getDepartmentsByEmployeeCount(@RequestParam Integer min, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Department.class, fields, DepartmentSpecifications.employeeCountGreaterThan(min),
+                () -> departmentService.getDepartmentsByEmployeeCountGreaterThan(min));
     }
 
     // GET /api/departments/manager-email/{email} - Get departments by manager email
     @GetMapping("/manager-email/{email}")
-    public ResponseEntity<List<Department>> getDepartmentsByManagerEmail(@PathVariable String email) {
-        List<Department> departments = departmentService.getDepartmentsByManagerEmail(email);
-        return new ResponseEntity<>(departments, HttpStatus.OK);
+    public ResponseEntity<List<?>> getDepartmentsByManagerEmail(@PathVariable String email, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Department.class, fields, DepartmentSpecifications.hasManagerEmail(email),
+                () -> departmentService.getDepartmentsByManagerEmail(email));
     }
 
     // GET /api/departments/filter?active={active}&location={location} - Get departments by active status and location
     @GetMapping("/filter")
-    public ResponseEntity<List<Department>> getDepartmentsByActiveAndLocation(
+    public ResponseEntity<List<?>> getDepartmentsByActiveAndLocation(
             @RequestParam Boolean active, 
-            @RequestParam String location) {
-        List<Department> departments = departmentService.getDepartmentsByActiveAndLocation(active, location);
-        return new ResponseEntity<>(departments, HttpStatus.OK);
+            @RequestParam String location,
+            @RequestParam(required = false) String fields) {
+        return projectionReader.list(Department.class, fields, DepartmentSpecifications.isActiveAndHasLocation(active, location),
+                () -> departmentService.getDepartmentsByActiveAndLocation(active, location));
     }
 
     // PUT /api/departments/{id}/activate - Activate department
@@ -159,6 +226,8 @@ public class DepartmentController {
         try {
             Department department = departmentService.activateDepartment(id);
             return new ResponseEntity<>(department, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
@@ -170,6 +239,8 @@ public class DepartmentController {
         try {
             Department department = departmentService.deactivateDepartment(id);
             return new ResponseEntity<>(department, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
@@ -181,6 +252,8 @@ public class DepartmentController {
         try {
             Department department = departmentService.updateDepartmentBudget(id, budget);
             return new ResponseEntity<>(department, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
@@ -192,8 +265,10 @@ public class DepartmentController {
         try {
             Department department = departmentService.updateDepartmentEmployeeCount(id, employeeCount);
             return new ResponseEntity<>(department, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
     }
-} 
\ No newline at end of file
+}
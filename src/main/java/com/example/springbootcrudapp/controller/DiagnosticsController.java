@@ -0,0 +1,168 @@
+package com.example.springbootcrudapp.controller;
+
+import com.example.springbootcrudapp.datasource.DataSourceBulkhead;
+import com.example.springbootcrudapp.datasource.ReadWriteRoutingDataSource;
+import com.example.springbootcrudapp.datasource.ReplicationFeed;
+import com.example.springbootcrudapp.grpc.CompressionMetrics;
+import com.example.springbootcrudapp.metrics.EntityCacheStatistics;
+import com.example.springbootcrudapp.metrics.LatencyMetrics;
+import com.example.springbootcrudapp.metrics.PinningMonitor;
+import com.example.springbootcrudapp.metrics.SqlStatementTracker;
+import com.example.springbootcrudapp.metrics.SqlTraceRecorder;
+import com.example.springbootcrudapp.service.OptimisticRetry;
+import com.example.springbootcrudapp.service.RequestCoalescer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/diagnostics")
+@CrossOrigin(origins = "*")
+public class DiagnosticsController {
+
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain; version=0.0.4; charset=utf-8");
+
+    @Autowired
+    private CompressionMetrics compressionMetrics;
+
+    @Autowired
+    private LatencyMetrics latencyMetrics;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private EntityCacheStatistics entityCacheStatistics;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    // Absent when app.sql.diagnostics.enabled=false
+    @Autowired(required = false)
+    private SqlStatementTracker sqlStatementTracker;
+
+    @Autowired(required = false)
+    private SqlTraceRecorder sqlTraceRecorder;
+
+    // Present in the virtual-threads profile
+    @Autowired(required = false)
+    private DataSourceBulkhead dataSourceBulkhead;
+
+    @Autowired(required = false)
+    private PinningMonitor pinningMonitor;
+
+    // Present when app.datasource.replication.enabled=true
+    @Autowired(required = false)
+    private ReplicationFeed replicationFeed;
+
+    @Autowired
+    private DataSource dataSource;
+
+    // GET /api/diagnostics/grpc/compression - Raw versus wire bytes per gRPC method
+    @GetMapping("/grpc/compression")
+    public ResponseEntity<Map<String, Map<String, Object>>> getGrpcCompression() {
+        return new ResponseEntity<>(compressionMetrics.snapshot(), HttpStatus.OK);
+    }
+
+    // GET /api/diagnostics/metrics - REST and gRPC latency, coalescing, entity cache, optimistic-lock and SQL counters in Prometheus text format
+    @GetMapping("/metrics")
+    public ResponseEntity<String> getMetrics() {
+        String body = latencyMetrics.prometheus() + requestCoalescer.prometheus() + entityCacheStatistics.prometheus()
+                + optimisticRetry.prometheus();
+        if (sqlStatementTracker != null) {
+            body += sqlStatementTracker.prometheus();
+        }
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(body);
+    }
+
+    // GET /api/diagnostics/metrics/summary - Latency percentiles per route, slowest p99 first
+    @GetMapping("/metrics/summary")
+    public ResponseEntity<List<Map<String, Object>>> getMetricsSummary() {
+        return new ResponseEntity<>(latencyMetrics.summary(), HttpStatus.OK);
+    }
+
+    // GET /api/diagnostics/coalescing - Shared versus executed calls per coalesced service method
+    @GetMapping("/coalescing")
+    public ResponseEntity<Map<String, Object>> getCoalescing() {
+        return new ResponseEntity<>(requestCoalescer.snapshot(), HttpStatus.OK);
+    }
+
+    // GET /api/diagnostics/entity-cache - Hibernate second-level and query cache hits and misses per region
+    @GetMapping("/entity-cache")
+    public ResponseEntity<Map<String, Object>> getEntityCache() {
+        return new ResponseEntity<>(entityCacheStatistics.snapshot(), HttpStatus.OK);
+    }
+
+    // GET /api/diagnostics/optimistic-retry - Version conflicts and exhausted retries per retried update
+    @GetMapping("/optimistic-retry")
+    public ResponseEntity<Map<String, Object>> getOptimisticRetry() {
+        return new ResponseEntity<>(optimisticRetry.snapshot(), HttpStatus.OK);
+    }
+
+    // GET /api/diagnostics/sql - Statements per route, flagged requests and the slowest queries
+    @GetMapping("/sql")
+    public ResponseEntity<Map<String, Object>> getSqlDiagnostics() {
+        if (sqlStatementTracker == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(sqlStatementTracker.snapshot(), HttpStatus.OK);
+    }
+
+    // GET /api/diagnostics/sql/traces - Sampled SQL traces, newest first, filtered by route, transport and duration
+    @GetMapping("/sql/traces")
+    public ResponseEntity<Map<String, Object>> getSqlTraces(@RequestParam(required = false) String route,
+                                                            @RequestParam(required = false) String transport,
+                                                            @RequestParam(required = false) Double minDurationMs,
+                                                            @RequestParam(defaultValue = "20") int limit) {
+        if (sqlTraceRecorder == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(sqlTraceRecorder.query(route, transport, minDurationMs, limit), HttpStatus.OK);
+    }
+
+    // GET /api/diagnostics/sql/traces/{id} - One trace by the id from X-Sql-Trace-Id or the x-sql-trace-id trailer
+    @GetMapping("/sql/traces/{id}")
+    public ResponseEntity<SqlTraceRecorder.CompletedTrace> getSqlTrace(@PathVariable String id) {
+        if (sqlTraceRecorder == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return sqlTraceRecorder.find(id).map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // GET /api/diagnostics/virtual-threads - Request thread type, database bulkhead and carrier pinning
+    @GetMapping("/virtual-threads")
+    public ResponseEntity<Map<String, Object>> getVirtualThreadDiagnostics() {
+        Map<String, Object> diagnostics = new LinkedHashMap<>();
+        diagnostics.put("requestThreadVirtual", Thread.currentThread().isVirtual());
+        diagnostics.put("requestThread", Thread.currentThread().toString());
+        diagnostics.put("bulkhead", dataSourceBulkhead != null ? dataSourceBulkhead.snapshot() : null);
+        diagnostics.put("pinning", pinningMonitor != null ? pinningMonitor.snapshot() : null);
+        return new ResponseEntity<>(diagnostics, HttpStatus.OK);
+    }
+
+    // GET /api/diagnostics/replication - Replica positions and lag, and where connections were routed
+    @GetMapping("/replication")
+    public ResponseEntity<Map<String, Object>> getReplication() throws SQLException {
+        if (replicationFeed == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        Map<String, Object> replication = replicationFeed.snapshot();
+        if (dataSource.isWrapperFor(LazyConnectionDataSourceProxy.class)) {
+            DataSource target = dataSource.unwrap(LazyConnectionDataSourceProxy.class).getTargetDataSource();
+            if (target instanceof ReadWriteRoutingDataSource routing) {
+                replication.put("routing", routing.snapshot());
+            }
+        }
+        return new ResponseEntity<>(replication, HttpStatus.OK);
+    }
+}
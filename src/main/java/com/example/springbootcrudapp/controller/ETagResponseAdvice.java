@@ -0,0 +1,35 @@
+package com.example.springbootcrudapp.controller;
+
+import com.example.springbootcrudapp.entity.Versioned;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Sends the version of a single-entity response body as its ETag, in whatever format the body is
+ * written. Lists, projections and error bodies get none.
+ */
+@ControllerAdvice
+public class ETagResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body instanceof Versioned entity && entity.getVersion() != null
+                && !response.getHeaders().containsKey(HttpHeaders.ETAG)) {
+            response.getHeaders().setETag(ETags.of(entity.getVersion()));
+        }
+        return body;
+    }
+}
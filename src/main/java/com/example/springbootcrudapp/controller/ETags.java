@@ -0,0 +1,26 @@
+package com.example.springbootcrudapp.controller;
+
+/**
+ * Entity versions as strong ETags ({@code "3"}) and the If-Match comparison against them.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Strong comparison as If-Match requires: "*" or any listed tag equal to the version; weak tags never match
+    static boolean matches(String ifMatch, Long version) {
+        String current = of(version);
+        for (String tag : ifMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals("*") || trimmed.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
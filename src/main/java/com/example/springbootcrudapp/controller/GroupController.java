@@ -1,16 +1,24 @@
 package com.example.springbootcrudapp.controller;
 
 import com.example.springbootcrudapp.entity.Group;
+import com.example.springbootcrudapp.repository.GroupSpecifications;
+import com.example.springbootcrudapp.repository.ProjectionRepository;
 import com.example.springbootcrudapp.service.GroupService;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -21,17 +29,63 @@ public class GroupController {
     @Autowired
     private GroupService groupService;
 
-    // GET /api/groups - Get all groups
+    @Autowired
+    private ListStreamer listStreamer;
+
+    @Autowired
+    private ExportWriter exportWriter;
+
+    @Autowired
+    private BatchReader batchReader;
+
+    @Autowired
+    private ProjectionReader projectionReader;
+
+    @Autowired
+    private MergePatcher mergePatcher;
+
+    @Autowired
+    private BulkTransitions bulkTransitions;
+
+    // GET /api/groups - Get all groups, written out while the rows are still being read
     @GetMapping
-    public ResponseEntity<List<Group>> getAllGroups() {
-        List<Group> groups = groupService.getAllGroups();
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<StreamingResponseBody> getAllGroups(@RequestParam(required = false) String fields) {
+        List<String> selectedFields = ProjectionRepository.parseFields(fields);
+        if (selectedFields == null) {
+            return listStreamer.stream(Group.class, groupService::streamAllGroups);
+        }
+        List<?> projected = groupService.getGroupsProjected(selectedFields, GroupSpecifications.all(), Sort.unsorted());
+        return listStreamer.stream(Map.class, projected::forEach);
+    }
+
+    // GET /api/groups/export - Export groups as NDJSON or CSV, optionally only those active since a time
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportGroups(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date modifiedSince) {
+        return exportWriter.export("groups", Group.class, format, gzip, modifiedSince == null
+                ? groupService::streamAllGroups
+                : action -> groupService.streamGroupsActiveSince(modifiedSince, action));
+    }
+
+    // Get several groups by ID, cache misses in one query, in the order requested, with unknown IDs listed as missing
+    @GetMapping("/batch")
+    public ResponseEntity<Map<String, Object>> getGroupsBatch(@RequestParam List<Long> ids) {
+        return batchReader.fetch("groups", ids, groupService::getGroupsByIds, Group::getId);
+    }
+
+    // Same lookup with the IDs as a JSON array in the body, for lists too long for a query string
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> postGroupsBatch(@RequestBody List<Long> ids) {
+        return batchReader.fetch("groups", ids, groupService::getGroupsByIds, Group::getId);
     }
 
     // GET /api/groups/{id} - Get group by ID
     @GetMapping("/{id}")
-    public ResponseEntity<Group> getGroupById(@PathVariable Long id) {
-        Optional<Group> group = groupService.getGroupById(id);
+    public ResponseEntity<?> getGroupById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        Optional<?> group = projectionReader.single(Group.class, fields, GroupSpecifications.hasId(id),
+                () -> groupService.getGroupById(id));
         if (group.isPresent()) {
             return new ResponseEntity<>(group.get(), HttpStatus.OK);
         } else {
@@ -56,11 +110,26 @@ public class GroupController {
         try {
             Group updatedGroup = groupService.updateGroup(id, groupDetails);
             return new ResponseEntity<>(updatedGroup, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
     }
 
+    // PATCH /api/groups/{id} - Change only the fields in a JSON Merge Patch
+    @PatchMapping(value = "/{id}", consumes = {MergePatcher.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchGroup(@PathVariable Long id, @RequestBody JsonNode patch) {
+        return mergePatcher.patch(id, patch, Group.class, groupService::getGroupById, groupService::updateGroup);
+    }
+
+    // PUT /api/groups/bulk/{field} - Set active or public on many groups without loading them
+    @PutMapping("/bulk/{field}")
+    public ResponseEntity<Map<String, Object>> bulkUpdateGroups(@PathVariable String field,
+                                                                @RequestBody BulkTransitions.Request request) {
+        return bulkTransitions.update(Group.class, field, request, GroupService.BULK_FIELDS, groupService::bulkUpdate);
+    }
+
     // DELETE /api/groups/{id} - Delete group
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteGroup(@PathVariable Long id) {
@@ -74,8 +143,9 @@ public class GroupController {
 
     // GET /api/groups/name/{name} - Get group by name
     @GetMapping("/name/{name}")
-    public ResponseEntity<Group> getGroupByName(@PathVariable String name) {
-        Optional<Group> group = groupService.getGroupByName(name);
+    public ResponseEntity<?> getGroupByName(@PathVariable String name, @RequestParam(required = false) String fields) {
+        Optional<?> group = projectionReader.single(Group.class, fields, GroupSpecifications.hasName(name),
+                () -> groupService.getGroupByName(name));
         if (group.isPresent()) {
             return new ResponseEntity<>(group.get(), HttpStatus.OK);
         } else {
@@ -85,209 +155,215 @@ public class GroupController {
 
     // GET /api/groups/search/name?name={name} - Search groups by name
     @GetMapping("/search/name")
-    public ResponseEntity<List<Group>> searchGroupsByName(@RequestParam String name) {
-        List<Group> groups = groupService.searchGroupsByName(name);
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> searchGroupsByName(@RequestParam String name, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.nameContainsIgnoreCase(name),
+                () -> groupService.searchGroupsByName(name));
     }
 
     // GET /api/groups/search/description?description={description} - Search groups by description
     @GetMapping("/search/description")
-    public ResponseEntity<List<Group>> searchGroupsByDescription(@RequestParam String description) {
-        List<Group> groups = groupService.searchGroupsByDescription(description);
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> searchGroupsByDescription(@RequestParam String description, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.descriptionContainsIgnoreCase(description),
+                () -> groupService.searchGroupsByDescription(description));
     }
 
     // GET /api/groups/type/{type} - Get groups by type
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<Group>> getGroupsByType(@PathVariable String type) {
-        List<Group> groups = groupService.getGroupsByType(type);
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getGroupsByType(@PathVariable String type, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.hasGroupType(type),
+                () -> groupService.getGroupsByType(type));
     }
 
     // GET /api/groups/search/type?type={type} - Search groups by type
     @GetMapping("/search/type")
-    public ResponseEntity<List<Group>> searchGroupsByType(@RequestParam String type) {
-        List<Group> groups = groupService.searchGroupsByType(type);
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> searchGroupsByType(@RequestParam String type, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.groupTypeContainsIgnoreCase(type),
+                () -> groupService.searchGroupsByType(type));
     }
 
     // GET /api/groups/owner/{ownerName} - Get groups by owner name
     @GetMapping("/owner/{ownerName}")
-    public ResponseEntity<List<Group>> getGroupsByOwnerName(@PathVariable String ownerName) {
-        List<Group> groups = groupService.getGroupsByOwnerName(ownerName);
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getGroupsByOwnerName(@PathVariable String ownerName, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.hasOwnerName(ownerName),
+                () -> groupService.getGroupsByOwnerName(ownerName));
     }
 
     // GET /api/groups/search/owner?owner={owner} - Search groups by owner name
     @GetMapping("/search/owner")
-    public ResponseEntity<List<Group>> searchGroupsByOwnerName(@RequestParam String owner) {
-        List<Group> groups = groupService.searchGroupsByOwnerName(owner);
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> searchGroupsByOwnerName(@RequestParam String owner, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.ownerNameContainsIgnoreCase(owner),
+                () -> groupService.searchGroupsByOwnerName(owner));
     }
 
     // GET /api/groups/owner-email/{email} - Get groups by owner email
     @GetMapping("/owner-email/{email}")
-    public ResponseEntity<List<Group>> getGroupsByOwnerEmail(@PathVariable String email) {
-        List<Group> groups = groupService.getGroupsByOwnerEmail(email);
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getGroupsByOwnerEmail(@PathVariable String email, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.hasOwnerEmail(email),
+                () -> groupService.getGroupsByOwnerEmail(email));
     }
 
     // GET /api/groups/active - Get active groups
     @GetMapping("/active")
-    public ResponseEntity<List<Group>> getActiveGroups() {
-        List<Group> groups = groupService.getActiveGroups();
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getActiveGroups(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.isActive(true),
+                () -> groupService.getActiveGroups());
     }
 
     // GET /api/groups/inactive - Get inactive groups
     @GetMapping("/inactive")
-    public ResponseEntity<List<Group>> getInactiveGroups() {
-        List<Group> groups = groupService.getInactiveGroups();
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getInactiveGroups(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.isActive(false),
+                () -> groupService.getInactiveGroups());
     }
 
     // GET /api/groups/public - Get public groups
     @GetMapping("/public")
-    public ResponseEntity<List<Group>> getPublicGroups() {
-        List<Group> groups = groupService.getPublicGroups();
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getPublicGroups(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.isPublic(true),
+                () -> groupService.getPublicGroups());
     }
 
     // GET /api/groups/private - Get private groups
     @GetMapping("/private")
-    public ResponseEntity<List<Group>> getPrivateGroups() {
-        List<Group> groups = groupService.getPrivateGroups();
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getPrivateGroups(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.isPublic(false),
+                () -> groupService.getPrivateGroups());
     }
 
     // GET /api/groups/requires-approval - Get groups that require approval
     @GetMapping("/requires-approval")
-    public ResponseEntity<List<Group>> getGroupsRequiringApproval() {
-        List<Group> groups = groupService.getGroupsRequiringApproval();
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getGroupsRequiringApproval(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.requiresApproval(true),
+                () -> groupService.getGroupsRequiringApproval());
     }
 
     // GET /api/groups/no-approval - Get groups that don't require approval
     @GetMapping("/no-approval")
-    public ResponseEntity<List<Group>> getGroupsNotRequiringApproval() {
-        List<Group> groups = groupService.getGroupsNotRequiringApproval();
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getGroupsNotRequiringApproval(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.requiresApproval(false),
+                () -> groupService.getGroupsNotRequiringApproval());
     }
 
     // GET /api/groups/filter/active-public?active={active}&public={public} - Get groups by active status and public visibility
     @GetMapping("/filter/active-public")
-    public ResponseEntity<List<Group>> getGroupsByActiveAndPublic(
+    public ResponseEntity<List<?>> getGroupsByActiveAndPublic(
             @RequestParam Boolean active, 
-            @RequestParam Boolean publicGroup) {
-        List<Group> groups = groupService.getGroupsByActiveAndPublic(active, publicGroup);
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+            @RequestParam Boolean publicGroup,
+            @RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.isActiveAndPublic(active, publicGroup),
+                () -> groupService.getGroupsByActiveAndPublic(active, publicGroup));
     }
 
     // GET /api/groups/filter/type-active?type={type}&active={active} - Get groups by type and active status
     @GetMapping("/filter/type-active")
-    public ResponseEntity<List<Group>> getGroupsByTypeAndActive(
+    public ResponseEntity<List<?>> getGroupsByTypeAndActive(
             @RequestParam String type, 
-            @RequestParam Boolean active) {
-        List<Group> groups = groupService.getGroupsByTypeAndActive(type, active);
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+            @RequestParam Boolean active,
+            @RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.hasGroupTypeAndIsActive(type, active),
+                () -> groupService.getGroupsByTypeAndActive(type, active));
     }
 
     // GET /api/groups/filter/owner-active?owner={owner}&active={active} - Get groups by owner and active status
     @GetMapping("/filter/owner-active")
-    public ResponseEntity<List<Group>> getGroupsByOwnerAndActive(
+    public ResponseEntity<List<?>> getGroupsByOwnerAndActive(
             @RequestParam String owner, 
-            @RequestParam Boolean active) {
-        List<Group> groups = groupService.getGroupsByOwnerAndActive(owner, active);
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+            @RequestParam Boolean active,
+            @RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.hasOwnerNameAndIsActive(owner, active),
+                () -> groupService.getGroupsByOwnerAndActive(owner, active));
     }
 
     // GET /api/groups/members/greater-than?count={count} - Get groups with member count greater than
     @GetMapping("/members/greater-than")
-    public ResponseEntity<List<Group>> getGroupsWithMemberCountGreaterThan(@RequestParam Integer count) {
-        List<Group> groups = groupService.getGroupsWithMemberCountGreaterThan(count);
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getGroupsWithMemberCountGreaterThan(@RequestParam Integer count, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.memberCountGreaterThan(count),
+                () -> groupService.getGroupsWithMemberCountGreaterThan(count));
     }
 
     // GET /api/groups/members/less-than?count={count} - Get groups with member count less than
     @GetMapping("/members/less-than")
-    public ResponseEntity<List<Group>> getGroupsWithMemberCountLessThan(@RequestParam Integer count) {
-        List<Group> groups = groupService.getGroupsWithMemberCountLessThan(count);
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getGroupsWithMemberCountLessThan(@RequestParam Integer count, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.memberCountLessThan(count),
+                () -> groupService.getGroupsWithMemberCountLessThan(count));
     }
 
     // GET /api/groups/available-capacity - Get groups with available capacity
     @GetMapping("/available-capacity")
-    public ResponseEntity<List<Group>> getGroupsWithAvailableCapacity() {
-        List<Group> groups = groupService.getGroupsWithAvailableCapacity();
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getGroupsWithAvailableCapacity(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.hasAvailableCapacity(),
+                () -> groupService.getGroupsWithAvailableCapacity());
     }
 
     // GET /api/groups/max-members/greater-than?count={count} - Get groups by max members greater than
     @GetMapping("/max-members/greater-than")
-    public ResponseEntity<List<Group>> getGroupsByMaxMembersGreaterThan(@RequestParam Integer count) {
-        List<Group> groups = groupService.getGroupsByMaxMembersGreaterThan(count);
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getGroupsByMaxMembersGreaterThan(@RequestParam Integer count, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.maxMembersGreaterThan(count),
+                () -> groupService.getGroupsByMaxMembersGreaterThan(count));
     }
 
     // GET /api/groups/created-after?date={date} - Get groups created after date
     @GetMapping("/created-after")
-    public ResponseEntity<List<Group>> getGroupsCreatedAfter(
-            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") Date date) {
-        List<Group> groups = groupService.getGroupsCreatedAfter(date);
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getGroupsCreatedAfter(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") Date date,
+            @RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.createdAfter(date),
+                () -> groupService.getGroupsCreatedAfter(date));
     }
 
     // GET /api/groups/recent-activity?date={date} - Get groups with recent activity
     @GetMapping("/recent-activity")
-    public ResponseEntity<List<Group>> getGroupsWithRecentActivity(
-            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") Date date) {
-        List<Group> groups = groupService.getGroupsWithRecentActivity(date);
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getGroupsWithRecentActivity(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") Date date,
+            @RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.lastActivityAfter(date),
+                () -> groupService.getGroupsWithRecentActivity(date));
     }
 
     // GET /api/groups/tag/{tag} - Get groups by tag
     @GetMapping("/tag/{tag}")
-    public ResponseEntity<List<Group>> getGroupsByTag(@PathVariable String tag) {
-        List<Group> groups = groupService.getGroupsByTag(tag);
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getGroupsByTag(@PathVariable String tag, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.tagsContain(tag),
+                () -> groupService.getGroupsByTag(tag));
     }
 
     // GET /api/groups/ordered/name - Get all groups ordered by name
     @GetMapping("/ordered/name")
-    public ResponseEntity<List<Group>> getAllGroupsOrderedByName() {
-        List<Group> groups = groupService.getAllGroupsOrderedByName();
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getAllGroupsOrderedByName(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.all(), Sort.by("name"),
+                () -> groupService.getAllGroupsOrderedByName());
     }
 
     // GET /api/groups/ordered/creation-date - Get all groups ordered by creation date (newest first)
     @GetMapping("/ordered/creation-date")
-    public ResponseEntity<List<Group>> getAllGroupsOrderedByCreationDate() {
-        List<Group> groups = groupService.getAllGroupsOrderedByCreationDate();
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getAllGroupsOrderedByCreationDate(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.all(), Sort.by(Sort.Direction.DESC, "createdDate"),
+                () -> groupService.getAllGroupsOrderedByCreationDate());
     }
 
     // GET /api/groups/ordered/member-count - Get all groups ordered by member count (highest first)
     @GetMapping("/ordered/member-count")
-    public ResponseEntity<List<Group>> getAllGroupsOrderedByMemberCount() {
-        List<Group> groups = groupService.getAllGroupsOrderedByMemberCount();
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getAllGroupsOrderedByMemberCount(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.all(), Sort.by(Sort.Direction.DESC, "currentMemberCount"),
+                () -> groupService.getAllGroupsOrderedByMemberCount());
     }
 
     // GET /api/groups/ordered/activity - Get all groups ordered by last activity (most recent first)
     @GetMapping("/ordered/activity")
-    public ResponseEntity<List<Group>> getAllGroupsOrderedByActivity() {
-        List<Group> groups = groupService.getAllGroupsOrderedByActivity();
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+    public ResponseEntity<List<?>> getAllGroupsOrderedByActivity(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.all(), Sort.by(Sort.Direction.DESC, "lastActivityDate"),
+                () -> groupService.getAllGroupsOrderedByActivity());
     }
 
     // GET /api/groups/criteria?type={type}&public={public}&active={active} - Get groups by multiple criteria
     @GetMapping("/criteria")
-    public ResponseEntity<List<Group>> getGroupsByCriteria(
+    public ResponseEntity<List<?>> getGroupsByCriteria(
             @RequestParam(required = false) String type,
             @RequestParam(required = false) Boolean publicGroup,
-            @RequestParam(required = false) Boolean active) {
-        List<Group> groups = groupService.getGroupsByCriteria(type, publicGroup, active);
-        return new ResponseEntity<>(groups, HttpStatus.OK);
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String fields) {
+        return projectionReader.list(Group.class, fields, GroupSpecifications.matchesCriteria(type, publicGroup, active),
+                () -> groupService.getGroupsByCriteria(type, publicGroup, active));
     }
 
     // PUT /api/groups/{id}/activate - Activate group
@@ -296,6 +372,8 @@ public class GroupController {
         try {
             Group group = groupService.activateGroup(id);
             return new ResponseEntity<>(group, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
@@ -307,6 +385,8 @@ public class GroupController {
         try {
             Group group = groupService.deactivateGroup(id);
             return new ResponseEntity<>(group, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
@@ -318,6 +398,8 @@ public class GroupController {
         try {
             Group group = groupService.makeGroupPublic(id);
             return new ResponseEntity<>(group, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
@@ -329,6 +411,8 @@ public class GroupController {
         try {
             Group group = groupService.makeGroupPrivate(id);
             return new ResponseEntity<>(group, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
@@ -340,6 +424,8 @@ public class GroupController {
         try {
             Group group = groupService.updateMemberCount(id, request.getMemberCount());
             return new ResponseEntity<>(group, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
@@ -351,6 +437,8 @@ public class GroupController {
         try {
             Group group = groupService.addMemberToGroup(id);
             return new ResponseEntity<>(group, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
@@ -362,6 +450,8 @@ public class GroupController {
         try {
             Group group = groupService.removeMemberFromGroup(id);
             return new ResponseEntity<>(group, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
@@ -373,6 +463,8 @@ public class GroupController {
         try {
             Group group = groupService.updateGroupTags(id, request.getTags());
             return new ResponseEntity<>(group, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
@@ -384,6 +476,8 @@ public class GroupController {
         try {
             Group group = groupService.updateLastActivity(id);
             return new ResponseEntity<>(group, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
@@ -413,4 +507,4 @@ public class GroupController {
             this.tags = tags;
         }
     }
-} 
\ No newline at end of file
+}
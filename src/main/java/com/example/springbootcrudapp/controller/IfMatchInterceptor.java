@@ -0,0 +1,94 @@
+package com.example.springbootcrudapp.controller;
+
+import com.example.springbootcrudapp.entity.Versioned;
+import com.example.springbootcrudapp.service.OptimisticRetry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers 412 to a PUT or PATCH on {@code /api/<entities>/{id}...} whose If-Match does not name the
+ * entity's current version, before the handler runs. The entity for a controller is found by name
+ * (ProductController -> Product); requests without an {id} or without If-Match pass untouched.
+ *
+ * The entity is loaded into the request's open-in-view persistence context. The service's
+ * {@code findById} gets this same instance back, so its update is flushed with
+ * {@code WHERE version = <the version checked here>}, and a write that lands between the check and the
+ * flush fails the update instead of being overwritten. Without open-in-view the entity is read in a
+ * throwaway context, and the check is only as good as that read.
+ */
+public class IfMatchInterceptor implements HandlerInterceptor {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final Map<Class<?>, Optional<Class<?>>> entities = new ConcurrentHashMap<>();
+
+    public IfMatchInterceptor(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String ifMatch = request.getHeader(HttpHeaders.IF_MATCH);
+        if (ifMatch == null || !(handler instanceof HandlerMethod handlerMethod)
+                || !("PUT".equals(request.getMethod()) || "PATCH".equals(request.getMethod()))) {
+            return true;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        Optional<Class<?>> entityType = entity(handlerMethod.getBeanType());
+        if (variables == null || variables.get("id") == null || entityType.isEmpty()) {
+            return true;
+        }
+        Long id;
+        try {
+            id = Long.valueOf(variables.get("id"));
+        } catch (NumberFormatException e) {
+            return true;
+        }
+
+        // The conflict is the client's to resolve: its update is not rerun against a newer version
+        request.setAttribute(OptimisticRetry.NO_RETRY_ATTRIBUTE, Boolean.TRUE);
+
+        // A missing entity is left to the handler's 404
+        if (!(find(entityType.get(), id) instanceof Versioned entity) || ETags.matches(ifMatch, entity.getVersion())) {
+            return true;
+        }
+        response.setStatus(HttpServletResponse.SC_PRECONDITION_FAILED);
+        response.setHeader(HttpHeaders.ETAG, ETags.of(entity.getVersion()));
+        return false;
+    }
+
+    private Object find(Class<?> entityType, Long id) {
+        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory);
+        if (holder != null) {
+            return holder.getEntityManager().find(entityType, id);
+        }
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            return entityManager.find(entityType, id);
+        }
+    }
+
+    // ProductCategoryController -> ProductCategory, if that is a versioned entity
+    private Optional<Class<?>> entity(Class<?> controller) {
+        return entities.computeIfAbsent(controller, type -> {
+            String name = type.getSimpleName().replaceFirst("Controller$", "");
+            return entityManagerFactory.getMetamodel().getEntities().stream()
+                    .map(EntityType::getJavaType)
+                    .filter(javaType -> javaType.getSimpleName().equals(name) && Versioned.class.isAssignableFrom(javaType))
+                    .<Class<?>>map(javaType -> javaType)
+                    .findFirst();
+        });
+    }
+}
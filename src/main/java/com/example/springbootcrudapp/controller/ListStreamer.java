@@ -0,0 +1,121 @@
+package com.example.springbootcrudapp.controller;
+
+import com.example.springbootcrudapp.exception.NotAcceptableException;
+import com.example.springbootcrudapp.grpc.CatalogMessageMapper;
+import com.example.springbootcrudapp.grpc.ProtobufEntityHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.protobuf.CodedOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes a list element by element while the source is still being read, so the response never
+ * holds the whole list and the first bytes leave before the query has finished. The format follows
+ * the Accept header like the message converters do: a JSON, CBOR or Smile array, or a protobuf
+ * {@code *List} message. JSON is used when nothing else is asked for.
+ */
+@Component
+public class ListStreamer {
+
+    private static final List<MediaType> FORMATS = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+            MediaType.valueOf("application/x-jackson-smile"), ProtobufEntityHttpMessageConverter.PROTOBUF);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Autowired
+    private CatalogMessageMapper catalogMessageMapper;
+
+    // Stream every element the source hands over in the format the client accepts; protobuf is only
+    // offered when the element type has a message
+    public <T> ResponseEntity<StreamingResponseBody> stream(Class<?> elementType, Consumer<Consumer<T>> source) {
+        MediaType format = negotiate(catalogMessageMapper.supports(elementType));
+        StreamingResponseBody body;
+        if (format.equals(ProtobufEntityHttpMessageConverter.PROTOBUF)) {
+            ProtobufEntityHttpMessageConverter protobuf = new ProtobufEntityHttpMessageConverter(catalogMessageMapper);
+            body = out -> writeProtobuf(protobuf, StreamUtils.nonClosing(out), source);
+        } else {
+            ObjectMapper mapper = format.equals(MediaType.APPLICATION_CBOR) ? cborConverter.getObjectMapper()
+                    : format.equals(MediaType.APPLICATION_JSON) ? objectMapper : smileConverter.getObjectMapper();
+            body = out -> writeArray(mapper, StreamUtils.nonClosing(out), source);
+        }
+        return ResponseEntity.ok()
+                .contentType(format)
+                .body(body);
+    }
+
+    private <T> void writeArray(ObjectMapper mapper, OutputStream out, Consumer<Consumer<T>> source) throws IOException {
+        try (SequenceWriter array = mapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .writeValuesAsArray(out)) {
+            source.accept(element -> {
+                try {
+                    array.write(element);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private <T> void writeProtobuf(ProtobufEntityHttpMessageConverter protobuf, OutputStream out,
+                                   Consumer<Consumer<T>> source) throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(out);
+        source.accept(element -> {
+            try {
+                protobuf.writeListEntry(output, element);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        output.flush();
+    }
+
+    // First supported format in the client's order of preference. The request is looked up per call
+    // rather than injected, so the bean also exists in contexts without a servlet environment.
+    private MediaType negotiate(boolean protobufAvailable) {
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType acceptedType : accepted) {
+            for (MediaType format : FORMATS) {
+                if (acceptedType.isCompatibleWith(format)
+                        && (protobufAvailable || !format.equals(ProtobufEntityHttpMessageConverter.PROTOBUF))) {
+                    return format;
+                }
+            }
+        }
+        // Neither */* nor JSON is acceptable, and nothing else on offer matched either
+        throw new NotAcceptableException("This list is available as "
+                + (protobufAvailable ? FORMATS : FORMATS.subList(0, FORMATS.size() - 1)) + ", not " + accept);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.springbootcrudapp.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Applies a JSON Merge Patch (RFC 7396) to an entity: members present in the patch replace the
+ * current values, {@code null} clears them, and everything else is left as it is. The patched entity
+ * goes through the same validation and service update as a PUT, so the same fields can be changed
+ * and the same business rules apply. With {@code @DynamicUpdate} on the entities, only the columns
+ * that really changed end up in the UPDATE.
+ */
+@Component
+public class MergePatcher {
+
+    // RFC 7396 media type; plain application/json is accepted as well
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    // Merge the patch into the current entity and hand the result to the service's update, reading
+    // and writing in one transaction so the entity patched is the primary's, not a replica's
+    @Transactional
+    public <T> ResponseEntity<?> patch(Long id, JsonNode patch, Class<T> type,
+                                       Function<Long, Optional<T>> finder, BiFunction<Long, T, T> updater) {
+        if (!patch.isObject()) {
+            throw new RuntimeException("A merge patch for a single " + type.getSimpleName() + " must be a JSON object");
+        }
+        JsonNode patchedId = patch.get("id");
+        if (patchedId != null && !(patchedId.canConvertToLong() && patchedId.asLong() == id)) {
+            throw new RuntimeException("The id of " + type.getSimpleName() + " " + id + " cannot be patched");
+        }
+
+        Optional<T> current = finder.apply(id);
+        if (current.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        JsonNode merged = merge(objectMapper.valueToTree(current.get()), patch);
+
+        T details;
+        try {
+            details = objectMapper.treeToValue(merged, type);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Invalid merge patch: " + e.getOriginalMessage());
+        }
+
+        // Same shape as the @Valid errors of a PUT
+        Map<String, String> errors = new TreeMap<>();
+        for (ConstraintViolation<T> violation : validator.validate(details)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        if (!errors.isEmpty()) {
+            return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+        }
+        return ResponseEntity.ok(updater.apply(id, details));
+    }
+
+    // RFC 7396 MergePatch(target, patch): objects merge member by member, anything else replaces. A
+    // removed member is kept as an explicit null; left out, the entity's field initializer would win.
+    static JsonNode merge(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch;
+        }
+        ObjectNode result = target != null && target.isObject() ? (ObjectNode) target : JsonNodeFactory.instance.objectNode();
+        Iterator<Map.Entry<String, JsonNode>> members = patch.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            if (member.getValue().isNull()) {
+                result.putNull(member.getKey());
+            } else {
+                result.set(member.getKey(), merge(result.get(member.getKey()), member.getValue()));
+            }
+        }
+        return result;
+    }
+}
@@ -1,17 +1,26 @@
 package com.example.springbootcrudapp.controller;
 
 import com.example.springbootcrudapp.entity.ProductCategory;
+import com.example.springbootcrudapp.repository.ProductCategorySpecifications;
+import com.example.springbootcrudapp.repository.ProjectionRepository;
 import com.example.springbootcrudapp.service.ProductCategoryService;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -21,17 +30,63 @@ public class ProductCategoryController {
     @Autowired
     private ProductCategoryService categoryService;
 
-    // Get all categories
+    @Autowired
+    private ListStreamer listStreamer;
+
+    @Autowired
+    private ExportWriter exportWriter;
+
+    @Autowired
+    private BatchReader batchReader;
+
+    @Autowired
+    private ProjectionReader projectionReader;
+
+    @Autowired
+    private MergePatcher mergePatcher;
+
+    @Autowired
+    private BulkTransitions bulkTransitions;
+
+    // Get all categories, written out while the rows are still being read
     @GetMapping
-    public ResponseEntity<List<ProductCategory>> getAllCategories() {
-        List<ProductCategory> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<StreamingResponseBody> getAllCategories(@RequestParam(required = false) String fields) {
+        List<String> selectedFields = ProjectionRepository.parseFields(fields);
+        if (selectedFields == null) {
+            return listStreamer.stream(ProductCategory.class, categoryService::streamAllCategories);
+        }
+        List<?> projected = categoryService.getCategoriesProjected(selectedFields, ProductCategorySpecifications.all(), Sort.unsorted());
+        return listStreamer.stream(Map.class, projected::forEach);
+    }
+
+    // Export categories as NDJSON or CSV, optionally only those modified since a time
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCategories(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date modifiedSince) {
+        return exportWriter.export("categories", ProductCategory.class, format, gzip, modifiedSince == null
+                ? categoryService::streamAllCategories
+                : action -> categoryService.streamCategoriesModifiedSince(modifiedSince, action));
+    }
+
+    // Get several categories by ID, cache misses in one query, in the order requested, with unknown IDs listed as missing
+    @GetMapping("/batch")
+    public ResponseEntity<Map<String, Object>> getCategoriesBatch(@RequestParam List<Long> ids) {
+        return batchReader.fetch("categories", ids, categoryService::getCategoriesByIds, ProductCategory::getId);
+    }
+
+    // Same lookup with the IDs as a JSON array in the body, for lists too long for a query string
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> postCategoriesBatch(@RequestBody List<Long> ids) {
+        return batchReader.fetch("categories", ids, categoryService::getCategoriesByIds, ProductCategory::getId);
     }
 
     // Get category by ID
     @GetMapping("/{id}")
-    public ResponseEntity<ProductCategory> getCategoryById(@PathVariable Long id) {
-        Optional<ProductCategory> category = categoryService.getCategoryById(id);
+    public ResponseEntity<?> getCategoryById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        Optional<?> category = projectionReader.single(ProductCategory.class, fields, ProductCategorySpecifications.hasId(id),
+                () -> categoryService.getCategoryById(id));
         return category.map(ResponseEntity::ok)
                       .orElse(ResponseEntity.notFound().build());
     }
@@ -54,11 +109,26 @@ public class ProductCategoryController {
         try {
             ProductCategory updatedCategory = categoryService.updateCategory(id, categoryDetails);
             return ResponseEntity.ok(updatedCategory);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    // Change only the fields in a JSON Merge Patch
+    @PatchMapping(value = "/{id}", consumes = {MergePatcher.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchProductCategory(@PathVariable Long id, @RequestBody JsonNode patch) {
+        return mergePatcher.patch(id, patch, ProductCategory.class, categoryService::getCategoryById, categoryService::updateCategory);
+    }
+
+    // Set active, featured or visible on many categories without loading them
+    @PutMapping("/bulk/{field}")
+    public ResponseEntity<Map<String, Object>> bulkUpdateCategories(@PathVariable String field,
+                                                                    @RequestBody BulkTransitions.Request request) {
+        return bulkTransitions.update(ProductCategory.class, field, request, ProductCategoryService.BULK_FIELDS, categoryService::bulkUpdate);
+    }
+
     // Delete category
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteCategory(@PathVariable Long id) {
@@ -72,150 +142,155 @@ public class ProductCategoryController {
 
     // Find category by name
     @GetMapping("/name/{name}")
-    public ResponseEntity<ProductCategory> getCategoryByName(@PathVariable String name) {
-        Optional<ProductCategory> category = categoryService.getCategoryByName(name);
+    public ResponseEntity<?> getCategoryByName(@PathVariable String name, @RequestParam(required = false) String fields) {
+        Optional<?> category = projectionReader.single(ProductCategory.class, fields, ProductCategorySpecifications.hasName(name),
+                () -> categoryService.getCategoryByName(name));
         return category.map(ResponseEntity::ok)
                       .orElse(ResponseEntity.notFound().build());
     }
 
     // Find category by category code
     @GetMapping("/code/{categoryCode}")
-    public ResponseEntity<ProductCategory> getCategoryByCode(@PathVariable String categoryCode) {
-        Optional<ProductCategory> category = categoryService.getCategoryByCode(categoryCode);
+    public ResponseEntity<?> getCategoryByCode(@PathVariable String categoryCode, @RequestParam(required = false) String fields) {
+        Optional<?> category = projectionReader.single(ProductCategory.class, fields, ProductCategorySpecifications.hasCategoryCode(categoryCode),
+                () -> categoryService.getCategoryByCode(categoryCode));
         return category.map(ResponseEntity::ok)
                       .orElse(ResponseEntity.notFound().build());
     }
 
     // Search categories by name
     @GetMapping("/search/name")
-    public ResponseEntity<List<ProductCategory>> searchCategoriesByName(@RequestParam String name) {
-        List<ProductCategory> categories = categoryService.searchCategoriesByName(name);
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> searchCategoriesByName(@RequestParam String name, @RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.nameContainsIgnoreCase(name),
+                () -> categoryService.searchCategoriesByName(name));
     }
 
     // Search categories by description
     @GetMapping("/search/description")
-    public ResponseEntity<List<ProductCategory>> searchCategoriesByDescription(@RequestParam String description) {
-        List<ProductCategory> categories = categoryService.searchCategoriesByDescription(description);
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> searchCategoriesByDescription(@RequestParam String description, @RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.descriptionContainsIgnoreCase(description),
+                () -> categoryService.searchCategoriesByDescription(description));
     }
 
     // Get categories by parent ID
     @GetMapping("/parent/{parentId}")
-    public ResponseEntity<List<ProductCategory>> getCategoriesByParent(@PathVariable Long parentId) {
-        List<ProductCategory> categories = categoryService.getCategoriesByParent(parentId);
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getCategoriesByParent(@PathVariable Long parentId, @RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.hasParentCategoryId(parentId),
+                () -> categoryService.getCategoriesByParent(parentId));
     }
 
     // Get root categories (no parent)
     @GetMapping("/root")
-    public ResponseEntity<List<ProductCategory>> getRootCategories() {
-        List<ProductCategory> categories = categoryService.getRootCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getRootCategories(@RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.isRoot(),
+                () -> categoryService.getRootCategories());
     }
 
     // Get subcategories by parent ID and active status
     @GetMapping("/parent/{parentId}/active/{active}")
-    public ResponseEntity<List<ProductCategory>> getSubcategoriesByParentAndActive(@PathVariable Long parentId, 
-                                                                                  @PathVariable Boolean active) {
-        List<ProductCategory> categories = categoryService.getSubcategoriesByParentAndActive(parentId, active);
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getSubcategoriesByParentAndActive(@PathVariable Long parentId, 
+                                                                                  @PathVariable Boolean active,
+                                                                                  @RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.hasParentCategoryIdAndIsActive(parentId, active),
+                () -> categoryService.getSubcategoriesByParentAndActive(parentId, active));
     }
 
     // Get active root categories
     @GetMapping("/root/active")
-    public ResponseEntity<List<ProductCategory>> getActiveRootCategories() {
-        List<ProductCategory> categories = categoryService.getActiveRootCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getActiveRootCategories(@RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.isRootAndActive(true),
+                () -> categoryService.getActiveRootCategories());
     }
 
     // Get active categories
     @GetMapping("/active")
-    public ResponseEntity<List<ProductCategory>> getActiveCategories() {
-        List<ProductCategory> categories = categoryService.getActiveCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getActiveCategories(@RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.isActive(true),
+                () -> categoryService.getActiveCategories());
     }
 
     // Get inactive categories
     @GetMapping("/inactive")
-    public ResponseEntity<List<ProductCategory>> getInactiveCategories() {
-        List<ProductCategory> categories = categoryService.getInactiveCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getInactiveCategories(@RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.isActive(false),
+                () -> categoryService.getInactiveCategories());
     }
 
     // Get visible categories
     @GetMapping("/visible")
-    public ResponseEntity<List<ProductCategory>> getVisibleCategories() {
-        List<ProductCategory> categories = categoryService.getVisibleCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getVisibleCategories(@RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.isVisible(true),
+                () -> categoryService.getVisibleCategories());
     }
 
     // Get hidden categories
     @GetMapping("/hidden")
-    public ResponseEntity<List<ProductCategory>> getHiddenCategories() {
-        List<ProductCategory> categories = categoryService.getHiddenCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getHiddenCategories(@RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.isVisible(false),
+                () -> categoryService.getHiddenCategories());
     }
 
     // Get featured categories
     @GetMapping("/featured")
-    public ResponseEntity<List<ProductCategory>> getFeaturedCategories() {
-        List<ProductCategory> categories = categoryService.getFeaturedCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getFeaturedCategories(@RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.isFeatured(true),
+                () -> categoryService.getFeaturedCategories());
     }
 
     // Get non-featured categories
     @GetMapping("/non-featured")
-    public ResponseEntity<List<ProductCategory>> getNonFeaturedCategories() {
-        List<ProductCategory> categories = categoryService.getNonFeaturedCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getNonFeaturedCategories(@RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.isFeatured(false),
+                () -> categoryService.getNonFeaturedCategories());
     }
 
     // Get categories by active status and visibility
     @GetMapping("/active/{active}/visible/{visible}")
-    public ResponseEntity<List<ProductCategory>> getCategoriesByActiveAndVisible(@PathVariable Boolean active, 
-                                                                                @PathVariable Boolean visible) {
-        List<ProductCategory> categories = categoryService.getCategoriesByActiveAndVisible(active, visible);
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getCategoriesByActiveAndVisible(@PathVariable Boolean active, 
+                                                                                @PathVariable Boolean visible,
+                                                                                @RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.isActiveAndVisible(active, visible),
+                () -> categoryService.getCategoriesByActiveAndVisible(active, visible));
     }
 
     // Get categories by featured status and visibility
     @GetMapping("/featured/{featured}/visible/{visible}")
-    public ResponseEntity<List<ProductCategory>> getCategoriesByFeaturedAndVisible(@PathVariable Boolean featured, 
-                                                                                  @PathVariable Boolean visible) {
-        List<ProductCategory> categories = categoryService.getCategoriesByFeaturedAndVisible(featured, visible);
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getCategoriesByFeaturedAndVisible(@PathVariable Boolean featured, 
+                                                                                  @PathVariable Boolean visible,
+                                                                                  @RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.isFeaturedAndVisible(featured, visible),
+                () -> categoryService.getCategoriesByFeaturedAndVisible(featured, visible));
     }
 
     // Get categories with product count greater than
     @GetMapping("/product-count/greater/{count}")
-    public ResponseEntity<List<ProductCategory>> getCategoriesWithProductCountGreaterThan(@PathVariable Integer count) {
-        List<ProductCategory> categories = categoryService.getCategoriesWithProductCountGreaterThan(count);
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getCategoriesWithProductCountGreaterThan(@PathVariable Integer count, @RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.productCountGreaterThan(count),
+                () -> categoryService.getCategoriesWithProductCountGreaterThan(count));
     }
 
     // Get categories with product count less than
     @GetMapping("/product-count/less/{count}")
-    public ResponseEntity<List<ProductCategory>> getCategoriesWithProductCountLessThan(@PathVariable Integer count) {
-        List<ProductCategory> categories = categoryService.getCategoriesWithProductCountLessThan(count);
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getCategoriesWithProductCountLessThan(@PathVariable Integer count, @RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.productCountLessThan(count),
+                () -> categoryService.getCategoriesWithProductCountLessThan(count));
     }
 
     // Get categories with no products
     @GetMapping("/no-products")
-    public ResponseEntity<List<ProductCategory>> getCategoriesWithNoProducts() {
-        List<ProductCategory> categories = categoryService.getCategoriesWithNoProducts();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getCategoriesWithNoProducts(@RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.hasNoProducts(),
+                () -> categoryService.getCategoriesWithNoProducts());
     }
 
     // Get categories created after date
     @GetMapping("/created-after")
-    public ResponseEntity<List<ProductCategory>> getCategoriesCreatedAfter(@RequestParam String date) {
+    public ResponseEntity<List<?>> getCategoriesCreatedAfter(@RequestParam String date, @RequestParam(required = false) String fields) {
         try {
             SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
             Date parsedDate = dateFormat.parse(date);
-            List<ProductCategory> categories = categoryService.getCategoriesCreatedAfter(parsedDate);
-            return ResponseEntity.ok(categories);
+            return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.createdAfter(parsedDate),
+                    () -> categoryService.getCategoriesCreatedAfter(parsedDate));
         } catch (ParseException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -223,12 +298,12 @@ public class ProductCategoryController {
 
     // Get categories modified after date
     @GetMapping("/modified-after")
-    public ResponseEntity<List<ProductCategory>> getCategoriesModifiedAfter(@RequestParam String date) {
+    public ResponseEntity<List<?>> getCategoriesModifiedAfter(@RequestParam String date, @RequestParam(required = false) String fields) {
         try {
             SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
             Date parsedDate = dateFormat.parse(date);
-            List<ProductCategory> categories = categoryService.getCategoriesModifiedAfter(parsedDate);
-            return ResponseEntity.ok(categories);
+            return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.modifiedAfter(parsedDate),
+                    () -> categoryService.getCategoriesModifiedAfter(parsedDate));
         } catch (ParseException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -236,76 +311,77 @@ public class ProductCategoryController {
 
     // Get categories by tag
     @GetMapping("/tag/{tag}")
-    public ResponseEntity<List<ProductCategory>> getCategoriesByTag(@PathVariable String tag) {
-        List<ProductCategory> categories = categoryService.getCategoriesByTag(tag);
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getCategoriesByTag(@PathVariable String tag, @RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.tagsContain(tag),
+                () -> categoryService.getCategoriesByTag(tag));
     }
 
     // Get categories by meta title
     @GetMapping("/meta-title")
-    public ResponseEntity<List<ProductCategory>> getCategoriesByMetaTitle(@RequestParam String title) {
-        List<ProductCategory> categories = categoryService.getCategoriesByMetaTitle(title);
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getCategoriesByMetaTitle(@RequestParam String title, @RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.metaTitleContains(title),
+                () -> categoryService.getCategoriesByMetaTitle(title));
     }
 
     // Get categories by color
     @GetMapping("/color/{color}")
-    public ResponseEntity<List<ProductCategory>> getCategoriesByColor(@PathVariable String color) {
-        List<ProductCategory> categories = categoryService.getCategoriesByColor(color);
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getCategoriesByColor(@PathVariable String color, @RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.hasColor(color),
+                () -> categoryService.getCategoriesByColor(color));
     }
 
     // Get categories ordered by display order
     @GetMapping("/ordered/display-order")
-    public ResponseEntity<List<ProductCategory>> getCategoriesOrderedByDisplayOrder() {
-        List<ProductCategory> categories = categoryService.getAllCategoriesOrderedByDisplayOrder();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getCategoriesOrderedByDisplayOrder(@RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.all(), Sort.by("displayOrder"),
+                () -> categoryService.getAllCategoriesOrderedByDisplayOrder());
     }
 
     // Get categories ordered by name
     @GetMapping("/ordered/name")
-    public ResponseEntity<List<ProductCategory>> getCategoriesOrderedByName() {
-        List<ProductCategory> categories = categoryService.getAllCategoriesOrderedByName();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getCategoriesOrderedByName(@RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.all(), Sort.by("name"),
+                () -> categoryService.getAllCategoriesOrderedByName());
     }
 
     // Get categories ordered by product count
     @GetMapping("/ordered/product-count")
-    public ResponseEntity<List<ProductCategory>> getCategoriesOrderedByProductCount() {
-        List<ProductCategory> categories = categoryService.getAllCategoriesOrderedByProductCount();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getCategoriesOrderedByProductCount(@RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.all(), Sort.by(Sort.Direction.DESC, "productCount"),
+                () -> categoryService.getAllCategoriesOrderedByProductCount());
     }
 
     // Get categories ordered by creation date
     @GetMapping("/ordered/creation-date")
-    public ResponseEntity<List<ProductCategory>> getCategoriesOrderedByCreationDate() {
-        List<ProductCategory> categories = categoryService.getAllCategoriesOrderedByCreationDate();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getCategoriesOrderedByCreationDate(@RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.all(), Sort.by(Sort.Direction.DESC, "createdDate"),
+                () -> categoryService.getAllCategoriesOrderedByCreationDate());
     }
 
     // Get categories ordered by modification date
     @GetMapping("/ordered/modification-date")
-    public ResponseEntity<List<ProductCategory>> getCategoriesOrderedByModificationDate() {
-        List<ProductCategory> categories = categoryService.getAllCategoriesOrderedByModificationDate();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getCategoriesOrderedByModificationDate(@RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.all(), Sort.by(Sort.Direction.DESC, "lastModifiedDate"),
+                () -> categoryService.getAllCategoriesOrderedByModificationDate());
     }
 
     // Get categories by multiple criteria
     @GetMapping("/criteria")
-    public ResponseEntity<List<ProductCategory>> getCategoriesByCriteria(
+    public ResponseEntity<List<?>> getCategoriesByCriteria(
             @RequestParam(required = false) Long parentCategoryId,
             @RequestParam(required = false) Boolean active,
             @RequestParam(required = false) Boolean isVisible,
-            @RequestParam(required = false) Boolean isFeatured) {
-        List<ProductCategory> categories = categoryService.getCategoriesByCriteria(parentCategoryId, active, isVisible, isFeatured);
-        return ResponseEntity.ok(categories);
+            @RequestParam(required = false) Boolean isFeatured,
+            @RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.matchesCriteria(parentCategoryId, active, isVisible, isFeatured),
+                () -> categoryService.getCategoriesByCriteria(parentCategoryId, active, isVisible, isFeatured));
     }
 
     // Get category hierarchy
     @GetMapping("/{id}/hierarchy")
-    public ResponseEntity<List<ProductCategory>> getCategoryHierarchy(@PathVariable Long id) {
-        List<ProductCategory> categories = categoryService.getCategoryHierarchy(id);
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<?>> getCategoryHierarchy(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        return projectionReader.list(ProductCategory.class, fields, ProductCategorySpecifications.hierarchyOf(id),
+                () -> categoryService.getCategoryHierarchy(id));
     }
 
     // Count subcategories
@@ -321,6 +397,8 @@ public class ProductCategoryController {
         try {
             ProductCategory category = categoryService.activateCategory(id);
             return ResponseEntity.ok(category);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -332,6 +410,8 @@ public class ProductCategoryController {
         try {
             ProductCategory category = categoryService.deactivateCategory(id);
             return ResponseEntity.ok(category);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -343,6 +423,8 @@ public class ProductCategoryController {
         try {
             ProductCategory category = categoryService.makeCategoryVisible(id);
             return ResponseEntity.ok(category);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -354,6 +436,8 @@ public class ProductCategoryController {
         try {
             ProductCategory category = categoryService.hideCategory(id);
             return ResponseEntity.ok(category);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -365,6 +449,8 @@ public class ProductCategoryController {
         try {
             ProductCategory category = categoryService.featureCategory(id);
             return ResponseEntity.ok(category);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -376,6 +462,8 @@ public class ProductCategoryController {
         try {
             ProductCategory category = categoryService.unfeatureCategory(id);
             return ResponseEntity.ok(category);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -388,6 +476,8 @@ public class ProductCategoryController {
         try {
             ProductCategory category = categoryService.updateProductCount(id, productCount);
             return ResponseEntity.ok(category);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -400,6 +490,8 @@ public class ProductCategoryController {
         try {
             ProductCategory category = categoryService.updateDisplayOrder(id, displayOrder);
             return ResponseEntity.ok(category);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -412,8 +504,10 @@ public class ProductCategoryController {
         try {
             ProductCategory category = categoryService.updateCategoryTags(id, tags);
             return ResponseEntity.ok(category);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
-} 
\ No newline at end of file
+}
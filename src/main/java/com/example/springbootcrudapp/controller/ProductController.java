@@ -1,11 +1,19 @@
 package com.example.springbootcrudapp.controller;
 
 import com.example.springbootcrudapp.entity.Product;
+import com.example.springbootcrudapp.repository.ProductSpecifications;
+import com.example.springbootcrudapp.repository.ProjectionRepository;
 import com.example.springbootcrudapp.service.ProductService;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
@@ -13,6 +21,7 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -22,17 +31,63 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
-    // Get all products
+    @Autowired
+    private ListStreamer listStreamer;
+
+    @Autowired
+    private ExportWriter exportWriter;
+
+    @Autowired
+    private BatchReader batchReader;
+
+    @Autowired
+    private ProjectionReader projectionReader;
+
+    @Autowired
+    private MergePatcher mergePatcher;
+
+    @Autowired
+    private BulkTransitions bulkTransitions;
+
+    // Get all products, written out while the rows are still being read
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<StreamingResponseBody> getAllProducts(@RequestParam(required = false) String fields) {
+        List<String> selectedFields = ProjectionRepository.parseFields(fields);
+        if (selectedFields == null) {
+            return listStreamer.stream(Product.class, productService::streamAllProducts);
+        }
+        List<?> projected = productService.getProductsProjected(selectedFields, ProductSpecifications.all(), Sort.unsorted());
+        return listStreamer.stream(Map.class, projected::forEach);
+    }
+
+    // Export products as NDJSON or CSV, optionally only those modified since a time
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date modifiedSince) {
+        return exportWriter.export("products", Product.class, format, gzip, modifiedSince == null
+                ? productService::streamAllProducts
+                : action -> productService.streamProductsModifiedSince(modifiedSince, action));
+    }
+
+    // Get several products by ID in one query, in the order requested; not counted as views
+    @GetMapping("/batch")
+    public ResponseEntity<Map<String, Object>> getProductsBatch(@RequestParam List<Long> ids) {
+        return batchReader.fetch("products", ids, productService::getProductsByIds, Product::getId);
+    }
+
+    // Same lookup with the IDs as a JSON array in the body, for lists too long for a query string
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> postProductsBatch(@RequestBody List<Long> ids) {
+        return batchReader.fetch("products", ids, productService::getProductsByIds, Product::getId);
     }
 
     // Get product by ID
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        Optional<Product> product = productService.getProductById(id);
+    public ResponseEntity<?> getProductById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        Optional<?> product = projectionReader.single(Product.class, fields, ProductSpecifications.hasId(id),
+                () -> productService.getProductById(id));
         if (product.isPresent()) {
             productService.incrementViewCount(id);
             return ResponseEntity.ok(product.get());
@@ -58,11 +113,26 @@ public class ProductController {
         try {
             Product updatedProduct = productService.updateProduct(id, productDetails);
             return ResponseEntity.ok(updatedProduct);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    // Change only the fields in a JSON Merge Patch
+    @PatchMapping(value = "/{id}", consumes = {MergePatcher.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchProduct(@PathVariable Long id, @RequestBody JsonNode patch) {
+        return mergePatcher.patch(id, patch, Product.class, productService::getProductById, productService::updateProduct);
+    }
+
+    // Set active, featured or status on many products without loading them
+    @PutMapping("/bulk/{field}")
+    public ResponseEntity<Map<String, Object>> bulkUpdateProducts(@PathVariable String field,
+                                                                  @RequestBody BulkTransitions.Request request) {
+        return bulkTransitions.update(Product.class, field, request, ProductService.BULK_FIELDS, productService::bulkUpdate);
+    }
+
     // Delete product
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteProduct(@PathVariable Long id) {
@@ -76,167 +146,172 @@ public class ProductController {
 
     // Find product by name
     @GetMapping("/name/{name}")
-    public ResponseEntity<Product> getProductByName(@PathVariable String name) {
-        Optional<Product> product = productService.getProductByName(name);
+    public ResponseEntity<?> getProductByName(@PathVariable String name, @RequestParam(required = false) String fields) {
+        Optional<?> product = projectionReader.single(Product.class, fields, ProductSpecifications.hasName(name),
+                () -> productService.getProductByName(name));
         return product.map(ResponseEntity::ok)
                      .orElse(ResponseEntity.notFound().build());
     }
 
     // Find product by SKU
     @GetMapping("/sku/{sku}")
-    public ResponseEntity<Product> getProductBySku(@PathVariable String sku) {
-        Optional<Product> product = productService.getProductBySku(sku);
+    public ResponseEntity<?> getProductBySku(@PathVariable String sku, @RequestParam(required = false) String fields) {
+        Optional<?> product = projectionReader.single(Product.class, fields, ProductSpecifications.hasSku(sku),
+                () -> productService.getProductBySku(sku));
         return product.map(ResponseEntity::ok)
                      .orElse(ResponseEntity.notFound().build());
     }
 
     // Search products by name
     @GetMapping("/search/name")
-    public ResponseEntity<List<Product>> searchProductsByName(@RequestParam String name) {
-        List<Product> products = productService.searchProductsByName(name);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<?>> searchProductsByName(@RequestParam String name, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.nameContainsIgnoreCase(name),
+                () -> productService.searchProductsByName(name));
     }
 
     // Search products by description
     @GetMapping("/search/description")
-    public ResponseEntity<List<Product>> searchProductsByDescription(@RequestParam String description) {
-        List<Product> products = productService.searchProductsByDescription(description);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<?>> searchProductsByDescription(@RequestParam String description, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.descriptionContainsIgnoreCase(description),
+                () -> productService.searchProductsByDescription(description));
     }
 
     // Search products by multiple fields
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String searchTerm) {
-        List<Product> products = productService.searchProducts(searchTerm);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<?>> searchProducts(@RequestParam String searchTerm, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.matchesSearchTerm(searchTerm),
+                () -> productService.searchProducts(searchTerm));
     }
 
     // Get products by brand
     @GetMapping("/brand/{brand}")
-    public ResponseEntity<List<Product>> getProductsByBrand(@PathVariable String brand) {
-        List<Product> products = productService.getProductsByBrand(brand);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<?>> getProductsByBrand(@PathVariable String brand, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.hasBrand(brand),
+                () -> productService.getProductsByBrand(brand));
     }
 
     // Get products by category
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable Long categoryId) {
-        List<Product> products = productService.getProductsByCategory(categoryId);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<?>> getProductsByCategory(@PathVariable Long categoryId, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.hasCategoryId(categoryId),
+                () -> productService.getProductsByCategory(categoryId));
     }
 
     // Get products by status
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Product>> getProductsByStatus(@PathVariable Product.ProductStatus status) {
-        List<Product> products = productService.getProductsByStatus(status);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<?>> getProductsByStatus(@PathVariable Product.ProductStatus status, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.hasStatus(status),
+                () -> productService.getProductsByStatus(status));
     }
 
     // Get active products
     @GetMapping("/active")
-    public ResponseEntity<List<Product>> getActiveProducts() {
-        List<Product> products = productService.getActiveProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<?>> getActiveProducts(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.isActive(true),
+                () -> productService.getActiveProducts());
     }
 
     // Get featured products
     @GetMapping("/featured")
-    public ResponseEntity<List<Product>> getFeaturedProducts() {
-        List<Product> products = productService.getFeaturedProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<?>> getFeaturedProducts(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.isFeatured(true),
+                () -> productService.getFeaturedProducts());
     }
 
     // Get digital products
     @GetMapping("/digital")
-    public ResponseEntity<List<Product>> getDigitalProducts() {
-        List<Product> products = productService.getDigitalProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<?>> getDigitalProducts(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.isDigital(true),
+                () -> productService.getDigitalProducts());
     }
 
     // Get products by price range
     @GetMapping("/price-range")
-    public ResponseEntity<List<Product>> getProductsByPriceRange(@RequestParam BigDecimal minPrice, 
-                                                               @RequestParam BigDecimal maxPrice) {
-        List<Product> products = productService.getProductsByPriceRange(minPrice, maxPrice);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<?>> getProductsByPriceRange(@RequestParam BigDecimal minPrice, 
+                                                               @RequestParam BigDecimal maxPrice,
+                                                               @RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.priceBetween(minPrice, maxPrice),
+                () -> productService.getProductsByPriceRange(minPrice, maxPrice));
     }
 
     // Get products on sale
     @GetMapping("/on-sale")
-    public ResponseEntity<List<Product>> getProductsOnSale() {
-        List<Product> products = productService.getProductsOnSale();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<?>> getProductsOnSale(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.onSale(),
+                () -> productService.getProductsOnSale());
     }
 
     // Get out of stock products
     @GetMapping("/out-of-stock")
-    public ResponseEntity<List<Product>> getOutOfStockProducts() {
-        List<Product> products = productService.getOutOfStockProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<?>> getOutOfStockProducts(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.outOfStock(),
+                () -> productService.getOutOfStockProducts());
     }
 
     // Get low stock products
     @GetMapping("/low-stock")
-    public ResponseEntity<List<Product>> getLowStockProducts() {
-        List<Product> products = productService.getLowStockProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<?>> getLowStockProducts(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.lowStock(),
+                () -> productService.getLowStockProducts());
     }
 
     // Get best selling products
     @GetMapping("/best-selling")
-    public ResponseEntity<List<Product>> getBestSellingProducts(@RequestParam(defaultValue = "0") Integer salesCount) {
-        List<Product> products = productService.getBestSellingProducts(salesCount);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<?>> getBestSellingProducts(@RequestParam(defaultValue = "0") Integer salesCount, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.salesCountGreaterThan(salesCount), Sort.by(Sort.Direction.DESC, "salesCount"),
+                () -> productService.getBestSellingProducts(salesCount));
     }
 
     // Get most viewed products
     @GetMapping("/most-viewed")
-    public ResponseEntity<List<Product>> getMostViewedProducts(@RequestParam(defaultValue = "0") Integer viewCount) {
-        List<Product> products = productService.getMostViewedProducts(viewCount);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<?>> getMostViewedProducts(@RequestParam(defaultValue = "0") Integer viewCount, @RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.viewCountGreaterThan(viewCount), Sort.by(Sort.Direction.DESC, "viewCount"),
+                () -> productService.getMostViewedProducts(viewCount));
     }
 
     // Get highly rated products
     @GetMapping("/highly-rated")
-    public ResponseEntity<List<Product>> getHighlyRatedProducts(@RequestParam(defaultValue = "4.0") Double rating,
-                                                              @RequestParam(defaultValue = "1") Integer minReviews) {
-        List<Product> products = productService.getHighlyRatedProducts(rating, minReviews);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<?>> getHighlyRatedProducts(@RequestParam(defaultValue = "4.0") Double rating,
+                                                              @RequestParam(defaultValue = "1") Integer minReviews,
+                                                              @RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.highlyRated(rating, minReviews), Sort.by(Sort.Direction.DESC, "rating"),
+                () -> productService.getHighlyRatedProducts(rating, minReviews));
     }
 
     // Get products ordered by name
     @GetMapping("/ordered/name")
-    public ResponseEntity<List<Product>> getProductsOrderedByName() {
-        List<Product> products = productService.getAllProductsOrderedByName();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<?>> getProductsOrderedByName(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.all(), Sort.by("name"),
+                () -> productService.getAllProductsOrderedByName());
     }
 
     // Get products ordered by price (lowest first)
     @GetMapping("/ordered/price-asc")
-    public ResponseEntity<List<Product>> getProductsOrderedByPriceAsc() {
-        List<Product> products = productService.getAllProductsOrderedByPriceAsc();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<?>> getProductsOrderedByPriceAsc(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.all(), Sort.by("price"),
+                () -> productService.getAllProductsOrderedByPriceAsc());
     }
 
     // Get products ordered by price (highest first)
     @GetMapping("/ordered/price-desc")
-    public ResponseEntity<List<Product>> getProductsOrderedByPriceDesc() {
-        List<Product> products = productService.getAllProductsOrderedByPriceDesc();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<?>> getProductsOrderedByPriceDesc(@RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.all(), Sort.by(Sort.Direction.DESC, "price"),
+                () -> productService.getAllProductsOrderedByPriceDesc());
     }
 
     // Get products by multiple criteria
     @GetMapping("/criteria")
-    public ResponseEntity<List<Product>> getProductsByCriteria(
+    public ResponseEntity<List<?>> getProductsByCriteria(
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) String brand,
             @RequestParam(required = false) Product.ProductStatus status,
             @RequestParam(required = false) Boolean active,
             @RequestParam(required = false) Boolean isFeatured,
             @RequestParam(required = false) BigDecimal minPrice,
-            @RequestParam(required = false) BigDecimal maxPrice) {
-        List<Product> products = productService.getProductsByCriteria(categoryId, brand, status, active, isFeatured, minPrice, maxPrice);
-        return ResponseEntity.ok(products);
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String fields) {
+        return projectionReader.list(Product.class, fields, ProductSpecifications.matchesCriteria(categoryId, brand, status, active, isFeatured, minPrice, maxPrice),
+                () -> productService.getProductsByCriteria(categoryId, brand, status, active, isFeatured, minPrice, maxPrice));
     }
 
     // Activate product
@@ -245,6 +320,8 @@ public class ProductController {
         try {
             Product product = productService.activateProduct(id);
             return ResponseEntity.ok(product);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -256,6 +333,8 @@ public class ProductController {
         try {
             Product product = productService.deactivateProduct(id);
             return ResponseEntity.ok(product);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -267,18 +346,22 @@ public class ProductController {
         try {
             Product product = productService.featureProduct(id);
             return ResponseEntity.ok(product);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
-    // Update product status
-    @PutMapping("/{id}/status")
+    // Update product status (numeric ids only, so PUT /bulk/status reaches the bulk endpoint)
+    @PutMapping("/{id:\\d+}/status")
     public ResponseEntity<Product> updateProductStatus(@PathVariable Long id, 
                                                       @RequestParam Product.ProductStatus status) {
         try {
             Product product = productService.updateProductStatus(id, status);
             return ResponseEntity.ok(product);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -291,6 +374,8 @@ public class ProductController {
         try {
             Product product = productService.updateProductPrice(id, price);
             return ResponseEntity.ok(product);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -303,6 +388,8 @@ public class ProductController {
         try {
             Product product = productService.updateStockQuantity(id, stockQuantity);
             return ResponseEntity.ok(product);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -316,8 +403,10 @@ public class ProductController {
         try {
             Product product = productService.updateProductRating(id, rating, reviewCount);
             return ResponseEntity.ok(product);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
-} 
\ No newline at end of file
+}
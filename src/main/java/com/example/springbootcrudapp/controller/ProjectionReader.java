@@ -0,0 +1,50 @@
+package com.example.springbootcrudapp.controller;
+
+import com.example.springbootcrudapp.repository.ProjectionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Answers the reads that take {@code ?fields=a,b}: without it the endpoint's own finder runs and full
+ * entities come back; with it only those columns are selected, from the rows the specification
+ * picks. Each specification has to select the same rows as the finder it stands in for.
+ */
+@Component
+public class ProjectionReader {
+
+    @Autowired
+    private ProjectionRepository projectionRepository;
+
+    // Full entities by default; with ?fields=a,b only those columns are selected and returned
+    public <T> ResponseEntity<List<?>> list(Class<T> entityClass, String fields, Specification<T> specification,
+                                            Supplier<List<T>> fullRead) {
+        return list(entityClass, fields, specification, Sort.unsorted(), fullRead);
+    }
+
+    // Same, in the order the finder returns its rows
+    public <T> ResponseEntity<List<?>> list(Class<T> entityClass, String fields, Specification<T> specification, Sort sort,
+                                            Supplier<List<T>> fullRead) {
+        List<String> selectedFields = ProjectionRepository.parseFields(fields);
+        if (selectedFields == null) {
+            return ResponseEntity.ok(fullRead.get());
+        }
+        return ResponseEntity.ok(projectionRepository.findProjected(entityClass, selectedFields, specification, sort));
+    }
+
+    // The one entity a lookup finds, or only the requested columns of it
+    public <T> Optional<?> single(Class<T> entityClass, String fields, Specification<T> specification,
+                                  Supplier<Optional<T>> fullRead) {
+        List<String> selectedFields = ProjectionRepository.parseFields(fields);
+        if (selectedFields == null) {
+            return fullRead.get();
+        }
+        return projectionRepository.findProjected(entityClass, selectedFields, specification).stream().findFirst();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.springbootcrudapp.controller;
+
+import com.example.springbootcrudapp.service.SnapshotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/snapshot")
+@CrossOrigin(origins = "*")
+public class SnapshotController {
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    // GET /api/snapshot - Describe the snapshot file
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getSnapshot() {
+        return new ResponseEntity<>(snapshotService.getSnapshotInfo(), HttpStatus.OK);
+    }
+
+    // POST /api/snapshot - Dump every table to the snapshot file
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createSnapshot() {
+        return new ResponseEntity<>(snapshotService.createSnapshot(), HttpStatus.CREATED);
+    }
+
+    // POST /api/snapshot/restore - Replace every table with the snapshot's rows
+    @PostMapping("/restore")
+    public ResponseEntity<Map<String, Object>> restoreSnapshot() {
+        return new ResponseEntity<>(snapshotService.restoreSnapshot(), HttpStatus.OK);
+    }
+}
@@ -1,14 +1,21 @@
 package com.example.springbootcrudapp.controller;
 
 import com.example.springbootcrudapp.entity.User;
+import com.example.springbootcrudapp.repository.ProjectionRepository;
+import com.example.springbootcrudapp.repository.UserSpecifications;
 import com.example.springbootcrudapp.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -19,17 +26,57 @@ public class UserController {
     @Autowired
     private UserService userService;
 
-    // GET /api/users - Get all users
+    @Autowired
+    private ListStreamer listStreamer;
+
+    @Autowired
+    private ExportWriter exportWriter;
+
+    @Autowired
+    private BatchReader batchReader;
+
+    @Autowired
+    private ProjectionReader projectionReader;
+
+    @Autowired
+    private MergePatcher mergePatcher;
+
+    // GET /api/users - Get all users, written out while the rows are still being read
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return new ResponseEntity<>(users, HttpStatus.OK);
+    public ResponseEntity<StreamingResponseBody> getAllUsers(@RequestParam(required = false) String fields) {
+        List<String> selectedFields = ProjectionRepository.parseFields(fields);
+        if (selectedFields == null) {
+            return listStreamer.stream(User.class, userService::streamAllUsers);
+        }
+        List<?> projected = userService.getUsersProjected(selectedFields, UserSpecifications.all());
+        return listStreamer.stream(Map.class, projected::forEach);
+    }
+
+    // GET /api/users/export - Export users as NDJSON or CSV
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return exportWriter.export("users", User.class, format, gzip, userService::streamAllUsers);
+    }
+
+    // Get several users by ID in one query, in the order requested, with unknown IDs listed as missing
+    @GetMapping("/batch")
+    public ResponseEntity<Map<String, Object>> getUsersBatch(@RequestParam List<Long> ids) {
+        return batchReader.fetch("users", ids, userService::getUsersByIds, User::getId);
+    }
+
+    // Same lookup with the IDs as a JSON array in the body, for lists too long for a query string
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> postUsersBatch(@RequestBody List<Long> ids) {
+        return batchReader.fetch("users", ids, userService::getUsersByIds, User::getId);
     }
 
     // GET /api/users/{id} - Get user by ID
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
-        Optional<User> user = userService.getUserById(id);
+    public ResponseEntity<?> getUserById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        Optional<?> user = projectionReader.single(User.class, fields, UserSpecifications.hasId(id),
+                () -> userService.getUserById(id));
         if (user.isPresent()) {
             return new ResponseEntity<>(user.get(), HttpStatus.OK);
         } else {
@@ -54,11 +101,19 @@ public class UserController {
         try {
             User updatedUser = userService.updateUser(id, userDetails);
             return new ResponseEntity<>(updatedUser, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
     }
 
+    // PATCH /api/users/{id} - Change only the fields in a JSON Merge Patch
+    @PatchMapping(value = "/{id}", consumes = {MergePatcher.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchUser(@PathVariable Long id, @RequestBody JsonNode patch) {
+        return mergePatcher.patch(id, patch, User.class, userService::getUserById, userService::updateUser);
+    }
+
     // DELETE /api/users/{id} - Delete user
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
@@ -72,8 +127,9 @@ public class UserController {
 
     // GET /api/users/email/{email} - Get user by email
     @GetMapping("/email/{email}")
-    public ResponseEntity<User> getUserByEmail(@PathVariable String email) {
-        Optional<User> user = userService.getUserByEmail(email);
+    public ResponseEntity<?> getUserByEmail(@PathVariable String email, @RequestParam(required = false) String fields) {
+        Optional<?> user = projectionReader.single(User.class, fields, UserSpecifications.hasEmail(email),
+                () -> userService.getUserByEmail(email));
         if (user.isPresent()) {
             return new ResponseEntity<>(user.get(), HttpStatus.OK);
         } else {
@@ -82,15 +138,15 @@ public class UserController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<User>> searchUsersByName(@RequestParam String name) {
-        List<User> users = userService.searchUsersByName(name);
-        return new ResponseEntity<>(users, HttpStatus.OK);
+    public ResponseEntity<List<?>> searchUsersByName(@RequestParam String name, @RequestParam(required = false) String fields) {
+        return projectionReader.list(User.class, fields, UserSpecifications.nameContainsIgnoreCase(name),
+                () -> userService.searchUsersByName(name));
     }
 
     // GET /api/users/phone/{phone} - Get users by phone
     @GetMapping("/phone/{phone}")
-    public ResponseEntity<List<User>> getUsersByPhone(@PathVariable String phone) {
-        List<User> users = userService.getUsersByPhone(phone);
-        return new ResponseEntity<>(users, HttpStatus.OK);
+    public ResponseEntity<List<?>> getUsersByPhone(@PathVariable String phone, @RequestParam(required = false) String fields) {
+        return projectionReader.list(User.class, fields, UserSpecifications.hasPhone(phone),
+                () -> userService.getUsersByPhone(phone));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package com.example.springbootcrudapp.datasource;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fair semaphore sized to the connection pool. With virtual threads there can be thousands of
+ * requests wanting a connection at once; they park here, which costs almost nothing, and only as
+ * many as the pool can serve go on to Hikari.
+ */
+public class DataSourceBulkhead {
+
+    private final int maxConcurrent;
+    private final long acquireTimeoutNanos;
+    private final Semaphore permits;
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    public DataSourceBulkhead(int maxConcurrent, long acquireTimeoutNanos) {
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeoutNanos = acquireTimeoutNanos;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    // Wait for a permit; fails with a transient SQL exception after the acquire timeout
+    public void acquire() throws SQLException {
+        if (permits.tryAcquire()) {
+            acquired.increment();
+            return;
+        }
+
+        queued.increment();
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                timeouts.increment();
+                throw new SQLTransientConnectionException("No database permit available within "
+                        + TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos) + " ms (" + maxConcurrent + " in use)");
+            }
+            acquired.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database permit", e);
+        } finally {
+            waitNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("maxConcurrent", maxConcurrent);
+        values.put("available", permits.availablePermits());
+        values.put("waiting", permits.getQueueLength());
+        values.put("acquired", acquired.sum());
+        values.put("queued", queued.sum());
+        values.put("timeouts", timeouts.sum());
+        values.put("totalWaitMs", waitNanos.sum() / 1_000_000.0);
+        return values;
+    }
+}
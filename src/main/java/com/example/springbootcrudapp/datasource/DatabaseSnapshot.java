@@ -0,0 +1,498 @@
+package com.example.springbootcrudapp.datasource;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary dump and bulk load of every table in the PUBLIC schema.
+ *
+ * Layout: magic, format version, creation time and table count, then per table its name, row count,
+ * column names and value types, followed by the rows. Each row is a null bitmap and the non-null
+ * values; integers are zig-zag varints, strings UTF-8 with a varint length, timestamps epoch
+ * seconds plus nanos. A restore replaces all tables in one transaction, inserting the rows in JDBC
+ * batches, and then moves identity columns past the highest restored value.
+ */
+public final class DatabaseSnapshot {
+
+    private static final long MAGIC = 0x43525544534E4150L; // "CRUDSNAP"
+    private static final int VERSION = 1;
+
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte DECIMAL = 3;
+    private static final byte BOOLEAN = 4;
+    private static final byte STRING = 5;
+    private static final byte TIMESTAMP = 6;
+    private static final byte DATE = 7;
+    private static final byte TIME = 8;
+    private static final byte BYTES = 9;
+
+    private DatabaseSnapshot() {
+    }
+
+    // Dump all tables; returns the row count per table
+    public static Map<String, Long> write(Connection connection, DataOutputStream out) throws SQLException, IOException {
+        List<String> tables = tables(connection);
+        out.writeLong(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(System.currentTimeMillis());
+        out.writeInt(tables.size());
+
+        Map<String, Long> rowCounts = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement()) {
+            for (String table : tables) {
+                long rows;
+                try (ResultSet count = statement.executeQuery("SELECT COUNT(*) FROM " + quote(table))) {
+                    count.next();
+                    rows = count.getLong(1);
+                }
+                try (ResultSet resultSet = statement.executeQuery("SELECT * FROM " + quote(table))) {
+                    writeTable(table, rows, resultSet, out);
+                }
+                rowCounts.put(table, rows);
+            }
+        }
+        return rowCounts;
+    }
+
+    // Decode the whole snapshot without touching any table: the header, the table list and every row
+    // must be readable and nothing may follow the last table. Returns the row count per table.
+    public static Map<String, Long> verify(Connection connection, DataInputStream in) throws SQLException, IOException {
+        List<String> existing = tables(connection);
+        try {
+            int tableCount = readHeader(in);
+            Map<String, Long> rowCounts = new LinkedHashMap<>();
+            for (int t = 0; t < tableCount; t++) {
+                String table = readTableName(in, existing, rowCounts);
+                TableLayout layout = readLayout(in);
+                byte[] nulls = new byte[layout.nullBytes()];
+                for (long row = 0; row < layout.rows(); row++) {
+                    in.readFully(nulls);
+                    for (int i = 0; i < layout.types().length; i++) {
+                        if (!isNull(nulls, i)) {
+                            readValue(in, layout.types()[i]);
+                        }
+                    }
+                }
+                rowCounts.put(table, layout.rows());
+            }
+            if (in.read() != -1) {
+                throw new IOException("Unexpected data after the last table of the snapshot");
+            }
+            return rowCounts;
+        } catch (EOFException e) {
+            throw new IOException("Snapshot is truncated", e);
+        } catch (DateTimeException e) {
+            throw new IOException("Malformed date or time in snapshot", e);
+        }
+    }
+
+    // Replace the content of the database with the snapshot in a single transaction: every table is
+    // emptied, including tables the snapshot does not hold, and the rows are inserted in JDBC batches.
+    // Any failure rolls the whole restore back. Callers verify() the file first, so a damaged file is
+    // rejected before the delete. Foreign keys are off for the whole database meanwhile, so callers
+    // also keep every other writer out (see WriteBarrier). Returns the row count per table.
+    public static Map<String, Long> read(Connection connection, DataInputStream in, int batchSize) throws SQLException, IOException {
+        int tableCount = readHeader(in);
+        List<String> existing = tables(connection);
+
+        Map<String, Long> rowCounts = new LinkedHashMap<>();
+        boolean autoCommit = connection.getAutoCommit();
+        // Foreign keys would make the delete and insert order matter; the setting commits, so it is
+        // switched outside the transaction
+        setReferentialIntegrity(connection, false);
+        try {
+            connection.setAutoCommit(false);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    for (String table : existing) {
+                        statement.executeUpdate("DELETE FROM " + quote(table));
+                    }
+                }
+                for (int t = 0; t < tableCount; t++) {
+                    String table = readTableName(in, existing, rowCounts);
+                    rowCounts.put(table, readTable(connection, table, in, batchSize));
+                }
+                connection.commit();
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } finally {
+            setReferentialIntegrity(connection, true);
+        }
+
+        // ALTER TABLE commits as well, so identities are moved once the rows are in
+        for (String table : existing) {
+            restartIdentities(connection, table);
+        }
+        return rowCounts;
+    }
+
+    // True when no table in the PUBLIC schema holds a row
+    public static boolean isEmpty(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : tables(connection)) {
+                try (ResultSet row = statement.executeQuery("SELECT 1 FROM " + quote(table) + " LIMIT 1")) {
+                    if (row.next()) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void writeTable(String table, long rows, ResultSet resultSet, DataOutputStream out)
+            throws SQLException, IOException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columns = metaData.getColumnCount();
+        byte[] types = new byte[columns];
+        out.writeUTF(table);
+        writeVarLong(out, rows);
+        writeVarLong(out, columns);
+        for (int i = 0; i < columns; i++) {
+            types[i] = typeOf(metaData.getColumnType(i + 1));
+            out.writeUTF(metaData.getColumnName(i + 1));
+            out.writeByte(types[i]);
+        }
+
+        Object[] values = new Object[columns];
+        byte[] nulls = new byte[(columns + 7) / 8];
+        long written = 0;
+        while (written < rows && resultSet.next()) {
+            Arrays.fill(nulls, (byte) 0);
+            for (int i = 0; i < columns; i++) {
+                values[i] = readColumn(resultSet, i + 1, types[i]);
+                if (values[i] == null) {
+                    nulls[i >> 3] |= (byte) (1 << (i & 7));
+                }
+            }
+            out.write(nulls);
+            for (int i = 0; i < columns; i++) {
+                if (values[i] != null) {
+                    writeValue(out, types[i], values[i]);
+                }
+            }
+            written++;
+        }
+        if (written != rows) {
+            throw new SQLException("Table " + table + " changed while it was being dumped");
+        }
+    }
+
+    private static long readTable(Connection connection, String table, DataInputStream in, int batchSize)
+            throws SQLException, IOException {
+        TableLayout layout = readLayout(in);
+        int columns = layout.names().length;
+        StringBuilder columnList = new StringBuilder();
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < columns; i++) {
+            if (i > 0) {
+                columnList.append(", ");
+                placeholders.append(", ");
+            }
+            columnList.append(quote(layout.names()[i]));
+            placeholders.append('?');
+        }
+
+        byte[] nulls = new byte[layout.nullBytes()];
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + quote(table) + " (" + columnList + ") VALUES (" + placeholders + ")")) {
+            int pending = 0;
+            for (long row = 0; row < layout.rows(); row++) {
+                in.readFully(nulls);
+                for (int i = 0; i < columns; i++) {
+                    byte type = layout.types()[i];
+                    if (isNull(nulls, i)) {
+                        insert.setNull(i + 1, sqlType(type));
+                    } else {
+                        bindValue(insert, i + 1, type, readValue(in, type));
+                    }
+                }
+                insert.addBatch();
+                if (++pending == batchSize) {
+                    insert.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                insert.executeBatch();
+            }
+        }
+        return layout.rows();
+    }
+
+    // Row count, column names and value types that precede a table's rows
+    private record TableLayout(long rows, String[] names, byte[] types) {
+
+        int nullBytes() {
+            return (names.length + 7) / 8;
+        }
+    }
+
+    private static TableLayout readLayout(DataInputStream in) throws IOException {
+        long rows = readVarLong(in);
+        long columns = readVarLong(in);
+        if (rows < 0 || columns < 0 || columns > Integer.MAX_VALUE) {
+            throw new IOException("Malformed table header in snapshot");
+        }
+        String[] names = new String[(int) columns];
+        byte[] types = new byte[(int) columns];
+        for (int i = 0; i < columns; i++) {
+            names[i] = in.readUTF();
+            types[i] = in.readByte();
+            if (types[i] < LONG || types[i] > BYTES) {
+                throw new IOException("Unknown value type " + types[i] + " for column " + names[i]);
+            }
+        }
+        return new TableLayout(rows, names, types);
+    }
+
+    // Magic and version; returns the table count
+    private static int readHeader(DataInputStream in) throws IOException {
+        if (in.readLong() != MAGIC) {
+            throw new IOException("Not a database snapshot");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        in.readLong();
+        int tableCount = in.readInt();
+        if (tableCount < 0) {
+            throw new IOException("Malformed table count in snapshot");
+        }
+        return tableCount;
+    }
+
+    private static String readTableName(DataInputStream in, List<String> existing, Map<String, Long> seen) throws IOException {
+        String table = in.readUTF();
+        if (!existing.contains(table)) {
+            throw new IOException("Snapshot table " + table + " does not exist in the database");
+        }
+        if (seen.containsKey(table)) {
+            throw new IOException("Snapshot holds table " + table + " twice");
+        }
+        return table;
+    }
+
+    private static boolean isNull(byte[] nulls, int column) {
+        return (nulls[column >> 3] & (1 << (column & 7))) != 0;
+    }
+
+    private static void setReferentialIntegrity(Connection connection, boolean enabled) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET REFERENTIAL_INTEGRITY " + enabled);
+        }
+    }
+
+    // Explicit ids do not advance an identity column, so move it past the restored rows
+    private static void restartIdentities(Connection connection, String table) throws SQLException {
+        List<String> identityColumns = new ArrayList<>();
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS "
+                        + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = ? AND IS_IDENTITY = 'YES'")) {
+            query.setString(1, table);
+            try (ResultSet resultSet = query.executeQuery()) {
+                while (resultSet.next()) {
+                    identityColumns.add(resultSet.getString(1));
+                }
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String column : identityColumns) {
+                long next;
+                try (ResultSet max = statement.executeQuery(
+                        "SELECT COALESCE(MAX(" + quote(column) + "), 0) + 1 FROM " + quote(table))) {
+                    max.next();
+                    next = max.getLong(1);
+                }
+                statement.execute("ALTER TABLE " + quote(table) + " ALTER COLUMN " + quote(column) + " RESTART WITH " + next);
+            }
+        }
+    }
+
+    private static List<String> tables(Connection connection) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES "
+                     + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE' ORDER BY TABLE_NAME")) {
+            while (resultSet.next()) {
+                tables.add(resultSet.getString(1));
+            }
+        }
+        return tables;
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+
+    // Enums and any other type without its own encoding travel as their string form
+    private static byte typeOf(int sqlType) {
+        return switch (sqlType) {
+            case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT -> LONG;
+            case Types.DOUBLE, Types.FLOAT, Types.REAL -> DOUBLE;
+            case Types.DECIMAL, Types.NUMERIC -> DECIMAL;
+            case Types.BOOLEAN, Types.BIT -> BOOLEAN;
+            case Types.TIMESTAMP -> TIMESTAMP;
+            case Types.DATE -> DATE;
+            case Types.TIME -> TIME;
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> BYTES;
+            default -> STRING;
+        };
+    }
+
+    private static int sqlType(byte type) {
+        return switch (type) {
+            case LONG -> Types.BIGINT;
+            case DOUBLE -> Types.DOUBLE;
+            case DECIMAL -> Types.DECIMAL;
+            case BOOLEAN -> Types.BOOLEAN;
+            case TIMESTAMP -> Types.TIMESTAMP;
+            case DATE -> Types.DATE;
+            case TIME -> Types.TIME;
+            case BYTES -> Types.VARBINARY;
+            default -> Types.VARCHAR;
+        };
+    }
+
+    private static Object readColumn(ResultSet resultSet, int column, byte type) throws SQLException {
+        Object value = switch (type) {
+            case LONG -> resultSet.getLong(column);
+            case DOUBLE -> resultSet.getDouble(column);
+            case DECIMAL -> resultSet.getBigDecimal(column);
+            case BOOLEAN -> resultSet.getBoolean(column);
+            case TIMESTAMP -> resultSet.getObject(column, LocalDateTime.class);
+            case DATE -> resultSet.getObject(column, LocalDate.class);
+            case TIME -> resultSet.getObject(column, LocalTime.class);
+            case BYTES -> resultSet.getBytes(column);
+            default -> resultSet.getString(column);
+        };
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private static void writeValue(DataOutputStream out, byte type, Object value) throws IOException {
+        switch (type) {
+            case LONG -> writeVarLong(out, (Long) value);
+            case DOUBLE -> out.writeDouble((Double) value);
+            case DECIMAL -> writeString(out, ((BigDecimal) value).toPlainString());
+            case BOOLEAN -> out.writeBoolean((Boolean) value);
+            case TIMESTAMP -> {
+                LocalDateTime timestamp = (LocalDateTime) value;
+                writeVarLong(out, timestamp.toEpochSecond(ZoneOffset.UTC));
+                writeVarLong(out, timestamp.getNano());
+            }
+            case DATE -> writeVarLong(out, ((LocalDate) value).toEpochDay());
+            case TIME -> writeVarLong(out, ((LocalTime) value).toNanoOfDay());
+            case BYTES -> {
+                byte[] bytes = (byte[]) value;
+                writeVarLong(out, bytes.length);
+                out.write(bytes);
+            }
+            default -> writeString(out, (String) value);
+        }
+    }
+
+    private static Object readValue(DataInputStream in, byte type) throws IOException {
+        return switch (type) {
+            case LONG -> readVarLong(in);
+            case DOUBLE -> in.readDouble();
+            case DECIMAL -> {
+                String decimal = readString(in);
+                try {
+                    yield new BigDecimal(decimal);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed decimal in snapshot: " + decimal);
+                }
+            }
+            case BOOLEAN -> in.readBoolean();
+            case TIMESTAMP -> {
+                long seconds = readVarLong(in);
+                yield LocalDateTime.ofEpochSecond(seconds, (int) readVarLong(in), ZoneOffset.UTC);
+            }
+            case DATE -> LocalDate.ofEpochDay(readVarLong(in));
+            case TIME -> LocalTime.ofNanoOfDay(readVarLong(in));
+            case BYTES -> readBytes(in);
+            default -> readString(in);
+        };
+    }
+
+    private static void bindValue(PreparedStatement insert, int parameter, byte type, Object value) throws SQLException {
+        switch (type) {
+            case LONG -> insert.setLong(parameter, (Long) value);
+            case DOUBLE -> insert.setDouble(parameter, (Double) value);
+            case DECIMAL -> insert.setBigDecimal(parameter, (BigDecimal) value);
+            case BOOLEAN -> insert.setBoolean(parameter, (Boolean) value);
+            case BYTES -> insert.setBytes(parameter, (byte[]) value);
+            case STRING -> insert.setString(parameter, (String) value);
+            default -> insert.setObject(parameter, value);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        long length = readVarLong(in);
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IOException("Malformed length in snapshot");
+        }
+        byte[] bytes = new byte[(int) length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    // Zig-zag varint: small magnitudes of either sign take one or two bytes
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        out.writeByte((int) zigZag);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long zigZag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            zigZag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigZag >>> 1) ^ -(zigZag & 1);
+            }
+        }
+        throw new IOException("Malformed varint in snapshot");
+    }
+}
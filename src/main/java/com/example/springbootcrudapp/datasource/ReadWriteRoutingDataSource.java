@@ -0,0 +1,80 @@
+package com.example.springbootcrudapp.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends read-only transactions to a replica that is ready, within the lag bound and caught up with
+ * the request's read-your-writes position; everything else goes to the primary. The choice is made
+ * when the connection is first used, so this must sit behind a LazyConnectionDataSourceProxy.
+ * Whoever constructs it calls afterPropertiesSet() before handing it out.
+ */
+public final class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+
+    private final ReplicationFeed feed;
+    private final boolean readYourWrites;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final LongAdder primaryWrites = new LongAdder();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReadsLagging = new LongAdder();
+    private final LongAdder primaryReadsReadYourWrites = new LongAdder();
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicationFeed feed, boolean readYourWrites) {
+        this.feed = feed;
+        this.readYourWrites = readYourWrites;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (ReplicationFeed.Replica replica : feed.getReplicas()) {
+            targets.put(replica.getName(), replica.getDataSource());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryWrites.increment();
+            return PRIMARY;
+        }
+
+        long required = readYourWrites ? ReadYourWrites.requiredPosition() : 0L;
+        List<ReplicationFeed.Replica> replicas = feed.getReplicas();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        boolean behindRequired = false;
+        for (int i = 0; i < replicas.size(); i++) {
+            ReplicationFeed.Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.canServe(required)) {
+                replicaReads.increment();
+                return replica.getName();
+            }
+            behindRequired |= replica.isReady() && replica.getAppliedPosition() < required;
+        }
+
+        if (behindRequired) {
+            primaryReadsReadYourWrites.increment();
+        } else {
+            primaryReadsLagging.increment();
+        }
+        return PRIMARY;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("primaryConnections", primaryWrites.sum());
+        values.put("replicaReads", replicaReads.sum());
+        values.put("primaryReadsReplicaLagging", primaryReadsLagging.sum());
+        values.put("primaryReadsReadYourWrites", primaryReadsReadYourWrites.sum());
+        return values;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.springbootcrudapp.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Replication position a REST request must be able to see. A request that writes gets the
+ * position of its last change back in {@code X-Replication-Token}; a client sending that header on
+ * a later request is only served by a replica that has caught up to it. Without a current web
+ * request there is no requirement.
+ */
+public final class ReadYourWrites {
+
+    public static final String TOKEN_HEADER = "X-Replication-Token";
+
+    private static final String WRITTEN_ATTRIBUTE = ReadYourWrites.class.getName() + ".written";
+
+    private ReadYourWrites() {
+    }
+
+    // Called on the writing thread once a change has committed
+    static void recordWrite(long position) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        attributes.setAttribute(WRITTEN_ATTRIBUTE, position, RequestAttributes.SCOPE_REQUEST);
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null && !response.isCommitted()) {
+            response.setHeader(TOKEN_HEADER, Long.toString(position));
+        }
+    }
+
+    // Highest position the current request has written or was handed by the client
+    static long requiredPosition() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return 0L;
+        }
+        long required = 0L;
+        if (attributes.getAttribute(WRITTEN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Long written) {
+            required = written;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String token = request.getHeader(TOKEN_HEADER);
+        if (token != null) {
+            try {
+                required = Math.max(required, Long.parseLong(token.trim()));
+            } catch (NumberFormatException e) {
+                // Not one of ours; ignore it
+            }
+        }
+        return required;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.springbootcrudapp.datasource;
+
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Feeds every entity insert, update and delete to the replicas once its transaction has committed.
+ */
+public class ReplicationEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final ReplicationFeed feed;
+
+    public ReplicationEventListener(ReplicationFeed feed) {
+        this.feed = feed;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(event.getPersister(), event.getId(), false);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getPersister(), event.getId(), false);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getPersister(), event.getId(), true);
+    }
+
+    // Rolled-back changes never reach the primary, so there is nothing to replicate
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister instanceof AbstractEntityPersister;
+    }
+
+    private void publish(EntityPersister persister, Object id, boolean delete) {
+        if (persister instanceof AbstractEntityPersister entityPersister) {
+            feed.publish(entityPersister.getTableName(), entityPersister.getIdentifierColumnNames()[0], id, delete);
+        }
+    }
+}
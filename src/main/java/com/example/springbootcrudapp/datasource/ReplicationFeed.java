@@ -0,0 +1,336 @@
+package com.example.springbootcrudapp.datasource;
+
+import com.example.springbootcrudapp.config.ReplicationProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process replication from the primary H2 database to local replicas. Committed entity changes
+ * are numbered (the replication position) and queued for every replica; one thread per replica
+ * applies them in order. Each change carries only table and id: the applier reads the row's
+ * current image from the primary and merges it (or deletes it), so applying a change twice is
+ * harmless. A replica starts from a SCRIPT copy of the primary and is rebuilt the same way
+ * after an apply failure.
+ */
+public class ReplicationFeed implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationFeed.class);
+
+    // A committed insert, update or delete of one row; a null table asks for a full copy
+    record Change(long position, long committedAtNanos, String table, String idColumn, Object id, boolean delete) {
+    }
+
+    private final ReplicationProperties properties;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicLong position = new AtomicLong();
+    private volatile DataSource primary;
+
+    public ReplicationFeed(ReplicationProperties properties, String primaryUsername, String primaryPassword) {
+        this.properties = properties;
+        for (int i = 1; i <= properties.getReplicas(); i++) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + i);
+            config.setJdbcUrl("jdbc:h2:mem:replica-" + i + ";DB_CLOSE_DELAY=-1");
+            config.setUsername(primaryUsername);
+            config.setPassword(primaryPassword);
+            config.setMaximumPoolSize(properties.getReplicaPoolSize());
+            replicas.add(new Replica("replica-" + i, new HikariDataSource(config)));
+        }
+    }
+
+    // The unrouted primary; replicas copy their rows from it
+    public void setPrimary(DataSource primary) {
+        this.primary = primary;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public long getPosition() {
+        return position.get();
+    }
+
+    // Queue a committed change for every replica and return its position
+    public long publish(String table, String idColumn, Object id, boolean delete) {
+        long next;
+        synchronized (position) {
+            next = enqueue(table, idColumn, id, delete);
+        }
+        if (properties.isReadYourWrites()) {
+            ReadYourWrites.recordWrite(next);
+        }
+        return next;
+    }
+
+    // Queue an update of each listed row, after a statement that changed them without entity events;
+    // returns the position of the last one
+    public long publishUpdates(String table, String idColumn, Collection<?> ids) {
+        long last;
+        synchronized (position) {
+            last = position.get();
+            for (Object id : ids) {
+                last = enqueue(table, idColumn, id, false);
+            }
+        }
+        if (properties.isReadYourWrites()) {
+            ReadYourWrites.recordWrite(last);
+        }
+        return last;
+    }
+
+    // Queue a full copy from the primary for every replica, after changes made outside Hibernate
+    public long resync() {
+        return publish(null, null, null, false);
+    }
+
+    // Callers hold the position lock, so every replica queues changes in position order
+    private long enqueue(String table, String idColumn, Object id, boolean delete) {
+        long next = position.incrementAndGet();
+        Change change = new Change(next, System.nanoTime(), table, idColumn, id, delete);
+        for (Replica replica : replicas) {
+            replica.queue.add(change);
+        }
+        return next;
+    }
+
+    // Schema and seed data exist once every singleton, including the SQL initializer, is ready
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (Replica replica : replicas) {
+            replica.start();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (Replica replica : replicas) {
+            replica.stop();
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("position", position.get());
+        snapshot.put("maxLagMs", properties.getMaxLag().toMillis());
+        List<Map<String, Object>> replicaStates = new ArrayList<>();
+        for (Replica replica : replicas) {
+            replicaStates.add(replica.snapshot());
+        }
+        snapshot.put("replicas", replicaStates);
+        return snapshot;
+    }
+
+    public class Replica {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+        private final BlockingQueue<Change> queue = new LinkedBlockingQueue<>();
+        private final Thread applier;
+        private volatile boolean ready;
+        private volatile boolean running = true;
+        private volatile long appliedPosition;
+        private volatile Change applying;
+        private final AtomicLong applied = new AtomicLong();
+        private final AtomicLong rebuilds = new AtomicLong();
+
+        Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.applier = new Thread(this::run, "replication-" + name);
+            this.applier.setDaemon(true);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        // Usable for a read that must see at least the given position
+        public boolean canServe(long requiredPosition) {
+            return ready && appliedPosition >= requiredPosition && lagNanos() <= properties.getMaxLag().toNanos();
+        }
+
+        public boolean isReady() {
+            return ready;
+        }
+
+        public long getAppliedPosition() {
+            return appliedPosition;
+        }
+
+        // Age of the oldest change not applied yet
+        public long lagNanos() {
+            Change oldest = applying;
+            if (oldest == null) {
+                oldest = queue.peek();
+            }
+            return oldest == null ? 0L : System.nanoTime() - oldest.committedAtNanos();
+        }
+
+        void start() {
+            applier.start();
+        }
+
+        void stop() {
+            running = false;
+            applier.interrupt();
+            dataSource.close();
+        }
+
+        private void run() {
+            rebuild();
+            while (running) {
+                try {
+                    Change change = queue.poll(1, TimeUnit.SECONDS);
+                    if (change == null) {
+                        continue;
+                    }
+                    applying = change;
+                    if (change.position() > appliedPosition) {
+                        if (change.table() == null) {
+                            rebuild();
+                        } else {
+                            apply(change);
+                        }
+                        appliedPosition = Math.max(appliedPosition, change.position());
+                        applied.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (SQLException | RuntimeException e) {
+                    log.warn("Replica {} failed to apply a change; rebuilding it from the primary", name, e);
+                    rebuild();
+                } finally {
+                    applying = null;
+                }
+            }
+        }
+
+        // Replace the replica's content with a SCRIPT copy of the primary
+        private void rebuild() {
+            ready = false;
+            while (running) {
+                // Changes queued from here on are applied on top of the copy
+                long copiedPosition = position.get();
+                try (Connection source = primary.getConnection();
+                     Connection target = dataSource.getConnection();
+                     Statement script = source.createStatement();
+                     Statement replay = target.createStatement()) {
+                    replay.execute("DROP ALL OBJECTS");
+                    try (ResultSet statements = script.executeQuery("SCRIPT NOPASSWORDS NOSETTINGS")) {
+                        while (statements.next()) {
+                            String sql = statements.getString(1);
+                            if (!sql.startsWith("CREATE USER")) {
+                                replay.execute(sql);
+                            }
+                        }
+                    }
+                    appliedPosition = Math.max(appliedPosition, copiedPosition);
+                    rebuilds.incrementAndGet();
+                    ready = true;
+                    log.info("Replica {} copied from the primary at position {}", name, copiedPosition);
+                    return;
+                } catch (SQLException e) {
+                    log.warn("Replica {} could not be copied from the primary; retrying", name, e);
+                    try {
+                        Thread.sleep(1000);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        private void apply(Change change) throws SQLException {
+            try (Connection target = dataSource.getConnection()) {
+                if (change.delete()) {
+                    delete(target, change);
+                    return;
+                }
+                try (Connection source = primary.getConnection();
+                     PreparedStatement select = source.prepareStatement(
+                             "SELECT * FROM " + change.table() + " WHERE " + change.idColumn() + " = ?")) {
+                    select.setObject(1, change.id());
+                    try (ResultSet row = select.executeQuery()) {
+                        if (row.next()) {
+                            merge(target, change, row);
+                        } else {
+                            // Deleted again before we got here
+                            delete(target, change);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void merge(Connection target, Change change, ResultSet row) throws SQLException {
+            ResultSetMetaData metaData = row.getMetaData();
+            int columns = metaData.getColumnCount();
+            StringBuilder columnList = new StringBuilder();
+            StringBuilder placeholders = new StringBuilder();
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    columnList.append(", ");
+                    placeholders.append(", ");
+                }
+                columnList.append('"').append(metaData.getColumnName(i)).append('"');
+                placeholders.append('?');
+            }
+            String sql = "MERGE INTO " + change.table() + " (" + columnList + ") KEY (" + change.idColumn()
+                    + ") VALUES (" + placeholders + ")";
+            try (PreparedStatement merge = target.prepareStatement(sql)) {
+                for (int i = 1; i <= columns; i++) {
+                    merge.setObject(i, row.getObject(i));
+                }
+                merge.executeUpdate();
+            }
+        }
+
+        private void delete(Connection target, Change change) throws SQLException {
+            try (PreparedStatement delete = target.prepareStatement(
+                    "DELETE FROM " + change.table() + " WHERE " + change.idColumn() + " = ?")) {
+                delete.setObject(1, change.id());
+                delete.executeUpdate();
+            }
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("name", name);
+            values.put("ready", ready);
+            values.put("appliedPosition", appliedPosition);
+            values.put("pendingChanges", queue.size());
+            values.put("lagMs", lagNanos() / 1_000_000.0);
+            values.put("appliedChanges", applied.get());
+            values.put("rebuilds", rebuilds.get());
+            return values;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.springbootcrudapp.datasource;
+
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps read-write transactions out while rows are replaced behind them, as a snapshot restore
+ * does. Every new read-write transaction holds the barrier's shared side from its start until it
+ * completes; {@link #lockExclusive} waits for the running ones and holds back new ones until
+ * {@link #unlockExclusive}. Read-only transactions are never held back. Registered as a bean, it is
+ * attached to the transaction manager as an execution listener.
+ */
+public final class WriteBarrier implements TransactionExecutionListener {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Synchronization is set up by now, so the shared side is handed back however the transaction ends
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure != null || transaction.isReadOnly() || !transaction.isNewTransaction()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        lock.readLock().lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    // Wait for the running read-write transactions to finish and hold back new ones
+    public void lockExclusive() {
+        if (lock.getReadHoldCount() > 0) {
+            // The exclusive side would wait for this thread's own transaction forever
+            throw new IllegalStateException("Rows cannot be replaced from inside a read-write transaction");
+        }
+        lock.writeLock().lock();
+    }
+
+    public void unlockExclusive() {
+        lock.writeLock().unlock();
+    }
+}
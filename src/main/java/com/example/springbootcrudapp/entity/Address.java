@@ -1,18 +1,29 @@
 package com.example.springbootcrudapp.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.Pattern;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
 @Table(name = "addresses")
-public class Address {
+@DynamicUpdate
+public class Address implements Versioned {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Optimistic-lock version, also the ETag; rows inserted outside Hibernate start at 0
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     @NotBlank(message = "Street address is required")
     @Size(min = 5, max = 200, message = "Street address must be between 5 and 200 characters")
     @Column(name = "street", nullable = false)
@@ -86,6 +97,15 @@ public class Address {
         this.id = id;
     }
 
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getStreet() {
         return street;
     }
@@ -1,18 +1,30 @@
 package com.example.springbootcrudapp.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "products")
-public class Product {
+@DynamicUpdate
+public class Product implements Versioned {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Optimistic-lock version, also the ETag; rows inserted outside Hibernate start at 0
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     @NotBlank(message = "Product name is required")
     @Size(min = 2, max = 200, message = "Product name must be between 2 and 200 characters")
     @Column(name = "name", nullable = false)
@@ -124,7 +136,9 @@ public class Product {
     private Integer reviewCount = 0;
 
     @Min(value = 0, message = "View count must be positive")
+    // Bumped on every read of the product, so it does not count as a change to the ETag
     @Column(name = "view_count")
+    @OptimisticLock(excluded = true)
     private Integer viewCount = 0;
 
     @Min(value = 0, message = "Sales count must be positive")
@@ -217,6 +231,15 @@ public class Product {
         this.id = id;
     }
 
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -0,0 +1,10 @@
+package com.example.springbootcrudapp.entity;
+
+/**
+ * An entity with a JPA {@code @Version} column. The version is sent as the entity's ETag and checked
+ * against If-Match on updates.
+ */
+public interface Versioned {
+
+    Long getVersion();
+}
@@ -1,5 +1,8 @@
 package com.example.springbootcrudapp.exception;
 
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -25,6 +28,23 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
     }
 
+    // No body: the negotiated media type is the one the body could not be written in
+    @ExceptionHandler(NotAcceptableException.class)
+    public ResponseEntity<Void> handleNotAcceptableException(NotAcceptableException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+    }
+
+    // Another update was flushed first: the client's If-Match no longer holds (412), or, without one,
+    // a server-side update ran out of retries (409)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLockingFailure(OptimisticLockingFailureException ex,
+                                                                              HttpServletRequest request) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "The resource was modified concurrently; fetch it again and retry");
+        HttpStatus status = request.getHeader(HttpHeaders.IF_MATCH) != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        return new ResponseEntity<>(error, status);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, String>> handleRuntimeException(RuntimeException ex) {
         Map<String, String> error = new HashMap<>();
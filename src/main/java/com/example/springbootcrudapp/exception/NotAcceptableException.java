@@ -0,0 +1,14 @@
+package com.example.springbootcrudapp.exception;
+
+/**
+ * The response body cannot be written in the media type that was negotiated for it, e.g. field
+ * projections requested as protobuf. Answered with 406 Not Acceptable.
+ */
+public class NotAcceptableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public NotAcceptableException(String message) {
+        super(message);
+    }
+}
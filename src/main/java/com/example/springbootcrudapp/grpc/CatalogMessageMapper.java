@@ -0,0 +1,406 @@
+package com.example.springbootcrudapp.grpc;
+
+import com.example.springbootcrudapp.entity.Address;
+import com.example.springbootcrudapp.entity.Customer;
+import com.example.springbootcrudapp.entity.Product;
+import com.example.springbootcrudapp.entity.ProductCategory;
+import com.google.protobuf.Message;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Converts catalog entities (products, categories, customers) and addresses to their protobuf
+ * messages and back. Null entity values are left unset so they keep the proto3 defaults; on the way
+ * back empty strings, zero ids and zero dates become null again, other scalars are taken as they are.
+ */
+@Component
+public class CatalogMessageMapper {
+
+    // Whether entities of this type have a message
+    public boolean supports(Class<?> type) {
+        return type == Product.class || type == ProductCategory.class || type == Customer.class || type == Address.class;
+    }
+
+    // Convert any supported entity to its gRPC message
+    public Message toMessage(Object entity) {
+        if (entity instanceof Product product) {
+            return toMessage(product);
+        }
+        if (entity instanceof ProductCategory category) {
+            return toMessage(category);
+        }
+        if (entity instanceof Customer customer) {
+            return toMessage(customer);
+        }
+        if (entity instanceof Address address) {
+            return toMessage(address);
+        }
+        throw new IllegalArgumentException("No protobuf message for " + (entity == null ? "null" : entity.getClass().getName()));
+    }
+
+    // Convert a Product entity to its gRPC message
+    public com.example.springbootcrudapp.grpc.Product toMessage(Product product) {
+        com.example.springbootcrudapp.grpc.Product.Builder builder = com.example.springbootcrudapp.grpc.Product.newBuilder()
+                .setId(product.getId())
+                .setName(product.getName())
+                .setStatus(toMessage(product.getStatus()));
+
+        if (product.getSku() != null) {
+            builder.setSku(product.getSku());
+        }
+        if (product.getDescription() != null) {
+            builder.setDescription(product.getDescription());
+        }
+        if (product.getLongDescription() != null) {
+            builder.setLongDescription(product.getLongDescription());
+        }
+        if (product.getBrand() != null) {
+            builder.setBrand(product.getBrand());
+        }
+        if (product.getModel() != null) {
+            builder.setModel(product.getModel());
+        }
+        if (product.getPrice() != null) {
+            builder.setPrice(product.getPrice().doubleValue());
+        }
+        if (product.getCost() != null) {
+            builder.setCost(product.getCost().doubleValue());
+        }
+        if (product.getSalePrice() != null) {
+            builder.setSalePrice(product.getSalePrice().doubleValue());
+        }
+        if (product.getStockQuantity() != null) {
+            builder.setStockQuantity(product.getStockQuantity());
+        }
+        if (product.getMinStockLevel() != null) {
+            builder.setMinStockLevel(product.getMinStockLevel());
+        }
+        if (product.getMaxStockLevel() != null) {
+            builder.setMaxStockLevel(product.getMaxStockLevel());
+        }
+        if (product.getCategoryId() != null) {
+            builder.setCategoryId(product.getCategoryId());
+        }
+        if (product.getWeight() != null) {
+            builder.setWeight(product.getWeight());
+        }
+        if (product.getWeightUnit() != null) {
+            builder.setWeightUnit(product.getWeightUnit());
+        }
+        if (product.getDimensions() != null) {
+            builder.setDimensions(product.getDimensions());
+        }
+        if (product.getColor() != null) {
+            builder.setColor(product.getColor());
+        }
+        if (product.getSize() != null) {
+            builder.setSize(product.getSize());
+        }
+        if (product.getImageUrl() != null) {
+            builder.setImageUrl(product.getImageUrl());
+        }
+        if (product.getImageGallery() != null) {
+            builder.setImageGallery(product.getImageGallery());
+        }
+        if (product.getIsFeatured() != null) {
+            builder.setIsFeatured(product.getIsFeatured());
+        }
+        if (product.getIsDigital() != null) {
+            builder.setIsDigital(product.getIsDigital());
+        }
+        if (product.getRequiresShipping() != null) {
+            builder.setRequiresShipping(product.getRequiresShipping());
+        }
+        if (product.getIsTaxable() != null) {
+            builder.setIsTaxable(product.getIsTaxable());
+        }
+        if (product.getTrackInventory() != null) {
+            builder.setTrackInventory(product.getTrackInventory());
+        }
+        if (product.getAllowBackorder() != null) {
+            builder.setAllowBackorder(product.getAllowBackorder());
+        }
+        if (product.getRating() != null) {
+            builder.setRating(product.getRating());
+        }
+        if (product.getReviewCount() != null) {
+            builder.setReviewCount(product.getReviewCount());
+        }
+        if (product.getViewCount() != null) {
+            builder.setViewCount(product.getViewCount());
+        }
+        if (product.getSalesCount() != null) {
+            builder.setSalesCount(product.getSalesCount());
+        }
+        if (product.getMetaTitle() != null) {
+            builder.setMetaTitle(product.getMetaTitle());
+        }
+        if (product.getMetaDescription() != null) {
+            builder.setMetaDescription(product.getMetaDescription());
+        }
+        if (product.getTags() != null) {
+            builder.setTags(product.getTags());
+        }
+        builder.setCreatedDate(toMillis(product.getCreatedDate()));
+        builder.setLastModifiedDate(toMillis(product.getLastModifiedDate()));
+        builder.setPublishedDate(toMillis(product.getPublishedDate()));
+        if (product.getActive() != null) {
+            builder.setActive(product.getActive());
+        }
+
+        return builder.build();
+    }
+
+    // Convert a ProductCategory entity to its gRPC message
+    public com.example.springbootcrudapp.grpc.ProductCategory toMessage(ProductCategory category) {
+        com.example.springbootcrudapp.grpc.ProductCategory.Builder builder = com.example.springbootcrudapp.grpc.ProductCategory.newBuilder()
+                .setId(category.getId())
+                .setName(category.getName());
+
+        if (category.getDescription() != null) {
+            builder.setDescription(category.getDescription());
+        }
+        if (category.getCategoryCode() != null) {
+            builder.setCategoryCode(category.getCategoryCode());
+        }
+        if (category.getParentCategoryId() != null) {
+            builder.setParentCategoryId(category.getParentCategoryId());
+        }
+        if (category.getDisplayOrder() != null) {
+            builder.setDisplayOrder(category.getDisplayOrder());
+        }
+        if (category.getImageUrl() != null) {
+            builder.setImageUrl(category.getImageUrl());
+        }
+        if (category.getIcon() != null) {
+            builder.setIcon(category.getIcon());
+        }
+        if (category.getColor() != null) {
+            builder.setColor(category.getColor());
+        }
+        if (category.getProductCount() != null) {
+            builder.setProductCount(category.getProductCount());
+        }
+        if (category.getIsFeatured() != null) {
+            builder.setIsFeatured(category.getIsFeatured());
+        }
+        if (category.getIsVisible() != null) {
+            builder.setIsVisible(category.getIsVisible());
+        }
+        if (category.getMetaTitle() != null) {
+            builder.setMetaTitle(category.getMetaTitle());
+        }
+        if (category.getMetaDescription() != null) {
+            builder.setMetaDescription(category.getMetaDescription());
+        }
+        if (category.getTags() != null) {
+            builder.setTags(category.getTags());
+        }
+        builder.setCreatedDate(toMillis(category.getCreatedDate()));
+        builder.setLastModifiedDate(toMillis(category.getLastModifiedDate()));
+        if (category.getActive() != null) {
+            builder.setActive(category.getActive());
+        }
+
+        return builder.build();
+    }
+
+    // Convert a Customer entity to its gRPC message
+    public com.example.springbootcrudapp.grpc.Customer toMessage(Customer customer) {
+        com.example.springbootcrudapp.grpc.Customer.Builder builder = com.example.springbootcrudapp.grpc.Customer.newBuilder()
+                .setId(customer.getId())
+                .setCompanyName(customer.getCompanyName())
+                .setEmail(customer.getEmail());
+
+        if (customer.getContactName() != null) {
+            builder.setContactName(customer.getContactName());
+        }
+        if (customer.getPhone() != null) {
+            builder.setPhone(customer.getPhone());
+        }
+        if (customer.getAddress() != null) {
+            builder.setAddress(customer.getAddress());
+        }
+        if (customer.getCity() != null) {
+            builder.setCity(customer.getCity());
+        }
+        if (customer.getCountry() != null) {
+            builder.setCountry(customer.getCountry());
+        }
+        if (customer.getCreditLimit() != null) {
+            builder.setCreditLimit(customer.getCreditLimit());
+        }
+        if (customer.getActive() != null) {
+            builder.setActive(customer.getActive());
+        }
+
+        return builder.build();
+    }
+
+    // Convert an Address entity to its message
+    public com.example.springbootcrudapp.grpc.Address toMessage(Address address) {
+        com.example.springbootcrudapp.grpc.Address.Builder builder = com.example.springbootcrudapp.grpc.Address.newBuilder()
+                .setId(address.getId())
+                .setStreet(address.getStreet())
+                .setCity(address.getCity())
+                .setCountry(address.getCountry());
+
+        if (address.getState() != null) {
+            builder.setState(address.getState());
+        }
+        if (address.getPostalCode() != null) {
+            builder.setPostalCode(address.getPostalCode());
+        }
+        if (address.getAddressType() != null) {
+            builder.setAddressType(address.getAddressType());
+        }
+        if (address.getAdditionalInfo() != null) {
+            builder.setAdditionalInfo(address.getAdditionalInfo());
+        }
+        if (address.getLatitude() != null) {
+            builder.setLatitude(address.getLatitude());
+        }
+        if (address.getLongitude() != null) {
+            builder.setLongitude(address.getLongitude());
+        }
+        if (address.getIsPrimary() != null) {
+            builder.setIsPrimary(address.getIsPrimary());
+        }
+        if (address.getActive() != null) {
+            builder.setActive(address.getActive());
+        }
+
+        return builder.build();
+    }
+
+    // Build a Product entity from its message
+    public Product fromMessage(com.example.springbootcrudapp.grpc.Product message) {
+        Product product = new Product();
+        product.setId(toId(message.getId()));
+        product.setName(toText(message.getName()));
+        product.setDescription(toText(message.getDescription()));
+        product.setLongDescription(toText(message.getLongDescription()));
+        product.setSku(toText(message.getSku()));
+        product.setBrand(toText(message.getBrand()));
+        product.setModel(toText(message.getModel()));
+        product.setPrice(BigDecimal.valueOf(message.getPrice()));
+        product.setCost(BigDecimal.valueOf(message.getCost()));
+        product.setSalePrice(message.hasSalePrice() ? BigDecimal.valueOf(message.getSalePrice()) : null);
+        product.setStockQuantity(message.getStockQuantity());
+        product.setMinStockLevel(message.getMinStockLevel());
+        product.setMaxStockLevel(message.getMaxStockLevel());
+        product.setCategoryId(toId(message.getCategoryId()));
+        product.setWeight(message.getWeight());
+        product.setWeightUnit(toText(message.getWeightUnit()));
+        product.setDimensions(toText(message.getDimensions()));
+        product.setColor(toText(message.getColor()));
+        product.setSize(toText(message.getSize()));
+        product.setImageUrl(toText(message.getImageUrl()));
+        product.setImageGallery(toText(message.getImageGallery()));
+        product.setIsFeatured(message.getIsFeatured());
+        product.setIsDigital(message.getIsDigital());
+        product.setRequiresShipping(message.getRequiresShipping());
+        product.setIsTaxable(message.getIsTaxable());
+        product.setTrackInventory(message.getTrackInventory());
+        product.setAllowBackorder(message.getAllowBackorder());
+        product.setRating(message.getRating());
+        product.setReviewCount(message.getReviewCount());
+        product.setViewCount(message.getViewCount());
+        product.setSalesCount(message.getSalesCount());
+        product.setMetaTitle(toText(message.getMetaTitle()));
+        product.setMetaDescription(toText(message.getMetaDescription()));
+        product.setTags(toText(message.getTags()));
+        if (message.getStatus() != com.example.springbootcrudapp.grpc.ProductStatus.PRODUCT_STATUS_UNSPECIFIED) {
+            product.setStatus(Product.ProductStatus.valueOf(message.getStatus().name()));
+        }
+        product.setCreatedDate(toDate(message.getCreatedDate()));
+        product.setLastModifiedDate(toDate(message.getLastModifiedDate()));
+        product.setPublishedDate(toDate(message.getPublishedDate()));
+        product.setActive(message.getActive());
+        return product;
+    }
+
+    // Build a ProductCategory entity from its message
+    public ProductCategory fromMessage(com.example.springbootcrudapp.grpc.ProductCategory message) {
+        ProductCategory category = new ProductCategory();
+        category.setId(toId(message.getId()));
+        category.setName(toText(message.getName()));
+        category.setDescription(toText(message.getDescription()));
+        category.setCategoryCode(toText(message.getCategoryCode()));
+        category.setParentCategoryId(message.hasParentCategoryId() ? message.getParentCategoryId() : null);
+        category.setDisplayOrder(message.getDisplayOrder());
+        category.setImageUrl(toText(message.getImageUrl()));
+        category.setIcon(toText(message.getIcon()));
+        category.setColor(toText(message.getColor()));
+        category.setProductCount(message.getProductCount());
+        category.setIsFeatured(message.getIsFeatured());
+        category.setIsVisible(message.getIsVisible());
+        category.setMetaTitle(toText(message.getMetaTitle()));
+        category.setMetaDescription(toText(message.getMetaDescription()));
+        category.setTags(toText(message.getTags()));
+        category.setCreatedDate(toDate(message.getCreatedDate()));
+        category.setLastModifiedDate(toDate(message.getLastModifiedDate()));
+        category.setActive(message.getActive());
+        return category;
+    }
+
+    // Build a Customer entity from its message
+    public Customer fromMessage(com.example.springbootcrudapp.grpc.Customer message) {
+        Customer customer = new Customer();
+        customer.setId(toId(message.getId()));
+        customer.setCompanyName(toText(message.getCompanyName()));
+        customer.setContactName(toText(message.getContactName()));
+        customer.setEmail(toText(message.getEmail()));
+        customer.setPhone(toText(message.getPhone()));
+        customer.setAddress(toText(message.getAddress()));
+        customer.setCity(toText(message.getCity()));
+        customer.setCountry(toText(message.getCountry()));
+        customer.setCreditLimit(message.getCreditLimit());
+        customer.setActive(message.getActive());
+        return customer;
+    }
+
+    // Build an Address entity from its message
+    public Address fromMessage(com.example.springbootcrudapp.grpc.Address message) {
+        Address address = new Address();
+        address.setId(toId(message.getId()));
+        address.setStreet(toText(message.getStreet()));
+        address.setCity(toText(message.getCity()));
+        address.setState(toText(message.getState()));
+        address.setCountry(toText(message.getCountry()));
+        address.setPostalCode(toText(message.getPostalCode()));
+        address.setAddressType(toText(message.getAddressType()));
+        address.setAdditionalInfo(toText(message.getAdditionalInfo()));
+        address.setLatitude(message.hasLatitude() ? message.getLatitude() : null);
+        address.setLongitude(message.hasLongitude() ? message.getLongitude() : null);
+        address.setIsPrimary(message.getIsPrimary());
+        address.setActive(message.getActive());
+        return address;
+    }
+
+    // Map the entity status enum onto the proto enum; the names are kept identical
+    public com.example.springbootcrudapp.grpc.ProductStatus toMessage(Product.ProductStatus status) {
+        if (status == null) {
+            return com.example.springbootcrudapp.grpc.ProductStatus.PRODUCT_STATUS_UNSPECIFIED;
+        }
+        return com.example.springbootcrudapp.grpc.ProductStatus.valueOf(status.name());
+    }
+
+    private static long toMillis(Date date) {
+        return date == null ? 0L : date.getTime();
+    }
+
+    private static Date toDate(long millis) {
+        return millis == 0L ? null : new Date(millis);
+    }
+
+    private static Long toId(long id) {
+        return id == 0L ? null : id;
+    }
+
+    private static String toText(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
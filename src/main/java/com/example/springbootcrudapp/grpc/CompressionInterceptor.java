@@ -0,0 +1,99 @@
+package com.example.springbootcrudapp.grpc;
+
+import com.example.springbootcrudapp.config.GrpcCompressionProperties;
+import com.google.protobuf.MessageLite;
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+/**
+ * Selects the response encoding per method and skips compression for small messages.
+ * The encoding is only used when the client lists it in grpc-accept-encoding, otherwise the
+ * response goes out as identity. Also enforces the outbound message size limit.
+ */
+public class CompressionInterceptor implements ServerInterceptor {
+
+    private static final String IDENTITY = "identity";
+    private static final Metadata.Key<String> ACCEPT_ENCODING =
+            Metadata.Key.of("grpc-accept-encoding", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final GrpcCompressionProperties properties;
+    private final CompressionMetrics metrics;
+
+    public CompressionInterceptor(GrpcCompressionProperties properties, CompressionMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String methodName = call.getMethodDescriptor().getFullMethodName();
+        String encoding = properties.encodingFor(methodName);
+        boolean compress = encoding != null && !encoding.isBlank() && !IDENTITY.equals(encoding)
+                && acceptsEncoding(headers, encoding);
+        if (compress) {
+            call.setCompression(encoding);
+        }
+
+        ServerCall<ReqT, RespT> sizedCall = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            private boolean closed;
+
+            @Override
+            public void sendMessage(RespT message) {
+                if (closed) {
+                    return;
+                }
+                long size = serializedSize(message);
+                int maxSize = properties.getMaxOutboundMessageSize();
+                if (maxSize > 0 && size > maxSize) {
+                    closed = true;
+                    super.close(Status.RESOURCE_EXHAUSTED.withDescription(
+                            "Response of " + size + " bytes exceeds the " + maxSize + " byte limit"), new Metadata());
+                    return;
+                }
+                boolean compressMessage = compress && (size < 0 || size >= properties.getMinMessageSize());
+                super.setMessageCompression(compressMessage);
+                metrics.recordResponse(methodName, compressMessage);
+                super.sendMessage(message);
+            }
+
+            @Override
+            public void close(Status status, Metadata trailers) {
+                if (!closed) {
+                    closed = true;
+                    super.close(status, trailers);
+                }
+            }
+        };
+        return next.startCall(sizedCall, headers);
+    }
+
+    // Whether the client advertised the encoding in grpc-accept-encoding
+    private static boolean acceptsEncoding(Metadata headers, String encoding) {
+        String accepted = headers.get(ACCEPT_ENCODING);
+        if (accepted == null) {
+            return false;
+        }
+        for (String candidate : accepted.split(",")) {
+            if (candidate.trim().equals(encoding)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Serialized size of a response, or -1 when it cannot be known without serializing
+    private static long serializedSize(Object message) {
+        if (message instanceof MessageLite messageLite) {
+            return messageLite.getSerializedSize();
+        }
+        if (message instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        return -1;
+    }
+}
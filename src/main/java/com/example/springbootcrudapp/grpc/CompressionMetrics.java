@@ -0,0 +1,89 @@
+package com.example.springbootcrudapp.grpc;
+
+import io.grpc.ServerStreamTracer;
+import io.grpc.Metadata;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-method counters of raw (uncompressed) versus wire bytes, fed by a stream tracer
+ * registered on the gRPC server, plus how many responses were sent compressed.
+ */
+public class CompressionMetrics extends ServerStreamTracer.Factory {
+
+    private final Map<String, Counters> methods = new ConcurrentHashMap<>();
+
+    @Override
+    public ServerStreamTracer newServerStreamTracer(String fullMethodName, Metadata headers) {
+        Counters counters = counters(fullMethodName);
+        return new ServerStreamTracer() {
+            @Override
+            public void outboundWireSize(long bytes) {
+                counters.outboundWireBytes.add(bytes);
+            }
+
+            @Override
+            public void outboundUncompressedSize(long bytes) {
+                counters.outboundRawBytes.add(bytes);
+            }
+
+            @Override
+            public void inboundWireSize(long bytes) {
+                counters.inboundWireBytes.add(bytes);
+            }
+
+            @Override
+            public void inboundUncompressedSize(long bytes) {
+                counters.inboundRawBytes.add(bytes);
+            }
+        };
+    }
+
+    // Called for each response message with whether it was compressed
+    public void recordResponse(String fullMethodName, boolean compressed) {
+        Counters counters = counters(fullMethodName);
+        if (compressed) {
+            counters.compressedMessages.increment();
+        } else {
+            counters.uncompressedMessages.increment();
+        }
+    }
+
+    // Counter values per method, sorted by method name
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> snapshot = new TreeMap<>();
+        methods.forEach((method, counters) -> snapshot.put(method, counters.toMap()));
+        return snapshot;
+    }
+
+    private Counters counters(String fullMethodName) {
+        return methods.computeIfAbsent(fullMethodName, name -> new Counters());
+    }
+
+    private static class Counters {
+        final LongAdder outboundRawBytes = new LongAdder();
+        final LongAdder outboundWireBytes = new LongAdder();
+        final LongAdder inboundRawBytes = new LongAdder();
+        final LongAdder inboundWireBytes = new LongAdder();
+        final LongAdder compressedMessages = new LongAdder();
+        final LongAdder uncompressedMessages = new LongAdder();
+
+        Map<String, Object> toMap() {
+            long raw = outboundRawBytes.sum();
+            long wire = outboundWireBytes.sum();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("outboundRawBytes", raw);
+            values.put("outboundWireBytes", wire);
+            values.put("outboundCompressionRatio", wire == 0 ? 1.0 : (double) raw / wire);
+            values.put("inboundRawBytes", inboundRawBytes.sum());
+            values.put("inboundWireBytes", inboundWireBytes.sum());
+            values.put("compressedMessages", compressedMessages.sum());
+            values.put("uncompressedMessages", uncompressedMessages.sum());
+            return values;
+        }
+    }
+}
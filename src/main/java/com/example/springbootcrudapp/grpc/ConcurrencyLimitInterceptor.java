@@ -0,0 +1,82 @@
+package com.example.springbootcrudapp.grpc;
+
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds the number of gRPC calls in flight. Calls over the limit are closed immediately
+ * with RESOURCE_EXHAUSTED instead of queueing behind blocking database work.
+ */
+public class ConcurrencyLimitInterceptor implements ServerInterceptor {
+
+    private static final ServerCall.Listener<Object> NOOP_LISTENER = new ServerCall.Listener<>() {
+    };
+
+    private final int limit;
+    private final Semaphore permits;
+    private final AtomicLong rejectedCalls = new AtomicLong();
+
+    public ConcurrencyLimitInterceptor(int limit) {
+        this.limit = limit;
+        this.permits = new Semaphore(limit);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        if (!permits.tryAcquire()) {
+            rejectedCalls.incrementAndGet();
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription("Server is at its limit of " + limit + " concurrent calls"),
+                    new Metadata());
+            return (ServerCall.Listener<ReqT>) NOOP_LISTENER;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+        try {
+            return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(call, headers)) {
+                @Override
+                public void onComplete() {
+                    try {
+                        super.onComplete();
+                    } finally {
+                        release.run();
+                    }
+                }
+
+                @Override
+                public void onCancel() {
+                    try {
+                        super.onCancel();
+                    } finally {
+                        release.run();
+                    }
+                }
+            };
+        } catch (RuntimeException e) {
+            release.run();
+            throw e;
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public long getRejectedCalls() {
+        return rejectedCalls.get();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.springbootcrudapp.grpc;
+
+import com.example.springbootcrudapp.entity.Customer;
+import com.example.springbootcrudapp.service.CustomerService;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@GrpcService
+public class CustomerGrpcService extends CustomerServiceGrpc.CustomerServiceImplBase {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CatalogMessageMapper mapper;
+
+    @Override
+    public void getCustomer(GetCustomerRequest request, StreamObserver<GetCustomerResponse> responseObserver) {
+        try {
+            responseObserver.onNext(customerResponse(customerService.getCustomerById(request.getId())));
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(e);
+        }
+    }
+
+    @Override
+    public void getCustomerByEmail(GetCustomerByEmailRequest request, StreamObserver<GetCustomerResponse> responseObserver) {
+        try {
+            responseObserver.onNext(customerResponse(customerService.getCustomerByEmail(request.getEmail())));
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(e);
+        }
+    }
+
+    @Override
+    public void batchGetCustomers(BatchGetCustomersRequest request, StreamObserver<BatchGetCustomersResponse> responseObserver) {
+        try {
+            List<Long> ids = request.getIdsList();
+            if (ids.size() > ProductGrpcService.MAX_BATCH_SIZE) {
+                throw Status.INVALID_ARGUMENT
+                        .withDescription("At most " + ProductGrpcService.MAX_BATCH_SIZE + " ids per batch, got " + ids.size())
+                        .asRuntimeException();
+            }
+
+            Map<Long, Customer> found = customerService.getCustomersByIds(new LinkedHashSet<>(ids)).stream()
+                    .collect(Collectors.toMap(Customer::getId, Function.identity()));
+
+            BatchGetCustomersResponse.Builder responseBuilder = BatchGetCustomersResponse.newBuilder();
+            for (Long id : ids) {
+                Customer customer = found.get(id);
+                if (customer != null) {
+                    responseBuilder.addCustomers(mapper.toMessage(customer));
+                } else {
+                    responseBuilder.addMissingIds(id);
+                }
+            }
+            responseObserver.onNext(responseBuilder.build());
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(e);
+        }
+    }
+
+    @Override
+    public void getActiveCustomers(GetActiveCustomersRequest request, StreamObserver<CustomerList> responseObserver) {
+        try {
+            CustomerList.Builder listBuilder = CustomerList.newBuilder();
+            for (Customer customer : customerService.getActiveCustomers()) {
+                listBuilder.addCustomers(mapper.toMessage(customer));
+            }
+            responseObserver.onNext(listBuilder.build());
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(e);
+        }
+    }
+
+    private GetCustomerResponse customerResponse(Optional<Customer> customer) {
+        GetCustomerResponse.Builder responseBuilder = GetCustomerResponse.newBuilder()
+                .setFound(customer.isPresent());
+        customer.ifPresent(c -> responseBuilder.setCustomer(mapper.toMessage(c)));
+        return responseBuilder.build();
+    }
+}
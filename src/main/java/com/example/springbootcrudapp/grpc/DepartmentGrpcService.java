@@ -1,32 +1,83 @@
 package com.example.springbootcrudapp.grpc;
 
 import com.example.springbootcrudapp.entity.Department;
+import com.example.springbootcrudapp.repository.DepartmentSpecifications;
 import com.example.springbootcrudapp.service.DepartmentService;
+import com.google.protobuf.FieldMask;
+import io.grpc.BindableService;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerMethodDefinition;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.ServiceDescriptor;
+import io.grpc.Status;
+import io.grpc.stub.ServerCalls;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @GrpcService
-public class DepartmentGrpcService extends DepartmentServiceGrpc.DepartmentServiceImplBase {
+public class DepartmentGrpcService implements DepartmentServiceGrpc.AsyncService, BindableService {
+
+    // FieldMask paths (proto field names) mapped to Department entity attributes
+    private static final Map<String, String> MASKABLE_FIELDS = Map.of(
+            "id", "id",
+            "name", "name",
+            "description", "description",
+            "manager_name", "managerName",
+            "manager_email", "managerEmail",
+            "location", "location",
+            "budget", "budget",
+            "employee_count", "employeeCount",
+            "active", "active");
 
     @Autowired
     private DepartmentService departmentService;
 
+    @Autowired
+    private DepartmentMessageCache messageCache;
+
+    // GetAllDepartments and GetActiveDepartments are bound with a pass-through response marshaller,
+    // so unmasked calls write the cached serialized response instead of rebuilding it
+    @Override
+    public ServerServiceDefinition bindService() {
+        ServerServiceDefinition definition = DepartmentServiceGrpc.bindService(this);
+        ServiceDescriptor descriptor = definition.getServiceDescriptor();
+        ServiceDescriptor.Builder descriptorBuilder = ServiceDescriptor.newBuilder(descriptor.getName())
+                .setSchemaDescriptor(descriptor.getSchemaDescriptor());
+        List<ServerMethodDefinition<?, ?>> methods = new ArrayList<>();
+
+        for (ServerMethodDefinition<?, ?> method : definition.getMethods()) {
+            String methodName = method.getMethodDescriptor().getFullMethodName();
+            if (methodName.equals(DepartmentServiceGrpc.getGetAllDepartmentsMethod().getFullMethodName())) {
+                method = serializedUnary(DepartmentServiceGrpc.getGetAllDepartmentsMethod(), this::allDepartmentsBytes);
+            } else if (methodName.equals(DepartmentServiceGrpc.getGetActiveDepartmentsMethod().getFullMethodName())) {
+                method = serializedUnary(DepartmentServiceGrpc.getGetActiveDepartmentsMethod(), this::activeDepartmentsBytes);
+            }
+            descriptorBuilder.addMethod(method.getMethodDescriptor());
+            methods.add(method);
+        }
+
+        ServerServiceDefinition.Builder definitionBuilder = ServerServiceDefinition.builder(descriptorBuilder.build());
+        for (ServerMethodDefinition<?, ?> method : methods) {
+            definitionBuilder.addMethod(method);
+        }
+        return definitionBuilder.build();
+    }
+
     // Basic CRUD operations
     @Override
     public void getAllDepartments(GetAllDepartmentsRequest request, StreamObserver<GetAllDepartmentsResponse> responseObserver) {
         try {
-            List<Department> departments = departmentService.getAllDepartments();
-            GetAllDepartmentsResponse response = GetAllDepartmentsResponse.newBuilder()
-                    .addAllDepartments(departments.stream()
-                            .map(this::convertToGrpc)
-                            .collect(Collectors.toList()))
-                    .build();
-            responseObserver.onNext(response);
+            responseObserver.onNext(allDepartmentsResponse(request.getFieldMask()));
             responseObserver.onCompleted();
         } catch (Exception e) {
             responseObserver.onError(e);
@@ -36,12 +87,13 @@ public class DepartmentGrpcService extends DepartmentServiceGrpc.DepartmentServi
     @Override
     public void getDepartmentById(GetDepartmentByIdRequest request, StreamObserver<GetDepartmentByIdResponse> responseObserver) {
         try {
-            Optional<Department> department = departmentService.getDepartmentById(request.getId());
+            Optional<com.example.springbootcrudapp.grpc.Department> department = readDepartment(request.getFieldMask(),
+                    DepartmentSpecifications.hasId(request.getId()), () -> departmentService.getDepartmentById(request.getId()));
             GetDepartmentByIdResponse.Builder responseBuilder = GetDepartmentByIdResponse.newBuilder()
                     .setFound(department.isPresent());
             
             if (department.isPresent()) {
-                responseBuilder.setDepartment(convertToGrpc(department.get()));
+                responseBuilder.setDepartment(department.get());
             }
             
             responseObserver.onNext(responseBuilder.build());
@@ -132,12 +184,13 @@ public class DepartmentGrpcService extends DepartmentServiceGrpc.DepartmentServi
     @Override
     public void getDepartmentByName(GetDepartmentByNameRequest request, StreamObserver<GetDepartmentByNameResponse> responseObserver) {
         try {
-            Optional<Department> department = departmentService.getDepartmentByName(request.getName());
+            Optional<com.example.springbootcrudapp.grpc.Department> department = readDepartment(request.getFieldMask(),
+                    DepartmentSpecifications.hasName(request.getName()), () -> departmentService.getDepartmentByName(request.getName()));
             GetDepartmentByNameResponse.Builder responseBuilder = GetDepartmentByNameResponse.newBuilder()
                     .setFound(department.isPresent());
             
             if (department.isPresent()) {
-                responseBuilder.setDepartment(convertToGrpc(department.get()));
+                responseBuilder.setDepartment(department.get());
             }
             
             responseObserver.onNext(responseBuilder.build());
@@ -150,11 +203,9 @@ public class DepartmentGrpcService extends DepartmentServiceGrpc.DepartmentServi
     @Override
     public void searchDepartmentsByName(SearchDepartmentsByNameRequest request, StreamObserver<SearchDepartmentsByNameResponse> responseObserver) {
         try {
-            List<Department> departments = departmentService.searchDepartmentsByName(request.getName());
             SearchDepartmentsByNameResponse response = SearchDepartmentsByNameResponse.newBuilder()
-                    .addAllDepartments(departments.stream()
-                            .map(this::convertToGrpc)
-                            .collect(Collectors.toList()))
+                    .addAllDepartments(readDepartments(request.getFieldMask(), DepartmentSpecifications.nameContainsIgnoreCase(request.getName()),
+                            () -> departmentService.searchDepartmentsByName(request.getName())))
                     .build();
             
             responseObserver.onNext(response);
@@ -167,11 +218,9 @@ public class DepartmentGrpcService extends DepartmentServiceGrpc.DepartmentServi
     @Override
     public void searchDepartmentsByManagerName(SearchDepartmentsByManagerNameRequest request, StreamObserver<SearchDepartmentsByManagerNameResponse> responseObserver) {
         try {
-            List<Department> departments = departmentService.searchDepartmentsByManagerName(request.getManagerName());
             SearchDepartmentsByManagerNameResponse response = SearchDepartmentsByManagerNameResponse.newBuilder()
-                    .addAllDepartments(departments.stream()
-                            .map(this::convertToGrpc)
-                            .collect(Collectors.toList()))
+                    .addAllDepartments(readDepartments(request.getFieldMask(), DepartmentSpecifications.managerNameContainsIgnoreCase(request.getManagerName()),
+                            () -> departmentService.searchDepartmentsByManagerName(request.getManagerName())))
                     .build();
             
             responseObserver.onNext(response);
@@ -184,11 +233,9 @@ public class DepartmentGrpcService extends DepartmentServiceGrpc.DepartmentServi
     @Override
     public void searchDepartmentsByDescription(SearchDepartmentsByDescriptionRequest request, StreamObserver<SearchDepartmentsByDescriptionResponse> responseObserver) {
         try {
-            List<Department> departments = departmentService.searchDepartmentsByDescription(request.getDescription());
             SearchDepartmentsByDescriptionResponse response = SearchDepartmentsByDescriptionResponse.newBuilder()
-                    .addAllDepartments(departments.stream()
-                            .map(this::convertToGrpc)
-                            .collect(Collectors.toList()))
+                    .addAllDepartments(readDepartments(request.getFieldMask(), DepartmentSpecifications.descriptionContainsIgnoreCase(request.getDescription()),
+                            () -> departmentService.searchDepartmentsByDescription(request.getDescription())))
                     .build();
             
             responseObserver.onNext(response);
@@ -202,11 +249,9 @@ public class DepartmentGrpcService extends DepartmentServiceGrpc.DepartmentServi
     @Override
     public void getDepartmentsByLocation(GetDepartmentsByLocationRequest request, StreamObserver<GetDepartmentsByLocationResponse> responseObserver) {
         try {
-            List<Department> departments = departmentService.getDepartmentsByLocation(request.getLocation());
             GetDepartmentsByLocationResponse response = GetDepartmentsByLocationResponse.newBuilder()
-                    .addAllDepartments(departments.stream()
-                            .map(this::convertToGrpc)
-                            .collect(Collectors.toList()))
+                    .addAllDepartments(readDepartments(request.getFieldMask(), DepartmentSpecifications.hasLocation(request.getLocation()),
+                            () -> departmentService.getDepartmentsByLocation(request.getLocation())))
                     .build();
             
             responseObserver.onNext(response);
@@ -219,14 +264,7 @@ public class DepartmentGrpcService extends DepartmentServiceGrpc.DepartmentServi
     @Override
     public void getActiveDepartments(GetActiveDepartmentsRequest request, StreamObserver<GetActiveDepartmentsResponse> responseObserver) {
         try {
-            List<Department> departments = departmentService.getActiveDepartments();
-            GetActiveDepartmentsResponse response = GetActiveDepartmentsResponse.newBuilder()
-                    .addAllDepartments(departments.stream()
-                            .map(this::convertToGrpc)
-                            .collect(Collectors.toList()))
-                    .build();
-            
-            responseObserver.onNext(response);
+            responseObserver.onNext(activeDepartmentsResponse(request.getFieldMask()));
             responseObserver.onCompleted();
         } catch (Exception e) {
             responseObserver.onError(e);
@@ -236,11 +274,9 @@ public class DepartmentGrpcService extends DepartmentServiceGrpc.DepartmentServi
     @Override
     public void getInactiveDepartments(GetInactiveDepartmentsRequest request, StreamObserver<GetInactiveDepartmentsResponse> responseObserver) {
         try {
-            List<Department> departments = departmentService.getInactiveDepartments();
             GetInactiveDepartmentsResponse response = GetInactiveDepartmentsResponse.newBuilder()
-                    .addAllDepartments(departments.stream()
-                            .map(this::convertToGrpc)
-                            .collect(Collectors.toList()))
+                    .addAllDepartments(readDepartments(request.getFieldMask(), DepartmentSpecifications.isActive(false),
+                            () -> departmentService.getInactiveDepartments()))
                     .build();
             
             responseObserver.onNext(response);
@@ -253,11 +289,9 @@ public class DepartmentGrpcService extends DepartmentServiceGrpc.DepartmentServi
     @Override
     public void getDepartmentsByBudget(GetDepartmentsByBudgetRequest request, StreamObserver<GetDepartmentsByBudgetResponse> responseObserver) {
         try {
-            List<Department> departments = departmentService.getDepartmentsByBudgetGreaterThan(request.getMinBudget());
             GetDepartmentsByBudgetResponse response = GetDepartmentsByBudgetResponse.newBuilder()
-                    .addAllDepartments(departments.stream()
-                            .map(this::convertToGrpc)
-                            .collect(Collectors.toList()))
+                    .addAllDepartments(readDepartments(request.getFieldMask(), DepartmentSpecifications.budgetGreaterThan(request.getMinBudget()),
+                            () -> departmentService.getDepartmentsByBudgetGreaterThan(request.getMinBudget())))
                     .build();
             
             responseObserver.onNext(response);
@@ -270,11 +304,9 @@ public class DepartmentGrpcService extends DepartmentServiceGrpc.DepartmentServi
     @Override
     public void getDepartmentsByEmployeeCount(GetDepartmentsByEmployeeCountRequest request, StreamObserver<GetDepartmentsByEmployeeCountResponse> responseObserver) {
         try {
-            List<Department> departments = departmentService.getDepartmentsByEmployeeCountGreaterThan(request.getMinEmployeeCount());
             GetDepartmentsByEmployeeCountResponse response = GetDepartmentsByEmployeeCountResponse.newBuilder()
-                    .addAllDepartments(departments.stream()
-                            .map(this::convertToGrpc)
-                            .collect(Collectors.toList()))
+                    .addAllDepartments(readDepartments(request.getFieldMask(), DepartmentSpecifications.employeeCountGreaterThan(request.getMinEmployeeCount()),
+                            () -> departmentService.getDepartmentsByEmployeeCountGreaterThan(request.getMinEmployeeCount())))
                     .build();
             
             responseObserver.onNext(response);
@@ -287,11 +319,9 @@ public class DepartmentGrpcService extends DepartmentServiceGrpc.DepartmentServi
     @Override
     public void getDepartmentsByManagerEmail(GetDepartmentsByManagerEmailRequest request, StreamObserver<GetDepartmentsByManagerEmailResponse> responseObserver) {
         try {
-            List<Department> departments = departmentService.getDepartmentsByManagerEmail(request.getManagerEmail());
             GetDepartmentsByManagerEmailResponse response = GetDepartmentsByManagerEmailResponse.newBuilder()
-                    .addAllDepartments(departments.stream()
-                            .map(this::convertToGrpc)
-                            .collect(Collectors.toList()))
+                    .addAllDepartments(readDepartments(request.getFieldMask(), DepartmentSpecifications.hasManagerEmail(request.getManagerEmail()),
+                            () -> departmentService.getDepartmentsByManagerEmail(request.getManagerEmail())))
                     .build();
             
             responseObserver.onNext(response);
@@ -304,11 +334,9 @@ public class DepartmentGrpcService extends DepartmentServiceGrpc.DepartmentServi
     @Override
     public void getDepartmentsByActiveAndLocation(GetDepartmentsByActiveAndLocationRequest request, StreamObserver<GetDepartmentsByActiveAndLocationResponse> responseObserver) {
         try {
-            List<Department> departments = departmentService.getDepartmentsByActiveAndLocation(request.getActive(), request.getLocation());
             GetDepartmentsByActiveAndLocationResponse response = GetDepartmentsByActiveAndLocationResponse.newBuilder()
-                    .addAllDepartments(departments.stream()
-                            .map(this::convertToGrpc)
-                            .collect(Collectors.toList()))
+                    .addAllDepartments(readDepartments(request.getFieldMask(), DepartmentSpecifications.isActiveAndHasLocation(request.getActive(), request.getLocation()),
+                            () -> departmentService.getDepartmentsByActiveAndLocation(request.getActive(), request.getLocation())))
                     .build();
             
             responseObserver.onNext(response);
@@ -416,6 +444,104 @@ public class DepartmentGrpcService extends DepartmentServiceGrpc.DepartmentServi
         }
     }
 
+    // Helper methods for prebuilt responses
+    private GetAllDepartmentsResponse allDepartmentsResponse(FieldMask fieldMask) {
+        return GetAllDepartmentsResponse.newBuilder()
+                .addAllDepartments(readDepartments(fieldMask, DepartmentSpecifications.all(),
+                        () -> departmentService.getAllDepartments()))
+                .build();
+    }
+
+    private GetActiveDepartmentsResponse activeDepartmentsResponse(FieldMask fieldMask) {
+        return GetActiveDepartmentsResponse.newBuilder()
+                .addAllDepartments(readDepartments(fieldMask, DepartmentSpecifications.isActive(true),
+                        () -> departmentService.getActiveDepartments()))
+                .build();
+    }
+
+    // Masked responses depend on the request, so only the full response is cached
+    private byte[] allDepartmentsBytes(GetAllDepartmentsRequest request) {
+        if (toEntityFields(request.getFieldMask()) != null) {
+            return allDepartmentsResponse(request.getFieldMask()).toByteArray();
+        }
+        return messageCache.response(DepartmentMessageCache.Response.ALL_DEPARTMENTS,
+                () -> allDepartmentsResponse(request.getFieldMask()));
+    }
+
+    private byte[] activeDepartmentsBytes(GetActiveDepartmentsRequest request) {
+        if (toEntityFields(request.getFieldMask()) != null) {
+            return activeDepartmentsResponse(request.getFieldMask()).toByteArray();
+        }
+        return messageCache.response(DepartmentMessageCache.Response.ACTIVE_DEPARTMENTS,
+                () -> activeDepartmentsResponse(request.getFieldMask()));
+    }
+
+    // Unary method that writes an already serialized response
+    private static <ReqT> ServerMethodDefinition<ReqT, byte[]> serializedUnary(MethodDescriptor<ReqT, ?> method,
+                                                                              Function<ReqT, byte[]> responder) {
+        MethodDescriptor<ReqT, byte[]> serializedMethod = method
+                .toBuilder(method.getRequestMarshaller(), SerializedMessageMarshaller.INSTANCE)
+                .build();
+        return ServerMethodDefinition.create(serializedMethod, ServerCalls.asyncUnaryCall((request, responseObserver) -> {
+            try {
+                responseObserver.onNext(responder.apply(request));
+                responseObserver.onCompleted();
+            } catch (Exception e) {
+                responseObserver.onError(e);
+            }
+        }));
+    }
+
+    // Helper methods for field masks
+    // Entity attributes selected by the mask, or null when the mask is empty
+    private List<String> toEntityFields(FieldMask fieldMask) {
+        if (fieldMask.getPathsCount() == 0) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>(fieldMask.getPathsCount());
+        for (String path : fieldMask.getPathsList()) {
+            String field = MASKABLE_FIELDS.get(path);
+            if (field == null) {
+                throw Status.INVALID_ARGUMENT
+                        .withDescription("Unknown field mask path: " + path)
+                        .asRuntimeException();
+            }
+            if (!fields.contains(field)) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    // Load full entities when no mask is set, otherwise select only the masked columns
+    private List<com.example.springbootcrudapp.grpc.Department> readDepartments(FieldMask fieldMask,
+                                                                               Specification<Department> specification,
+                                                                               Supplier<List<Department>> fullRead) {
+        List<String> fields = toEntityFields(fieldMask);
+        if (fields == null) {
+            long readVersion = messageCache.version();
+            return fullRead.get().stream()
+                    .map(department -> messageCache.message(department, readVersion, this::convertToGrpc))
+                    .collect(Collectors.toList());
+        }
+        return departmentService.getDepartmentsProjected(fields, specification).stream()
+                .map(this::convertToGrpc)
+                .collect(Collectors.toList());
+    }
+
+    private Optional<com.example.springbootcrudapp.grpc.Department> readDepartment(FieldMask fieldMask,
+                                                                                  Specification<Department> specification,
+                                                                                  Supplier<Optional<Department>> fullRead) {
+        List<String> fields = toEntityFields(fieldMask);
+        if (fields == null) {
+            long readVersion = messageCache.version();
+            return fullRead.get().map(department -> messageCache.message(department, readVersion, this::convertToGrpc));
+        }
+        return departmentService.getDepartmentsProjected(fields, specification).stream()
+                .findFirst()
+                .map(this::convertToGrpc);
+    }
+
     // Helper methods for conversion
     private com.example.springbootcrudapp.grpc.Department convertToGrpc(Department jpaEntity) {
         com.example.springbootcrudapp.grpc.Department.Builder builder = com.example.springbootcrudapp.grpc.Department.newBuilder()
@@ -443,6 +569,31 @@ public class DepartmentGrpcService extends DepartmentServiceGrpc.DepartmentServi
         return builder.build();
     }
 
+    // Build a message from a projected row; fields absent from the row keep their proto defaults
+    private com.example.springbootcrudapp.grpc.Department convertToGrpc(Map<String, Object> row) {
+        com.example.springbootcrudapp.grpc.Department.Builder builder = com.example.springbootcrudapp.grpc.Department.newBuilder();
+        for (Map.Entry<String, Object> column : row.entrySet()) {
+            Object value = column.getValue();
+            if (value == null) {
+                continue;
+            }
+            switch (column.getKey()) {
+                case "id" -> builder.setId((Long) value);
+                case "name" -> builder.setName((String) value);
+                case "description" -> builder.setDescription((String) value);
+                case "managerName" -> builder.setManagerName((String) value);
+                case "managerEmail" -> builder.setManagerEmail((String) value);
+                case "location" -> builder.setLocation((String) value);
+                case "budget" -> builder.setBudget((Double) value);
+                case "employeeCount" -> builder.setEmployeeCount((Integer) value);
+                case "active" -> builder.setActive((Boolean) value);
+                default -> {
+                }
+            }
+        }
+        return builder.build();
+    }
+
     private Department convertToJpa(com.example.springbootcrudapp.grpc.Department grpcMessage) {
         Department jpaEntity = new Department();
         jpaEntity.setId(grpcMessage.getId());
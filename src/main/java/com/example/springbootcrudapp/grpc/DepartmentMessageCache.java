@@ -0,0 +1,96 @@
+package com.example.springbootcrudapp.grpc;
+
+import com.example.springbootcrudapp.entity.Department;
+import com.example.springbootcrudapp.service.DepartmentChangedEvent;
+import com.google.protobuf.MessageLite;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Prebuilt department gRPC messages and serialized list responses.
+ *
+ * Every entry is stamped with the cache version that was current before its source data was read.
+ * A {@link DepartmentChangedEvent} bumps the version once the change has committed, so an entry
+ * built from data read before the change can never be served afterwards, even if it is stored late.
+ */
+@Component
+public class DepartmentMessageCache {
+
+    public enum Response {
+        ALL_DEPARTMENTS,
+        ACTIVE_DEPARTMENTS
+    }
+
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Long, Stamped<com.example.springbootcrudapp.grpc.Department>> messages = new ConcurrentHashMap<>();
+    private final Map<Response, Stamped<byte[]>> responses = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // Version to pass to message(...) when the entities are read afterwards
+    public long version() {
+        return version.get();
+    }
+
+    // Cached message for the entity, converting it when absent or stale
+    public com.example.springbootcrudapp.grpc.Department message(Department entity, long readVersion,
+                                                                  Function<Department, com.example.springbootcrudapp.grpc.Department> converter) {
+        Stamped<com.example.springbootcrudapp.grpc.Department> cached = messages.get(entity.getId());
+        if (cached != null && cached.version() == version.get()) {
+            hits.increment();
+            return cached.value();
+        }
+        misses.increment();
+        com.example.springbootcrudapp.grpc.Department message = converter.apply(entity);
+        store(messages, entity.getId(), readVersion, message);
+        return message;
+    }
+
+    // Serialized response, building it from the database when absent or stale
+    public byte[] response(Response response, Supplier<? extends MessageLite> builder) {
+        long readVersion = version.get();
+        Stamped<byte[]> cached = responses.get(response);
+        if (cached != null && cached.version() == readVersion) {
+            hits.increment();
+            return cached.value();
+        }
+        misses.increment();
+        byte[] bytes = builder.get().toByteArray();
+        store(responses, response, readVersion, bytes);
+        return bytes;
+    }
+
+    // Runs after commit, or immediately when the change was made outside a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        version.incrementAndGet();
+        responses.clear();
+        messages.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private <K, V> void store(Map<K, Stamped<V>> entries, K key, long readVersion, V value) {
+        // A stale stamp is never read back, so storing one after a concurrent bump is harmless
+        if (readVersion == version.get()) {
+            entries.put(key, new Stamped<>(readVersion, value));
+        }
+    }
+
+    private record Stamped<V>(long version, V value) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.springbootcrudapp.grpc;
+
+import com.example.springbootcrudapp.metrics.LatencyMetrics;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Times every gRPC call from the moment it is intercepted until it is closed or cancelled and
+ * records it under the full method name, the status code and the entity named by the service
+ * ({@code catalog.ProductService} -> {@code Product}).
+ */
+public class LatencyInterceptor implements ServerInterceptor {
+
+    private final LatencyMetrics metrics;
+    private final Map<String, String> entities = new ConcurrentHashMap<>();
+
+    public LatencyInterceptor(LatencyMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        long start = System.nanoTime();
+        MethodDescriptor<ReqT, RespT> method = call.getMethodDescriptor();
+        String type = method.getType().name();
+        String route = method.getFullMethodName();
+        String entity = entity(method.getServiceName());
+        AtomicBoolean recorded = new AtomicBoolean();
+
+        ServerCall<ReqT, RespT> timedCall = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                if (recorded.compareAndSet(false, true)) {
+                    metrics.record(LatencyMetrics.GRPC, type, route, status.getCode().name(), entity, System.nanoTime() - start);
+                }
+                super.close(status, trailers);
+            }
+        };
+
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(timedCall, headers)) {
+            @Override
+            public void onCancel() {
+                if (recorded.compareAndSet(false, true)) {
+                    metrics.record(LatencyMetrics.GRPC, type, route, Status.Code.CANCELLED.name(), entity, System.nanoTime() - start);
+                }
+                super.onCancel();
+            }
+        };
+    }
+
+    // catalog.ProductService -> Product
+    private String entity(String serviceName) {
+        if (serviceName == null) {
+            return "";
+        }
+        return entities.computeIfAbsent(serviceName, name -> {
+            String simpleName = name.substring(name.lastIndexOf('.') + 1);
+            return simpleName.endsWith("Service") ? simpleName.substring(0, simpleName.length() - "Service".length()) : simpleName;
+        });
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.springbootcrudapp.grpc;
+
+import com.example.springbootcrudapp.entity.ProductCategory;
+import com.example.springbootcrudapp.service.ProductCategoryService;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@GrpcService
+public class ProductCategoryGrpcService extends ProductCategoryServiceGrpc.ProductCategoryServiceImplBase {
+
+    @Autowired
+    private ProductCategoryService productCategoryService;
+
+    @Autowired
+    private CatalogMessageMapper mapper;
+
+    @Override
+    public void getCategory(GetCategoryRequest request, StreamObserver<GetCategoryResponse> responseObserver) {
+        try {
+            Optional<ProductCategory> category = productCategoryService.getCategoryById(request.getId());
+            GetCategoryResponse.Builder responseBuilder = GetCategoryResponse.newBuilder()
+                    .setFound(category.isPresent());
+            category.ifPresent(c -> responseBuilder.setCategory(mapper.toMessage(c)));
+            responseObserver.onNext(responseBuilder.build());
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(e);
+        }
+    }
+
+    @Override
+    public void batchGetCategories(BatchGetCategoriesRequest request, StreamObserver<BatchGetCategoriesResponse> responseObserver) {
+        try {
+            List<Long> ids = request.getIdsList();
+            if (ids.size() > ProductGrpcService.MAX_BATCH_SIZE) {
+                throw Status.INVALID_ARGUMENT
+                        .withDescription("At most " + ProductGrpcService.MAX_BATCH_SIZE + " ids per batch, got " + ids.size())
+                        .asRuntimeException();
+            }
+
+            Map<Long, ProductCategory> found = productCategoryService.getCategoriesByIds(new LinkedHashSet<>(ids)).stream()
+                    .collect(Collectors.toMap(ProductCategory::getId, Function.identity()));
+
+            BatchGetCategoriesResponse.Builder responseBuilder = BatchGetCategoriesResponse.newBuilder();
+            for (Long id : ids) {
+                ProductCategory category = found.get(id);
+                if (category != null) {
+                    responseBuilder.addCategories(mapper.toMessage(category));
+                } else {
+                    responseBuilder.addMissingIds(id);
+                }
+            }
+            responseObserver.onNext(responseBuilder.build());
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(e);
+        }
+    }
+
+    @Override
+    public void getActiveRootCategories(GetActiveRootCategoriesRequest request, StreamObserver<ProductCategoryList> responseObserver) {
+        try {
+            responseObserver.onNext(categoryList(productCategoryService.getActiveRootCategories()));
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(e);
+        }
+    }
+
+    @Override
+    public void getSubcategories(GetSubcategoriesRequest request, StreamObserver<ProductCategoryList> responseObserver) {
+        try {
+            List<ProductCategory> categories = request.getActiveOnly()
+                    ? productCategoryService.getSubcategoriesByParentAndActive(request.getParentCategoryId(), true)
+                    : productCategoryService.getCategoriesByParent(request.getParentCategoryId());
+            responseObserver.onNext(categoryList(categories));
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(e);
+        }
+    }
+
+    @Override
+    public void getCategoryHierarchy(GetCategoryHierarchyRequest request, StreamObserver<ProductCategoryList> responseObserver) {
+        try {
+            responseObserver.onNext(categoryList(productCategoryService.getCategoryHierarchy(request.getCategoryId())));
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(e);
+        }
+    }
+
+    private ProductCategoryList categoryList(List<ProductCategory> categories) {
+        ProductCategoryList.Builder listBuilder = ProductCategoryList.newBuilder();
+        for (ProductCategory category : categories) {
+            listBuilder.addCategories(mapper.toMessage(category));
+        }
+        return listBuilder.build();
+    }
+}
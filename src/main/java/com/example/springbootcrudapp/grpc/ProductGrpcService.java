@@ -0,0 +1,172 @@
+package com.example.springbootcrudapp.grpc;
+
+import com.example.springbootcrudapp.entity.Product;
+import com.example.springbootcrudapp.service.ProductService;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@GrpcService
+public class ProductGrpcService extends ProductServiceGrpc.ProductServiceImplBase {
+
+    // Largest number of ids accepted by a single batch call
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private static final int DEFAULT_EXPORT_PAGE_SIZE = 500;
+    private static final int MAX_EXPORT_PAGE_SIZE = 5000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogMessageMapper mapper;
+
+    @Override
+    public void getProduct(GetProductRequest request, StreamObserver<GetProductResponse> responseObserver) {
+        try {
+            responseObserver.onNext(productResponse(productService.getProductById(request.getId())));
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(e);
+        }
+    }
+
+    @Override
+    public void getProductBySku(GetProductBySkuRequest request, StreamObserver<GetProductResponse> responseObserver) {
+        try {
+            responseObserver.onNext(productResponse(productService.getProductBySku(request.getSku())));
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(e);
+        }
+    }
+
+    @Override
+    public void batchGetProducts(BatchGetProductsRequest request, StreamObserver<BatchGetProductsResponse> responseObserver) {
+        try {
+            List<Long> ids = request.getIdsList();
+            if (ids.size() > MAX_BATCH_SIZE) {
+                throw Status.INVALID_ARGUMENT
+                        .withDescription("At most " + MAX_BATCH_SIZE + " ids per batch, got " + ids.size())
+                        .asRuntimeException();
+            }
+
+            Map<Long, Product> found = productService.getProductsByIds(new LinkedHashSet<>(ids)).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+            BatchGetProductsResponse.Builder responseBuilder = BatchGetProductsResponse.newBuilder();
+            for (Long id : ids) {
+                Product product = found.get(id);
+                if (product != null) {
+                    responseBuilder.addProducts(mapper.toMessage(product));
+                } else {
+                    responseBuilder.addMissingIds(id);
+                }
+            }
+            responseObserver.onNext(responseBuilder.build());
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(e);
+        }
+    }
+
+    @Override
+    public void searchProducts(SearchProductsRequest request, StreamObserver<ProductList> responseObserver) {
+        try {
+            responseObserver.onNext(productList(productService.searchProducts(request.getSearchTerm())));
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(e);
+        }
+    }
+
+    @Override
+    public void getProductsByCategory(GetProductsByCategoryRequest request, StreamObserver<ProductList> responseObserver) {
+        try {
+            List<Product> products = request.getActiveOnly()
+                    ? productService.getProductsByCategoryAndActive(request.getCategoryId(), true)
+                    : productService.getProductsByCategory(request.getCategoryId());
+            responseObserver.onNext(productList(products));
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(e);
+        }
+    }
+
+    // Server-streaming export. Pages are read by keyset on id and only while the transport is ready,
+    // so a slow client holds back the database reads instead of growing the outbound buffer.
+    @Override
+    public void exportCatalog(ExportCatalogRequest request, StreamObserver<com.example.springbootcrudapp.grpc.Product> responseObserver) {
+        int pageSize = request.getPageSize() > 0 ? Math.min(request.getPageSize(), MAX_EXPORT_PAGE_SIZE) : DEFAULT_EXPORT_PAGE_SIZE;
+        ServerCallStreamObserver<com.example.springbootcrudapp.grpc.Product> serverObserver =
+                (ServerCallStreamObserver<com.example.springbootcrudapp.grpc.Product>) responseObserver;
+        CatalogExport export = new CatalogExport(serverObserver, pageSize, request.getActiveOnly());
+
+        serverObserver.setOnCancelHandler(export::cancel);
+        serverObserver.setOnReadyHandler(export::drain);
+        export.drain();
+    }
+
+    private GetProductResponse productResponse(Optional<Product> product) {
+        GetProductResponse.Builder responseBuilder = GetProductResponse.newBuilder()
+                .setFound(product.isPresent());
+        product.ifPresent(p -> responseBuilder.setProduct(mapper.toMessage(p)));
+        return responseBuilder.build();
+    }
+
+    private ProductList productList(List<Product> products) {
+        ProductList.Builder listBuilder = ProductList.newBuilder();
+        for (Product product : products) {
+            listBuilder.addProducts(mapper.toMessage(product));
+        }
+        return listBuilder.build();
+    }
+
+    // State of one export stream; every callback runs on the call's serialized executor
+    private class CatalogExport {
+
+        private final ServerCallStreamObserver<com.example.springbootcrudapp.grpc.Product> observer;
+        private final int pageSize;
+        private final boolean activeOnly;
+        private long lastId = 0L;
+        private boolean done;
+
+        CatalogExport(ServerCallStreamObserver<com.example.springbootcrudapp.grpc.Product> observer, int pageSize, boolean activeOnly) {
+            this.observer = observer;
+            this.pageSize = pageSize;
+            this.activeOnly = activeOnly;
+        }
+
+        void cancel() {
+            done = true;
+        }
+
+        void drain() {
+            try {
+                while (!done && observer.isReady()) {
+                    List<Product> page = productService.getProductsAfterId(lastId, pageSize, activeOnly);
+                    for (Product product : page) {
+                        observer.onNext(mapper.toMessage(product));
+                        lastId = product.getId();
+                    }
+                    if (page.size() < pageSize) {
+                        done = true;
+                        observer.onCompleted();
+                    }
+                }
+            } catch (Exception e) {
+                done = true;
+                observer.onError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.springbootcrudapp.grpc;
+
+import com.example.springbootcrudapp.entity.Address;
+import com.example.springbootcrudapp.entity.Customer;
+import com.example.springbootcrudapp.entity.Product;
+import com.example.springbootcrudapp.entity.ProductCategory;
+import com.example.springbootcrudapp.exception.NotAcceptableException;
+import com.google.protobuf.CodedOutputStream;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Serves catalog entities and addresses as {@code application/x-protobuf}, using the same messages
+ * as the gRPC services, and reads them from request bodies. A collection is written as the matching
+ * {@code *List} message: each entry is field 1, so the entries are simply written one after another,
+ * and an empty list is an empty body. Field projections ({@code ?fields=}) have no message and are
+ * refused with 406.
+ */
+public class ProtobufEntityHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    // Field number of the repeated entry in ProductList, ProductCategoryList, CustomerList and AddressList
+    static final int LIST_ENTRY_FIELD = 1;
+
+    private final CatalogMessageMapper mapper;
+
+    public ProtobufEntityHttpMessageConverter(CatalogMessageMapper mapper) {
+        super(PROTOBUF);
+        this.mapper = mapper;
+    }
+
+    // Append one entity to a list message that is being written
+    public void writeListEntry(CodedOutputStream output, Object entity) throws IOException {
+        if (entity == null || !mapper.supports(entity.getClass())) {
+            throw new NotAcceptableException("Protobuf responses carry whole products, categories, customers "
+                    + "or addresses; request JSON, CBOR or Smile for " + (entity == null ? "null" : entity.getClass().getSimpleName()));
+        }
+        output.writeMessage(LIST_ENTRY_FIELD, mapper.toMessage(entity));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return mapper.supports(clazz) || Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return type instanceof Class<?> clazz && mapper.supports(clazz) && canRead(mediaType);
+    }
+
+    // Collections whose element type is only known at run time (List<?>) are checked entry by entry
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (mapper.supports(clazz)) {
+            return true;
+        }
+        if (!Collection.class.isAssignableFrom(clazz)) {
+            return false;
+        }
+        Class<?> elementType = type == null ? null : ResolvableType.forType(type).asCollection().resolveGeneric(0);
+        return elementType == null || elementType == Object.class || mapper.supports(elementType);
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(outputMessage.getBody());
+        if (body instanceof Collection<?> entities) {
+            for (Object entity : entities) {
+                writeListEntry(output, entity);
+            }
+        } else {
+            mapper.toMessage(body).writeTo(output);
+        }
+        output.flush();
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readInternal((Class<?>) type, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        InputStream body = inputMessage.getBody();
+        if (clazz == Product.class) {
+            return mapper.fromMessage(com.example.springbootcrudapp.grpc.Product.parseFrom(body));
+        }
+        if (clazz == ProductCategory.class) {
+            return mapper.fromMessage(com.example.springbootcrudapp.grpc.ProductCategory.parseFrom(body));
+        }
+        if (clazz == Customer.class) {
+            return mapper.fromMessage(com.example.springbootcrudapp.grpc.Customer.parseFrom(body));
+        }
+        if (clazz == Address.class) {
+            return mapper.fromMessage(com.example.springbootcrudapp.grpc.Address.parseFrom(body));
+        }
+        throw new HttpMessageNotReadableException("No protobuf message for " + clazz.getName(), inputMessage);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.springbootcrudapp.grpc;
+
+import io.grpc.Drainable;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Marshaller for messages that are already serialized. The bytes are handed to the transport
+ * as a known-length, drainable stream, so they are written straight into the outbound frame.
+ */
+public final class SerializedMessageMarshaller implements MethodDescriptor.Marshaller<byte[]> {
+
+    public static final SerializedMessageMarshaller INSTANCE = new SerializedMessageMarshaller();
+
+    private SerializedMessageMarshaller() {
+    }
+
+    @Override
+    public InputStream stream(byte[] value) {
+        return new SerializedStream(value);
+    }
+
+    @Override
+    public byte[] parse(InputStream stream) {
+        try {
+            return stream.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class SerializedStream extends ByteArrayInputStream implements KnownLength, Drainable {
+
+        SerializedStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public synchronized int drainTo(OutputStream target) throws IOException {
+            int remaining = count - pos;
+            target.write(buf, pos, remaining);
+            pos = count;
+            return remaining;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.springbootcrudapp.grpc;
+
+import com.example.springbootcrudapp.metrics.LatencyMetrics;
+import com.example.springbootcrudapp.metrics.SqlRequestStats;
+import com.example.springbootcrudapp.metrics.SqlStatementTracker;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Charges the SQL run by a gRPC call to that call. The stats are bound to whichever thread runs a
+ * listener callback, which covers unary handlers as well as streams fed from onReady, and are
+ * returned to the client in the {@code x-sql-*} trailers. An {@code x-sql-trace} header forces tracing
+ * of the call on or off.
+ */
+public class SqlStatsInterceptor implements ServerInterceptor {
+
+    static final Metadata.Key<String> STATEMENTS_KEY = Metadata.Key.of("x-sql-statements", Metadata.ASCII_STRING_MARSHALLER);
+    static final Metadata.Key<String> ROWS_KEY = Metadata.Key.of("x-sql-rows", Metadata.ASCII_STRING_MARSHALLER);
+    static final Metadata.Key<String> TIME_KEY = Metadata.Key.of("x-sql-time-ms", Metadata.ASCII_STRING_MARSHALLER);
+    static final Metadata.Key<String> FLAGGED_KEY = Metadata.Key.of("x-sql-flagged", Metadata.ASCII_STRING_MARSHALLER);
+    static final Metadata.Key<String> TRACE_KEY = Metadata.Key.of("x-sql-trace", Metadata.ASCII_STRING_MARSHALLER);
+    static final Metadata.Key<String> TRACE_ID_KEY = Metadata.Key.of("x-sql-trace-id", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final SqlStatementTracker tracker;
+
+    public SqlStatsInterceptor(SqlStatementTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        SqlRequestStats stats = tracker.begin(LatencyMetrics.GRPC, call.getMethodDescriptor().getFullMethodName(),
+                headers.get(TRACE_KEY));
+        AtomicBoolean completed = new AtomicBoolean();
+
+        ServerCall<ReqT, RespT> accountedCall = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                if (completed.compareAndSet(false, true)) {
+                    trailers.put(STATEMENTS_KEY, Integer.toString(stats.getStatements()));
+                    trailers.put(ROWS_KEY, Long.toString(stats.getRows()));
+                    trailers.put(TIME_KEY, String.format(Locale.ROOT, "%.3f", stats.getJdbcNanos() / 1_000_000.0));
+                    String reason = tracker.flagReason(stats);
+                    if (reason != null) {
+                        trailers.put(FLAGGED_KEY, reason);
+                    }
+                    if (stats.getTrace() != null) {
+                        trailers.put(TRACE_ID_KEY, stats.getTrace().getId());
+                    }
+                    tracker.complete(stats);
+                }
+                super.close(status, trailers);
+            }
+        };
+
+        SqlRequestStats previous = tracker.bind(stats);
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = next.startCall(accountedCall, headers);
+        } finally {
+            tracker.restore(previous);
+        }
+
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(ReqT message) {
+                SqlRequestStats previous = tracker.bind(stats);
+                try {
+                    super.onMessage(message);
+                } finally {
+                    tracker.restore(previous);
+                }
+            }
+
+            @Override
+            public void onHalfClose() {
+                SqlRequestStats previous = tracker.bind(stats);
+                try {
+                    super.onHalfClose();
+                } finally {
+                    tracker.restore(previous);
+                }
+            }
+
+            @Override
+            public void onReady() {
+                SqlRequestStats previous = tracker.bind(stats);
+                try {
+                    super.onReady();
+                } finally {
+                    tracker.restore(previous);
+                }
+            }
+
+            @Override
+            public void onCancel() {
+                try {
+                    super.onCancel();
+                } finally {
+                    if (completed.compareAndSet(false, true)) {
+                        tracker.complete(stats);
+                    }
+                }
+            }
+        };
+    }
+}
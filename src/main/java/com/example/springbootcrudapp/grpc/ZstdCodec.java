@@ -0,0 +1,33 @@
+package com.example.springbootcrudapp.grpc;
+
+import io.airlift.compress.zstd.ZstdInputStream;
+import io.airlift.compress.zstd.ZstdOutputStream;
+import io.grpc.Codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Zstandard message encoding backed by the pure-Java aircompressor implementation.
+ * Usually compresses better than gzip at a lower CPU cost.
+ */
+public class ZstdCodec implements Codec {
+
+    public static final String ENCODING = "zstd";
+
+    @Override
+    public String getMessageEncoding() {
+        return ENCODING;
+    }
+
+    @Override
+    public OutputStream compress(OutputStream os) throws IOException {
+        return new ZstdOutputStream(os);
+    }
+
+    @Override
+    public InputStream decompress(InputStream is) {
+        return new ZstdInputStream(is);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.springbootcrudapp.metrics;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Hits, misses and puts per Hibernate cache region (entity regions and query result regions), read
+ * from Hibernate's statistics. All counts stay at zero while app.entity-cache.statistics is off.
+ */
+@Component
+public class EntityCacheStatistics {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Per-region counts plus the query cache totals
+    public Map<String, Object> snapshot() {
+        Statistics statistics = statistics();
+        Map<String, Object> regions = new LinkedHashMap<>();
+        regionStatistics(statistics).forEach((name, region) -> {
+            Map<String, Object> counts = new LinkedHashMap<>();
+            counts.put("hits", region.getHitCount());
+            counts.put("misses", region.getMissCount());
+            counts.put("puts", region.getPutCount());
+            counts.put("hitRatio", hitRatio(region.getHitCount(), region.getMissCount()));
+            regions.put(name, counts);
+        });
+
+        Map<String, Object> queryCache = new LinkedHashMap<>();
+        queryCache.put("hits", statistics.getQueryCacheHitCount());
+        queryCache.put("misses", statistics.getQueryCacheMissCount());
+        queryCache.put("puts", statistics.getQueryCachePutCount());
+        queryCache.put("hitRatio", hitRatio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()));
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        snapshot.put("regions", regions);
+        snapshot.put("queryCache", queryCache);
+        snapshot.put("entityLoadsFromDatabase", statistics.getEntityLoadCount());
+        snapshot.put("queriesExecuted", statistics.getQueryExecutionCount());
+        return snapshot;
+    }
+
+    // Region requests by result and puts, in Prometheus text format
+    public String prometheus() {
+        Map<String, CacheRegionStatistics> regions = regionStatistics(statistics());
+        StringBuilder out = new StringBuilder(256 + regions.size() * 256);
+
+        out.append("# HELP app_entity_cache_requests_total Hibernate second-level and query cache lookups by region\n");
+        out.append("# TYPE app_entity_cache_requests_total counter\n");
+        regions.forEach((name, region) -> {
+            out.append("app_entity_cache_requests_total{region=\"").append(name).append("\",result=\"hit\"} ")
+                    .append(region.getHitCount()).append('\n');
+            out.append("app_entity_cache_requests_total{region=\"").append(name).append("\",result=\"miss\"} ")
+                    .append(region.getMissCount()).append('\n');
+        });
+
+        out.append("# HELP app_entity_cache_puts_total Entries written to a Hibernate cache region\n");
+        out.append("# TYPE app_entity_cache_puts_total counter\n");
+        regions.forEach((name, region) -> out.append("app_entity_cache_puts_total{region=\"").append(name).append("\"} ")
+                .append(region.getPutCount()).append('\n'));
+        return out.toString();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static Map<String, CacheRegionStatistics> regionStatistics(Statistics statistics) {
+        Map<String, CacheRegionStatistics> regions = new TreeMap<>();
+        Arrays.stream(statistics.getSecondLevelCacheRegionNames()).forEach(name -> {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.put(name, region);
+            }
+        });
+        return regions;
+    }
+
+    private static double hitRatio(long hits, long misses) {
+        return hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+    }
+}
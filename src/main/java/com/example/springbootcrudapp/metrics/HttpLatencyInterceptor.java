@@ -0,0 +1,63 @@
+package com.example.springbootcrudapp.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every request that reaches a handler and records it under the matched route template
+ * (for example {@code /api/departments/{id}}), never the raw path, so ids do not create new series.
+ * The entity is taken from the controller name.
+ */
+public class HttpLatencyInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = HttpLatencyInterceptor.class.getName() + ".start";
+    private static final String UNMATCHED_ROUTE = "UNMATCHED";
+
+    private final LatencyMetrics metrics;
+    private final Map<Class<?>, String> entities = new ConcurrentHashMap<>();
+
+    public HttpLatencyInterceptor(LatencyMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async dispatches run preHandle again; keep the time of the first one
+        if (request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : UNMATCHED_ROUTE;
+        int status = response.getStatus();
+        if (ex != null && status < 400) {
+            status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        }
+        String entity = handler instanceof HandlerMethod handlerMethod ? entity(handlerMethod.getBeanType()) : "";
+
+        metrics.record(LatencyMetrics.HTTP, request.getMethod(), route, Integer.toString(status), entity, elapsed);
+    }
+
+    // DepartmentController -> Department
+    private String entity(Class<?> controller) {
+        return entities.computeIfAbsent(controller, type -> {
+            String name = type.getSimpleName();
+            return name.endsWith("Controller") ? name.substring(0, name.length() - "Controller".length()) : name;
+        });
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.springbootcrudapp.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.PackedHistogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms for REST mappings and gRPC methods, one per transport, method, route
+ * template, status and entity. Recording goes through an HdrHistogram {@link Recorder}, which
+ * is wait-free for writers; readers fold the interval histograms into a running total, so all
+ * figures cover the time since startup.
+ */
+@Component
+public class LatencyMetrics {
+
+    public static final String HTTP = "http";
+    public static final String GRPC = "grpc";
+
+    // Two significant digits keep every bucket within 1% of the recorded value
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Map<Key, Timer> timers = new ConcurrentHashMap<>();
+
+    // Record one completed request or call
+    public void record(String transport, String method, String route, String status, String entity, long elapsedNanos) {
+        Key key = new Key(transport, method, route, status, entity);
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(key, k -> new Timer());
+        }
+        timer.record(elapsedNanos);
+    }
+
+    // Percentiles in milliseconds per timer, slowest p99 first
+    public List<Map<String, Object>> summary() {
+        List<Map<String, Object>> summary = new ArrayList<>();
+        snapshots().forEach((key, snapshot) -> {
+            Map<String, Object> values = key.toMap();
+            values.put("count", snapshot.histogram.getTotalCount());
+            values.put("meanMs", snapshot.totalNanos / (double) Math.max(1, snapshot.histogram.getTotalCount()) / 1_000_000.0);
+            values.put("p50Ms", toMillis(snapshot.histogram.getValueAtPercentile(50)));
+            values.put("p90Ms", toMillis(snapshot.histogram.getValueAtPercentile(90)));
+            values.put("p99Ms", toMillis(snapshot.histogram.getValueAtPercentile(99)));
+            values.put("p999Ms", toMillis(snapshot.histogram.getValueAtPercentile(99.9)));
+            values.put("maxMs", toMillis(snapshot.histogram.getMaxValue()));
+            summary.add(values);
+        });
+        summary.sort(Comparator.comparingDouble((Map<String, Object> values) -> (Double) values.get("p99Ms")).reversed());
+        return summary;
+    }
+
+    // Prometheus text exposition format (version 0.0.4): one summary plus a max gauge
+    public String prometheus() {
+        Map<Key, Snapshot> snapshots = snapshots();
+        StringBuilder out = new StringBuilder(256 + snapshots.size() * 512);
+
+        out.append("# HELP app_request_latency_seconds Latency of REST requests and gRPC calls since startup\n");
+        out.append("# TYPE app_request_latency_seconds summary\n");
+        snapshots.forEach((key, snapshot) -> {
+            String labels = key.labels();
+            for (double quantile : QUANTILES) {
+                out.append("app_request_latency_seconds{").append(labels)
+                        .append(",quantile=\"").append(quantile).append("\"} ")
+                        .append(toSeconds(snapshot.histogram.getValueAtPercentile(quantile * 100))).append('\n');
+            }
+            out.append("app_request_latency_seconds_sum{").append(labels).append("} ")
+                    .append(toSeconds(snapshot.totalNanos)).append('\n');
+            out.append("app_request_latency_seconds_count{").append(labels).append("} ")
+                    .append(snapshot.histogram.getTotalCount()).append('\n');
+        });
+
+        out.append("# HELP app_request_latency_seconds_max Slowest REST request or gRPC call since startup\n");
+        out.append("# TYPE app_request_latency_seconds_max gauge\n");
+        snapshots.forEach((key, snapshot) -> out.append("app_request_latency_seconds_max{").append(key.labels()).append("} ")
+                .append(toSeconds(snapshot.histogram.getMaxValue())).append('\n'));
+        return out.toString();
+    }
+
+    private Map<Key, Snapshot> snapshots() {
+        Map<Key, Snapshot> snapshots = new TreeMap<>(Comparator.comparing(Key::sortKey));
+        timers.forEach((key, timer) -> snapshots.put(key, timer.snapshot()));
+        return snapshots;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static double toSeconds(long nanos) {
+        return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    // Escape a Prometheus label value
+    private static String escape(String value) {
+        if (value.indexOf('\\') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private record Key(String transport, String method, String route, String status, String entity) {
+
+        String labels() {
+            return "transport=\"" + transport + "\",method=\"" + escape(method) + "\",route=\"" + escape(route)
+                    + "\",status=\"" + escape(status) + "\",entity=\"" + escape(entity) + "\"";
+        }
+
+        String sortKey() {
+            return transport + ' ' + route + ' ' + method + ' ' + status + ' ' + entity;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("transport", transport);
+            values.put("method", method);
+            values.put("route", route);
+            values.put("status", status);
+            values.put("entity", entity);
+            return values;
+        }
+    }
+
+    private record Snapshot(Histogram histogram, long totalNanos) {
+    }
+
+    // Recorder for writers plus the running total that readers fold intervals into
+    private static class Timer {
+        private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS, true);
+        private final LongAdder totalNanos = new LongAdder();
+        private final Histogram total = new PackedHistogram(SIGNIFICANT_DIGITS);
+        private Histogram interval;
+
+        void record(long elapsedNanos) {
+            recorder.recordValue(Math.max(0, elapsedNanos));
+            totalNanos.add(elapsedNanos);
+        }
+
+        synchronized Snapshot snapshot() {
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+            return new Snapshot(total.copy(), totalNanos.sum());
+        }
+    }
+}
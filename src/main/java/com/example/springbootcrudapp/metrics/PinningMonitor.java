@@ -0,0 +1,102 @@
+package com.example.springbootcrudapp.metrics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streams JFR {@code jdk.VirtualThreadPinned} events in-process. A virtual thread that blocks while
+ * pinned (inside synchronized or a native frame) holds its carrier thread, so pins are counted per
+ * stack; each new stack is logged once.
+ */
+public class PinningMonitor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final Duration threshold;
+    private final int stackDepth;
+    private final Map<String, Pins> stacks = new ConcurrentHashMap<>();
+    private final LongAdder events = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private final RecordingStream stream = new RecordingStream();
+
+    public PinningMonitor(Duration threshold, int stackDepth) {
+        this.threshold = threshold;
+        this.stackDepth = stackDepth;
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        events.increment();
+        pinnedNanos.add(nanos);
+
+        String stack = stack(event.getStackTrace());
+        Pins pins = stacks.computeIfAbsent(stack, s -> {
+            log.warn("Virtual thread pinned for {} ms at:\n{}", event.getDuration().toMillis(), s);
+            return new Pins();
+        });
+        pins.count.increment();
+        pins.nanos.add(nanos);
+    }
+
+    private String stack(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "<no stack trace>";
+        }
+        StringBuilder out = new StringBuilder();
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (int i = 0; i < Math.min(stackDepth, frames.size()); i++) {
+            RecordedFrame frame = frames.get(i);
+            out.append("  at ").append(frame.getMethod().getType().getName()).append('.')
+                    .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber()).append('\n');
+        }
+        return out.toString();
+    }
+
+    // Totals plus the stacks that pinned the longest
+    public Map<String, Object> snapshot() {
+        List<Map<String, Object>> topStacks = new ArrayList<>();
+        stacks.forEach((stack, pins) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", pins.count.sum());
+            values.put("totalMs", pins.nanos.sum() / 1_000_000.0);
+            values.put("stack", stack.lines().map(String::strip).toList());
+            topStacks.add(values);
+        });
+        topStacks.sort(Comparator.comparingDouble((Map<String, Object> values) -> (Double) values.get("totalMs")).reversed());
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("thresholdMs", threshold.toMillis());
+        snapshot.put("pinnedEvents", events.sum());
+        snapshot.put("pinnedTotalMs", pinnedNanos.sum() / 1_000_000.0);
+        snapshot.put("stacks", topStacks.subList(0, Math.min(20, topStacks.size())));
+        return snapshot;
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    private static class Pins {
+        final LongAdder count = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+    }
+}
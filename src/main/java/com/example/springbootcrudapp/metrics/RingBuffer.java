@@ -0,0 +1,32 @@
+package com.example.springbootcrudapp.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Keeps the last capacity entries; older ones are overwritten
+class RingBuffer<T> {
+
+    private final AtomicReferenceArray<T> entries;
+    private final AtomicLong next = new AtomicLong();
+
+    RingBuffer(int capacity) {
+        this.entries = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    void add(T entry) {
+        entries.set((int) (next.getAndIncrement() % entries.length()), entry);
+    }
+
+    List<T> toList() {
+        List<T> list = new ArrayList<>(entries.length());
+        for (int i = 0; i < entries.length(); i++) {
+            T entry = entries.get(i);
+            if (entry != null) {
+                list.add(entry);
+            }
+        }
+        return list;
+    }
+}
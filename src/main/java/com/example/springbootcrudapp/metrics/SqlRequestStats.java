@@ -0,0 +1,77 @@
+package com.example.springbootcrudapp.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statements, rows and JDBC time of one REST request or gRPC call. gRPC callbacks of a call can
+ * run on different threads, so every access is synchronized.
+ */
+public class SqlRequestStats {
+
+    private final String transport;
+    private String route;
+    private int statements;
+    private long rows;
+    private long jdbcNanos;
+    private final Map<String, Integer> executions = new HashMap<>();
+    private final SqlTrace trace;
+
+    SqlRequestStats(String transport, String route, SqlTrace trace) {
+        this.transport = transport;
+        this.route = route;
+        this.trace = trace;
+    }
+
+    synchronized void recordStatement(String sql, long elapsedNanos, long affectedRows) {
+        statements++;
+        jdbcNanos += elapsedNanos;
+        rows += affectedRows;
+        executions.merge(sql, 1, Integer::sum);
+    }
+
+    synchronized void recordRows(long count) {
+        rows += count;
+    }
+
+    // Null unless the request was sampled for tracing
+    public SqlTrace getTrace() {
+        return trace;
+    }
+
+    public String getTransport() {
+        return transport;
+    }
+
+    // Route template; HTTP requests only know it once the handler has been matched
+    public synchronized String getRoute() {
+        return route;
+    }
+
+    public synchronized void setRoute(String route) {
+        this.route = route;
+    }
+
+    public synchronized int getStatements() {
+        return statements;
+    }
+
+    public synchronized long getRows() {
+        return rows;
+    }
+
+    public synchronized long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    // The statement executed most often, or null when none ran
+    public synchronized Map.Entry<String, Integer> mostRepeated() {
+        Map.Entry<String, Integer> most = null;
+        for (Map.Entry<String, Integer> entry : executions.entrySet()) {
+            if (most == null || entry.getValue() > most.getValue()) {
+                most = entry;
+            }
+        }
+        return most == null ? null : Map.entry(most.getKey(), most.getValue());
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.springbootcrudapp.metrics;
+
+import com.example.springbootcrudapp.config.SqlDiagnosticsProperties;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Listens to the proxied DataSource and charges every statement, its rows and its JDBC time to the
+ * request bound to the current thread. Completed requests are summed per route; requests over the
+ * statement budget or repeating one statement (N+1) are flagged, and slow statements are kept
+ * with their bound parameters. Both are kept in fixed-size ring buffers. Sampled requests also
+ * record every statement in order and are handed to the {@link SqlTraceRecorder} when complete.
+ */
+public class SqlStatementTracker implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementTracker.class);
+
+    private static final String START_NANOS = "sqlStartNanos";
+    private static final int MAX_PARAMETER_LENGTH = 100;
+
+    private final ThreadLocal<SqlRequestStats> current = new ThreadLocal<>();
+    private final SqlDiagnosticsProperties properties;
+    private final long slowQueryNanos;
+    private final Map<String, RouteTotals> routes = new ConcurrentHashMap<>();
+    private final RingBuffer<SlowQuery> slowQueries;
+    private final RingBuffer<FlaggedRequest> flaggedRequests;
+    private final SqlTraceRecorder traceRecorder;
+
+    public SqlStatementTracker(SqlDiagnosticsProperties properties, SqlTraceRecorder traceRecorder) {
+        this.properties = properties;
+        this.traceRecorder = traceRecorder;
+        this.slowQueryNanos = properties.getSlowQueryThreshold().toNanos();
+        this.slowQueries = new RingBuffer<>(properties.getBufferSize());
+        this.flaggedRequests = new RingBuffer<>(properties.getBufferSize());
+    }
+
+    // Start accounting for a request; bind the result to each thread that works on it.
+    // traceRequested is the X-Sql-Trace header value, or null to leave it to the sample rate
+    public SqlRequestStats begin(String transport, String route, String traceRequested) {
+        return new SqlRequestStats(transport, route, traceRecorder.start(traceRequested));
+    }
+
+    // Bind stats to the current thread and return whatever was bound before
+    public SqlRequestStats bind(SqlRequestStats stats) {
+        SqlRequestStats previous = current.get();
+        current.set(stats);
+        return previous;
+    }
+
+    public void restore(SqlRequestStats previous) {
+        if (previous == null) {
+            current.remove();
+        } else {
+            current.set(previous);
+        }
+    }
+
+    // Add a finished request to the route totals and flag it if it broke the budget
+    public void complete(SqlRequestStats stats) {
+        String route = stats.getTransport() + " " + stats.getRoute();
+        RouteTotals totals = routes.computeIfAbsent(route, r -> new RouteTotals());
+        totals.add(stats);
+
+        String reason = flagReason(stats);
+        if (reason != null) {
+            totals.flagged.increment();
+            Map.Entry<String, Integer> repeated = stats.mostRepeated();
+            flaggedRequests.add(new FlaggedRequest(Instant.now(), stats.getTransport(), stats.getRoute(), reason,
+                    stats.getStatements(), stats.getRows(), toMillis(stats.getJdbcNanos()),
+                    repeated == null ? null : repeated.getKey(), repeated == null ? 0 : repeated.getValue()));
+            log.warn("{} {}: {} ({} statements, {} rows, {} ms JDBC)", stats.getTransport(), stats.getRoute(), reason,
+                    stats.getStatements(), stats.getRows(), String.format("%.3f", toMillis(stats.getJdbcNanos())));
+        }
+        if (stats.getTrace() != null) {
+            traceRecorder.record(stats.getTrace(), stats, reason);
+        }
+    }
+
+    // Why the request breaks the statement budget, or null when it does not
+    public String flagReason(SqlRequestStats stats) {
+        Map.Entry<String, Integer> repeated = stats.mostRepeated();
+        if (repeated != null && repeated.getValue() >= properties.getRepeatedStatementThreshold()) {
+            return "possible N+1: same statement executed " + repeated.getValue() + " times";
+        }
+        if (stats.getStatements() > properties.getStatementBudget()) {
+            return "statement budget of " + properties.getStatementBudget() + " exceeded";
+        }
+        return null;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        long elapsed = start == null ? TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime()) : System.nanoTime() - start;
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        SqlRequestStats stats = current.get();
+
+        if (stats != null) {
+            long affectedRows = affectedRows(execInfo.getResult());
+            stats.recordStatement(sql, elapsed, affectedRows);
+            SqlTrace trace = stats.getTrace();
+            if (trace != null && !trace.isFull()) {
+                trace.record(sql, parameters(queryInfoList), System.nanoTime(), elapsed, affectedRows, execInfo.isSuccess());
+            }
+        }
+        if (elapsed >= slowQueryNanos) {
+            slowQueries.add(new SlowQuery(Instant.now(), stats == null ? null : stats.getTransport() + " " + stats.getRoute(),
+                    toMillis(elapsed), sql, parameters(queryInfoList)));
+        }
+    }
+
+    // Rows of a query are counted as the caller reads them
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && Boolean.TRUE.equals(executionContext.getResult())
+                && "next".equals(executionContext.getMethod().getName())) {
+            SqlRequestStats stats = current.get();
+            if (stats != null) {
+                stats.recordRows(1);
+            }
+        }
+    }
+
+    // Totals per route, flagged requests newest first and slow queries slowest first
+    public Map<String, Object> snapshot() {
+        Map<String, Object> routeTotals = new TreeMap<>();
+        routes.forEach((route, totals) -> routeTotals.put(route, totals.toMap()));
+
+        List<SlowQuery> slowest = slowQueries.toList();
+        slowest.sort(Comparator.comparingDouble(SlowQuery::elapsedMs).reversed());
+        List<FlaggedRequest> flagged = flaggedRequests.toList();
+        flagged.sort(Comparator.comparing(FlaggedRequest::timestamp).reversed());
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("statementBudget", properties.getStatementBudget());
+        snapshot.put("repeatedStatementThreshold", properties.getRepeatedStatementThreshold());
+        snapshot.put("slowQueryThresholdMs", toMillis(slowQueryNanos));
+        snapshot.put("routes", routeTotals);
+        snapshot.put("flaggedRequests", flagged);
+        snapshot.put("slowQueries", slowest);
+        return snapshot;
+    }
+
+    // Route totals as Prometheus counters
+    public String prometheus() {
+        Map<String, RouteTotals> sorted = new TreeMap<>(routes);
+        StringBuilder out = new StringBuilder(512 + sorted.size() * 512);
+        counter(out, sorted, "app_sql_requests_total", "Requests and calls that reached a handler", totals -> totals.requests.sum());
+        counter(out, sorted, "app_sql_statements_total", "JDBC statements executed", totals -> totals.statements.sum());
+        counter(out, sorted, "app_sql_rows_total", "Rows read or written", totals -> totals.rows.sum());
+        counter(out, sorted, "app_sql_time_seconds_total", "Time spent executing JDBC statements",
+                totals -> toSeconds(totals.jdbcNanos.sum()));
+        counter(out, sorted, "app_sql_flagged_requests_total", "Requests over the statement budget or with repeated statements",
+                totals -> totals.flagged.sum());
+        return out.toString();
+    }
+
+    private static void counter(StringBuilder out, Map<String, RouteTotals> routes, String name, String help,
+                                Function<RouteTotals, Number> value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        routes.forEach((route, totals) -> {
+            int space = route.indexOf(' ');
+            out.append(name).append("{transport=\"").append(route, 0, space)
+                    .append("\",route=\"").append(escape(route.substring(space + 1))).append("\"} ")
+                    .append(value.apply(totals)).append('\n');
+        });
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Integer count) {
+            return Math.max(0, count);
+        }
+        if (result instanceof Long count) {
+            return Math.max(0, count);
+        }
+        long total = 0;
+        if (result instanceof int[] counts) {
+            for (int count : counts) {
+                total += Math.max(0, count);
+            }
+        } else if (result instanceof long[] counts) {
+            for (long count : counts) {
+                total += Math.max(0, count);
+            }
+        }
+        return total;
+    }
+
+    // Bound values per parameter set, in index order and truncated
+    private static List<List<String>> parameters(List<QueryInfo> queryInfoList) {
+        List<List<String>> parameters = new ArrayList<>();
+        for (QueryInfo queryInfo : queryInfoList) {
+            for (List<ParameterSetOperation> operations : queryInfo.getParametersList()) {
+                List<ParameterSetOperation> ordered = new ArrayList<>(operations);
+                ordered.sort(Comparator.comparingInt(operation ->
+                        operation.getArgs()[0] instanceof Integer index ? index : Integer.MAX_VALUE));
+                List<String> values = new ArrayList<>();
+                for (ParameterSetOperation operation : ordered) {
+                    Object[] args = operation.getArgs();
+                    String value = ParameterSetOperation.isSetNullParameterOperation(operation) || args.length < 2
+                            ? "NULL" : String.valueOf(args[1]);
+                    values.add(value.length() > MAX_PARAMETER_LENGTH ? value.substring(0, MAX_PARAMETER_LENGTH) + "..." : value);
+                }
+                parameters.add(values);
+            }
+        }
+        return parameters;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static double toSeconds(long nanos) {
+        return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    public record SlowQuery(Instant timestamp, String route, double elapsedMs, String sql, List<List<String>> parameters) {
+    }
+
+    public record FlaggedRequest(Instant timestamp, String transport, String route, String reason, int statements,
+                                 long rows, double jdbcMs, String repeatedStatement, int repeatedCount) {
+    }
+
+    private static class RouteTotals {
+        final LongAdder requests = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder jdbcNanos = new LongAdder();
+        final LongAdder flagged = new LongAdder();
+        final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+
+        void add(SqlRequestStats stats) {
+            requests.increment();
+            statements.add(stats.getStatements());
+            rows.add(stats.getRows());
+            jdbcNanos.add(stats.getJdbcNanos());
+            maxStatements.accumulate(stats.getStatements());
+        }
+
+        Map<String, Object> toMap() {
+            long count = requests.sum();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("requests", count);
+            values.put("statements", statements.sum());
+            values.put("statementsPerRequest", count == 0 ? 0.0 : statements.sum() / (double) count);
+            values.put("maxStatements", maxStatements.get());
+            values.put("rows", rows.sum());
+            values.put("jdbcMs", toMillis(jdbcNanos.sum()));
+            values.put("flaggedRequests", flagged.sum());
+            return values;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.springbootcrudapp.metrics;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Binds the request's SqlRequestStats to the MVC async thread that runs a Callable, such as the
+ * StreamingResponseBody of a streamed list or export, so the statements it runs are charged to the
+ * request that asked for them. SqlStatsFilter completes the stats once the async processing ends.
+ *
+ * Only these responses get the final values as trailers. Tomcat chunks every response that has a
+ * trailer supplier, so installing one for all requests would cost the others their Content-Length.
+ */
+public class SqlStatsCallableInterceptor implements CallableProcessingInterceptor {
+
+    private static final String PREVIOUS_ATTRIBUTE = SqlStatsCallableInterceptor.class.getName() + ".previous";
+
+    private final SqlStatementTracker tracker;
+
+    public SqlStatsCallableInterceptor(SqlStatementTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    // Runs on the request thread before the Callable is started, so the supplier is in place before the
+    // body can commit the response
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+        if (response != null
+                && request.getAttribute(SqlStatsFilter.TRAILERS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Supplier<?> trailers) {
+            try {
+                response.setTrailerFields((Supplier<Map<String, String>>) trailers);
+            } catch (IllegalStateException e) {
+                // HTTP/1.0 and other responses that cannot carry trailers
+            }
+        }
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        if (request.getAttribute(SqlStatsFilter.STATS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof SqlRequestStats stats) {
+            SqlRequestStats previous = tracker.bind(stats);
+            if (previous != null) {
+                request.setAttribute(PREVIOUS_ATTRIBUTE, previous, RequestAttributes.SCOPE_REQUEST);
+            }
+        }
+    }
+
+    // Runs on the async thread whether the Callable returned or threw
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        if (request.getAttribute(SqlStatsFilter.STATS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) == null) {
+            return;
+        }
+        tracker.restore((SqlRequestStats) request.getAttribute(PREVIOUS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+        request.removeAttribute(PREVIOUS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+}
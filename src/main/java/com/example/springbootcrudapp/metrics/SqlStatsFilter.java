@@ -0,0 +1,174 @@
+package com.example.springbootcrudapp.metrics;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Charges the SQL run while handling a request to that request and reports it in the
+ * {@code X-Sql-*} response headers. The headers are added just before the response is committed,
+ * i.e. once the handler has returned and the body is about to be written. Sampled requests also
+ * get {@code X-Sql-Trace-Id}, the id to look the trace up by.
+ *
+ * Streamed lists and exports run their query on an MVC async thread after the headers have gone
+ * out. SqlStatsCallableInterceptor binds the stats there, the request is completed when the async
+ * processing ends, and the final values follow the body as HTTP trailers of the same names.
+ */
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String ROWS_HEADER = "X-Sql-Rows";
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+    public static final String FLAGGED_HEADER = "X-Sql-Flagged";
+
+    // Request attribute holding the request's SqlRequestStats, for the threads of async processing
+    public static final String STATS_ATTRIBUTE = SqlStatsFilter.class.getName() + ".stats";
+
+    // Request attribute holding a Supplier of the final header values, installed as trailers once the
+    // request goes async
+    public static final String TRAILERS_ATTRIBUTE = SqlStatsFilter.class.getName() + ".trailers";
+
+    private final SqlStatementTracker tracker;
+
+    public SqlStatsFilter(SqlStatementTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlRequestStats stats = tracker.begin(LatencyMetrics.HTTP, request.getMethod() + " " + request.getRequestURI(),
+                request.getHeader(SqlTraceRecorder.TRACE_HEADER));
+        request.setAttribute(STATS_ATTRIBUTE, stats);
+        SqlRequestStats previous = tracker.bind(stats);
+        SqlHeaderResponse wrappedResponse = new SqlHeaderResponse(response, stats);
+        request.setAttribute(TRAILERS_ATTRIBUTE, (Supplier<Map<String, String>>) wrappedResponse::values);
+        try {
+            filterChain.doFilter(request, wrappedResponse);
+        } finally {
+            tracker.restore(previous);
+            // Report under the route template so ids do not create new routes
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                stats.setRoute(request.getMethod() + " " + pattern);
+            }
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompleteOnAsyncEnd(stats));
+            } else {
+                wrappedResponse.writeHeaders();
+                tracker.complete(stats);
+            }
+        }
+    }
+
+    // The async dispatch has finished, whether with a result, an error or a timeout
+    private class CompleteOnAsyncEnd implements AsyncListener {
+
+        private final SqlRequestStats stats;
+
+        CompleteOnAsyncEnd(SqlRequestStats stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            tracker.complete(stats);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    private class SqlHeaderResponse extends HttpServletResponseWrapper {
+
+        private final SqlRequestStats stats;
+        private boolean headersWritten;
+
+        SqlHeaderResponse(HttpServletResponse response, SqlRequestStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        void writeHeaders() {
+            if (headersWritten || isCommitted()) {
+                return;
+            }
+            headersWritten = true;
+            values().forEach(this::setHeader);
+        }
+
+        private Map<String, String> values() {
+            Map<String, String> values = new LinkedHashMap<>();
+            values.put(STATEMENTS_HEADER, Integer.toString(stats.getStatements()));
+            values.put(ROWS_HEADER, Long.toString(stats.getRows()));
+            values.put(TIME_HEADER, String.format(Locale.ROOT, "%.3f", stats.getJdbcNanos() / 1_000_000.0));
+            String reason = tracker.flagReason(stats);
+            if (reason != null) {
+                values.put(FLAGGED_HEADER, reason);
+            }
+            if (stats.getTrace() != null) {
+                values.put(SqlTraceRecorder.TRACE_ID_HEADER, stats.getTrace().getId());
+            }
+            return values;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
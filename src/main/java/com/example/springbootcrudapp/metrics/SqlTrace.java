@@ -0,0 +1,68 @@
+package com.example.springbootcrudapp.metrics;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statements of one sampled request, in execution order and with their bound parameters. Only
+ * created when the request is sampled, so unsampled requests pay nothing beyond a null check.
+ */
+public class SqlTrace {
+
+    private final String id;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final int maxStatements;
+    private final List<TracedStatement> statements = new ArrayList<>();
+    private int unrecordedStatements;
+
+    SqlTrace(String id, int maxStatements) {
+        this.id = id;
+        this.maxStatements = maxStatements;
+    }
+
+    // Statements past maxStatements are counted but their text and parameters are not kept
+    synchronized void record(String sql, List<List<String>> parameters, long endNanos, long elapsedNanos,
+                             long affectedRows, boolean success) {
+        statements.add(new TracedStatement(toMillis(endNanos - elapsedNanos - startNanos), toMillis(elapsedNanos),
+                sql, parameters, affectedRows, success));
+    }
+
+    synchronized boolean isFull() {
+        if (statements.size() < maxStatements) {
+            return false;
+        }
+        unrecordedStatements++;
+        return true;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    Instant getStartedAt() {
+        return startedAt;
+    }
+
+    double elapsedMs() {
+        return toMillis(System.nanoTime() - startNanos);
+    }
+
+    synchronized List<TracedStatement> getStatements() {
+        return List.copyOf(statements);
+    }
+
+    synchronized int getUnrecordedStatements() {
+        return unrecordedStatements;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    // offsetMs is the start of the statement relative to the start of the request
+    public record TracedStatement(double offsetMs, double elapsedMs, String sql, List<List<String>> parameters,
+                                  long affectedRows, boolean success) {
+    }
+}
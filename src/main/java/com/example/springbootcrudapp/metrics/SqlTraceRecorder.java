@@ -0,0 +1,248 @@
+package com.example.springbootcrudapp.metrics;
+
+import com.example.springbootcrudapp.config.SqlTraceProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides at the start of a request whether it is traced (head-based: by sample rate, or forced
+ * either way by the {@code X-Sql-Trace} header) and stores completed traces. Request threads only
+ * offer a finished trace to a bounded queue; a single writer thread moves it into the in-memory
+ * ring buffer and appends it as one JSON line to the rolling trace file, when one is configured.
+ */
+public class SqlTraceRecorder implements DisposableBean {
+
+    public static final String TRACE_HEADER = "X-Sql-Trace";
+    public static final String TRACE_ID_HEADER = "X-Sql-Trace-Id";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlTraceRecorder.class);
+
+    private final SqlTraceProperties properties;
+    private final ObjectMapper objectMapper;
+    private final RingBuffer<CompletedTrace> traces;
+    private final BlockingQueue<CompletedTrace> queue;
+    private final Thread writer;
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder fileErrors = new LongAdder();
+    private OutputStream file;
+    private long fileSize;
+    private volatile boolean closed;
+
+    public SqlTraceRecorder(SqlTraceProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.traces = new RingBuffer<>(properties.getBufferSize());
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        this.writer = Thread.ofPlatform().name("sql-trace-writer").daemon().start(this::run);
+    }
+
+    // A new trace when the request is sampled, otherwise null
+    public SqlTrace start(String requested) {
+        if (!isSampled(requested)) {
+            return null;
+        }
+        sampled.increment();
+        return new SqlTrace(Long.toHexString(ThreadLocalRandom.current().nextLong()), properties.getMaxStatements());
+    }
+
+    private boolean isSampled(String requested) {
+        if (requested != null) {
+            String value = requested.trim().toLowerCase(Locale.ROOT);
+            if (value.equals("true") || value.equals("1")) {
+                return true;
+            }
+            if (value.equals("false") || value.equals("0")) {
+                return false;
+            }
+        }
+        double rate = properties.getSampleRate();
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    // Hand a finished trace to the writer thread without blocking the request
+    void record(SqlTrace trace, SqlRequestStats stats, String flagReason) {
+        CompletedTrace completed = new CompletedTrace(trace.getId(), trace.getStartedAt(), stats.getTransport(),
+                stats.getRoute(), trace.elapsedMs(), stats.getStatements(), stats.getRows(),
+                stats.getJdbcNanos() / 1_000_000.0, flagReason, trace.getUnrecordedStatements(), trace.getStatements());
+        if (closed || !queue.offer(completed)) {
+            dropped.increment();
+        }
+    }
+
+    // Traces matching the filters, newest first; route matches any part of "METHOD /path" or the gRPC method
+    public Map<String, Object> query(String route, String transport, Double minDurationMs, int limit) {
+        String routeFilter = route == null ? null : route.toLowerCase(Locale.ROOT);
+        List<CompletedTrace> matching = new ArrayList<>();
+        for (CompletedTrace trace : traces.toList()) {
+            if (routeFilter != null && !trace.route().toLowerCase(Locale.ROOT).contains(routeFilter)) {
+                continue;
+            }
+            if (transport != null && !trace.transport().equalsIgnoreCase(transport)) {
+                continue;
+            }
+            if (minDurationMs != null && trace.durationMs() < minDurationMs) {
+                continue;
+            }
+            matching.add(trace);
+        }
+        matching.sort(Comparator.comparing(CompletedTrace::timestamp).reversed());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("sampleRate", properties.getSampleRate());
+        result.put("sampled", sampled.sum());
+        result.put("dropped", dropped.sum());
+        result.put("written", written.sum());
+        result.put("file", properties.getFile() == null ? null : properties.getFile().toAbsolutePath().toString());
+        result.put("fileErrors", fileErrors.sum());
+        result.put("matching", matching.size());
+        result.put("traces", matching.subList(0, Math.min(Math.max(0, limit), matching.size())));
+        return result;
+    }
+
+    public Optional<CompletedTrace> find(String id) {
+        return traces.toList().stream().filter(trace -> trace.id().equals(id)).findFirst();
+    }
+
+    // Polls instead of being interrupted on close, as an interrupt would also close the file channel
+    private void run() {
+        try {
+            while (!closed || !queue.isEmpty()) {
+                CompletedTrace trace = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (trace != null) {
+                    drain(trace);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeFile();
+    }
+
+    // Store one trace and whatever queued up behind it, then flush the file once
+    private void drain(CompletedTrace trace) {
+        do {
+            traces.add(trace);
+            if (properties.getFile() != null) {
+                append(trace);
+            }
+            written.increment();
+        } while ((trace = queue.poll()) != null);
+        if (file != null) {
+            try {
+                file.flush();
+            } catch (IOException e) {
+                fileFailed(e);
+            }
+        }
+    }
+
+    private void append(CompletedTrace trace) {
+        try {
+            byte[] line = objectMapper.writeValueAsBytes(trace);
+            if (file == null) {
+                openFile();
+            } else if (fileSize > 0 && fileSize + line.length + 1 > properties.getFileMaxSize().toBytes()) {
+                rollFile();
+            }
+            file.write(line);
+            file.write('\n');
+            fileSize += line.length + 1;
+        } catch (IOException e) {
+            fileFailed(e);
+        }
+    }
+
+    private void openFile() throws IOException {
+        Path path = properties.getFile();
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        file = new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+        fileSize = Files.size(path);
+    }
+
+    // trace.jsonl -> trace.jsonl.1 -> trace.jsonl.2 ...; the oldest beyond fileMaxHistory is overwritten
+    private void rollFile() throws IOException {
+        closeFile();
+        Path path = properties.getFile();
+        int history = properties.getFileMaxHistory();
+        if (history <= 0) {
+            Files.deleteIfExists(path);
+        } else {
+            for (int i = history - 1; i >= 1; i--) {
+                Path source = rolled(path, i);
+                if (Files.exists(source)) {
+                    Files.move(source, rolled(path, i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(path, rolled(path, 1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        openFile();
+    }
+
+    private static Path rolled(Path path, int index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+
+    private void closeFile() {
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                fileFailed(e);
+            }
+            file = null;
+        }
+    }
+
+    // Log the first failure only; the count is reported by query()
+    private void fileFailed(IOException e) {
+        fileErrors.increment();
+        if (fileErrors.sum() == 1) {
+            log.warn("Could not write SQL traces to {}", properties.getFile(), e);
+        }
+        closeFile();
+    }
+
+    // Stop the writer after it has stored the traces already queued
+    @Override
+    public void destroy() {
+        closed = true;
+        try {
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public record CompletedTrace(String id, Instant timestamp, String transport, String route, double durationMs,
+                                 int statements, long rows, double jdbcMs, String flagReason,
+                                 int unrecordedStatements, List<SqlTrace.TracedStatement> trace) {
+    }
+}
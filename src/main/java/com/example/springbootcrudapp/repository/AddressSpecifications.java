@@ -0,0 +1,97 @@
+package com.example.springbootcrudapp.repository;
+
+import com.example.springbootcrudapp.entity.Address;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Criteria equivalents of the {@link AddressRepository} finders, used for projected reads.
+ */
+public final class AddressSpecifications {
+
+    private AddressSpecifications() {
+    }
+
+    // Every address
+    public static Specification<Address> all() {
+        return (root, query, cb) -> null;
+    }
+
+    public static Specification<Address> hasId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Address> streetContainsIgnoreCase(String street) {
+        return (root, query, cb) -> cb.like(cb.upper(root.get("street")), "%" + street.toUpperCase() + "%");
+    }
+
+    public static Specification<Address> hasCity(String city) {
+        return (root, query, cb) -> cb.equal(root.get("city"), city);
+    }
+
+    public static Specification<Address> cityContainsIgnoreCase(String city) {
+        return (root, query, cb) -> cb.like(cb.upper(root.get("city")), "%" + city.toUpperCase() + "%");
+    }
+
+    public static Specification<Address> hasState(String state) {
+        return (root, query, cb) -> cb.equal(root.get("state"), state);
+    }
+
+    public static Specification<Address> hasCountry(String country) {
+        return (root, query, cb) -> cb.equal(root.get("country"), country);
+    }
+
+    public static Specification<Address> countryContainsIgnoreCase(String country) {
+        return (root, query, cb) -> cb.like(cb.upper(root.get("country")), "%" + country.toUpperCase() + "%");
+    }
+
+    public static Specification<Address> hasPostalCode(String postalCode) {
+        return (root, query, cb) -> cb.equal(root.get("postalCode"), postalCode);
+    }
+
+    public static Specification<Address> postalCodeLike(String pattern) {
+        return (root, query, cb) -> cb.like(root.get("postalCode"), pattern);
+    }
+
+    public static Specification<Address> hasAddressType(String addressType) {
+        return (root, query, cb) -> cb.equal(root.get("addressType"), addressType);
+    }
+
+    public static Specification<Address> isActive(Boolean active) {
+        return (root, query, cb) -> cb.equal(root.get("active"), active);
+    }
+
+    public static Specification<Address> isPrimary(Boolean isPrimary) {
+        return (root, query, cb) -> cb.equal(root.get("isPrimary"), isPrimary);
+    }
+
+    public static Specification<Address> additionalInfoContains(String info) {
+        return (root, query, cb) -> cb.like(root.get("additionalInfo"), "%" + info + "%");
+    }
+
+    public static Specification<Address> withinCoordinates(Double minLatitude, Double maxLatitude,
+                                                           Double minLongitude, Double maxLongitude) {
+        return (root, query, cb) -> cb.and(
+                cb.between(root.get("latitude"), minLatitude, maxLatitude),
+                cb.between(root.get("longitude"), minLongitude, maxLongitude));
+    }
+
+    public static Specification<Address> hasCityAndCountry(String city, String country) {
+        return hasCity(city).and(hasCountry(country));
+    }
+
+    public static Specification<Address> hasStateAndCountry(String state, String country) {
+        return hasState(state).and(hasCountry(country));
+    }
+
+    public static Specification<Address> isActiveAndHasCountry(Boolean active, String country) {
+        return isActive(active).and(hasCountry(country));
+    }
+
+    public static Specification<Address> isActiveAndHasCity(Boolean active, String city) {
+        return isActive(active).and(hasCity(city));
+    }
+
+    public static Specification<Address> hasAddressTypeAndIsActive(String addressType, Boolean active) {
+        return hasAddressType(addressType).and(isActive(active));
+    }
+}
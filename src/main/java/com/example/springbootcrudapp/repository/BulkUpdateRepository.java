@@ -0,0 +1,134 @@
+package com.example.springbootcrudapp.repository;
+
+import com.example.springbootcrudapp.datasource.ReplicationFeed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based updates: one UPDATE statement for every row a specification selects, with no entity
+ * loaded. The version is incremented in the same statement, so ETags handed out before become stale.
+ *
+ * Like {@code @Modifying(flushAutomatically = true, clearAutomatically = true)}, pending changes are
+ * flushed first and the persistence context is cleared afterwards. Hibernate evicts the entity's
+ * second-level cache region and invalidates its cached queries. Everything else that holds entity
+ * data (coalesced results, derived caches) is the caller's to invalidate.
+ *
+ * With read replicas the rows must also reach the replication feed, and a bulk UPDATE raises no entity
+ * events. Only then are the matching ids read first and updated a thousand at a time, and published
+ * to the feed once the transaction commits.
+ */
+@Repository
+public class BulkUpdateRepository {
+
+    // Ids per UPDATE statement when replicating; all statements of one bulk update share its transaction
+    private static final int IDS_PER_STATEMENT = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectProvider<ReplicationFeed> replicationFeed;
+
+    // An assignment computed in the statement from the row's current values
+    @FunctionalInterface
+    public interface Computed {
+        Expression<?> expression(Root<?> root, CriteriaBuilder cb);
+    }
+
+    // Set the given attributes (values or Computed) on every entity matching the specification; returns the rows changed
+    @Transactional
+    public <T> int update(Class<T> entityClass, Specification<T> specification, Map<String, Object> assignments) {
+        entityManager.flush();
+        ReplicationFeed feed = replicationFeed.getIfAvailable();
+        int updated = feed == null
+                ? entityManager.createQuery(updateOf(entityClass, specification, assignments, null)).executeUpdate()
+                : updateAndPublish(feed, entityClass, specification, assignments);
+        entityManager.clear();
+        return updated;
+    }
+
+    // The UPDATEs are restricted to the selected ids as well, so no row changes without being published
+    private <T> int updateAndPublish(ReplicationFeed feed, Class<T> entityClass, Specification<T> specification,
+                                     Map<String, Object> assignments) {
+        List<Long> ids = selectIds(entityClass, specification);
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += IDS_PER_STATEMENT) {
+            List<Long> batch = ids.subList(from, Math.min(from + IDS_PER_STATEMENT, ids.size()));
+            updated += entityManager.createQuery(updateOf(entityClass, specification, assignments, batch)).executeUpdate();
+        }
+        if (updated > 0) {
+            publishAfterCommit(feed, entityClass, ids);
+        }
+        return updated;
+    }
+
+    private <T> List<Long> selectIds(Class<T> entityClass, Specification<T> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(entityClass);
+        query.select(root.get("id")).where(restriction(specification, root, cb)).orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CriteriaUpdate<T> updateOf(Class<T> entityClass, Specification<T> specification,
+                                           Map<String, Object> assignments, List<Long> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = cb.createCriteriaUpdate(entityClass);
+        Root<T> root = update.from(entityClass);
+        assignments.forEach((attribute, value) -> {
+            if (value instanceof Computed computed) {
+                update.<Object>set(root.get(attribute), (Expression<Object>) computed.expression(root, cb));
+            } else {
+                update.set(attribute, value);
+            }
+        });
+        update.set(root.<Long>get("version"), cb.sum(root.get("version"), 1L));
+
+        Predicate restriction = restriction(specification, root, cb);
+        // With ids, a row that stopped matching since they were read is left alone
+        update.where(ids == null ? restriction : cb.and(restriction, root.get("id").in(ids)));
+        return update;
+    }
+
+    // The specifications only use the root and the builder, never the query
+    private static <T> Predicate restriction(Specification<T> specification, Root<T> root, CriteriaBuilder cb) {
+        Predicate predicate = specification.toPredicate(root, null, cb);
+        if (predicate == null) {
+            throw new IllegalArgumentException("A bulk update needs a restriction");
+        }
+        return predicate;
+    }
+
+    // Replicas copy each row from the primary, so the rows are published only once the new values are committed
+    private void publishAfterCommit(ReplicationFeed feed, Class<?> entityClass, List<Long> ids) {
+        AbstractEntityPersister persister = (AbstractEntityPersister) entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class).getMappingMetamodel().getEntityDescriptor(entityClass);
+        String table = persister.getTableName();
+        String idColumn = persister.getIdentifierColumnNames()[0];
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                feed.publishUpdates(table, idColumn, ids);
+            }
+        });
+    }
+}
@@ -1,17 +1,27 @@
 package com.example.springbootcrudapp.repository;
 
 import com.example.springbootcrudapp.entity.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
+    // Every customer as a lazily read stream; use through StreamingReader, which keeps the transaction open
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReader.FETCH_SIZE),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT c FROM Customer c")
+    Stream<Customer> streamAll();
+
     // Find customer by email
     Optional<Customer> findByEmail(String email);
 
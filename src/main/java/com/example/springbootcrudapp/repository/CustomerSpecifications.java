@@ -0,0 +1,58 @@
+package com.example.springbootcrudapp.repository;
+
+import com.example.springbootcrudapp.entity.Customer;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Criteria equivalents of the {@link CustomerRepository} finders, used for projected reads.
+ */
+public final class CustomerSpecifications {
+
+    private CustomerSpecifications() {
+    }
+
+    // Every customer
+    public static Specification<Customer> all() {
+        return (root, query, cb) -> null;
+    }
+
+    public static Specification<Customer> hasId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Customer> hasEmail(String email) {
+        return (root, query, cb) -> cb.equal(root.get("email"), email);
+    }
+
+    public static Specification<Customer> companyNameContainsIgnoreCase(String companyName) {
+        return (root, query, cb) -> cb.like(cb.upper(root.get("companyName")), "%" + companyName.toUpperCase() + "%");
+    }
+
+    public static Specification<Customer> contactNameContainsIgnoreCase(String contactName) {
+        return (root, query, cb) -> cb.like(cb.upper(root.get("contactName")), "%" + contactName.toUpperCase() + "%");
+    }
+
+    public static Specification<Customer> hasCity(String city) {
+        return (root, query, cb) -> cb.equal(root.get("city"), city);
+    }
+
+    public static Specification<Customer> hasCountry(String country) {
+        return (root, query, cb) -> cb.equal(root.get("country"), country);
+    }
+
+    public static Specification<Customer> isActive(Boolean active) {
+        return (root, query, cb) -> cb.equal(root.get("active"), active);
+    }
+
+    public static Specification<Customer> creditLimitGreaterThan(Double creditLimit) {
+        return (root, query, cb) -> cb.greaterThan(root.get("creditLimit"), creditLimit);
+    }
+
+    public static Specification<Customer> hasPhone(String phone) {
+        return (root, query, cb) -> cb.equal(root.get("phone"), phone);
+    }
+
+    public static Specification<Customer> isActiveAndHasCountry(Boolean active, String country) {
+        return isActive(active).and(hasCountry(country));
+    }
+}
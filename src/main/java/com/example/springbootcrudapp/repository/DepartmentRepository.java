@@ -1,18 +1,32 @@
 package com.example.springbootcrudapp.repository;
 
 import com.example.springbootcrudapp.entity.Department;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
 
+    // Every department as a lazily read stream; use through StreamingReader, which keeps the transaction open.
+    // Rows read this way are not put into the entity cache, so exports do not churn it
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReader.FETCH_SIZE),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET")})
+    @Query("SELECT d FROM Department d")
+    Stream<Department> streamAll();
+
     // Find department by name
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "department-queries")})
     Optional<Department> findByName(String name);
 
     // Find departments by manager name containing (case-insensitive)
@@ -22,6 +36,8 @@ public interface DepartmentRepository extends JpaRepository<Department, Long> {
     List<Department> findByLocation(String location);
 
     // Find active departments
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "department-queries")})
     List<Department> findByActive(Boolean active);
 
     // Custom query to find departments by budget greater than
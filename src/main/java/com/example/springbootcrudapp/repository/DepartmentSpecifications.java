@@ -0,0 +1,62 @@
+package com.example.springbootcrudapp.repository;
+
+import com.example.springbootcrudapp.entity.Department;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Criteria equivalents of the {@link DepartmentRepository} finders, used for projected reads.
+ */
+public final class DepartmentSpecifications {
+
+    private DepartmentSpecifications() {
+    }
+
+    // Every department
+    public static Specification<Department> all() {
+        return (root, query, cb) -> null;
+    }
+
+    public static Specification<Department> hasId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Department> hasName(String name) {
+        return (root, query, cb) -> cb.equal(root.get("name"), name);
+    }
+
+    public static Specification<Department> nameContainsIgnoreCase(String name) {
+        return (root, query, cb) -> cb.like(cb.upper(root.get("name")), "%" + name.toUpperCase() + "%");
+    }
+
+    public static Specification<Department> managerNameContainsIgnoreCase(String managerName) {
+        return (root, query, cb) -> cb.like(cb.upper(root.get("managerName")), "%" + managerName.toUpperCase() + "%");
+    }
+
+    public static Specification<Department> descriptionContainsIgnoreCase(String description) {
+        return (root, query, cb) -> cb.like(cb.upper(root.get("description")), "%" + description.toUpperCase() + "%");
+    }
+
+    public static Specification<Department> hasLocation(String location) {
+        return (root, query, cb) -> cb.equal(root.get("location"), location);
+    }
+
+    public static Specification<Department> isActive(Boolean active) {
+        return (root, query, cb) -> cb.equal(root.get("active"), active);
+    }
+
+    public static Specification<Department> budgetGreaterThan(Double budget) {
+        return (root, query, cb) -> cb.greaterThan(root.get("budget"), budget);
+    }
+
+    public static Specification<Department> employeeCountGreaterThan(Integer employeeCount) {
+        return (root, query, cb) -> cb.greaterThan(root.get("employeeCount"), employeeCount);
+    }
+
+    public static Specification<Department> hasManagerEmail(String managerEmail) {
+        return (root, query, cb) -> cb.equal(root.get("managerEmail"), managerEmail);
+    }
+
+    public static Specification<Department> isActiveAndHasLocation(Boolean active, String location) {
+        return isActive(active).and(hasLocation(location));
+    }
+}
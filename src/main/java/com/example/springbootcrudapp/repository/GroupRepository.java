@@ -1,19 +1,40 @@
 package com.example.springbootcrudapp.repository;
 
 import com.example.springbootcrudapp.entity.Group;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface GroupRepository extends JpaRepository<Group, Long> {
 
+    // Every group as a lazily read stream; use through StreamingReader, which keeps the transaction open.
+    // Rows read this way are not put into the entity cache, so exports do not churn it
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReader.FETCH_SIZE),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET")})
+    @Query("SELECT g FROM Group g")
+    Stream<Group> streamAll();
+
+    // Streaming variant for incremental exports: groups active at or after the given time
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReader.FETCH_SIZE),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET")})
+    @Query("SELECT g FROM Group g WHERE g.lastActivityDate >= :since")
+    Stream<Group> streamByLastActivityDateSince(@Param("since") Date since);
+
     // Find group by name
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "group-queries")})
     Optional<Group> findByName(String name);
 
     // Find groups by name containing (case-insensitive)
@@ -38,6 +59,8 @@ public interface GroupRepository extends JpaRepository<Group, Long> {
     List<Group> findByOwnerEmail(String ownerEmail);
 
     // Find active groups
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "group-queries")})
     List<Group> findByActive(Boolean active);
 
     // Find public groups
@@ -0,0 +1,117 @@
+package com.example.springbootcrudapp.repository;
+
+import com.example.springbootcrudapp.entity.Group;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Date;
+
+/**
+ * Criteria equivalents of the {@link GroupRepository} finders, used for projected reads.
+ */
+public final class GroupSpecifications {
+
+    private GroupSpecifications() {
+    }
+
+    // Every group
+    public static Specification<Group> all() {
+        return (root, query, cb) -> null;
+    }
+
+    public static Specification<Group> hasId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Group> hasName(String name) {
+        return (root, query, cb) -> cb.equal(root.get("name"), name);
+    }
+
+    public static Specification<Group> nameContainsIgnoreCase(String name) {
+        return (root, query, cb) -> cb.like(cb.upper(root.get("name")), "%" + name.toUpperCase() + "%");
+    }
+
+    public static Specification<Group> descriptionContainsIgnoreCase(String description) {
+        return (root, query, cb) -> cb.like(cb.upper(root.get("description")), "%" + description.toUpperCase() + "%");
+    }
+
+    public static Specification<Group> hasGroupType(String groupType) {
+        return (root, query, cb) -> cb.equal(root.get("groupType"), groupType);
+    }
+
+    public static Specification<Group> groupTypeContainsIgnoreCase(String groupType) {
+        return (root, query, cb) -> cb.like(cb.upper(root.get("groupType")), "%" + groupType.toUpperCase() + "%");
+    }
+
+    public static Specification<Group> hasOwnerName(String ownerName) {
+        return (root, query, cb) -> cb.equal(root.get("ownerName"), ownerName);
+    }
+
+    public static Specification<Group> ownerNameContainsIgnoreCase(String ownerName) {
+        return (root, query, cb) -> cb.like(cb.upper(root.get("ownerName")), "%" + ownerName.toUpperCase() + "%");
+    }
+
+    public static Specification<Group> hasOwnerEmail(String ownerEmail) {
+        return (root, query, cb) -> cb.equal(root.get("ownerEmail"), ownerEmail);
+    }
+
+    public static Specification<Group> isActive(Boolean active) {
+        return (root, query, cb) -> cb.equal(root.get("active"), active);
+    }
+
+    public static Specification<Group> isPublic(Boolean isPublic) {
+        return (root, query, cb) -> cb.equal(root.get("isPublic"), isPublic);
+    }
+
+    public static Specification<Group> requiresApproval(Boolean requiresApproval) {
+        return (root, query, cb) -> cb.equal(root.get("requiresApproval"), requiresApproval);
+    }
+
+    public static Specification<Group> memberCountGreaterThan(Integer memberCount) {
+        return (root, query, cb) -> cb.greaterThan(root.get("currentMemberCount"), memberCount);
+    }
+
+    public static Specification<Group> memberCountLessThan(Integer memberCount) {
+        return (root, query, cb) -> cb.lessThan(root.get("currentMemberCount"), memberCount);
+    }
+
+    public static Specification<Group> hasAvailableCapacity() {
+        return (root, query, cb) -> cb.or(
+                cb.isNull(root.get("maxMembers")),
+                cb.lessThan(root.get("currentMemberCount"), root.get("maxMembers")));
+    }
+
+    public static Specification<Group> maxMembersGreaterThan(Integer maxMembers) {
+        return (root, query, cb) -> cb.greaterThan(root.get("maxMembers"), maxMembers);
+    }
+
+    public static Specification<Group> createdAfter(Date date) {
+        return (root, query, cb) -> cb.greaterThan(root.get("createdDate"), date);
+    }
+
+    public static Specification<Group> lastActivityAfter(Date date) {
+        return (root, query, cb) -> cb.greaterThan(root.get("lastActivityDate"), date);
+    }
+
+    public static Specification<Group> tagsContain(String tag) {
+        return (root, query, cb) -> cb.like(root.get("tags"), "%" + tag + "%");
+    }
+
+    public static Specification<Group> isActiveAndPublic(Boolean active, Boolean isPublic) {
+        return isActive(active).and(isPublic(isPublic));
+    }
+
+    public static Specification<Group> hasGroupTypeAndIsActive(String groupType, Boolean active) {
+        return hasGroupType(groupType).and(isActive(active));
+    }
+
+    public static Specification<Group> hasOwnerNameAndIsActive(String ownerName, Boolean active) {
+        return hasOwnerName(ownerName).and(isActive(active));
+    }
+
+    // Null criteria are ignored, as in GroupRepository.findGroupsByCriteria
+    public static Specification<Group> matchesCriteria(String groupType, Boolean isPublic, Boolean active) {
+        return Specification.where(groupType == null ? null : hasGroupType(groupType))
+                .and(isPublic == null ? null : isPublic(isPublic))
+                .and(active == null ? null : isActive(active));
+    }
+}
@@ -1,19 +1,40 @@
 package com.example.springbootcrudapp.repository;
 
 import com.example.springbootcrudapp.entity.ProductCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductCategoryRepository extends JpaRepository<ProductCategory, Long> {
 
+    // Every category as a lazily read stream; use through StreamingReader, which keeps the transaction open.
+    // Rows read this way are not put into the entity cache, so exports do not churn it
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReader.FETCH_SIZE),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET")})
+    @Query("SELECT pc FROM ProductCategory pc")
+    Stream<ProductCategory> streamAll();
+
+    // Streaming variant for incremental exports: categories modified at or after the given time
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReader.FETCH_SIZE),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET")})
+    @Query("SELECT pc FROM ProductCategory pc WHERE pc.lastModifiedDate >= :since")
+    Stream<ProductCategory> streamByLastModifiedDateSince(@Param("since") Date since);
+
     // Find category by name
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "category-queries")})
     Optional<ProductCategory> findByName(String name);
 
     // Find category by category code
@@ -35,9 +56,13 @@ public interface ProductCategoryRepository extends JpaRepository<ProductCategory
     List<ProductCategory> findByParentCategoryIdAndActive(Long parentCategoryId, Boolean active);
 
     // Find root categories that are active
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "category-queries")})
     List<ProductCategory> findByParentCategoryIdIsNullAndActive(Boolean active);
 
     // Find active categories
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "category-queries")})
     List<ProductCategory> findByActive(Boolean active);
 
     // Find visible categories
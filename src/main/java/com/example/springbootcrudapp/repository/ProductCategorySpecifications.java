@@ -0,0 +1,122 @@
+package com.example.springbootcrudapp.repository;
+
+import com.example.springbootcrudapp.entity.ProductCategory;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Date;
+
+/**
+ * Criteria equivalents of the {@link ProductCategoryRepository} finders, used for projected reads.
+ */
+public final class ProductCategorySpecifications {
+
+    private ProductCategorySpecifications() {
+    }
+
+    // Every category
+    public static Specification<ProductCategory> all() {
+        return (root, query, cb) -> null;
+    }
+
+    public static Specification<ProductCategory> hasId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<ProductCategory> hasName(String name) {
+        return (root, query, cb) -> cb.equal(root.get("name"), name);
+    }
+
+    public static Specification<ProductCategory> hasCategoryCode(String categoryCode) {
+        return (root, query, cb) -> cb.equal(root.get("categoryCode"), categoryCode);
+    }
+
+    public static Specification<ProductCategory> nameContainsIgnoreCase(String name) {
+        return (root, query, cb) -> cb.like(cb.upper(root.get("name")), "%" + name.toUpperCase() + "%");
+    }
+
+    public static Specification<ProductCategory> descriptionContainsIgnoreCase(String description) {
+        return (root, query, cb) -> cb.like(cb.upper(root.get("description")), "%" + description.toUpperCase() + "%");
+    }
+
+    public static Specification<ProductCategory> hasParentCategoryId(Long parentCategoryId) {
+        return (root, query, cb) -> cb.equal(root.get("parentCategoryId"), parentCategoryId);
+    }
+
+    public static Specification<ProductCategory> isRoot() {
+        return (root, query, cb) -> cb.isNull(root.get("parentCategoryId"));
+    }
+
+    public static Specification<ProductCategory> isActive(Boolean active) {
+        return (root, query, cb) -> cb.equal(root.get("active"), active);
+    }
+
+    public static Specification<ProductCategory> isVisible(Boolean isVisible) {
+        return (root, query, cb) -> cb.equal(root.get("isVisible"), isVisible);
+    }
+
+    public static Specification<ProductCategory> isFeatured(Boolean isFeatured) {
+        return (root, query, cb) -> cb.equal(root.get("isFeatured"), isFeatured);
+    }
+
+    public static Specification<ProductCategory> productCountGreaterThan(Integer productCount) {
+        return (root, query, cb) -> cb.greaterThan(root.get("productCount"), productCount);
+    }
+
+    public static Specification<ProductCategory> productCountLessThan(Integer productCount) {
+        return (root, query, cb) -> cb.lessThan(root.get("productCount"), productCount);
+    }
+
+    public static Specification<ProductCategory> hasNoProducts() {
+        return (root, query, cb) -> cb.or(cb.equal(root.get("productCount"), 0), cb.isNull(root.get("productCount")));
+    }
+
+    public static Specification<ProductCategory> createdAfter(Date date) {
+        return (root, query, cb) -> cb.greaterThan(root.get("createdDate"), date);
+    }
+
+    public static Specification<ProductCategory> modifiedAfter(Date date) {
+        return (root, query, cb) -> cb.greaterThan(root.get("lastModifiedDate"), date);
+    }
+
+    public static Specification<ProductCategory> tagsContain(String tag) {
+        return (root, query, cb) -> cb.like(root.get("tags"), "%" + tag + "%");
+    }
+
+    public static Specification<ProductCategory> metaTitleContains(String title) {
+        return (root, query, cb) -> cb.like(root.get("metaTitle"), "%" + title + "%");
+    }
+
+    public static Specification<ProductCategory> hasColor(String color) {
+        return (root, query, cb) -> cb.equal(root.get("color"), color);
+    }
+
+    // The category itself and its direct children
+    public static Specification<ProductCategory> hierarchyOf(Long categoryId) {
+        return hasId(categoryId).or(hasParentCategoryId(categoryId));
+    }
+
+    public static Specification<ProductCategory> hasParentCategoryIdAndIsActive(Long parentCategoryId, Boolean active) {
+        return hasParentCategoryId(parentCategoryId).and(isActive(active));
+    }
+
+    public static Specification<ProductCategory> isRootAndActive(Boolean active) {
+        return isRoot().and(isActive(active));
+    }
+
+    public static Specification<ProductCategory> isActiveAndVisible(Boolean active, Boolean isVisible) {
+        return isActive(active).and(isVisible(isVisible));
+    }
+
+    public static Specification<ProductCategory> isFeaturedAndVisible(Boolean isFeatured, Boolean isVisible) {
+        return isFeatured(isFeatured).and(isVisible(isVisible));
+    }
+
+    // Null criteria are ignored, as in ProductCategoryRepository.findCategoriesByCriteria
+    public static Specification<ProductCategory> matchesCriteria(Long parentCategoryId, Boolean active,
+                                                                 Boolean isVisible, Boolean isFeatured) {
+        return Specification.where(parentCategoryId == null ? null : hasParentCategoryId(parentCategoryId))
+                .and(active == null ? null : isActive(active))
+                .and(isVisible == null ? null : isVisible(isVisible))
+                .and(isFeatured == null ? null : isFeatured(isFeatured));
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.springbootcrudapp.repository;
 
 import com.example.springbootcrudapp.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -10,10 +14,23 @@ import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    // Every product as a lazily read stream; use through StreamingReader, which keeps the transaction open
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReader.FETCH_SIZE),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT p FROM Product p")
+    Stream<Product> streamAll();
+
+    // Streaming variant for incremental exports: products modified at or after the given time
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingReader.FETCH_SIZE),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT p FROM Product p WHERE p.lastModifiedDate >= :since")
+    Stream<Product> streamByLastModifiedDateSince(@Param("since") Date since);
+
     // Find product by name
     Optional<Product> findByName(String name);
 
@@ -38,6 +55,12 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Find products by category ID
     List<Product> findByCategoryId(Long categoryId);
 
+    // Keyset page: the next `limit` products after the given id, in id order
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Keyset page restricted to the given active status
+    List<Product> findByIdGreaterThanAndActiveOrderByIdAsc(Long id, Boolean active, Limit limit);
+
     // Find products by category ID and active status
     List<Product> findByCategoryIdAndActive(Long categoryId, Boolean active);
 
@@ -0,0 +1,126 @@
+package com.example.springbootcrudapp.repository;
+
+import com.example.springbootcrudapp.entity.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+
+/**
+ * Criteria equivalents of the {@link ProductRepository} finders, used for projected reads.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    // Every product
+    public static Specification<Product> all() {
+        return (root, query, cb) -> null;
+    }
+
+    public static Specification<Product> hasId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Product> hasName(String name) {
+        return (root, query, cb) -> cb.equal(root.get("name"), name);
+    }
+
+    public static Specification<Product> hasSku(String sku) {
+        return (root, query, cb) -> cb.equal(root.get("sku"), sku);
+    }
+
+    public static Specification<Product> nameContainsIgnoreCase(String name) {
+        return (root, query, cb) -> cb.like(cb.upper(root.get("name")), "%" + name.toUpperCase() + "%");
+    }
+
+    public static Specification<Product> descriptionContainsIgnoreCase(String description) {
+        return (root, query, cb) -> cb.like(cb.upper(root.get("description")), "%" + description.toUpperCase() + "%");
+    }
+
+    public static Specification<Product> hasBrand(String brand) {
+        return (root, query, cb) -> cb.equal(root.get("brand"), brand);
+    }
+
+    public static Specification<Product> hasCategoryId(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("categoryId"), categoryId);
+    }
+
+    public static Specification<Product> hasStatus(Product.ProductStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Product> isActive(Boolean active) {
+        return (root, query, cb) -> cb.equal(root.get("active"), active);
+    }
+
+    public static Specification<Product> isFeatured(Boolean isFeatured) {
+        return (root, query, cb) -> cb.equal(root.get("isFeatured"), isFeatured);
+    }
+
+    public static Specification<Product> isDigital(Boolean isDigital) {
+        return (root, query, cb) -> cb.equal(root.get("isDigital"), isDigital);
+    }
+
+    public static Specification<Product> priceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        return (root, query, cb) -> cb.between(root.get("price"), minPrice, maxPrice);
+    }
+
+    // Sale price set and below the regular price
+    public static Specification<Product> onSale() {
+        return (root, query, cb) -> cb.and(
+                cb.isNotNull(root.get("salePrice")),
+                cb.lessThan(root.get("salePrice"), root.get("price")));
+    }
+
+    public static Specification<Product> outOfStock() {
+        return (root, query, cb) -> cb.or(cb.equal(root.get("stockQuantity"), 0), cb.isNull(root.get("stockQuantity")));
+    }
+
+    // At or below the minimum stock level, where one is set
+    public static Specification<Product> lowStock() {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("stockQuantity"), root.get("minStockLevel")),
+                cb.greaterThan(root.get("minStockLevel"), 0));
+    }
+
+    public static Specification<Product> salesCountGreaterThan(Integer salesCount) {
+        return (root, query, cb) -> cb.greaterThan(root.get("salesCount"), salesCount);
+    }
+
+    public static Specification<Product> viewCountGreaterThan(Integer viewCount) {
+        return (root, query, cb) -> cb.greaterThan(root.get("viewCount"), viewCount);
+    }
+
+    public static Specification<Product> highlyRated(Double rating, Integer minReviews) {
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("rating"), rating),
+                cb.greaterThanOrEqualTo(root.get("reviewCount"), minReviews));
+    }
+
+    // Any of name, description, brand, model or tags contains the term, as in ProductRepository.searchProducts
+    public static Specification<Product> matchesSearchTerm(String searchTerm) {
+        return (root, query, cb) -> {
+            String pattern = "%" + searchTerm + "%";
+            return cb.or(
+                    cb.like(root.get("name"), pattern),
+                    cb.like(root.get("description"), pattern),
+                    cb.like(root.get("brand"), pattern),
+                    cb.like(root.get("model"), pattern),
+                    cb.like(root.get("tags"), pattern));
+        };
+    }
+
+    // Null criteria are ignored, as in ProductRepository.findProductsByCriteria
+    public static Specification<Product> matchesCriteria(Long categoryId, String brand, Product.ProductStatus status,
+                                                         Boolean active, Boolean isFeatured,
+                                                         BigDecimal minPrice, BigDecimal maxPrice) {
+        return Specification.where(categoryId == null ? null : hasCategoryId(categoryId))
+                .and(brand == null ? null : hasBrand(brand))
+                .and(status == null ? null : hasStatus(status))
+                .and(active == null ? null : isActive(active))
+                .and(isFeatured == null ? null : isFeatured(isFeatured))
+                .and(minPrice == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice))
+                .and(maxPrice == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice));
+    }
+}
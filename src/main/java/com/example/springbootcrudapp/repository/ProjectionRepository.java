@@ -0,0 +1,107 @@
+package com.example.springbootcrudapp.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads a subset of an entity's columns as plain rows instead of managed entities.
+ * Only the requested attributes appear in the generated SELECT, and nothing is added
+ * to the persistence context.
+ */
+@Repository
+public class ProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Parse a comma-separated field list such as "id,name,active"; null or blank means no projection
+    public static List<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        return Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    // Select the given attributes of every entity matching the specification
+    @Transactional(readOnly = true)
+    public <T> List<Map<String, Object>> findProjected(Class<T> entityClass, List<String> fields, Specification<T> specification) {
+        return findProjected(entityClass, fields, specification, Sort.unsorted());
+    }
+
+    // Same, in the given order; the sort properties need not be among the selected fields
+    @Transactional(readOnly = true)
+    public <T> List<Map<String, Object>> findProjected(Class<T> entityClass, List<String> fields, Specification<T> specification,
+                                                       Sort sort) {
+        validateFields(entityClass, fields);
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<T> root = query.from(entityClass);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(root.get(field).alias(field));
+        }
+        query.multiselect(selections);
+
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        }
+
+        List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Reject empty selections and names that are not basic attributes of the entity
+    private <T> void validateFields(Class<T> entityClass, List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            throw new IllegalArgumentException("At least one field must be requested");
+        }
+        Set<String> attributes = entityManager.getMetamodel().entity(entityClass).getSingularAttributes().stream()
+                .map(Attribute::getName)
+                .collect(Collectors.toSet());
+        for (String field : fields) {
+            if (!attributes.contains(field)) {
+                throw new IllegalArgumentException("Unknown field for " + entityClass.getSimpleName() + ": " + field);
+            }
+        }
+    }
+}
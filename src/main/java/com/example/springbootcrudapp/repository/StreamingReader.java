@@ -0,0 +1,35 @@
+package com.example.springbootcrudapp.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Runs a repository {@code Stream} query inside the read-only transaction it needs and hands the
+ * entities over one at a time. Each entity is detached once handled, so the persistence context
+ * does not grow with the result.
+ */
+@Repository
+public class StreamingReader {
+
+    // Rows fetched per round trip by the streaming finders (their @QueryHints repeat this value)
+    public static final String FETCH_SIZE = "500";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public <T> void forEach(Supplier<Stream<T>> query, Consumer<? super T> action) {
+        try (Stream<T> entities = query.get()) {
+            entities.forEach(entity -> {
+                action.accept(entity);
+                entityManager.detach(entity);
+            });
+        }
+    }
+}
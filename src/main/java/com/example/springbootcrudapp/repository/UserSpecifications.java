@@ -0,0 +1,34 @@
+package com.example.springbootcrudapp.repository;
+
+import com.example.springbootcrudapp.entity.User;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Criteria equivalents of the {@link UserRepository} finders, used for projected reads.
+ */
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    // Every user
+    public static Specification<User> all() {
+        return (root, query, cb) -> null;
+    }
+
+    public static Specification<User> hasId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<User> hasEmail(String email) {
+        return (root, query, cb) -> cb.equal(root.get("email"), email);
+    }
+
+    public static Specification<User> nameContainsIgnoreCase(String name) {
+        return (root, query, cb) -> cb.like(cb.upper(root.get("name")), "%" + name.toUpperCase() + "%");
+    }
+
+    public static Specification<User> hasPhone(String phone) {
+        return (root, query, cb) -> cb.equal(root.get("phone"), phone);
+    }
+}
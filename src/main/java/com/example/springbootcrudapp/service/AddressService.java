@@ -2,29 +2,62 @@ package com.example.springbootcrudapp.service;
 
 import com.example.springbootcrudapp.entity.Address;
 import com.example.springbootcrudapp.repository.AddressRepository;
+import com.example.springbootcrudapp.repository.BulkUpdateRepository;
+import com.example.springbootcrudapp.repository.ProjectionRepository;
+import com.example.springbootcrudapp.repository.StreamingReader;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class AddressService {
 
+    // Path names of the fields PUT /bulk/{field} may set, and the attributes they stand for
+    public static final Map<String, String> BULK_FIELDS = Map.of("active", "active");
+
     @Autowired
     private AddressRepository addressRepository;
 
+    @Autowired
+    private ProjectionRepository projectionRepository;
+
+    @Autowired
+    private StreamingReader streamingReader;
+
+    @Autowired
+    private BulkUpdateRepository bulkUpdateRepository;
+
     // Get all addresses
     public List<Address> getAllAddresses() {
         return addressRepository.findAll();
     }
 
+    // Hand all addresses to the action one at a time, without collecting them into a list
+    public void streamAllAddresses(Consumer<Address> action) {
+        streamingReader.forEach(addressRepository::streamAll, action);
+    }
+
     // Get address by ID
     public Optional<Address> getAddressById(Long id) {
         return addressRepository.findById(id);
     }
 
+    // Get addresses by IDs in a single query; unknown IDs are simply absent from the result
+    public List<Address> getAddressesByIds(Collection<Long> ids) {
+        return addressRepository.findAllById(ids);
+    }
+
     // Create a new address
+    @Transactional
     public Address createAddress(Address address) {
         // Check if address already exists with same street, city, and postal code
         if (addressRepository.existsByStreetAndCityAndPostalCode(
@@ -35,6 +68,7 @@ public class AddressService {
     }
 
     // Update address
+    @Transactional
     public Address updateAddress(Long id, Address addressDetails) {
         Address address = addressRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Address not found with id: " + id));
@@ -62,6 +96,7 @@ public class AddressService {
     }
 
     // Delete address
+    @Transactional
     public void deleteAddress(Long id) {
         Address address = addressRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Address not found with id: " + id));
@@ -179,7 +214,13 @@ public class AddressService {
         return addressRepository.findAllByOrderByCountryAscCityAsc();
     }
 
+    // Find addresses matching a specification, loading only the requested fields
+    public List<Map<String, Object>> getAddressesProjected(List<String> fields, Specification<Address> specification, Sort sort) {
+        return projectionRepository.findProjected(Address.class, fields, specification, sort);
+    }
+
     // Activate address
+    @Transactional
     public Address activateAddress(Long id) {
         Address address = addressRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Address not found with id: " + id));
@@ -188,6 +229,7 @@ public class AddressService {
     }
 
     // Deactivate address
+    @Transactional
     public Address deactivateAddress(Long id) {
         Address address = addressRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Address not found with id: " + id));
@@ -196,6 +238,7 @@ public class AddressService {
     }
 
     // Set address as primary
+    @Transactional
     public Address setPrimaryAddress(Long id) {
         Address address = addressRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Address not found with id: " + id));
@@ -204,6 +247,7 @@ public class AddressService {
     }
 
     // Set address as non-primary
+    @Transactional
     public Address setNonPrimaryAddress(Long id) {
         Address address = addressRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Address not found with id: " + id));
@@ -212,6 +256,7 @@ public class AddressService {
     }
 
     // Update address coordinates
+    @Transactional
     public Address updateAddressCoordinates(Long id, Double latitude, Double longitude) {
         Address address = addressRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Address not found with id: " + id));
@@ -227,4 +272,11 @@ public class AddressService {
                ((address1.getPostalCode() == null && address2.getPostalCode() == null) ||
                 (address1.getPostalCode() != null && address1.getPostalCode().equals(address2.getPostalCode())));
     }
+
+    // Set one field on every selected address with set-based UPDATEs
+    public int bulkUpdate(Specification<Address> selection, String attribute, Object value) {
+        Map<String, Object> assignments = new LinkedHashMap<>();
+        assignments.put(attribute, value);
+        return bulkUpdateRepository.update(Address.class, selection, assignments);
+    }
 } 
\ No newline at end of file
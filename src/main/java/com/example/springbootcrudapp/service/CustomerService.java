@@ -1,30 +1,62 @@
 package com.example.springbootcrudapp.service;
 
 import com.example.springbootcrudapp.entity.Customer;
+import com.example.springbootcrudapp.repository.BulkUpdateRepository;
 import com.example.springbootcrudapp.repository.CustomerRepository;
+import com.example.springbootcrudapp.repository.ProjectionRepository;
+import com.example.springbootcrudapp.repository.StreamingReader;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class CustomerService {
 
+    // Path names of the fields PUT /bulk/{field} may set, and the attributes they stand for
+    public static final Map<String, String> BULK_FIELDS = Map.of("active", "active");
+
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private ProjectionRepository projectionRepository;
+
+    @Autowired
+    private StreamingReader streamingReader;
+
+    @Autowired
+    private BulkUpdateRepository bulkUpdateRepository;
+
     // Get all customers
     public List<Customer> getAllCustomers() {
         return customerRepository.findAll();
     }
 
+    // Hand all customers to the action one at a time, without collecting them into a list
+    public void streamAllCustomers(Consumer<Customer> action) {
+        streamingReader.forEach(customerRepository::streamAll, action);
+    }
+
     // Get customer by ID
     public Optional<Customer> getCustomerById(Long id) {
         return customerRepository.findById(id);
     }
 
+    // Get customers by IDs in a single query; unknown IDs are simply absent from the result
+    public List<Customer> getCustomersByIds(Collection<Long> ids) {
+        return customerRepository.findAllById(ids);
+    }
+
     // Create a new customer
+    @Transactional
     public Customer createCustomer(Customer customer) {
         // Check if email already exists
         if (customerRepository.existsByEmail(customer.getEmail())) {
@@ -34,6 +66,7 @@ public class CustomerService {
     }
 
     // Update customer
+    @Transactional
     public Customer updateCustomer(Long id, Customer customerDetails) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id));
@@ -58,6 +91,7 @@ public class CustomerService {
     }
 
     // Delete customer
+    @Transactional
     public void deleteCustomer(Long id) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id));
@@ -114,7 +148,13 @@ public class CustomerService {
         return customerRepository.findByActiveAndCountry(active, country);
     }
 
+    // Find customers matching a specification, loading only the requested fields
+    public List<Map<String, Object>> getCustomersProjected(List<String> fields, Specification<Customer> specification) {
+        return projectionRepository.findProjected(Customer.class, fields, specification);
+    }
+
     // Activate customer
+    @Transactional
     public Customer activateCustomer(Long id) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id));
@@ -123,10 +163,18 @@ public class CustomerService {
     }
 
     // Deactivate customer
+    @Transactional
     public Customer deactivateCustomer(Long id) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id));
         customer.setActive(false);
         return customerRepository.save(customer);
     }
+
+    // Set one field on every selected customer with set-based UPDATEs
+    public int bulkUpdate(Specification<Customer> selection, String attribute, Object value) {
+        Map<String, Object> assignments = new LinkedHashMap<>();
+        assignments.put(attribute, value);
+        return bulkUpdateRepository.update(Customer.class, selection, assignments);
+    }
 } 
\ No newline at end of file
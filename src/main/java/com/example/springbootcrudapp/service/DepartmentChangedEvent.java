@@ -0,0 +1,24 @@
+package com.example.springbootcrudapp.service;
+
+/**
+ * Published by {@link DepartmentService} after a department is created, updated or deleted.
+ * Listeners holding derived department data (such as prebuilt gRPC messages) drop it on receipt.
+ */
+public class DepartmentChangedEvent {
+
+    // ID of the changed department, or null when several departments changed at once
+    private final Long departmentId;
+
+    public DepartmentChangedEvent(Long departmentId) {
+        this.departmentId = departmentId;
+    }
+
+    public Long getDepartmentId() {
+        return departmentId;
+    }
+
+    @Override
+    public String toString() {
+        return "DepartmentChangedEvent{departmentId=" + departmentId + "}";
+    }
+}
@@ -1,39 +1,91 @@
 package com.example.springbootcrudapp.service;
 
 import com.example.springbootcrudapp.entity.Department;
+import com.example.springbootcrudapp.repository.BulkUpdateRepository;
 import com.example.springbootcrudapp.repository.DepartmentRepository;
+import com.example.springbootcrudapp.repository.ProjectionRepository;
+import com.example.springbootcrudapp.repository.StreamingReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class DepartmentService {
 
+    // Path names of the fields PUT /bulk/{field} may set, and the attributes they stand for
+    public static final Map<String, String> BULK_FIELDS = Map.of("active", "active");
+
     @Autowired
     private DepartmentRepository departmentRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProjectionRepository projectionRepository;
+
+    @Autowired
+    private StreamingReader streamingReader;
+
+    @Autowired
+    private BulkUpdateRepository bulkUpdateRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Get all departments
     public List<Department> getAllDepartments() {
         return departmentRepository.findAll();
     }
 
+    // Hand all departments to the action one at a time, without collecting them into a list
+    public void streamAllDepartments(Consumer<Department> action) {
+        streamingReader.forEach(departmentRepository::streamAll, action);
+    }
+
     // Get department by ID
     public Optional<Department> getDepartmentById(Long id) {
         return departmentRepository.findById(id);
     }
 
+    // Get departments by IDs: the second-level cache answers the IDs it holds and one query loads the
+    // rest; unknown IDs are simply absent from the result
+    @Transactional(readOnly = true)
+    public List<Department> getDepartmentsByIds(Collection<Long> ids) {
+        return entityManager.unwrap(Session.class).byMultipleIds(Department.class)
+                .with(CacheMode.NORMAL)   // without a cache mode multiLoad skips the cache
+                .multiLoad(List.copyOf(ids))
+                .stream()
+                .filter(Objects::nonNull)   // unknown IDs come back as null slots
+                .toList();
+    }
+
     // Create a new department
+    @Transactional
     public Department createDepartment(Department department) {
         // Check if department name already exists
         if (departmentRepository.existsByName(department.getName())) {
             throw new RuntimeException("Department name already exists: " + department.getName());
         }
-        return departmentRepository.save(department);
+        return published(departmentRepository.save(department));
     }
 
     // Update department
+    @Transactional
     public Department updateDepartment(Long id, Department departmentDetails) {
         Department department = departmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Department not found with id: " + id));
@@ -53,14 +105,16 @@ public class DepartmentService {
         department.setEmployeeCount(departmentDetails.getEmployeeCount());
         department.setActive(departmentDetails.getActive());
 
-        return departmentRepository.save(department);
+        return published(departmentRepository.save(department));
     }
 
     // Delete department
+    @Transactional
     public void deleteDepartment(Long id) {
         Department department = departmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Department not found with id: " + id));
         departmentRepository.delete(department);
+        eventPublisher.publishEvent(new DepartmentChangedEvent(id));
     }
 
     // Find department by name
@@ -118,35 +172,63 @@ public class DepartmentService {
         return departmentRepository.findByActiveAndLocation(active, location);
     }
 
+    // Find departments matching a specification, loading only the requested fields
+    public List<Map<String, Object>> getDepartmentsProjected(List<String> fields, Specification<Department> specification) {
+        return projectionRepository.findProjected(Department.class, fields, specification);
+    }
+
     // Activate department
+    @Transactional
     public Department activateDepartment(Long id) {
         Department department = departmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Department not found with id: " + id));
         department.setActive(true);
-        return departmentRepository.save(department);
+        return published(departmentRepository.save(department));
     }
 
     // Deactivate department
+    @Transactional
     public Department deactivateDepartment(Long id) {
         Department department = departmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Department not found with id: " + id));
         department.setActive(false);
-        return departmentRepository.save(department);
+        return published(departmentRepository.save(department));
     }
 
     // Update department budget
+    @Transactional
     public Department updateDepartmentBudget(Long id, Double budget) {
         Department department = departmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Department not found with id: " + id));
         department.setBudget(budget);
-        return departmentRepository.save(department);
+        return published(departmentRepository.save(department));
     }
 
     // Update department employee count
+    @Transactional
     public Department updateDepartmentEmployeeCount(Long id, Integer employeeCount) {
         Department department = departmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Department not found with id: " + id));
         department.setEmployeeCount(employeeCount);
-        return departmentRepository.save(department);
+        return published(departmentRepository.save(department));
+    }
+
+    // Notify listeners that cache derived data about the saved department
+    private Department published(Department department) {
+        eventPublisher.publishEvent(new DepartmentChangedEvent(department.getId()));
+        return department;
+    }
+
+    // Set one field on every selected department with set-based UPDATEs
+    public int bulkUpdate(Specification<Department> selection, String attribute, Object value) {
+        Map<String, Object> assignments = new LinkedHashMap<>();
+        assignments.put(attribute, value);
+        int updated = bulkUpdateRepository.update(Department.class, selection, assignments);
+
+        // Prebuilt gRPC messages miss a bulk UPDATE
+        if (updated > 0) {
+            eventPublisher.publishEvent(new DepartmentChangedEvent(null));
+        }
+        return updated;
     }
-} 
\ No newline at end of file
+}
@@ -1,31 +1,87 @@
 package com.example.springbootcrudapp.service;
 
 import com.example.springbootcrudapp.entity.Group;
+import com.example.springbootcrudapp.repository.BulkUpdateRepository;
 import com.example.springbootcrudapp.repository.GroupRepository;
+import com.example.springbootcrudapp.repository.ProjectionRepository;
+import com.example.springbootcrudapp.repository.StreamingReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class GroupService {
 
+    // Path names of the fields PUT /bulk/{field} may set, and the attributes they stand for
+    public static final Map<String, String> BULK_FIELDS = Map.of("active", "active", "public", "isPublic");
+
     @Autowired
     private GroupRepository groupRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProjectionRepository projectionRepository;
+
+    @Autowired
+    private StreamingReader streamingReader;
+
+    @Autowired
+    private BulkUpdateRepository bulkUpdateRepository;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
     // Get all groups
     public List<Group> getAllGroups() {
         return groupRepository.findAll();
     }
 
+    // Hand all groups to the action one at a time, without collecting them into a list
+    public void streamAllGroups(Consumer<Group> action) {
+        streamingReader.forEach(groupRepository::streamAll, action);
+    }
+
+    // Hand the groups active at or after the given time to the action one at a time
+    public void streamGroupsActiveSince(Date since, Consumer<Group> action) {
+        streamingReader.forEach(() -> groupRepository.streamByLastActivityDateSince(since), action);
+    }
+
     // Get group by ID
     public Optional<Group> getGroupById(Long id) {
         return groupRepository.findById(id);
     }
 
+    // Get groups by IDs, cached ones from the second-level cache and the misses in one query; unknown
+    // IDs are simply absent from the result
+    @Transactional(readOnly = true)
+    public List<Group> getGroupsByIds(Collection<Long> ids) {
+        return entityManager.unwrap(Session.class).byMultipleIds(Group.class)
+                .with(CacheMode.NORMAL)
+                .multiLoad(List.copyOf(ids))
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     // Create a new group
+    @Transactional
     public Group createGroup(Group group) {
         // Check if group name already exists
         if (groupRepository.existsByName(group.getName())) {
@@ -46,6 +102,7 @@ public class GroupService {
     }
 
     // Update group
+    @Transactional
     public Group updateGroup(Long id, Group groupDetails) {
         Group group = groupRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Group not found with id: " + id));
@@ -75,6 +132,7 @@ public class GroupService {
     }
 
     // Delete group
+    @Transactional
     public void deleteGroup(Long id) {
         Group group = groupRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Group not found with id: " + id));
@@ -226,7 +284,13 @@ public class GroupService {
         return groupRepository.findGroupsByCriteria(groupType, isPublic, active);
     }
 
+    // Find groups matching a specification, loading only the requested fields
+    public List<Map<String, Object>> getGroupsProjected(List<String> fields, Specification<Group> specification, Sort sort) {
+        return projectionRepository.findProjected(Group.class, fields, specification, sort);
+    }
+
     // Activate group
+    @Transactional
     public Group activateGroup(Long id) {
         Group group = groupRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Group not found with id: " + id));
@@ -236,6 +300,7 @@ public class GroupService {
     }
 
     // Deactivate group
+    @Transactional
     public Group deactivateGroup(Long id) {
         Group group = groupRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Group not found with id: " + id));
@@ -245,6 +310,7 @@ public class GroupService {
     }
 
     // Make group public
+    @Transactional
     public Group makeGroupPublic(Long id) {
         Group group = groupRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Group not found with id: " + id));
@@ -254,6 +320,7 @@ public class GroupService {
     }
 
     // Make group private
+    @Transactional
     public Group makeGroupPrivate(Long id) {
         Group group = groupRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Group not found with id: " + id));
@@ -263,6 +330,7 @@ public class GroupService {
     }
 
     // Update member count
+    @Transactional
     public Group updateMemberCount(Long id, Integer memberCount) {
         Group group = groupRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Group not found with id: " + id));
@@ -279,38 +347,43 @@ public class GroupService {
 
     // Add member to group
     public Group addMemberToGroup(Long id) {
-        Group group = groupRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Group not found with id: " + id));
-        
-        int currentCount = group.getCurrentMemberCount() != null ? group.getCurrentMemberCount() : 0;
-        
-        // Check if group has capacity
-        if (group.getMaxMembers() != null && currentCount >= group.getMaxMembers()) {
-            throw new RuntimeException("Group has reached maximum capacity: " + group.getMaxMembers());
-        }
-        
-        group.setCurrentMemberCount(currentCount + 1);
-        group.setLastActivityDate(new Date());
-        return groupRepository.save(group);
+        return optimisticRetry.run("GroupService.addMemberToGroup", () -> {
+            Group group = groupRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Group not found with id: " + id));
+
+            int currentCount = group.getCurrentMemberCount() != null ? group.getCurrentMemberCount() : 0;
+
+            // Check if group has capacity
+            if (group.getMaxMembers() != null && currentCount >= group.getMaxMembers()) {
+                throw new RuntimeException("Group has reached maximum capacity: " + group.getMaxMembers());
+            }
+
+            group.setCurrentMemberCount(currentCount + 1);
+            group.setLastActivityDate(new Date());
+            return groupRepository.save(group);
+        });
     }
 
     // Remove member from group
     public Group removeMemberFromGroup(Long id) {
-        Group group = groupRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Group not found with id: " + id));
-        
-        int currentCount = group.getCurrentMemberCount() != null ? group.getCurrentMemberCount() : 0;
-        
-        if (currentCount <= 0) {
-            throw new RuntimeException("Group has no members to remove");
-        }
-        
-        group.setCurrentMemberCount(currentCount - 1);
-        group.setLastActivityDate(new Date());
-        return groupRepository.save(group);
+        return optimisticRetry.run("GroupService.removeMemberFromGroup", () -> {
+            Group group = groupRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Group not found with id: " + id));
+
+            int currentCount = group.getCurrentMemberCount() != null ? group.getCurrentMemberCount() : 0;
+
+            if (currentCount <= 0) {
+                throw new RuntimeException("Group has no members to remove");
+            }
+
+            group.setCurrentMemberCount(currentCount - 1);
+            group.setLastActivityDate(new Date());
+            return groupRepository.save(group);
+        });
     }
 
     // Update group tags
+    @Transactional
     public Group updateGroupTags(Long id, String tags) {
         Group group = groupRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Group not found with id: " + id));
@@ -321,9 +394,20 @@ public class GroupService {
 
     // Update last activity date
     public Group updateLastActivity(Long id) {
-        Group group = groupRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Group not found with id: " + id));
-        group.setLastActivityDate(new Date());
-        return groupRepository.save(group);
+        return optimisticRetry.run("GroupService.updateLastActivity", () -> {
+            Group group = groupRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Group not found with id: " + id));
+            group.setLastActivityDate(new Date());
+            return groupRepository.save(group);
+        });
+    }
+
+    // Set one field on every selected group with set-based UPDATEs, stamping lastActivityDate in the same statements
+    public int bulkUpdate(Specification<Group> selection, String attribute, Object value) {
+        Date now = new Date();
+        Map<String, Object> assignments = new LinkedHashMap<>();
+        assignments.put(attribute, value);
+        assignments.put("lastActivityDate", now);
+        return bulkUpdateRepository.update(Group.class, selection, assignments);
     }
 } 
\ No newline at end of file
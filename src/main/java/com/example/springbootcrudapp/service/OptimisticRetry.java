@@ -0,0 +1,131 @@
+package com.example.springbootcrudapp.service;
+
+import com.example.springbootcrudapp.config.OptimisticRetryProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Reruns a read-modify-write that lost an optimistic-lock race, instead of holding a row lock for it.
+ * Each attempt is its own read-write transaction, so its read goes to the primary rather than a
+ * replica. Every attempt must load the entity afresh, so the update has to run outside any enclosing
+ * transaction: the failed attempt's rollback clears the persistence context (open-in-view included),
+ * and the next {@code findById} reads the row the winner wrote.
+ *
+ * Requests that carry If-Match are never retried. The client asked for its own version to be the one
+ * changed, so the conflict goes back to it as 412.
+ */
+@Component
+public class OptimisticRetry {
+
+    // Set by the If-Match check on requests whose updates must not be retried
+    public static final String NO_RETRY_ATTRIBUTE = OptimisticRetry.class.getName() + ".noRetry";
+
+    @Autowired
+    private OptimisticRetryProperties properties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    // Run the update, again after a short random pause each time a concurrent update got there first
+    public <T> T run(String operation, Supplier<T> update) {
+        int maxAttempts = retryAllowed() ? Math.max(1, properties.getMaxAttempts()) : 1;
+        Counters operationCounters = counters.computeIfAbsent(operation, name -> new Counters());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = transaction.execute(status -> update.get());
+                operationCounters.succeeded.increment();
+                return result;
+            } catch (OptimisticLockingFailureException e) {
+                operationCounters.conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    operationCounters.exhausted.increment();
+                    throw e;
+                }
+                pause(attempt, e);
+            }
+        }
+    }
+
+    // Per-operation conflicts and the updates that still failed after every attempt
+    public Map<String, Object> snapshot() {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        new TreeMap<>(counters).forEach((operation, operationCounters) -> operations.put(operation, operationCounters.snapshot()));
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("maxAttempts", properties.getMaxAttempts());
+        snapshot.put("backoffMs", properties.getBackoff().toMillis());
+        snapshot.put("operations", operations);
+        return snapshot;
+    }
+
+    // Conflicts and exhausted updates per operation, in Prometheus text format
+    public String prometheus() {
+        Map<String, Counters> sorted = new TreeMap<>(counters);
+        StringBuilder out = new StringBuilder(384 + sorted.size() * 256);
+
+        out.append("# HELP app_optimistic_conflicts_total Attempts that lost an optimistic-lock race\n");
+        out.append("# TYPE app_optimistic_conflicts_total counter\n");
+        sorted.forEach((operation, operationCounters) -> out.append("app_optimistic_conflicts_total{operation=\"")
+                .append(operation).append("\"} ").append(operationCounters.conflicts.sum()).append('\n'));
+
+        out.append("# HELP app_optimistic_exhausted_total Updates that still conflicted on their last attempt\n");
+        out.append("# TYPE app_optimistic_exhausted_total counter\n");
+        sorted.forEach((operation, operationCounters) -> out.append("app_optimistic_exhausted_total{operation=\"")
+                .append(operation).append("\"} ").append(operationCounters.exhausted.sum()).append('\n'));
+        return out.toString();
+    }
+
+    private static boolean retryAllowed() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null || attributes.getAttribute(NO_RETRY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) == null;
+    }
+
+    // Full jitter, so updates that collided once do not collide again on the same schedule
+    private void pause(int attempt, OptimisticLockingFailureException conflict) {
+        long bound = properties.getBackoff().toNanos() << Math.min(attempt - 1, 10);
+        if (bound <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(bound));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+
+    private static final class Counters {
+
+        private final LongAdder succeeded = new LongAdder();
+
+        // Attempts that failed on the version check, the last one of an exhausted update included
+        private final LongAdder conflicts = new LongAdder();
+
+        private final LongAdder exhausted = new LongAdder();
+
+        private Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("succeeded", succeeded.sum());
+            snapshot.put("conflicts", conflicts.sum());
+            snapshot.put("exhausted", exhausted.sum());
+            return snapshot;
+        }
+    }
+}
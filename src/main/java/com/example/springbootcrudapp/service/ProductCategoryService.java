@@ -1,31 +1,90 @@
 package com.example.springbootcrudapp.service;
 
 import com.example.springbootcrudapp.entity.ProductCategory;
+import com.example.springbootcrudapp.repository.BulkUpdateRepository;
 import com.example.springbootcrudapp.repository.ProductCategoryRepository;
+import com.example.springbootcrudapp.repository.ProjectionRepository;
+import com.example.springbootcrudapp.repository.StreamingReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class ProductCategoryService {
 
+    // Path names of the fields PUT /bulk/{field} may set, and the attributes they stand for
+    public static final Map<String, String> BULK_FIELDS = Map.of("active", "active", "featured", "isFeatured", "visible", "isVisible");
+
+    // Coalescer key of the shared root list
+    private static final String ACTIVE_ROOT_CATEGORIES = "ProductCategoryService.getActiveRootCategories";
+
     @Autowired
     private ProductCategoryRepository productCategoryRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProjectionRepository projectionRepository;
+
+    @Autowired
+    private StreamingReader streamingReader;
+
+    @Autowired
+    private BulkUpdateRepository bulkUpdateRepository;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
     // Get all categories
     public List<ProductCategory> getAllCategories() {
         return productCategoryRepository.findAll();
     }
 
+    // Hand all categories to the action one at a time, without collecting them into a list
+    public void streamAllCategories(Consumer<ProductCategory> action) {
+        streamingReader.forEach(productCategoryRepository::streamAll, action);
+    }
+
+    // Hand the categories modified at or after the given time to the action one at a time
+    public void streamCategoriesModifiedSince(Date since, Consumer<ProductCategory> action) {
+        streamingReader.forEach(() -> productCategoryRepository.streamByLastModifiedDateSince(since), action);
+    }
+
     // Get category by ID
     public Optional<ProductCategory> getCategoryById(Long id) {
         return productCategoryRepository.findById(id);
     }
 
+    // Get categories by IDs through the second-level cache, querying only for the IDs it misses;
+    // unknown IDs are simply absent from the result
+    @Transactional(readOnly = true)
+    public List<ProductCategory> getCategoriesByIds(Collection<Long> ids) {
+        return entityManager.unwrap(Session.class).byMultipleIds(ProductCategory.class)
+                .with(CacheMode.NORMAL)
+                .multiLoad(List.copyOf(ids))
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     // Create a new category
+    @Transactional
     public ProductCategory createCategory(ProductCategory category) {
         // Check if category name already exists
         if (productCategoryRepository.existsByName(category.getName())) {
@@ -55,10 +114,11 @@ public class ProductCategoryService {
             category.setProductCount(0);
         }
         
-        return productCategoryRepository.save(category);
+        return saveAndInvalidate(category);
     }
 
     // Update category
+    @Transactional
     public ProductCategory updateCategory(Long id, ProductCategory categoryDetails) {
         ProductCategory category = productCategoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
@@ -107,10 +167,11 @@ public class ProductCategoryService {
         // Update last modified date
         category.setLastModifiedDate(new Date());
 
-        return productCategoryRepository.save(category);
+        return saveAndInvalidate(category);
     }
 
     // Delete category
+    @Transactional
     public void deleteCategory(Long id) {
         ProductCategory category = productCategoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
@@ -122,6 +183,7 @@ public class ProductCategoryService {
         }
         
         productCategoryRepository.delete(category);
+        requestCoalescer.invalidate(ACTIVE_ROOT_CATEGORIES);
     }
 
     // Find category by name
@@ -159,9 +221,10 @@ public class ProductCategoryService {
         return productCategoryRepository.findByParentCategoryIdAndActive(parentCategoryId, active);
     }
 
-    // Find active root categories
+    // Find active root categories; concurrent identical calls share one query
     public List<ProductCategory> getActiveRootCategories() {
-        return productCategoryRepository.findByParentCategoryIdIsNullAndActive(true);
+        return requestCoalescer.call(() -> productCategoryRepository.findByParentCategoryIdIsNullAndActive(true),
+                ACTIVE_ROOT_CATEGORIES);
     }
 
     // Find active categories
@@ -280,89 +343,125 @@ public class ProductCategoryService {
         return productCategoryRepository.findCategoryHierarchy(categoryId);
     }
 
+    // Find categories matching a specification, loading only the requested fields
+    public List<Map<String, Object>> getCategoriesProjected(List<String> fields, Specification<ProductCategory> specification, Sort sort) {
+        return projectionRepository.findProjected(ProductCategory.class, fields, specification, sort);
+    }
+
     // Count subcategories
     public Long countSubcategories(Long parentCategoryId) {
         return productCategoryRepository.countSubcategories(parentCategoryId);
     }
 
     // Activate category
+    @Transactional
     public ProductCategory activateCategory(Long id) {
         ProductCategory category = productCategoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
         category.setActive(true);
         category.setLastModifiedDate(new Date());
-        return productCategoryRepository.save(category);
+        return saveAndInvalidate(category);
     }
 
     // Deactivate category
+    @Transactional
     public ProductCategory deactivateCategory(Long id) {
         ProductCategory category = productCategoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
         category.setActive(false);
         category.setLastModifiedDate(new Date());
-        return productCategoryRepository.save(category);
+        return saveAndInvalidate(category);
     }
 
     // Make category visible
+    @Transactional
     public ProductCategory makeCategoryVisible(Long id) {
         ProductCategory category = productCategoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
         category.setIsVisible(true);
         category.setLastModifiedDate(new Date());
-        return productCategoryRepository.save(category);
+        return saveAndInvalidate(category);
     }
 
     // Hide category
+    @Transactional
     public ProductCategory hideCategory(Long id) {
         ProductCategory category = productCategoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
         category.setIsVisible(false);
         category.setLastModifiedDate(new Date());
-        return productCategoryRepository.save(category);
+        return saveAndInvalidate(category);
     }
 
     // Feature category
+    @Transactional
     public ProductCategory featureCategory(Long id) {
         ProductCategory category = productCategoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
         category.setIsFeatured(true);
         category.setLastModifiedDate(new Date());
-        return productCategoryRepository.save(category);
+        return saveAndInvalidate(category);
     }
 
     // Unfeature category
+    @Transactional
     public ProductCategory unfeatureCategory(Long id) {
         ProductCategory category = productCategoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
         category.setIsFeatured(false);
         category.setLastModifiedDate(new Date());
-        return productCategoryRepository.save(category);
+        return saveAndInvalidate(category);
     }
 
     // Update product count
+    @Transactional
     public ProductCategory updateProductCount(Long id, Integer productCount) {
         ProductCategory category = productCategoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
         category.setProductCount(productCount);
         category.setLastModifiedDate(new Date());
-        return productCategoryRepository.save(category);
+        return saveAndInvalidate(category);
     }
 
     // Update display order
+    @Transactional
     public ProductCategory updateDisplayOrder(Long id, Integer displayOrder) {
         ProductCategory category = productCategoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
         category.setDisplayOrder(displayOrder);
         category.setLastModifiedDate(new Date());
-        return productCategoryRepository.save(category);
+        return saveAndInvalidate(category);
     }
 
     // Update category tags
+    @Transactional
     public ProductCategory updateCategoryTags(Long id, String tags) {
         ProductCategory category = productCategoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
         category.setTags(tags);
         category.setLastModifiedDate(new Date());
-        return productCategoryRepository.save(category);
+        return saveAndInvalidate(category);
+    }
+
+    // Set one field on every selected category with set-based UPDATEs, stamping lastModifiedDate in the same statements
+    public int bulkUpdate(Specification<ProductCategory> selection, String attribute, Object value) {
+        Date now = new Date();
+        Map<String, Object> assignments = new LinkedHashMap<>();
+        assignments.put(attribute, value);
+        assignments.put("lastModifiedDate", now);
+        int updated = bulkUpdateRepository.update(ProductCategory.class, selection, assignments);
+
+        // Hibernate has evicted the category region already, but not the shared root list
+        if (updated > 0) {
+            requestCoalescer.invalidate(ACTIVE_ROOT_CATEGORIES);
+        }
+        return updated;
+    }
+
+    // The coalesced root list holds whole categories, so every category write drops it
+    private ProductCategory saveAndInvalidate(ProductCategory category) {
+        ProductCategory saved = productCategoryRepository.save(category);
+        requestCoalescer.invalidate(ACTIVE_ROOT_CATEGORIES);
+        return saved;
     }
 } 
\ No newline at end of file
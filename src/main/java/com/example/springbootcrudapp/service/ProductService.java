@@ -1,32 +1,89 @@
 package com.example.springbootcrudapp.service;
 
 import com.example.springbootcrudapp.entity.Product;
+import com.example.springbootcrudapp.repository.BulkUpdateRepository;
 import com.example.springbootcrudapp.repository.ProductRepository;
+import com.example.springbootcrudapp.repository.ProjectionRepository;
+import com.example.springbootcrudapp.repository.StreamingReader;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class ProductService {
 
+    // Path names of the fields PUT /bulk/{field} may set, and the attributes they stand for
+    public static final Map<String, String> BULK_FIELDS = Map.of("active", "active", "featured", "isFeatured", "status", "status");
+
+    // Coalescer keys of the shared reads
+    private static final String FEATURED_PRODUCTS = "ProductService.getFeaturedProducts";
+    private static final String PRODUCTS_ON_SALE = "ProductService.getProductsOnSale";
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProjectionRepository projectionRepository;
+
+    @Autowired
+    private StreamingReader streamingReader;
+
+    @Autowired
+    private BulkUpdateRepository bulkUpdateRepository;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
     // Get all products
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
+    // Hand all products to the action one at a time, without collecting them into a list
+    public void streamAllProducts(Consumer<Product> action) {
+        streamingReader.forEach(productRepository::streamAll, action);
+    }
+
+    // Hand the products modified at or after the given time to the action one at a time
+    public void streamProductsModifiedSince(Date since, Consumer<Product> action) {
+        streamingReader.forEach(() -> productRepository.streamByLastModifiedDateSince(since), action);
+    }
+
     // Get product by ID
     public Optional<Product> getProductById(Long id) {
         return productRepository.findById(id);
     }
 
+    // Get products by IDs in a single query; unknown IDs are simply absent from the result
+    public List<Product> getProductsByIds(Collection<Long> ids) {
+        return productRepository.findAllById(ids);
+    }
+
+    // Get the next page of products after the given ID (keyset pagination, ordered by ID)
+    public List<Product> getProductsAfterId(Long afterId, int limit, boolean activeOnly) {
+        if (activeOnly) {
+            return productRepository.findByIdGreaterThanAndActiveOrderByIdAsc(afterId, true, Limit.of(limit));
+        }
+        return productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
     // Create a new product
+    @Transactional
     public Product createProduct(Product product) {
         // Check if product name already exists
         if (productRepository.existsByName(product.getName())) {
@@ -61,10 +118,11 @@ public class ProductService {
             product.setRating(0.0);
         }
         
-        return productRepository.save(product);
+        return saveAndInvalidate(product);
     }
 
     // Update product
+    @Transactional
     public Product updateProduct(Long id, Product productDetails) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
@@ -117,14 +175,16 @@ public class ProductService {
         // Update last modified date
         product.setLastModifiedDate(new Date());
 
-        return productRepository.save(product);
+        return saveAndInvalidate(product);
     }
 
     // Delete product
+    @Transactional
     public void deleteProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         productRepository.delete(product);
+        invalidateSharedLists();
     }
 
     // Find product by name
@@ -192,9 +252,9 @@ public class ProductService {
         return productRepository.findByActive(false);
     }
 
-    // Find featured products
+    // Find featured products; concurrent identical calls share one query
     public List<Product> getFeaturedProducts() {
-        return productRepository.findByIsFeatured(true);
+        return requestCoalescer.call(() -> productRepository.findByIsFeatured(true), FEATURED_PRODUCTS);
     }
 
     // Find non-featured products
@@ -267,9 +327,9 @@ public class ProductService {
         return productRepository.findByPriceLessThan(price);
     }
 
-    // Find products on sale
+    // Find products on sale; concurrent identical calls share one query
     public List<Product> getProductsOnSale() {
-        return productRepository.findProductsOnSale();
+        return requestCoalescer.call(productRepository::findProductsOnSale, PRODUCTS_ON_SALE);
     }
 
     // Find products by stock quantity greater than
@@ -393,6 +453,11 @@ public class ProductService {
         return productRepository.searchProducts(searchTerm);
     }
 
+    // Find products matching a specification, loading only the requested fields
+    public List<Map<String, Object>> getProductsProjected(List<String> fields, Specification<Product> specification, Sort sort) {
+        return projectionRepository.findProjected(Product.class, fields, specification, sort);
+    }
+
     // Count products by category
     public Long countProductsByCategory(Long categoryId) {
         return productRepository.countProductsByCategory(categoryId);
@@ -409,42 +474,47 @@ public class ProductService {
     }
 
     // Activate product
+    @Transactional
     public Product activateProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         product.setActive(true);
         product.setLastModifiedDate(new Date());
-        return productRepository.save(product);
+        return saveAndInvalidate(product);
     }
 
     // Deactivate product
+    @Transactional
     public Product deactivateProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         product.setActive(false);
         product.setLastModifiedDate(new Date());
-        return productRepository.save(product);
+        return saveAndInvalidate(product);
     }
 
     // Feature product
+    @Transactional
     public Product featureProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         product.setIsFeatured(true);
         product.setLastModifiedDate(new Date());
-        return productRepository.save(product);
+        return saveAndInvalidate(product);
     }
 
     // Unfeature product
+    @Transactional
     public Product unfeatureProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         product.setIsFeatured(false);
         product.setLastModifiedDate(new Date());
-        return productRepository.save(product);
+        return saveAndInvalidate(product);
     }
 
     // Update product status
+    @Transactional
     public Product updateProductStatus(Long id, Product.ProductStatus status) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
@@ -456,28 +526,31 @@ public class ProductService {
             product.setPublishedDate(new Date());
         }
         
-        return productRepository.save(product);
+        return saveAndInvalidate(product);
     }
 
     // Update product price
+    @Transactional
     public Product updateProductPrice(Long id, BigDecimal price) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         product.setPrice(price);
         product.setLastModifiedDate(new Date());
-        return productRepository.save(product);
+        return saveAndInvalidate(product);
     }
 
     // Update product sale price
+    @Transactional
     public Product updateProductSalePrice(Long id, BigDecimal salePrice) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         product.setSalePrice(salePrice);
         product.setLastModifiedDate(new Date());
-        return productRepository.save(product);
+        return saveAndInvalidate(product);
     }
 
     // Update stock quantity
+    @Transactional
     public Product updateStockQuantity(Long id, Integer stockQuantity) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
@@ -491,10 +564,12 @@ public class ProductService {
             product.setStatus(Product.ProductStatus.PUBLISHED);
         }
         
-        return productRepository.save(product);
+        return saveAndInvalidate(product);
     }
 
-    // Increment view count
+    // Increment view count. The count is left out of the version check, so concurrent views can
+    // overwrite each other's increment; it is a popularity signal, not worth an editor's 412.
+    @Transactional
     public Product incrementViewCount(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
@@ -504,28 +579,65 @@ public class ProductService {
 
     // Increment sales count
     public Product incrementSalesCount(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
-        product.setSalesCount(product.getSalesCount() + 1);
-        return productRepository.save(product);
+        return optimisticRetry.run("ProductService.incrementSalesCount", () -> {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+            product.setSalesCount(product.getSalesCount() + 1);
+            return productRepository.save(product);
+        });
     }
 
     // Update product rating
+    @Transactional
     public Product updateProductRating(Long id, Double rating, Integer reviewCount) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         product.setRating(rating);
         product.setReviewCount(reviewCount);
         product.setLastModifiedDate(new Date());
-        return productRepository.save(product);
+        return saveAndInvalidate(product);
     }
 
     // Update product tags
+    @Transactional
     public Product updateProductTags(Long id, String tags) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         product.setTags(tags);
         product.setLastModifiedDate(new Date());
-        return productRepository.save(product);
+        return saveAndInvalidate(product);
+    }
+
+    // Set one field on every selected product with set-based UPDATEs, stamping lastModifiedDate in the same statements
+    public int bulkUpdate(Specification<Product> selection, String attribute, Object value) {
+        Date now = new Date();
+        Map<String, Object> assignments = new LinkedHashMap<>();
+        assignments.put(attribute, value);
+        assignments.put("lastModifiedDate", now);
+        if (Product.ProductStatus.PUBLISHED.equals(assignments.get("status"))) {
+            // As in updateProductStatus: the first publication is the one that counts
+            assignments.put("publishedDate", (BulkUpdateRepository.Computed) (root, cb) -> cb.coalesce(root.get("publishedDate"), now));
+        }
+        int updated = bulkUpdateRepository.update(Product.class, selection, assignments);
+
+        // The coalesced featured and sale lists may hold the old values
+        if (updated > 0) {
+            invalidateSharedLists();
+        }
+        return updated;
+    }
+
+    private Product saveAndInvalidate(Product product) {
+        Product saved = productRepository.save(product);
+        invalidateSharedLists();
+        return saved;
+    }
+
+    // The coalesced featured and on-sale lists hold whole products, so any change to a product can
+    // show in them. The view and sales counters are the exception: views are counted on every product
+    // read, and dropping the lists that often would leave nothing to share, so they may lag by the TTL.
+    private void invalidateSharedLists() {
+        requestCoalescer.invalidate(FEATURED_PRODUCTS);
+        requestCoalescer.invalidate(PRODUCTS_ON_SALE);
     }
 } 
\ No newline at end of file
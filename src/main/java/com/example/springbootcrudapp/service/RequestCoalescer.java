@@ -0,0 +1,278 @@
+package com.example.springbootcrudapp.service;
+
+import com.example.springbootcrudapp.config.CoalescingProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of identical reads. Concurrent calls with the same method and arguments
+ * share one in-flight {@link CompletableFuture}: the first caller runs the query on its own thread
+ * and the others wait for its result (or its exception) instead of running the query again.
+ *
+ * With {@code app.coalescing.result-ttl} set, a finished result also answers identical calls until it
+ * expires. Each call before then may start the refresh early, with a probability that grows as the
+ * expiry nears and with how long the query took (XFetch). Only the caller that starts the refresh runs
+ * the query; everyone else keeps getting the previous result. This way a popular key does not expire
+ * under a crowd of requests that all miss at once.
+ *
+ * If an early refresh fails, the result it was replacing stays in place until it expires.
+ *
+ * A shared result is the same object for every caller, so it must be treated as read-only. A call
+ * that joins a query already in flight can see data from just before its own write. Services
+ * {@link #invalidate} a method's results when they write data those results show; anything they
+ * let through can be up to the TTL old. Inside a transaction the results are dropped again once it
+ * commits, since a call that ran in between still read the old rows.
+ */
+@Component
+public class RequestCoalescer {
+
+    @Autowired
+    private CoalescingProperties properties;
+
+    private final Map<Key, Flight> flights = new ConcurrentHashMap<>();
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    // Run the loader, or share the result of an identical call that is running or still fresh
+    public <T> T call(Supplier<T> loader, String method, Object... args) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        Counters methodCounters = counters.computeIfAbsent(method, name -> new Counters());
+        Key key = new Key(method, Arrays.asList(args));
+        while (true) {
+            Flight current = flights.get(key);
+            if (current == null) {
+                Flight flight = new Flight(null);
+                if (flights.putIfAbsent(key, flight) == null) {
+                    return lead(key, flight, loader, methodCounters);
+                }
+            } else if (!current.future.isDone()) {
+                Flight previous = current.previous;
+                if (previous != null && previous.isFresh(System.nanoTime())) {
+                    methodCounters.reused.increment();
+                    return previous.value();
+                }
+                methodCounters.coalesced.increment();
+                return await(current);
+            } else {
+                // The clock is read after the flight is seen done, so it never predates the result
+                long now = System.nanoTime();
+                boolean fresh = current.isFresh(now);
+                if (fresh && !current.refreshEarly(now, properties.getEarlyRefreshBeta())) {
+                    methodCounters.reused.increment();
+                    return current.value();
+                }
+                // Expired, or this call won the early refresh: lead a new flight unless another caller did
+                Flight flight = new Flight(fresh ? current : null);
+                if (flights.replace(key, current, flight)) {
+                    if (fresh) {
+                        methodCounters.earlyRefreshes.increment();
+                    }
+                    return lead(key, flight, loader, methodCounters);
+                }
+            }
+        }
+    }
+
+    // Forget the method's finished and in-flight results after a write its callers must see at once
+    public void invalidate(String method) {
+        flights.keySet().removeIf(key -> key.method().equals(method));
+        afterCommit(() -> flights.keySet().removeIf(key -> key.method().equals(method)));
+    }
+
+    // Forget every result, e.g. after rows were replaced wholesale
+    public void invalidateAll() {
+        flights.clear();
+        afterCommit(flights::clear);
+    }
+
+    // Per-method counts and the share of calls that did not run their own query
+    public Map<String, Object> snapshot() {
+        Map<String, Object> methods = new LinkedHashMap<>();
+        new TreeMap<>(counters).forEach((method, methodCounters) -> methods.put(method, methodCounters.snapshot()));
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", properties.isEnabled());
+        snapshot.put("resultTtlMs", properties.getResultTtl().toMillis());
+        snapshot.put("earlyRefreshBeta", properties.getEarlyRefreshBeta());
+        snapshot.put("inFlightOrCached", flights.size());
+        snapshot.put("methods", methods);
+        return snapshot;
+    }
+
+    // Calls by outcome, early refreshes and failures per method, in Prometheus text format
+    public String prometheus() {
+        Map<String, Counters> sorted = new TreeMap<>(counters);
+        StringBuilder out = new StringBuilder(512 + sorted.size() * 384);
+
+        out.append("# HELP app_coalescer_calls_total Calls through the request coalescer, by how they were answered\n");
+        out.append("# TYPE app_coalescer_calls_total counter\n");
+        sorted.forEach((method, methodCounters) -> {
+            appendCounter(out, "app_coalescer_calls_total", method, "executed", methodCounters.executed);
+            appendCounter(out, "app_coalescer_calls_total", method, "coalesced", methodCounters.coalesced);
+            appendCounter(out, "app_coalescer_calls_total", method, "reused", methodCounters.reused);
+        });
+
+        out.append("# HELP app_coalescer_early_refreshes_total Results refreshed before their TTL ran out\n");
+        out.append("# TYPE app_coalescer_early_refreshes_total counter\n");
+        sorted.forEach((method, methodCounters) ->
+                appendCounter(out, "app_coalescer_early_refreshes_total", method, null, methodCounters.earlyRefreshes));
+
+        out.append("# HELP app_coalescer_failures_total Queries that failed, with every caller waiting on them\n");
+        out.append("# TYPE app_coalescer_failures_total counter\n");
+        sorted.forEach((method, methodCounters) ->
+                appendCounter(out, "app_coalescer_failures_total", method, null, methodCounters.failures));
+        return out.toString();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private <T> T lead(Key key, Flight flight, Supplier<T> loader, Counters methodCounters) {
+        methodCounters.executed.increment();
+        long start = System.nanoTime();
+        T value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            methodCounters.failures.increment();
+            // A failed early refresh leaves the result it was replacing in place while that is still
+            // fresh, and this caller gets it like everyone else did during the refresh
+            Flight previous = flight.previous;
+            boolean fallBack = previous != null && previous.isFresh(System.nanoTime()) && flights.replace(key, flight, previous);
+            if (!fallBack) {
+                flights.remove(key, flight);
+            }
+            flight.future.completeExceptionally(e);
+            if (fallBack) {
+                return previous.value();
+            }
+            throw e;
+        }
+        long end = System.nanoTime();
+        long ttlNanos = properties.getResultTtl().toNanos();
+        flight.complete(value, end - start, end + ttlNanos);
+        if (ttlNanos <= 0) {
+            flights.remove(key, flight);
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T await(Flight flight) {
+        try {
+            return (T) flight.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static void appendCounter(StringBuilder out, String name, String method, String outcome, LongAdder counter) {
+        out.append(name).append("{method=\"").append(method).append('"');
+        if (outcome != null) {
+            out.append(",outcome=\"").append(outcome).append('"');
+        }
+        out.append("} ").append(counter.sum()).append('\n');
+    }
+
+    private record Key(String method, List<Object> args) {
+    }
+
+    private static final class Flight {
+
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        // Result being refreshed, still served while this flight runs; dropped once it completes
+        private volatile Flight previous;
+
+        private volatile long computeNanos;
+        private volatile long expiresAt;
+
+        private Flight(Flight previous) {
+            this.previous = previous;
+        }
+
+        // Timing is set before the future completes, so whoever sees it done also sees the timing
+        private void complete(Object value, long computeNanos, long expiresAt) {
+            this.computeNanos = computeNanos;
+            this.expiresAt = expiresAt;
+            future.complete(value);
+            previous = null;
+        }
+
+        private boolean isFresh(long now) {
+            return future.isDone() && !future.isCompletedExceptionally() && now - expiresAt < 0;
+        }
+
+        // XFetch: refresh once now - computeNanos * beta * ln(random) reaches the expiry
+        private boolean refreshEarly(long now, double beta) {
+            if (beta <= 0) {
+                return false;
+            }
+            double gap = -computeNanos * beta * Math.log(ThreadLocalRandom.current().nextDouble());
+            return now + (long) gap - expiresAt >= 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T value() {
+            return (T) future.join();
+        }
+    }
+
+    private static final class Counters {
+
+        // Queries actually run, early refreshes included
+        private final LongAdder executed = new LongAdder();
+
+        // Calls that waited for a query already in flight
+        private final LongAdder coalesced = new LongAdder();
+
+        // Calls answered from a finished result within its TTL
+        private final LongAdder reused = new LongAdder();
+
+        private final LongAdder earlyRefreshes = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        private Map<String, Object> snapshot() {
+            long executedCount = executed.sum();
+            long calls = executedCount + coalesced.sum() + reused.sum();
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("calls", calls);
+            snapshot.put("executed", executedCount);
+            snapshot.put("coalesced", coalesced.sum());
+            snapshot.put("reused", reused.sum());
+            snapshot.put("earlyRefreshes", earlyRefreshes.sum());
+            snapshot.put("failures", failures.sum());
+            snapshot.put("coalescingRatio", calls == 0 ? 0.0 : (double) (calls - executedCount) / calls);
+            return snapshot;
+        }
+    }
+}
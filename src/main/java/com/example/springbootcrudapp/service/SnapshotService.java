@@ -0,0 +1,183 @@
+package com.example.springbootcrudapp.service;
+
+import com.example.springbootcrudapp.config.SnapshotProperties;
+import com.example.springbootcrudapp.datasource.DatabaseSnapshot;
+import com.example.springbootcrudapp.datasource.ReplicationFeed;
+import com.example.springbootcrudapp.datasource.WriteBarrier;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class SnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotService.class);
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private SnapshotProperties properties;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectProvider<ReplicationFeed> replicationFeed;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private WriteBarrier writeBarrier;
+
+    // Describe the snapshot file, if there is one
+    public Map<String, Object> getSnapshotInfo() {
+        Path file = properties.getFile();
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("file", file.toAbsolutePath().toString());
+        info.put("exists", Files.exists(file));
+        try {
+            if (Files.exists(file)) {
+                info.put("bytes", Files.size(file));
+                info.put("lastModified", Files.getLastModifiedTime(file).toString());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot read snapshot file " + file + ": " + e.getMessage(), e);
+        }
+        return info;
+    }
+
+    // Dump every table to the snapshot file. The tables are read in one serializable transaction,
+    // so the snapshot is consistent, and the file is replaced only once it is complete.
+    public Map<String, Object> createSnapshot() {
+        Path file = properties.getFile().toAbsolutePath();
+        long start = System.nanoTime();
+        Map<String, Long> rows;
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (Connection connection = dataSource.getConnection();
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE))) {
+                connection.setReadOnly(true);
+                connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+                connection.setAutoCommit(false);
+                try {
+                    rows = DatabaseSnapshot.write(driverConnection(connection), out);
+                } finally {
+                    connection.rollback();
+                }
+            } catch (SQLException | IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("Snapshot failed: " + e.getMessage(), e);
+        }
+        return result(file, rows, start);
+    }
+
+    // Replace the content of every table with the snapshot file. The whole file is decoded before
+    // any row changes, and the replacement itself is a single transaction. Read-write transactions
+    // wait from before the first row changes until the caches have been reset.
+    public Map<String, Object> restoreSnapshot() {
+        Path file = properties.getFile().toAbsolutePath();
+        if (!Files.exists(file)) {
+            throw new RuntimeException("Snapshot file not found: " + file);
+        }
+        long start = System.nanoTime();
+        Map<String, Long> rows;
+        writeBarrier.lockExclusive();
+        try (Connection connection = dataSource.getConnection()) {
+            Connection driver = driverConnection(connection);
+            try (DataInputStream in = open(file)) {
+                DatabaseSnapshot.verify(driver, in);
+            }
+            try (DataInputStream in = open(file)) {
+                rows = DatabaseSnapshot.read(driver, in, properties.getBatchSize());
+            }
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("Restore failed: " + e.getMessage(), e);
+        } finally {
+            try {
+                // Rows may have been written behind Hibernate's back even when the restore failed part
+                // way, so cached entities, derived data and replicas start over either way
+                entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+                requestCoalescer.invalidateAll();
+                eventPublisher.publishEvent(new DepartmentChangedEvent(null));
+                replicationFeed.ifAvailable(ReplicationFeed::resync);
+            } finally {
+                writeBarrier.unlockExclusive();
+            }
+        }
+        return result(file, rows, start);
+    }
+
+    // Restore at startup, but only into a database that has no rows yet
+    public void restoreIfEmpty() {
+        Path file = properties.getFile().toAbsolutePath();
+        if (!Files.exists(file)) {
+            log.info("No snapshot at {}; starting with the existing data", file);
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            if (!DatabaseSnapshot.isEmpty(connection)) {
+                log.info("Database already holds data; snapshot {} not restored", file);
+                return;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Cannot inspect the database: " + e.getMessage(), e);
+        }
+        Map<String, Object> result = restoreSnapshot();
+        log.info("Restored snapshot {} in {} ms: {}", file, result.get("elapsedMs"), result.get("tables"));
+    }
+
+    private static DataInputStream open(Path file) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+    }
+
+    // Bulk copies talk to the driver's connection directly, past the per-statement accounting proxy.
+    // The pooled connection it came from still owns the pool slot and is what gets closed.
+    private static Connection driverConnection(Connection connection) throws SQLException {
+        return connection.unwrap(Connection.class);
+    }
+
+    private static Map<String, Object> result(Path file, Map<String, Long> rows, long start) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("file", file.toString());
+        try {
+            result.put("bytes", Files.size(file));
+        } catch (IOException e) {
+            result.put("bytes", -1L);
+        }
+        result.put("tables", rows);
+        result.put("rows", rows.values().stream().mapToLong(Long::longValue).sum());
+        result.put("elapsedMs", (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+}
@@ -1,12 +1,19 @@
 package com.example.springbootcrudapp.service;
 
 import com.example.springbootcrudapp.entity.User;
+import com.example.springbootcrudapp.repository.ProjectionRepository;
+import com.example.springbootcrudapp.repository.StreamingReader;
 import com.example.springbootcrudapp.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class UserService {
@@ -14,17 +21,34 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ProjectionRepository projectionRepository;
+
+    @Autowired
+    private StreamingReader streamingReader;
+
     // Get all users
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    // Hand all users to the action one at a time, without collecting them into a list
+    public void streamAllUsers(Consumer<User> action) {
+        streamingReader.forEach(userRepository::streamAll, action);
+    }
+
     // Get user by ID
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
 
+    // Get users by IDs in a single query; unknown IDs are simply absent from the result
+    public List<User> getUsersByIds(Collection<Long> ids) {
+        return userRepository.findAllById(ids);
+    }
+
     // Create a new user
+    @Transactional
     public User createUser(User user) {
         // Check if email already exists
         if (userRepository.existsByEmail(user.getEmail())) {
@@ -34,6 +58,7 @@ public class UserService {
     }
 
     // Update user
+    @Transactional
     public User updateUser(Long id, User userDetails) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
@@ -53,6 +78,7 @@ public class UserService {
     }
 
     // Delete user
+    @Transactional
     public void deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
@@ -73,4 +99,9 @@ public class UserService {
     public List<User> getUsersByPhone(String phone) {
         return userRepository.findByPhone(phone);
     }
+
+    // Find users matching a specification, loading only the requested fields
+    public List<Map<String, Object>> getUsersProjected(List<String> fields, Specification<User> specification) {
+        return projectionRepository.findProjected(User.class, fields, specification);
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.example.springbootcrudapp;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The whole application on the in-memory database, without the gRPC server. Every test class with the
+ * same annotation shares one context, so tests create their own rows and must not rely on row counts.
+ * Coalesced results are kept for a minute, so a missed invalidation shows up as a stale read.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest(properties = {"grpc.server.port=-1", "app.coalescing.result-ttl=1m"})
+@AutoConfigureMockMvc
+@Import(StatementRecorder.Config.class)
+public @interface ApplicationTest {
+}
@@ -0,0 +1,106 @@
+package com.example.springbootcrudapp;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Another client's write, in flight while the code under test runs. Its UPDATE holds the row lock until
+ * {@link #commit}, so an update of the same row that reads before the commit waits for it at the flush
+ * and then finds the version changed: the race an optimistic lock has to catch, without relying on timing.
+ */
+public final class ConcurrentWrite implements AutoCloseable {
+
+    private final Connection connection;
+    private final long sessionId;
+    private boolean committed;
+
+    private ConcurrentWrite(Connection connection, long sessionId) {
+        this.connection = connection;
+        this.sessionId = sessionId;
+    }
+
+    // Run the UPDATE on a connection of its own, without committing it
+    public static ConcurrentWrite begin(DataSource dataSource, String sql, Object... args) throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < args.length; i++) {
+                    statement.setObject(i + 1, args[i]);
+                }
+                assertThat(statement.executeUpdate()).as("rows locked by %s", sql).isPositive();
+            }
+            return new ConcurrentWrite(connection, queryLong(connection, "SELECT SESSION_ID()"));
+        } catch (SQLException | RuntimeException | Error e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    // Wait until the code under test, running as the waiter, is waiting for this write's lock
+    public void awaitBlocked(Future<?> waiter) throws SQLException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (queryLong(connection, "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE BLOCKER_ID = " + sessionId) == 0) {
+            if (waiter.isDone()) {
+                throw new AssertionError("Finished without waiting for the concurrent write: " + outcome(waiter));
+            }
+            if (System.nanoTime() - deadline > 0) {
+                throw new AssertionError("Nothing waited for the concurrent write; sessions: " + sessions());
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    public void commit() throws SQLException {
+        connection.commit();
+        committed = true;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            if (!committed) {
+                connection.rollback();
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    private static String outcome(Future<?> waiter) {
+        try {
+            return String.valueOf(waiter.get());
+        } catch (ExecutionException | InterruptedException e) {
+            return e.toString();
+        }
+    }
+
+    private String sessions() throws SQLException {
+        StringBuilder sessions = new StringBuilder();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT SESSION_ID, BLOCKER_ID, EXECUTING_STATEMENT FROM INFORMATION_SCHEMA.SESSIONS");
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                sessions.append('\n').append(resultSet.getLong(1)).append(" blocked by ").append(resultSet.getObject(2))
+                        .append(": ").append(resultSet.getString(3));
+            }
+        }
+        return sessions.toString();
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.springbootcrudapp;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Like {@link ApplicationTest}, with read-only transactions routed to a replica. The replica is fed
+ * asynchronously, so tests wait for it to catch up before they read from it. The entity cache is off:
+ * every read reaches a database, and the JVM-wide cache manager stays with the other context.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest(properties = {"grpc.server.port=-1", "app.datasource.replication.enabled=true",
+        "app.entity-cache.enabled=false"})
+@AutoConfigureMockMvc
+@Import(StatementRecorder.Config.class)
+public @interface ReplicatedApplicationTest {
+}
@@ -0,0 +1,53 @@
+package com.example.springbootcrudapp;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records every statement Hibernate prepares, so a test can look at the SQL a call issued. Registered
+ * as the session factory's statement inspector by {@link Config}.
+ */
+public class StatementRecorder implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private final CopyOnWriteArrayList<String> sql = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String statement) {
+        sql.add(statement);
+        return statement;
+    }
+
+    public List<String> statements() {
+        return List.copyOf(sql);
+    }
+
+    public List<String> updates() {
+        return sql.stream().filter(statement -> statement.startsWith("update")).toList();
+    }
+
+    public void clear() {
+        sql.clear();
+    }
+
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementRecorderCustomizer(StatementRecorder recorder) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, recorder);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.springbootcrudapp.controller;
+
+import com.example.springbootcrudapp.ApplicationTest;
+import com.example.springbootcrudapp.StatementRecorder;
+import com.example.springbootcrudapp.entity.Product;
+import com.example.springbootcrudapp.repository.ProductRepository;
+import com.example.springbootcrudapp.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ApplicationTest
+class BulkTransitionsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StatementRecorder statements;
+
+    @Test
+    void idsSelectExactlyTheListedEntities() throws Exception {
+        Long first = product("Ids", "10.00", null);
+        Long second = product("Ids", "10.00", null);
+        Long third = product("Ids", "10.00", null);
+
+        bulk("active", "{\"ids\": [" + first + ", " + third + "], \"value\": false}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.field").value("active"))
+                .andExpect(jsonPath("$.value").value(false))
+                .andExpect(jsonPath("$.updated").value(2));
+
+        assertThat(active(first)).isFalse();
+        assertThat(active(second)).isTrue();
+        assertThat(active(third)).isFalse();
+    }
+
+    @Test
+    void beforeAndAfterCompareTheAttributeWithoutTheSuffix() throws Exception {
+        String brand = "Brand " + System.nanoTime();
+        Long cheap = product(brand, "5.00", null);
+        Long middle = product(brand, "20.00", null);
+        Long dear = product(brand, "50.00", null);
+        Long otherBrand = product("Other " + System.nanoTime(), "20.00", null);
+
+        bulk("featured", "{\"filter\": {\"brand\": \"" + brand + "\", \"priceAfter\": 5, \"priceBefore\": 50}, \"value\": true}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1));
+
+        assertThat(featured(cheap)).isFalse();
+        assertThat(featured(middle)).isTrue();
+        assertThat(featured(dear)).isFalse();
+        assertThat(featured(otherBrand)).isFalse();
+    }
+
+    @Test
+    void nullFilterMemberMatchesAMissingValue() throws Exception {
+        String brand = "Brand " + System.nanoTime();
+        Long withoutModel = product(brand, "10.00", null);
+        Long withModel = product(brand, "10.00", "X1");
+
+        bulk("status", "{\"filter\": {\"brand\": \"" + brand + "\", \"model\": null}, \"value\": \"ARCHIVED\"}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value").value("ARCHIVED"))
+                .andExpect(jsonPath("$.updated").value(1));
+
+        assertThat(productRepository.findById(withoutModel).orElseThrow().getStatus()).isEqualTo(Product.ProductStatus.ARCHIVED);
+        assertThat(productRepository.findById(withModel).orElseThrow().getStatus()).isEqualTo(Product.ProductStatus.DRAFT);
+    }
+
+    @Test
+    void emptyIdListUpdatesNothingWithoutAStatement() throws Exception {
+        statements.clear();
+
+        bulk("active", "{\"ids\": [], \"value\": false}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(0));
+
+        assertThat(statements.updates()).isEmpty();
+    }
+
+    @Test
+    void selectionNeedsIdsOrAFilterButNotBoth() throws Exception {
+        rejected("active", "{\"value\": false}", "A bulk update needs ids or a filter");
+        rejected("active", "{\"ids\": [1], \"filter\": {\"brand\": \"x\"}, \"value\": false}",
+                "A bulk update takes either ids or a filter, not both");
+        rejected("active", "{\"filter\": {}, \"value\": false}", "A bulk filter needs at least one member");
+        rejected("active", "{\"ids\": [1, null], \"value\": false}", "Bulk ids must not be null");
+
+        String tooMany = Collections.nCopies(BatchReader.MAX_BATCH_SIZE + 1, "1").stream().collect(Collectors.joining(","));
+        rejected("active", "{\"ids\": [" + tooMany + "], \"value\": false}",
+                "At most 1000 ids per bulk update, got 1001; use a filter for larger sets");
+    }
+
+    @Test
+    void fieldsFiltersAndValuesAreChecked() throws Exception {
+        rejected("name", "{\"ids\": [1], \"value\": 1}", "Unknown bulk field 'name'; expected one of "
+                + ProductService.BULK_FIELDS.keySet());
+        rejected("active", "{\"ids\": [1]}", "A bulk update needs a value for 'active'");
+        rejected("status", "{\"ids\": [1], \"value\": \"GONE\"}", "Invalid value for 'status': GONE");
+        rejected("active", "{\"filter\": {\"colour\": \"red\"}, \"value\": false}", "Unknown bulk filter 'colour' for Product");
+        // The suffix only applies to an attribute that exists, and on its own it is not an attribute
+        rejected("active", "{\"filter\": {\"colourBefore\": 1}, \"value\": false}", "Unknown bulk filter 'colourBefore' for Product");
+        rejected("active", "{\"filter\": {\"After\": 1}, \"value\": false}", "Unknown bulk filter 'After' for Product");
+        rejected("active", "{\"filter\": {\"priceBefore\": null}, \"value\": false}", "Bulk filter 'priceBefore' needs a value");
+        rejected("active", "{\"filter\": {\"priceAfter\": \"cheap\"}, \"value\": false}", "Invalid value for 'price': cheap");
+    }
+
+    private ResultActions bulk(String field, String body) throws Exception {
+        return mockMvc.perform(put("/api/products/bulk/{field}", field)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+
+    private void rejected(String field, String body, String error) throws Exception {
+        bulk(field, body)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(error));
+    }
+
+    private Long product(String brand, String price, String model) {
+        Product product = new Product();
+        product.setName("Bulk product " + System.nanoTime());
+        product.setSku("SKU-" + System.nanoTime());
+        product.setBrand(brand);
+        product.setModel(model);
+        product.setPrice(new BigDecimal(price));
+        return productService.createProduct(product).getId();
+    }
+
+    private boolean active(Long id) {
+        return productRepository.findById(id).orElseThrow().getActive();
+    }
+
+    private boolean featured(Long id) {
+        return productRepository.findById(id).orElseThrow().getIsFeatured();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.springbootcrudapp.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ETagsTest {
+
+    @Test
+    void versionIsAStrongQuotedTag() {
+        assertThat(ETags.of(3L)).isEqualTo("\"3\"");
+    }
+
+    @Test
+    void matchingStrongTagMatches() {
+        assertThat(ETags.matches("\"3\"", 3L)).isTrue();
+        assertThat(ETags.matches("\"2\"", 3L)).isFalse();
+    }
+
+    @Test
+    void unquotedVersionDoesNotMatch() {
+        assertThat(ETags.matches("3", 3L)).isFalse();
+    }
+
+    @Test
+    void weakTagNeverMatches() {
+        assertThat(ETags.matches("W/\"3\"", 3L)).isFalse();
+        assertThat(ETags.matches("W/\"2\", W/\"3\"", 3L)).isFalse();
+    }
+
+    @Test
+    void wildcardMatchesAnyVersion() {
+        assertThat(ETags.matches("*", 0L)).isTrue();
+        assertThat(ETags.matches(" * ", 42L)).isTrue();
+    }
+
+    @Test
+    void anyTagOfAListMatches() {
+        assertThat(ETags.matches("\"1\", \"3\"", 3L)).isTrue();
+        assertThat(ETags.matches("\"1\",\"3\",\"5\"", 3L)).isTrue();
+        assertThat(ETags.matches("W/\"3\", \"3\"", 3L)).isTrue();
+        assertThat(ETags.matches("\"1\", \"2\"", 3L)).isFalse();
+    }
+}
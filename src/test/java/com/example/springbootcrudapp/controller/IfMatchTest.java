@@ -0,0 +1,126 @@
+package com.example.springbootcrudapp.controller;
+
+import com.example.springbootcrudapp.ApplicationTest;
+import com.example.springbootcrudapp.ConcurrentWrite;
+import com.example.springbootcrudapp.StatementRecorder;
+import com.example.springbootcrudapp.entity.Product;
+import com.example.springbootcrudapp.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ApplicationTest
+class IfMatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StatementRecorder statements;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void currentIfMatchUpdatesAndSendsTheNewETag() throws Exception {
+        Long id = product();
+
+        mockMvc.perform(put("/api/products/{id}/price", id).param("price", "12.00").header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.price").value(12.0));
+    }
+
+    @Test
+    void staleIfMatchIsRefusedBeforeTheHandlerRuns() throws Exception {
+        Long id = product();
+        productService.updateProductPrice(id, new BigDecimal("11.00"));
+        statements.clear();
+
+        mockMvc.perform(put("/api/products/{id}/price", id).param("price", "12.00").header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(content().string(""));
+
+        assertThat(statements.updates()).isEmpty();
+        assertThat(price(id)).isEqualByComparingTo("11.00");
+    }
+
+    @Test
+    void writeBetweenTheCheckAndTheFlushFailsThePrecondition() throws Exception {
+        Long id = product();
+
+        // The check passes on version 0; the update then waits for the write that makes it 1
+        lostRace(put("/api/products/{id}/price", id).param("price", "12.00").header(HttpHeaders.IF_MATCH, "\"0\""), id)
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error").value("The resource was modified concurrently; fetch it again and retry"));
+
+        assertThat(price(id)).isEqualByComparingTo("10.00");
+        assertThat(version(id)).isEqualTo(1L);
+    }
+
+    @Test
+    void lostRaceWithoutIfMatchIsAConflict() throws Exception {
+        Long id = product();
+
+        lostRace(put("/api/products/{id}/price", id).param("price", "12.00"), id)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("The resource was modified concurrently; fetch it again and retry"));
+
+        assertThat(price(id)).isEqualByComparingTo("10.00");
+        assertThat(version(id)).isEqualTo(1L);
+    }
+
+    // Perform the request while another client's version bump of the product holds the row, and commit
+    // that bump once the request's update is waiting for it
+    private ResultActions lostRace(RequestBuilder request, Long id) throws Exception {
+        try (ConcurrentWrite write = ConcurrentWrite.begin(dataSource, "UPDATE products SET version = version + 1 WHERE id = ?", id)) {
+            CompletableFuture<ResultActions> result = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return mockMvc.perform(request);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            });
+            write.awaitBlocked(result);
+            write.commit();
+            return result.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private BigDecimal price(Long id) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT price FROM products WHERE id = ?", BigDecimal.class, id);
+    }
+
+    private Long version(Long id) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT version FROM products WHERE id = ?", Long.class, id);
+    }
+
+    private Long product() {
+        Product product = new Product();
+        product.setName("Conditional " + System.nanoTime());
+        product.setSku("SKU-" + System.nanoTime());
+        product.setPrice(new BigDecimal("10.00"));
+        return productService.createProduct(product).getId();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.springbootcrudapp.controller;
+
+import com.example.springbootcrudapp.entity.Product;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MergePatcherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void nullMemberClearsTheField() {
+        JsonNode merged = MergePatcher.merge(json("{\"name\":\"Lamp\",\"brand\":\"Acme\"}"), json("{\"brand\":null}"));
+
+        assertThat(merged).isEqualTo(json("{\"name\":\"Lamp\",\"brand\":null}"));
+    }
+
+    @Test
+    void membersLeftOutAreKept() {
+        JsonNode merged = MergePatcher.merge(json("{\"name\":\"Lamp\",\"price\":10}"), json("{\"price\":12.5}"));
+
+        assertThat(merged).isEqualTo(json("{\"name\":\"Lamp\",\"price\":12.5}"));
+    }
+
+    @Test
+    void nestedObjectsMergeMemberByMember() {
+        JsonNode merged = MergePatcher.merge(
+                json("{\"dimensions\":{\"width\":10,\"height\":20,\"unit\":\"cm\"}}"),
+                json("{\"dimensions\":{\"height\":25,\"unit\":null,\"depth\":5}}"));
+
+        assertThat(merged).isEqualTo(json("{\"dimensions\":{\"width\":10,\"height\":25,\"unit\":null,\"depth\":5}}"));
+    }
+
+    @Test
+    void nestedObjectReplacesAScalar() {
+        JsonNode merged = MergePatcher.merge(json("{\"tags\":\"sale\"}"), json("{\"tags\":{\"season\":\"summer\"}}"));
+
+        assertThat(merged).isEqualTo(json("{\"tags\":{\"season\":\"summer\"}}"));
+    }
+
+    @Test
+    void nonObjectPatchReplacesTheTarget() {
+        assertThat(MergePatcher.merge(json("{\"name\":\"Lamp\"}"), json("[1,2]"))).isEqualTo(json("[1,2]"));
+        assertThat(MergePatcher.merge(json("{\"name\":\"Lamp\"}"), json("\"text\""))).isEqualTo(json("\"text\""));
+        assertThat(MergePatcher.merge(json("{\"tags\":[\"a\",\"b\"]}"), json("{\"tags\":[\"c\"]}")))
+                .isEqualTo(json("{\"tags\":[\"c\"]}"));
+    }
+
+    @Test
+    void nonObjectPatchOfAnEntityIsRejected() {
+        assertThatThrownBy(() -> new MergePatcher().patch(1L, json("[]"), Product.class, this::neverFound, this::neverUpdated))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("A merge patch for a single Product must be a JSON object");
+    }
+
+    @Test
+    void idMismatchIsRejected() {
+        assertThatThrownBy(() -> new MergePatcher().patch(1L, json("{\"id\":2}"), Product.class, this::neverFound, this::neverUpdated))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("The id of Product 1 cannot be patched");
+        assertThatThrownBy(() -> new MergePatcher().patch(1L, json("{\"id\":null}"), Product.class, this::neverFound, this::neverUpdated))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("The id of Product 1 cannot be patched");
+    }
+
+    private JsonNode json(String content) {
+        try {
+            return objectMapper.readTree(content);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private Optional<Product> neverFound(Long id) {
+        throw new AssertionError("a rejected patch must not load the entity");
+    }
+
+    private Product neverUpdated(Long id, Product details) {
+        throw new AssertionError("a rejected patch must not update the entity");
+    }
+}
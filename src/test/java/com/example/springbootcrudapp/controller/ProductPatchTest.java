@@ -0,0 +1,50 @@
+package com.example.springbootcrudapp.controller;
+
+import com.example.springbootcrudapp.ApplicationTest;
+import com.example.springbootcrudapp.StatementRecorder;
+import com.example.springbootcrudapp.entity.Product;
+import com.example.springbootcrudapp.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ApplicationTest
+class ProductPatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StatementRecorder statements;
+
+    @Test
+    void pricePatchUpdatesOnlyThePriceColumns() throws Exception {
+        Product product = new Product();
+        product.setName("Patched lamp");
+        product.setSku("SKU-PATCH");
+        product.setPrice(new BigDecimal("10.00"));
+        Long id = productService.createProduct(product).getId();
+        statements.clear();
+
+        mockMvc.perform(patch("/api/products/{id}", id)
+                        .contentType(MergePatcher.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"price\":12.5}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(12.5))
+                .andExpect(jsonPath("$.name").value("Patched lamp"))
+                .andExpect(jsonPath("$.version").value(1));
+
+        assertThat(statements.updates())
+                .containsExactly("update products set last_modified_date=?,price=?,version=? where id=? and version=?");
+    }
+}
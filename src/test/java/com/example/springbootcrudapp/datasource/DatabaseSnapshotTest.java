@@ -0,0 +1,165 @@
+package com.example.springbootcrudapp.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+// A database of its own per test, with one column of every value type and more than eight columns,
+// so the null bitmap takes two bytes. LINKS sorts first and points at WIDE, so its rows are restored
+// before the rows they reference.
+class DatabaseSnapshotTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:snapshot-" + System.nanoTime(), "sa", "");
+        execute("CREATE TABLE WIDE (ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, SMALL SMALLINT, "
+                + "QUANTITY INTEGER, BIG BIGINT, RATIO DOUBLE PRECISION, SCORE REAL, PRICE DECIMAL(12, 3), "
+                + "FLAG BOOLEAN, LABEL VARCHAR(100), STATUS ENUM('DRAFT', 'PUBLISHED'), CREATED TIMESTAMP(9), "
+                + "BORN DATE, OPENS TIME(9), DATA VARBINARY(16))");
+        execute("CREATE TABLE LINKS (ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "WIDE_ID BIGINT REFERENCES WIDE (ID))");
+        execute("INSERT INTO WIDE VALUES (1, -7, 123456, -9223372036854775808, -0.5, 1.25, 12345.678, TRUE, "
+                        + "'Grüße 🚀', 'PUBLISHED', TIMESTAMP '2024-02-29 23:59:59.123456789', DATE '1969-12-31', "
+                        + "TIME '23:59:59.999999999', X'00FF7F')",
+                "INSERT INTO WIDE (ID) VALUES (2)",
+                "INSERT INTO WIDE VALUES (3, 0, 0, 9223372036854775807, 0, 0, -0.001, FALSE, '', 'DRAFT', "
+                        + "TIMESTAMP '1900-01-01 00:00:00', DATE '2100-01-01', TIME '00:00:00', X'')",
+                "INSERT INTO LINKS (ID, WIDE_ID) VALUES (1, 1)");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void restoreBringsBackEveryValueAndNull() throws Exception {
+        List<List<String>> wide = rows("WIDE");
+        List<List<String>> links = rows("LINKS");
+        byte[] snapshot = write();
+        assertThat(verify(snapshot)).containsExactly(entry("LINKS", 1L), entry("WIDE", 3L));
+
+        // Changed, removed and added rows are all undone
+        execute("UPDATE WIDE SET LABEL = 'changed', DATA = NULL",
+                "DELETE FROM LINKS",
+                "DELETE FROM WIDE WHERE ID = 3",
+                "INSERT INTO WIDE (ID, LABEL) VALUES (4, 'added')");
+        assertThat(read(snapshot)).containsExactly(entry("LINKS", 1L), entry("WIDE", 3L));
+
+        assertThat(rows("WIDE")).isEqualTo(wide);
+        assertThat(rows("LINKS")).isEqualTo(links);
+        assertThat(connection.getAutoCommit()).isTrue();
+        // The identity was moved back to just past the restored ids
+        execute("INSERT INTO WIDE (LABEL) VALUES ('next')");
+        assertThat(rows("WIDE")).last().satisfies(row -> assertThat(row.get(0)).isEqualTo("4"));
+        assertForeignKeysChecked();
+    }
+
+    @Test
+    void truncatedSnapshotIsRejected() throws Exception {
+        byte[] snapshot = write();
+
+        for (int length = 0; length < snapshot.length; length++) {
+            byte[] truncated = Arrays.copyOf(snapshot, length);
+            assertThatThrownBy(() -> verify(truncated))
+                    .as("cut after %d of %d bytes", length, snapshot.length)
+                    .isInstanceOf(IOException.class)
+                    .hasMessage("Snapshot is truncated");
+        }
+    }
+
+    @Test
+    void trailingDataIsRejected() throws Exception {
+        byte[] snapshot = write();
+
+        assertThatThrownBy(() -> verify(Arrays.copyOf(snapshot, snapshot.length + 1)))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Unexpected data after the last table of the snapshot");
+    }
+
+    @Test
+    void failedRestoreLeavesTheRowsAsTheyWere() throws Exception {
+        byte[] snapshot = write();
+        // Row 2 of the snapshot has no label, which the table no longer accepts
+        execute("UPDATE WIDE SET LABEL = 'required' WHERE LABEL IS NULL",
+                "ALTER TABLE WIDE ALTER COLUMN LABEL SET NOT NULL",
+                "INSERT INTO LINKS (ID, WIDE_ID) VALUES (2, 3)");
+        List<List<String>> wide = rows("WIDE");
+        List<List<String>> links = rows("LINKS");
+        verify(snapshot);
+
+        // The rows of LINKS are in when WIDE fails, after every table was emptied
+        assertThatThrownBy(() -> read(snapshot)).isInstanceOf(SQLException.class);
+
+        assertThat(rows("WIDE")).isEqualTo(wide);
+        assertThat(rows("LINKS")).isEqualTo(links);
+        assertThat(connection.getAutoCommit()).isTrue();
+        assertForeignKeysChecked();
+    }
+
+    private void assertForeignKeysChecked() {
+        assertThatThrownBy(() -> execute("INSERT INTO LINKS (WIDE_ID) VALUES (999)")).isInstanceOf(SQLException.class);
+    }
+
+    private byte[] write() throws SQLException, IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            DatabaseSnapshot.write(connection, out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Map<String, Long> verify(byte[] snapshot) throws SQLException, IOException {
+        return DatabaseSnapshot.verify(connection, new DataInputStream(new ByteArrayInputStream(snapshot)));
+    }
+
+    private Map<String, Long> read(byte[] snapshot) throws SQLException, IOException {
+        return DatabaseSnapshot.read(connection, new DataInputStream(new ByteArrayInputStream(snapshot)), 2);
+    }
+
+    // Every value in its string form, which keeps the full precision of each type
+    private List<List<String>> rows(String table) throws SQLException {
+        List<List<String>> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT * FROM " + table + " ORDER BY ID")) {
+            int columns = resultSet.getMetaData().getColumnCount();
+            while (resultSet.next()) {
+                List<String> row = new ArrayList<>();
+                for (int i = 1; i <= columns; i++) {
+                    row.add(resultSet.getString(i));
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private void execute(String... sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String each : sql) {
+                statement.execute(each);
+            }
+        }
+    }
+}
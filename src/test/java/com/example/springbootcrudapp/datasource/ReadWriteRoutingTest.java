@@ -0,0 +1,216 @@
+package com.example.springbootcrudapp.datasource;
+
+import com.example.springbootcrudapp.ReplicatedApplicationTest;
+import com.example.springbootcrudapp.entity.Department;
+import com.example.springbootcrudapp.entity.Product;
+import com.example.springbootcrudapp.service.DepartmentService;
+import com.example.springbootcrudapp.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Rows changed here with plain JDBC on the primary are never published, so the replica keeps the old values
+@ReplicatedApplicationTest
+class ReadWriteRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private ReplicationFeed replicationFeed;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ReplicationFeed.Replica replica;
+
+    // Outside a transaction every connection goes to the primary
+    private JdbcTemplate primary;
+
+    @BeforeEach
+    void setUp() {
+        replica = replicationFeed.getReplicas().get(0);
+        primary = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void readOnlyTransactionsReadFromACaughtUpReplica() {
+        awaitCaughtUp();
+
+        assertThat(database(true)).isEqualTo(replicaDatabase());
+        assertThat(database(false)).isEqualTo(primaryDatabase());
+    }
+
+    @Test
+    void readModifyWriteReadsThePrimary() {
+        Long id = product();
+        awaitCaughtUp();
+        String name = "Renamed " + System.nanoTime();
+        primary.update("UPDATE products SET name = ?, version = version + 1 WHERE id = ?", name, id);
+
+        // Read on the replica, the version check would fail against the primary's newer row
+        Product updated = productService.updateProductPrice(id, new BigDecimal("12.00"));
+
+        assertThat(updated.getName()).isEqualTo(name);
+        assertThat(updated.getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void uniquenessChecksSeeThePrimary() {
+        Long productId = product();
+        Long departmentId = department();
+        Long otherDepartmentId = department();
+        awaitCaughtUp();
+        String productName = "Taken " + System.nanoTime();
+        String departmentName = "Taken " + System.nanoTime();
+        primary.update("UPDATE products SET name = ? WHERE id = ?", productName, productId);
+        primary.update("UPDATE departments SET name = ? WHERE id = ?", departmentName, otherDepartmentId);
+
+        Product product = new Product();
+        product.setName(productName);
+        product.setPrice(new BigDecimal("10.00"));
+        assertThatThrownBy(() -> productService.createProduct(product))
+                .hasMessage("Product name already exists: " + productName);
+
+        Department details = departmentService.getDepartmentById(departmentId).orElseThrow();
+        details.setName(departmentName);
+        assertThatThrownBy(() -> departmentService.updateDepartment(departmentId, details))
+                .hasMessage("Department name already exists: " + departmentName);
+    }
+
+    @Test
+    void laggingReplicaIsSkippedUntilItCatchesUp() throws Exception {
+        Long id = product();
+        awaitCaughtUp();
+        long maxLag = TimeUnit.MILLISECONDS.toNanos((Long) replicationFeed.snapshot().get("maxLagMs"));
+
+        // A row lock on the replica holds the change to that row in the replica's queue
+        try (Connection blocker = replica.getDataSource().getConnection();
+             Statement statement = blocker.createStatement()) {
+            blocker.setAutoCommit(false);
+            statement.executeUpdate("UPDATE products SET name = name WHERE id = " + id);
+            productService.updateProductTags(id, "lagging");
+
+            await(() -> replica.lagNanos() > maxLag);
+            assertThat(replica.isReady()).isTrue();
+            assertThat(database(true)).isEqualTo(primaryDatabase());
+            blocker.rollback();
+        }
+
+        awaitCaughtUp();
+        assertThat(database(true)).isEqualTo(replicaDatabase());
+    }
+
+    @Test
+    void writesHandBackATokenThatLaterReadsWait() throws Exception {
+        Long id = product();
+        awaitCaughtUp();
+
+        MvcResult written = mockMvc.perform(patch("/api/products/{id}", id)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"price\": 11}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        long token = Long.parseLong(written.getResponse().getHeader(ReadYourWrites.TOKEN_HEADER));
+        assertThat(token).isEqualTo(replicationFeed.getPosition());
+
+        awaitCaughtUp();
+        String replicated = replicaName(id);
+        primary.update("UPDATE products SET name = ? WHERE id = ?", "Unreplicated " + System.nanoTime(), id);
+
+        // Without a token the replica answers, without the change it was never sent
+        mockMvc.perform(get("/api/products/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(replicated));
+
+        // Counting that view published the row, so change it again once the replica has it
+        awaitCaughtUp();
+        String name = "Unreplicated " + System.nanoTime();
+        primary.update("UPDATE products SET name = ? WHERE id = ?", name, id);
+
+        // A token the replica has not reached sends the read to the primary
+        mockMvc.perform(get("/api/products/{id}", id).header(ReadYourWrites.TOKEN_HEADER, replicationFeed.getPosition() + 1000))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(name));
+    }
+
+    // Name of the database a read-only or read-write transaction runs on
+    private String database(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> new JdbcTemplate(dataSource).queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    private String primaryDatabase() {
+        return primary.queryForObject("SELECT DATABASE()", String.class);
+    }
+
+    private String replicaDatabase() {
+        return new JdbcTemplate(replica.getDataSource()).queryForObject("SELECT DATABASE()", String.class);
+    }
+
+    private String replicaName(Long id) {
+        return new JdbcTemplate(replica.getDataSource()).queryForObject("SELECT name FROM products WHERE id = ?", String.class, id);
+    }
+
+    private Long product() {
+        Product product = new Product();
+        product.setName("Routed " + System.nanoTime());
+        product.setSku("SKU-" + System.nanoTime());
+        product.setPrice(new BigDecimal("10.00"));
+        return productService.createProduct(product).getId();
+    }
+
+    private Long department() {
+        Department department = new Department();
+        department.setName("Routed " + System.nanoTime());
+        department.setManagerName("Manager");
+        return departmentService.createDepartment(department).getId();
+    }
+
+    private void awaitCaughtUp() {
+        long position = replicationFeed.getPosition();
+        await(() -> replica.isReady() && replica.getAppliedPosition() >= position && replica.lagNanos() == 0);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).as("condition not met in time").isNegative();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
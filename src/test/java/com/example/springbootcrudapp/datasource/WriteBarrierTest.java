@@ -0,0 +1,96 @@
+package com.example.springbootcrudapp.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WriteBarrierTest {
+
+    private final WriteBarrier barrier = new WriteBarrier();
+
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = new DataSourceTransactionManager(
+                new DriverManagerDataSource("jdbc:h2:mem:barrier-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        transactionManager.setTransactionExecutionListeners(List.of(barrier));
+    }
+
+    @Test
+    void writeTransactionsWaitForTheExclusiveHolderAndReadsDoNot() throws Exception {
+        barrier.lockExclusive();
+        CompletableFuture<Void> write;
+        try {
+            write = CompletableFuture.runAsync(() -> transaction(false).executeWithoutResult(status -> { }));
+            CompletableFuture.runAsync(() -> transaction(true).executeWithoutResult(status -> { })).get(5, TimeUnit.SECONDS);
+
+            assertThatThrownBy(() -> write.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        } finally {
+            barrier.unlockExclusive();
+        }
+        write.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void exclusiveWaitsForRunningWriteTransactions() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<Void> write = CompletableFuture.runAsync(() -> transaction(false).executeWithoutResult(status -> {
+            started.countDown();
+            try {
+                finish.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> exclusive = CompletableFuture.runAsync(this::lockAndUnlock);
+        assertThatThrownBy(() -> exclusive.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+        finish.countDown();
+        write.get(5, TimeUnit.SECONDS);
+        exclusive.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void rolledBackWriteTransactionLetsGo() throws Exception {
+        assertThatThrownBy(() -> transaction(false).executeWithoutResult(status -> {
+            throw new IllegalStateException("fails");
+        })).hasMessage("fails");
+
+        CompletableFuture.runAsync(this::lockAndUnlock).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void exclusiveIsRefusedInsideAWriteTransaction() {
+        transaction(false).executeWithoutResult(status ->
+                assertThatThrownBy(barrier::lockExclusive)
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessage("Rows cannot be replaced from inside a read-write transaction"));
+        transaction(true).executeWithoutResult(status -> lockAndUnlock());
+    }
+
+    private void lockAndUnlock() {
+        barrier.lockExclusive();
+        barrier.unlockExclusive();
+    }
+
+    private TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction;
+    }
+}
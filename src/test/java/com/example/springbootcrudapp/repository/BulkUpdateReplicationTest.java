@@ -0,0 +1,81 @@
+package com.example.springbootcrudapp.repository;
+
+import com.example.springbootcrudapp.ReplicatedApplicationTest;
+import com.example.springbootcrudapp.StatementRecorder;
+import com.example.springbootcrudapp.datasource.ReplicationFeed;
+import com.example.springbootcrudapp.entity.Product;
+import com.example.springbootcrudapp.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ReplicatedApplicationTest
+class BulkUpdateReplicationTest {
+
+    @Autowired
+    private BulkUpdateRepository bulkUpdateRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ReplicationFeed replicationFeed;
+
+    @Autowired
+    private StatementRecorder statements;
+
+    @Test
+    void updatedRowsReachTheReplicaAsRowChanges() throws InterruptedException {
+        List<Long> ids = List.of(product(), product(), product());
+        ReplicationFeed.Replica replica = replicationFeed.getReplicas().get(0);
+        awaitApplied(replica, replicationFeed.getPosition());
+        long rebuilds = rebuilds();
+        long before = replicationFeed.getPosition();
+        statements.clear();
+
+        int updated = bulkUpdateRepository.update(Product.class, (root, query, cb) -> root.get("id").in(ids),
+                Map.of("active", false));
+
+        assertThat(updated).isEqualTo(3);
+        // The ids are read first, and the UPDATE is limited to them
+        assertThat(statements.statements()).first().asString().startsWith("select p1_0.id from products p1_0");
+        assertThat(statements.updates()).singleElement().asString().endsWith("where id in (?,?,?) and id in (?,?,?)");
+        // One change per row instead of a full copy
+        assertThat(replicationFeed.getPosition()).isEqualTo(before + 3);
+
+        awaitApplied(replica, replicationFeed.getPosition());
+        assertThat(rebuilds()).isEqualTo(rebuilds);
+        List<Boolean> active = new JdbcTemplate(replica.getDataSource()).queryForList(
+                "SELECT active FROM products WHERE id IN (?, ?, ?)", Boolean.class, ids.toArray());
+        assertThat(active).containsExactly(false, false, false);
+    }
+
+    private Long product() {
+        Product product = new Product();
+        product.setName("Replicated " + System.nanoTime());
+        product.setSku("SKU-" + System.nanoTime());
+        product.setPrice(new BigDecimal("10.00"));
+        return productService.createProduct(product).getId();
+    }
+
+    private static void awaitApplied(ReplicationFeed.Replica replica, long position) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!replica.isReady() || replica.getAppliedPosition() < position) {
+            assertThat(System.nanoTime() - deadline).as("replica did not catch up").isNegative();
+            Thread.sleep(10);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private long rebuilds() {
+        List<Map<String, Object>> replicas = (List<Map<String, Object>>) replicationFeed.snapshot().get("replicas");
+        return (Long) replicas.get(0).get("rebuilds");
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.springbootcrudapp.repository;
+
+import com.example.springbootcrudapp.ApplicationTest;
+import com.example.springbootcrudapp.StatementRecorder;
+import com.example.springbootcrudapp.entity.Product;
+import com.example.springbootcrudapp.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ApplicationTest
+class BulkUpdateRepositoryTest {
+
+    @Autowired
+    private BulkUpdateRepository bulkUpdateRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StatementRecorder statements;
+
+    @Test
+    void oneStatementUpdatesEveryMatchAndIncrementsItsVersion() {
+        List<Long> ids = List.of(product("Bulk one"), product("Bulk two"), product("Bulk three"));
+        Long untouched = product("Bulk untouched");
+        statements.clear();
+
+        int updated = bulkUpdateRepository.update(Product.class, withIds(ids), Map.of("isFeatured", true));
+
+        assertThat(updated).isEqualTo(3);
+        // Without replication there is no id query first, just the one UPDATE
+        assertThat(statements.statements()).hasSize(1);
+        assertThat(statements.updates().get(0))
+                .startsWith("update products set is_featured=?,version=(version+")
+                .contains(" in (?,?,?)");
+        for (Long id : ids) {
+            Product product = productRepository.findById(id).orElseThrow();
+            assertThat(product.getIsFeatured()).isTrue();
+            assertThat(product.getVersion()).isEqualTo(1L);
+        }
+        Product other = productRepository.findById(untouched).orElseThrow();
+        assertThat(other.getIsFeatured()).isFalse();
+        assertThat(other.getVersion()).isZero();
+    }
+
+    @Test
+    void publishingStampsBothDatesInTheSameStatement() {
+        Long draft = product("Bulk draft");
+        Long published = product("Bulk published");
+        productService.updateProductStatus(published, Product.ProductStatus.PUBLISHED);
+        Product before = productRepository.findById(published).orElseThrow();
+        statements.clear();
+
+        int updated = productService.bulkUpdate(withIds(List.of(draft, published)), "status", Product.ProductStatus.PUBLISHED);
+
+        assertThat(updated).isEqualTo(2);
+        assertThat(statements.updates()).singleElement().asString()
+                .contains("last_modified_date=?")
+                .contains("published_date=coalesce(published_date,?)");
+
+        Product first = productRepository.findById(draft).orElseThrow();
+        assertThat(first.getStatus()).isEqualTo(Product.ProductStatus.PUBLISHED);
+        assertThat(first.getPublishedDate()).isNotNull();
+        assertThat(first.getPublishedDate().getTime()).isEqualTo(first.getLastModifiedDate().getTime());
+
+        // The first publication is the one that counts
+        Product again = productRepository.findById(published).orElseThrow();
+        assertThat(again.getPublishedDate().getTime()).isEqualTo(before.getPublishedDate().getTime());
+        assertThat(again.getLastModifiedDate()).isAfterOrEqualTo(before.getLastModifiedDate());
+        assertThat(again.getVersion()).isEqualTo(before.getVersion() + 1);
+    }
+
+    @Test
+    void noMatchUpdatesNothing() {
+        assertThat(bulkUpdateRepository.update(Product.class, withIds(List.of(-1L)), Map.of("active", false))).isZero();
+    }
+
+    @Test
+    void unrestrictedUpdateIsRejected() {
+        assertThatThrownBy(() -> bulkUpdateRepository.update(Product.class, (root, query, cb) -> null, Map.of("active", false)))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasMessage("A bulk update needs a restriction");
+    }
+
+    private Long product(String name) {
+        Product product = new Product();
+        product.setName(name + " " + System.nanoTime());
+        product.setSku("SKU-" + System.nanoTime());
+        product.setPrice(new BigDecimal("10.00"));
+        return productService.createProduct(product).getId();
+    }
+
+    private static Specification<Product> withIds(List<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+}
@@ -0,0 +1,432 @@
+package com.example.springbootcrudapp.repository;
+
+import com.example.springbootcrudapp.ApplicationTest;
+import com.example.springbootcrudapp.entity.Address;
+import com.example.springbootcrudapp.entity.Customer;
+import com.example.springbootcrudapp.entity.Department;
+import com.example.springbootcrudapp.entity.Group;
+import com.example.springbootcrudapp.entity.Product;
+import com.example.springbootcrudapp.entity.ProductCategory;
+import com.example.springbootcrudapp.entity.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Every endpoint that takes ?fields= answers from its finder without it and from a specification with
+// it, so both have to select the same rows. The rows created here sit on the edges of the conditions:
+// equal to a bound, null, or differing from a search term only in case.
+@ApplicationTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SpecificationsTest {
+
+    // Digits after a letter, so it also fits SKUs, category codes and postal codes
+    private final String token = "T" + System.nanoTime() % 1_000_000_000L;
+    private final String lower = token.toLowerCase();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCategoryRepository categoryRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long rootCategoryId;
+    private Long childCategoryId;
+    private Long productId;
+    private Long groupId;
+    private Long departmentId;
+    private Long customerId;
+    private Long addressId;
+    private Long userId;
+
+    @BeforeAll
+    void createRows() {
+        rootCategoryId = category("Root " + token, "R" + token, null, true, true, true, 0).getId();
+        childCategoryId = category("child " + token, "C" + token, rootCategoryId, false, false, false, 3).getId();
+        category("Other " + token, "D" + token, rootCategoryId, true, true, false, null);
+
+        productId = product("Lamp " + token, "-1", "10.00", "8.00", 0, 0, rootCategoryId, Product.ProductStatus.PUBLISHED, true).getId();
+        Product desk = product("desk " + lower, "-2", "20.00", "20.00", 2, 2, rootCategoryId, Product.ProductStatus.ARCHIVED, false);
+        desk.setIsFeatured(false);
+        desk.setIsDigital(true);
+        desk.setRating(4.0);
+        desk.setReviewCount(1);
+        desk.setSalesCount(0);
+        desk.setViewCount(0);
+        productRepository.save(desk);
+        Product chair = product("Chair " + token, "-3", "30.00", null, 5, 0, childCategoryId, Product.ProductStatus.PUBLISHED, true);
+        chair.setBrand("Other" + token);
+        chair.setDescription(null);
+        chair.setModel(null);
+        chair.setTags(null);
+        chair.setRating(3.9);
+        chair.setReviewCount(10);
+        productRepository.save(chair);
+        product("Stool " + token, "-4", "40.00", "50.00", null, null, null, Product.ProductStatus.DRAFT, true);
+
+        groupId = group("Group " + token, "TYPE" + token, "Owner " + token, 5, 5, true, false, true,
+                "2020-01-02T00:00").getId();
+        group("group two " + lower, "type" + lower, "Owner " + token, null, 0, false, true, false, "2020-01-02T12:00");
+        Group third = group("Third " + token, "TYPE" + token, "other " + lower, 10, 3, false, false, true, "2021-05-05T00:00");
+        third.setTags(null);
+        third.setDescription(null);
+        groupRepository.save(third);
+
+        departmentId = department("Dept " + token, "Manager " + token, 1000.0, 10, true).getId();
+        Department second = department("dept two " + lower, "manager " + lower, 500.0, 5, false);
+        second.setDescription(null);
+        second.setManagerEmail(null);
+        departmentRepository.save(second);
+
+        customerId = customer("Company " + token, "Contact " + token, "c1", 1000.0, true).getId();
+        customer("company two " + lower, "contact " + lower, "c2", 500.0, false);
+
+        addressId = address("1 Main " + token, "City" + token, "P" + token, "HOME", 10.0, 20.0, true, true).getId();
+        Address side = address("2 side " + lower, "Other" + token, "P" + token + "-2", "WORK", 11.0, 21.0, false, false);
+        side.setAdditionalInfo(null);
+        addressRepository.save(side);
+
+        userId = user("User " + token, "u1").getId();
+        user("user two " + lower, "u2");
+    }
+
+    Stream<String> endpoints() {
+        return Stream.of(
+                uri("/api/products/{id}", productId),
+                uri("/api/products/name/{name}", "Lamp " + token),
+                uri("/api/products/sku/{sku}", "SKU-" + token + "-1"),
+                uri("/api/products/search/name?name={name}", lower),
+                uri("/api/products/search/description?description={description}", lower),
+                uri("/api/products/search?searchTerm={term}", token),
+                uri("/api/products/brand/{brand}", "B" + token),
+                uri("/api/products/category/{categoryId}", rootCategoryId),
+                uri("/api/products/status/{status}", "ARCHIVED"),
+                uri("/api/products/active"),
+                uri("/api/products/featured"),
+                uri("/api/products/digital"),
+                uri("/api/products/price-range?minPrice=10&maxPrice=30"),
+                uri("/api/products/on-sale"),
+                uri("/api/products/out-of-stock"),
+                uri("/api/products/low-stock"),
+                uri("/api/products/best-selling"),
+                uri("/api/products/best-selling?salesCount=4"),
+                uri("/api/products/most-viewed"),
+                uri("/api/products/most-viewed?viewCount=6"),
+                uri("/api/products/highly-rated"),
+                uri("/api/products/highly-rated?rating=4.5&minReviews=3"),
+                uri("/api/products/ordered/name"),
+                uri("/api/products/ordered/price-asc"),
+                uri("/api/products/ordered/price-desc"),
+                uri("/api/products/criteria"),
+                uri("/api/products/criteria?brand={brand}", "B" + token),
+                uri("/api/products/criteria?categoryId={id}&status=PUBLISHED&active=true&isFeatured=true&minPrice=10&maxPrice=10",
+                        rootCategoryId),
+                uri("/api/products/criteria?minPrice=20"),
+
+                uri("/api/categories/{id}", rootCategoryId),
+                uri("/api/categories/name/{name}", "Root " + token),
+                uri("/api/categories/code/{code}", "R" + token),
+                uri("/api/categories/search/name?name={name}", lower),
+                uri("/api/categories/search/description?description={description}", lower),
+                uri("/api/categories/parent/{id}", rootCategoryId),
+                uri("/api/categories/root"),
+                uri("/api/categories/parent/{id}/active/true", rootCategoryId),
+                uri("/api/categories/parent/{id}/active/false", rootCategoryId),
+                uri("/api/categories/root/active"),
+                uri("/api/categories/active"),
+                uri("/api/categories/inactive"),
+                uri("/api/categories/visible"),
+                uri("/api/categories/hidden"),
+                uri("/api/categories/featured"),
+                uri("/api/categories/non-featured"),
+                uri("/api/categories/active/true/visible/true"),
+                uri("/api/categories/active/false/visible/false"),
+                uri("/api/categories/featured/true/visible/true"),
+                uri("/api/categories/featured/false/visible/false"),
+                uri("/api/categories/product-count/greater/0"),
+                uri("/api/categories/product-count/less/3"),
+                uri("/api/categories/no-products"),
+                uri("/api/categories/tag/{tag}", "tag" + token),
+                uri("/api/categories/meta-title?title={title}", "Meta " + token),
+                uri("/api/categories/color/{color}", "c" + token),
+                uri("/api/categories/ordered/display-order"),
+                uri("/api/categories/ordered/name"),
+                uri("/api/categories/ordered/product-count"),
+                uri("/api/categories/ordered/creation-date"),
+                uri("/api/categories/ordered/modification-date"),
+                uri("/api/categories/criteria"),
+                uri("/api/categories/criteria?parentCategoryId={id}&active=true", rootCategoryId),
+                uri("/api/categories/criteria?isVisible=false&isFeatured=false"),
+                uri("/api/categories/{id}/hierarchy", rootCategoryId),
+
+                uri("/api/groups/{id}", groupId),
+                uri("/api/groups/name/{name}", "Group " + token),
+                uri("/api/groups/search/name?name={name}", lower),
+                uri("/api/groups/search/description?description={description}", lower),
+                uri("/api/groups/type/{type}", "TYPE" + token),
+                uri("/api/groups/search/type?type={type}", lower),
+                uri("/api/groups/owner/{owner}", "Owner " + token),
+                uri("/api/groups/search/owner?owner={owner}", lower),
+                uri("/api/groups/owner-email/{email}", "owner" + lower + "@example.com"),
+                uri("/api/groups/active"),
+                uri("/api/groups/inactive"),
+                uri("/api/groups/public"),
+                uri("/api/groups/private"),
+                uri("/api/groups/requires-approval"),
+                uri("/api/groups/no-approval"),
+                uri("/api/groups/filter/active-public?active=true&publicGroup=true"),
+                uri("/api/groups/filter/type-active?type={type}&active=true", "TYPE" + token),
+                uri("/api/groups/filter/owner-active?owner={owner}&active=false", "Owner " + token),
+                uri("/api/groups/members/greater-than?count=3"),
+                uri("/api/groups/members/less-than?count=5"),
+                uri("/api/groups/available-capacity"),
+                uri("/api/groups/max-members/greater-than?count=5"),
+                uri("/api/groups/created-after?date=2020-01-02"),
+                uri("/api/groups/recent-activity?date=2020-01-02"),
+                uri("/api/groups/tag/{tag}", "tag" + token),
+                uri("/api/groups/ordered/name"),
+                uri("/api/groups/ordered/creation-date"),
+                uri("/api/groups/ordered/member-count"),
+                uri("/api/groups/ordered/activity"),
+                uri("/api/groups/criteria"),
+                uri("/api/groups/criteria?type={type}", "TYPE" + token),
+                uri("/api/groups/criteria?publicGroup=false&active=true"),
+
+                uri("/api/departments/{id}", departmentId),
+                uri("/api/departments/name/{name}", "Dept " + token),
+                uri("/api/departments/search/name?name={name}", lower),
+                uri("/api/departments/search/manager?name={name}", token),
+                uri("/api/departments/search/description?description={description}", lower),
+                uri("/api/departments/location/{location}", "Loc" + token),
+                uri("/api/departments/active"),
+                uri("/api/departments/inactive"),
+                uri("/api/departments/budget?min=500"),
+                uri("/api/departments/employees?min=5"),
+                uri("/api/departments/manager-email/{email}", "m" + lower + "@example.com"),
+                uri("/api/departments/filter?active=false&location={location}", "Loc" + token),
+
+                uri("/api/customers/{id}", customerId),
+                uri("/api/customers/email/{email}", "c1" + lower + "@example.com"),
+                uri("/api/customers/search/company?name={name}", lower),
+                uri("/api/customers/search/contact?name={name}", token),
+                uri("/api/customers/city/{city}", "City" + token),
+                uri("/api/customers/country/{country}", "Country" + token),
+                uri("/api/customers/active"),
+                uri("/api/customers/inactive"),
+                uri("/api/customers/credit-limit?min=1000"),
+                uri("/api/customers/phone/{phone}", "555" + token),
+                uri("/api/customers/filter?active=true&country={country}", "Country" + token),
+
+                uri("/api/addresses/{id}", addressId),
+                uri("/api/addresses/search/street?street={street}", lower),
+                uri("/api/addresses/city/{city}", "City" + token),
+                uri("/api/addresses/search/city?city={city}", lower),
+                uri("/api/addresses/state/{state}", "State" + token),
+                uri("/api/addresses/country/{country}", "Country" + token),
+                uri("/api/addresses/search/country?country={country}", lower),
+                uri("/api/addresses/postal-code/{postalCode}", "P" + token),
+                uri("/api/addresses/postal-code-pattern?pattern={pattern}", "P" + token),
+                uri("/api/addresses/type/{type}", "WORK"),
+                uri("/api/addresses/active"),
+                uri("/api/addresses/inactive"),
+                uri("/api/addresses/primary"),
+                uri("/api/addresses/non-primary"),
+                uri("/api/addresses/filter/city-country?city={city}&country={country}", "City" + token, "Country" + token),
+                uri("/api/addresses/filter/state-country?state={state}&country={country}", "State" + token, "Country" + token),
+                uri("/api/addresses/filter/active-country?active=false&country={country}", "Country" + token),
+                uri("/api/addresses/filter/active-city?active=true&city={city}", "City" + token),
+                uri("/api/addresses/filter/type-active?type=WORK&active=false"),
+                uri("/api/addresses/coordinates?minLat=10&maxLat=11&minLng=20&maxLng=21"),
+                uri("/api/addresses/search/additional-info?info={info}", token),
+                uri("/api/addresses/ordered/city"),
+                uri("/api/addresses/ordered/country-city"),
+
+                uri("/api/users/{id}", userId),
+                uri("/api/users/email/{email}", "u1" + lower + "@example.com"),
+                uri("/api/users/search?name={name}", lower),
+                uri("/api/users/phone/{phone}", "555" + token));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("endpoints")
+    void projectionSelectsTheRowsOfTheFinder(String uri) throws Exception {
+        List<Long> found = ids(uri);
+        List<Long> projected = ids(UriComponentsBuilder.fromUriString(uri).queryParam("fields", "id").build().toUriString());
+
+        assertThat(found).as("rows found by the finder").isNotEmpty();
+        assertThat(projected).containsExactlyInAnyOrderElementsOf(found);
+    }
+
+    private List<Long> ids(String uri) throws Exception {
+        String body = mockMvc.perform(get(URI.create(uri)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode json = objectMapper.readTree(body);
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode row : json.isArray() ? json : List.of(json)) {
+            ids.add(row.get("id").asLong());
+        }
+        return ids;
+    }
+
+    private static String uri(String template, Object... variables) {
+        return UriComponentsBuilder.fromUriString(template).encode().buildAndExpand(variables).toUriString();
+    }
+
+    private ProductCategory category(String name, String code, Long parentId, boolean active, boolean visible,
+                                     boolean featured, Integer productCount) {
+        ProductCategory category = new ProductCategory();
+        category.setName(name);
+        category.setDescription("Category " + name);
+        category.setCategoryCode(code);
+        category.setParentCategoryId(parentId);
+        category.setActive(active);
+        category.setIsVisible(visible);
+        category.setIsFeatured(featured);
+        category.setProductCount(productCount);
+        category.setDisplayOrder(1);
+        category.setTags("tag" + token + ",home");
+        category.setMetaTitle("Meta " + token + " " + code);
+        category.setColor("c" + token);
+        category.setCreatedDate(new Date());
+        category.setLastModifiedDate(new Date());
+        return categoryRepository.save(category);
+    }
+
+    private Product product(String name, String skuSuffix, String price, String salePrice, Integer stock, Integer minStock,
+                            Long categoryId, Product.ProductStatus status, boolean active) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription("Bright " + token + " piece");
+        product.setSku("SKU-" + token + skuSuffix);
+        product.setBrand("B" + token);
+        product.setModel("M" + token);
+        product.setPrice(new BigDecimal(price));
+        product.setSalePrice(salePrice == null ? null : new BigDecimal(salePrice));
+        product.setStockQuantity(stock);
+        product.setMinStockLevel(minStock);
+        product.setCategoryId(categoryId);
+        product.setStatus(status);
+        product.setActive(active);
+        product.setIsFeatured(true);
+        product.setSalesCount(5);
+        product.setViewCount(7);
+        product.setRating(4.5);
+        product.setReviewCount(3);
+        product.setTags("tag" + token);
+        return productRepository.save(product);
+    }
+
+    private Group group(String name, String type, String owner, Integer maxMembers, int members, boolean isPublic,
+                        boolean requiresApproval, boolean active, String created) {
+        Group group = new Group();
+        group.setName(name);
+        group.setDescription("About " + name);
+        group.setGroupType(type);
+        group.setOwnerName(owner);
+        group.setOwnerEmail("owner" + lower + "@example.com");
+        group.setMaxMembers(maxMembers);
+        group.setCurrentMemberCount(members);
+        group.setIsPublic(isPublic);
+        group.setRequiresApproval(requiresApproval);
+        group.setActive(active);
+        group.setTags("tag" + token);
+        group.setCreatedDate(date(created));
+        group.setLastActivityDate(date(created));
+        return groupRepository.save(group);
+    }
+
+    private Department department(String name, String manager, double budget, int employees, boolean active) {
+        Department department = new Department();
+        department.setName(name);
+        department.setDescription("About " + name);
+        department.setManagerName(manager);
+        department.setManagerEmail("m" + lower + "@example.com");
+        department.setLocation("Loc" + token);
+        department.setBudget(budget);
+        department.setEmployeeCount(employees);
+        department.setActive(active);
+        return departmentRepository.save(department);
+    }
+
+    private Customer customer(String company, String contact, String emailPrefix, double creditLimit, boolean active) {
+        Customer customer = new Customer();
+        customer.setCompanyName(company);
+        customer.setContactName(contact);
+        customer.setEmail(emailPrefix + lower + "@example.com");
+        customer.setPhone("555" + token);
+        customer.setCity("City" + token);
+        customer.setCountry("Country" + token);
+        customer.setCreditLimit(creditLimit);
+        customer.setActive(active);
+        return customerRepository.save(customer);
+    }
+
+    private Address address(String street, String city, String postalCode, String type, double latitude, double longitude,
+                            boolean primary, boolean active) {
+        Address address = new Address();
+        address.setStreet(street);
+        address.setCity(city);
+        address.setState("State" + token);
+        address.setCountry("Country" + token);
+        address.setPostalCode(postalCode);
+        address.setAddressType(type);
+        address.setAdditionalInfo("Gate " + token);
+        address.setLatitude(latitude);
+        address.setLongitude(longitude);
+        address.setIsPrimary(primary);
+        address.setActive(active);
+        return addressRepository.save(address);
+    }
+
+    private User user(String name, String emailPrefix) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(emailPrefix + lower + "@example.com");
+        user.setPhone("555" + token);
+        return userRepository.save(user);
+    }
+
+    private static Date date(String localDateTime) {
+        return Date.from(LocalDateTime.parse(localDateTime).atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.springbootcrudapp.service;
+
+import com.example.springbootcrudapp.ApplicationTest;
+import com.example.springbootcrudapp.entity.Product;
+import com.example.springbootcrudapp.entity.ProductCategory;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A bulk UPDATE bypasses the entities, so everything holding copies of them has to be invalidated
+@ApplicationTest
+class BulkUpdateInvalidationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductCategoryService productCategoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void coalescedFeaturedListDropsUnfeaturedProducts() {
+        Product product = new Product();
+        product.setName("Featured " + System.nanoTime());
+        product.setSku("SKU-" + System.nanoTime());
+        product.setPrice(new BigDecimal("10.00"));
+        product.setIsFeatured(true);
+        Long id = productService.createProduct(product).getId();
+
+        List<Product> featured = productService.getFeaturedProducts();
+        assertThat(featured).extracting(Product::getId).contains(id);
+        // The result is kept, so only an invalidation can change what the next caller sees
+        assertThat(productService.getFeaturedProducts()).isSameAs(featured);
+
+        productService.bulkUpdate(withId(id), "isFeatured", false);
+
+        assertThat(productService.getFeaturedProducts()).extracting(Product::getId).doesNotContain(id);
+    }
+
+    @Test
+    void deactivatedCategoryLeavesTheEntityCacheAndTheCoalescedRootList() {
+        ProductCategory category = new ProductCategory();
+        category.setName("Root " + System.nanoTime());
+        Long id = productCategoryService.createCategory(category).getId();
+
+        assertThat(productCategoryService.getCategoryById(id)).isPresent();
+        assertThat(entityManagerFactory.getCache().contains(ProductCategory.class, id)).isTrue();
+        assertThat(productCategoryService.getActiveRootCategories()).extracting(ProductCategory::getId).contains(id);
+
+        productCategoryService.bulkUpdate(withId(id), "active", false);
+
+        assertThat(entityManagerFactory.getCache().contains(ProductCategory.class, id)).isFalse();
+        assertThat(productCategoryService.getCategoryById(id).orElseThrow().getActive()).isFalse();
+        assertThat(productCategoryService.getActiveRootCategories()).extracting(ProductCategory::getId).doesNotContain(id);
+    }
+
+    private static <T> Specification<T> withId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+}
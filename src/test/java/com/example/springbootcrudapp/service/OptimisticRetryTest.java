@@ -0,0 +1,231 @@
+package com.example.springbootcrudapp.service;
+
+import com.example.springbootcrudapp.ApplicationTest;
+import com.example.springbootcrudapp.ConcurrentWrite;
+import com.example.springbootcrudapp.config.OptimisticRetryProperties;
+import com.example.springbootcrudapp.entity.Group;
+import com.example.springbootcrudapp.entity.Product;
+import com.example.springbootcrudapp.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Counters are shared by the whole context, so every test compares them before and after
+@ApplicationTest
+class OptimisticRetryTest {
+
+    private static final String INCREMENT_SALES = "ProductService.incrementSalesCount";
+    private static final String ADD_MEMBER = "GroupService.addMemberToGroup";
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private OptimisticRetryProperties properties;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void concurrentIncrementsAllLand() throws Exception {
+        Long id = product();
+        Map<String, Long> before = counters(INCREMENT_SALES);
+        int threads = 4;
+        int increments = 25;
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(CompletableFuture.runAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CompletionException(e);
+                }
+                for (int j = 0; j < increments; j++) {
+                    productService.incrementSalesCount(id);
+                }
+            }));
+        }
+        // Enough attempts that no increment runs out of them under this contention; giving up is tested on its own
+        int maxAttempts = properties.getMaxAttempts();
+        properties.setMaxAttempts(1000);
+        try {
+            start.countDown();
+            CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        } finally {
+            properties.setMaxAttempts(maxAttempts);
+        }
+
+        assertThat(salesCount(id)).isEqualTo(threads * increments);
+        Map<String, Long> after = counters(INCREMENT_SALES);
+        assertThat(after.get("succeeded") - before.get("succeeded")).isEqualTo(threads * increments);
+        assertThat(after.get("conflicts")).isGreaterThan(before.get("conflicts"));
+    }
+
+    @Test
+    void lostRaceIsRunAgainAgainstTheWinnersRow() throws Exception {
+        Long id = product();
+        Map<String, Long> before = counters(INCREMENT_SALES);
+
+        Product product;
+        try (ConcurrentWrite write = ConcurrentWrite.begin(dataSource,
+                "UPDATE products SET sales_count = sales_count + 100, version = version + 1 WHERE id = ?", id)) {
+            CompletableFuture<Product> increment = CompletableFuture.supplyAsync(() -> productService.incrementSalesCount(id));
+            write.awaitBlocked(increment);
+            write.commit();
+            product = increment.get(30, TimeUnit.SECONDS);
+        }
+
+        // The second attempt read the winner's row instead of overwriting it
+        assertThat(product.getSalesCount()).isEqualTo(101);
+        assertThat(product.getVersion()).isEqualTo(2L);
+        assertThat(salesCount(id)).isEqualTo(101);
+        Map<String, Long> after = counters(INCREMENT_SALES);
+        assertThat(after.get("conflicts") - before.get("conflicts")).isEqualTo(1);
+        assertThat(after.get("succeeded") - before.get("succeeded")).isEqualTo(1);
+        assertThat(after.get("exhausted")).isEqualTo(before.get("exhausted"));
+    }
+
+    @Test
+    void updateThatLosesEveryAttemptGivesUp() {
+        Long id = product();
+        String operation = "OptimisticRetryTest.alwaysOvertaken";
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Another client bumps the version between every attempt's read and its flush
+        assertThatThrownBy(() -> optimisticRetry.run(operation, () -> {
+            attempts.incrementAndGet();
+            Product product = productRepository.findById(id).orElseThrow();
+            bumpVersion(id);
+            product.setSalesCount(product.getSalesCount() + 1);
+            return productRepository.saveAndFlush(product);
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(attempts.get()).isEqualTo(properties.getMaxAttempts());
+        assertThat(counters(operation)).isEqualTo(Map.of(
+                "succeeded", 0L, "conflicts", (long) properties.getMaxAttempts(), "exhausted", 1L));
+        assertThat(salesCount(id)).isZero();
+    }
+
+    @Test
+    void lostRaceOfARequestIsRunAgain() throws Exception {
+        Long id = group();
+        Map<String, Long> before = counters(ADD_MEMBER);
+
+        lostRace(put("/api/groups/{id}/add-member", id), id)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currentMemberCount").value(1))
+                .andExpect(jsonPath("$.version").value(2));
+
+        Map<String, Long> after = counters(ADD_MEMBER);
+        assertThat(after.get("conflicts") - before.get("conflicts")).isEqualTo(1);
+        assertThat(after.get("succeeded") - before.get("succeeded")).isEqualTo(1);
+    }
+
+    @Test
+    void requestWithIfMatchIsNeverRetried() throws Exception {
+        Long id = group();
+        Map<String, Long> before = counters(ADD_MEMBER);
+
+        lostRace(put("/api/groups/{id}/add-member", id).header(HttpHeaders.IF_MATCH, "\"0\""), id)
+                .andExpect(status().isPreconditionFailed());
+
+        Map<String, Long> after = counters(ADD_MEMBER);
+        assertThat(after.get("conflicts") - before.get("conflicts")).isEqualTo(1);
+        assertThat(after.get("exhausted") - before.get("exhausted")).isEqualTo(1);
+        assertThat(after.get("succeeded")).isEqualTo(before.get("succeeded"));
+        assertThat(new JdbcTemplate(dataSource).queryForObject(
+                "SELECT current_member_count FROM groups WHERE id = ?", Integer.class, id)).isZero();
+    }
+
+    // Perform the request while another client's version bump of the group holds the row, and commit
+    // that bump once the request's update is waiting for it
+    private ResultActions lostRace(RequestBuilder request, Long id) throws Exception {
+        try (ConcurrentWrite write = ConcurrentWrite.begin(dataSource, "UPDATE groups SET version = version + 1 WHERE id = ?", id)) {
+            CompletableFuture<ResultActions> result = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return mockMvc.perform(request);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            });
+            write.awaitBlocked(result);
+            write.commit();
+            return result.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    // Committed on a connection of its own, outside the attempt's transaction
+    private void bumpVersion(Long id) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE products SET version = version + 1 WHERE id = " + id);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Long> counters(String operation) {
+        Map<String, Object> operations = (Map<String, Object>) optimisticRetry.snapshot().get("operations");
+        return (Map<String, Long>) operations.getOrDefault(operation, Map.of("succeeded", 0L, "conflicts", 0L, "exhausted", 0L));
+    }
+
+    private Integer salesCount(Long id) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT sales_count FROM products WHERE id = ?", Integer.class, id);
+    }
+
+    private Long product() {
+        Product product = new Product();
+        product.setName("Retried " + System.nanoTime());
+        product.setSku("SKU-" + System.nanoTime());
+        product.setPrice(new BigDecimal("10.00"));
+        return productService.createProduct(product).getId();
+    }
+
+    private Long group() {
+        Group group = new Group();
+        group.setName("Retried " + System.nanoTime());
+        group.setOwnerName("Owner");
+        return groupService.createGroup(group).getId();
+    }
+}
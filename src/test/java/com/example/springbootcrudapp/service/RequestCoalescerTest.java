@@ -0,0 +1,187 @@
+package com.example.springbootcrudapp.service;
+
+import com.example.springbootcrudapp.config.CoalescingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTest {
+
+    private static final String METHOD = "Test.load";
+    private static final int CALLERS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        RequestCoalescer coalescer = coalescer(Duration.ZERO, 1.0);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Object> loader = () -> {
+            loads.incrementAndGet();
+            await(release);
+            return new Object();
+        };
+
+        List<Future<Object>> results = callWhileBlocked(coalescer, loader, release);
+
+        Object first = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<Object> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(first);
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(counter(coalescer, "executed")).isEqualTo(1);
+        assertThat(counter(coalescer, "coalesced")).isEqualTo(CALLERS - 1);
+
+        // Without a TTL a finished result is not reused
+        assertThat(coalescer.call(Object::new, METHOD)).isNotSameAs(first);
+    }
+
+    @Test
+    void failureReachesEveryWaiter() throws Exception {
+        RequestCoalescer coalescer = coalescer(Duration.ofMinutes(1), 1.0);
+        IllegalStateException failure = new IllegalStateException("query failed");
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Object> loader = () -> {
+            await(release);
+            throw failure;
+        };
+
+        List<Future<Object>> results = callWhileBlocked(coalescer, loader, release);
+
+        for (Future<Object> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause().isSameAs(failure);
+        }
+        assertThat(counter(coalescer, "failures")).isEqualTo(1);
+
+        // A failure is not kept: the next call runs the query again
+        Object value = new Object();
+        assertThat(coalescer.call(() -> value, METHOD)).isSameAs(value);
+    }
+
+    @Test
+    void failedEarlyRefreshKeepsServingThePreviousResult() {
+        // With a huge beta every call within the TTL starts an early refresh
+        RequestCoalescer coalescer = coalescer(Duration.ofMinutes(1), 1e9);
+        Object original = coalescer.call(() -> {
+            sleep(5);
+            return new Object();
+        }, METHOD);
+
+        Object answered = coalescer.call(() -> {
+            throw new IllegalStateException("refresh failed");
+        }, METHOD);
+
+        assertThat(answered).isSameAs(original);
+        assertThat(counter(coalescer, "earlyRefreshes")).isEqualTo(1);
+        assertThat(counter(coalescer, "failures")).isEqualTo(1);
+
+        // The previous result is back in place, and a successful refresh replaces it
+        Object refreshed = new Object();
+        assertThat(coalescer.call(() -> refreshed, METHOD)).isSameAs(refreshed);
+        assertThat(counter(coalescer, "earlyRefreshes")).isEqualTo(2);
+    }
+
+    @Test
+    void failedRefreshOfAnExpiredResultReachesTheCaller() {
+        RequestCoalescer coalescer = coalescer(Duration.ofMillis(1), 0.0);
+        coalescer.call(Object::new, METHOD);
+        sleep(5);
+
+        IllegalStateException failure = new IllegalStateException("query failed");
+        assertThatThrownBy(() -> coalescer.call(() -> {
+            throw failure;
+        }, METHOD)).isSameAs(failure);
+    }
+
+    @Test
+    void invalidateDropsFinishedResults() {
+        RequestCoalescer coalescer = coalescer(Duration.ofMinutes(1), 0.0);
+        Object first = coalescer.call(Object::new, METHOD);
+        assertThat(coalescer.call(Object::new, METHOD)).isSameAs(first);
+        assertThat(coalescer.call(Object::new, "Other.load", 1)).isNotNull();
+
+        coalescer.invalidate(METHOD);
+
+        assertThat(coalescer.call(Object::new, METHOD)).isNotSameAs(first);
+        assertThat(counter(coalescer, "executed")).isEqualTo(2);
+    }
+
+    // Start every caller while the first one's loader is blocked, and release it once all the others
+    // have joined its flight
+    private List<Future<Object>> callWhileBlocked(RequestCoalescer coalescer, Supplier<Object> loader,
+                                                  CountDownLatch release) throws InterruptedException {
+        List<Future<Object>> results = new ArrayList<>();
+        results.add(executor.submit(() -> coalescer.call(loader, METHOD)));
+        waitFor(() -> counter(coalescer, "executed") == 1);
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(() -> coalescer.call(loader, METHOD)));
+        }
+        waitFor(() -> counter(coalescer, "coalesced") == CALLERS - 1);
+        release.countDown();
+        return results;
+    }
+
+    private static RequestCoalescer coalescer(Duration resultTtl, double earlyRefreshBeta) {
+        CoalescingProperties properties = new CoalescingProperties();
+        properties.setResultTtl(resultTtl);
+        properties.setEarlyRefreshBeta(earlyRefreshBeta);
+        RequestCoalescer coalescer = new RequestCoalescer();
+        ReflectionTestUtils.setField(coalescer, "properties", properties);
+        return coalescer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long counter(RequestCoalescer coalescer, String name) {
+        Map<String, Object> methods = (Map<String, Object>) coalescer.snapshot().get("methods");
+        Map<String, Object> counters = (Map<String, Object>) methods.get(METHOD);
+        return counters == null ? 0 : (Long) counters.get(name);
+    }
+
+    private static void waitFor(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.get()) {
+            assertThat(System.nanoTime() - deadline).as("condition not met in time").isNegative();
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}